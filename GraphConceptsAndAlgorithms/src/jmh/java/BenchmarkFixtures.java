@@ -0,0 +1,175 @@
+import org.graphstream.graph.Graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Workloads for the JMH benchmarks in package "benchmarks".
+ * JMH refuses benchmark classes in the default package and classes in a named package cannot
+ * reference the default package, so the benchmarks look this class up reflectively once per trial
+ * and then only call the returned Runnable / Supplier / IntSupplier inside the measured methods.
+ */
+public class BenchmarkFixtures {
+    private static final long SEED = 42;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Parser and BFS print to the console on every call, which would dominate the measurements.
+     */
+    public static void silenceConsole() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * Streams a graph shape of SyntheticGraphs into a sink.
+     *
+     * @param shape "random" (Erdős–Rényi, average degree 8), "rmat" (power-law, average degree 16),
+     *              "grid" (road-like) or "chain"
+     * @param nodes approximate amount of nodes
+     */
+    static void generate(String shape, int nodes, SyntheticGraphs generator, SyntheticGraphs.EdgeSink sink) {
+        switch (shape) {
+            case "random" -> generator.erdosRenyi(nodes, nodes * 4L, sink);
+            case "rmat" -> {
+                int scale = Math.max(1, 31 - Integer.numberOfLeadingZeros(nodes));
+                generator.rmat(scale, (1L << scale) * 8, 0.57, 0.19, 0.19, sink);
+            }
+            case "grid" -> {
+                int side = Math.max(1, (int) Math.sqrt(nodes));
+                generator.grid(side, side, 0.0, sink);
+            }
+            case "chain" -> generator.chain(nodes, sink);
+            default -> throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+    }
+
+    /**
+     * @return flat array of node names source0, target0, source1, target1, ...
+     */
+    static String[] edges(String shape, int nodes) {
+        ArrayList<String> edges = new ArrayList<>();
+        generate(shape, nodes, new SyntheticGraphs(SEED, false, SyntheticGraphs.Weights.NONE, 0), (s, t, directed, weight) -> {
+            edges.add("v" + s);
+            edges.add("v" + t);
+        });
+        return edges.toArray(new String[0]);
+    }
+
+    /**
+     * Writes weighted .gka files of the given shape into a new temporary directory.
+     *
+     * @return the directory
+     */
+    public static File gkaDirectory(String shape, int nodes, int files) throws IOException {
+        File dir = Files.createTempDirectory("gka-bench").toFile();
+        for (int f = 0; f < files; f++) {
+            try (SyntheticGraphs.GkaWriter writer = SyntheticGraphs.GkaWriter.open(new File(dir, "bench" + f + ".gka").toPath())) {
+                generate(shape, nodes, new SyntheticGraphs(SEED + f, false, SyntheticGraphs.Weights.UNIFORM, 1000), writer);
+            }
+        }
+        return dir;
+    }
+
+    /**
+     * @return a task that parses all .gka files of the directory into a fresh generator
+     */
+    public static Runnable parseDirectory(File dir, boolean memoryMapped, boolean bulkLoading) {
+        return () -> {
+            GraphParser gp = new GraphParser(new GraphGenerator(), dir);
+            gp.setMemoryMapped(memoryMapped);
+            gp.setBulkLoading(bulkLoading);
+            gp.fileParser(gp.checkFiles());
+        };
+    }
+
+    /**
+     * @return a task that builds a graph of the shape through GraphGenerator.updateGraph or BulkGraphLoader
+     * and returns it, so the benchmark can consume the result
+     */
+    public static Supplier<Graph> loadGraph(String shape, int nodes, boolean bulk) {
+        String[] edges = edges(shape, nodes);
+        GraphGenerator gg = new GraphGenerator();
+        return () -> {
+            Graph g = gg.createNewGraph("bench.gka");
+            if (bulk) {
+                BulkGraphLoader loader = new BulkGraphLoader();
+                for (int i = 0; i < edges.length; i += 2) loader.add(edges[i], edges[i + 1], "--", null, i);
+                loader.build(g);
+            } else {
+                for (int i = 0; i < edges.length; i += 2) gg.updateGraph(g, edges[i], edges[i + 1], "--", null, i);
+            }
+            return g;
+        };
+    }
+
+    /**
+     * Returns a BFS query that picks the next of 1024 seeded random (source, target) pairs on every call.
+     *
+     * @param mode "nodes" (object graph), "compact", "workspace", "direction", "parallel" or "bidirectional"
+     * @return supplier running one query and returning the path length
+     */
+    public static IntSupplier bfs(String shape, int nodes, String mode) {
+        SyntheticGraphs.GraphSink sink = new SyntheticGraphs.GraphSink();
+        generate(shape, nodes, new SyntheticGraphs(SEED, false, SyntheticGraphs.Weights.NONE, 0), sink);
+        Graph graph = new GraphGenerator().createNewGraph("bench.gka");
+        sink.build(graph);
+        CompactGraph compact = CompactGraph.of(graph);
+        BfsWorkspace workspace = BfsWorkspace.forGraph(compact);
+
+        Random random = new Random(SEED);
+        String[] sources = new String[1024];
+        String[] targets = new String[1024];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = graph.getNode(random.nextInt(graph.getNodeCount())).getId();
+            targets[i] = graph.getNode(random.nextInt(graph.getNodeCount())).getId();
+        }
+        int[] next = {0};
+        return () -> {
+            int i = next[0]++ & 1023;
+            PathSearch search = switch (mode) {
+                case "nodes" -> {
+                    BreadthFirstSearch bfs = new BreadthFirstSearch(sources[i], targets[i]);
+                    bfs.init(graph);
+                    yield bfs;
+                }
+                case "compact" -> {
+                    BreadthFirstSearch bfs = new BreadthFirstSearch(sources[i], targets[i]);
+                    bfs.init(compact);
+                    yield bfs;
+                }
+                case "workspace" -> {
+                    BreadthFirstSearch bfs = new BreadthFirstSearch(sources[i], targets[i]);
+                    bfs.init(compact, workspace);
+                    yield bfs;
+                }
+                case "direction" -> {
+                    DirectionOptimizingBFS dobfs = new DirectionOptimizingBFS(sources[i], targets[i]);
+                    dobfs.init(compact);
+                    yield dobfs;
+                }
+                case "parallel" -> {
+                    ParallelBreadthFirstSearch parallel = new ParallelBreadthFirstSearch(sources[i], targets[i]);
+                    parallel.init(compact);
+                    yield parallel;
+                }
+                case "bidirectional" -> {
+                    BidirectionalBreadthFirstSearch bidirectional = new BidirectionalBreadthFirstSearch(sources[i], targets[i]);
+                    bidirectional.init(compact);
+                    yield bidirectional;
+                }
+                default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+            };
+            search.compute();
+            return search.getPath().size();
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Reflective access to the default-package BenchmarkFixtures (see there why this is needed).
+ * Only used in @Setup methods, never inside a measured method.
+ */
+final class Fixtures {
+    private Fixtures() {
+    }
+
+    static <T> T get(Class<T> type, String name, Object... args) {
+        try {
+            Class<?> fixtures = Class.forName("BenchmarkFixtures");
+            for (Method method : fixtures.getMethods()) {
+                if (method.getName().equals(name) && method.getParameterCount() == args.length) {
+                    return type.cast(method.invoke(null, args));
+                }
+            }
+            throw new IllegalArgumentException("No fixture " + name);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static void silenceConsole() {
+        get(Object.class, "silenceConsole");
+    }
+}
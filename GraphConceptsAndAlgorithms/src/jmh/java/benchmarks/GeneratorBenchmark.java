@@ -0,0 +1,45 @@
+package benchmarks;
+
+import org.graphstream.graph.Graph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Building a whole graph through GraphGenerator.updateGraph vs. BulkGraphLoader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeneratorBenchmark {
+    @Param({"random", "rmat", "grid", "chain"})
+    public String shape;
+
+    @Param({"1000", "100000"})
+    public int nodes;
+
+    @Param({"false", "true"})
+    public boolean bulk;
+
+    private Supplier<Graph> load;
+
+    //the fixture is looked up reflectively, its declared return type is Supplier<Graph>
+    @SuppressWarnings("unchecked")
+    @Setup(Level.Trial)
+    public void setup() {
+        Fixtures.silenceConsole();
+        load = Fixtures.get(Supplier.class, "loadGraph", shape, nodes, bulk);
+    }
+
+    /**
+     * @return the built graph, returned so JMH consumes it
+     */
+    @Benchmark
+    public Graph updateGraph() {
+        return load.get();
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GraphParser.fileParser over generated .gka files: Scanner/RegEX vs. memory-mapped lexer,
+ * edge-by-edge updateGraph vs. bulk loading.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+    @Param({"random", "grid"})
+    public String shape;
+
+    @Param({"1000", "50000"})
+    public int nodes;
+
+    @Param({"false", "true"})
+    public boolean memoryMapped;
+
+    @Param({"false", "true"})
+    public boolean bulkLoading;
+
+    private Runnable parse;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Fixtures.silenceConsole();
+        File dir = Fixtures.get(File.class, "gkaDirectory", shape, nodes, 1);
+        parse = Fixtures.get(Runnable.class, "parseDirectory", dir, memoryMapped, bulkLoading);
+    }
+
+    @Benchmark
+    public void fileParser() {
+        parse.run();
+    }
+}
@@ -0,0 +1,40 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * One point-to-point query per invocation with seeded random (source, target) pairs,
+ * for BreadthFirstSearch on node objects / compact snapshot / reused workspace and the other BFS engines.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TraversalBenchmark {
+    @Param({"random", "rmat", "grid", "chain"})
+    public String shape;
+
+    @Param({"10000", "200000"})
+    public int nodes;
+
+    @Param({"nodes", "compact", "workspace", "direction", "parallel", "bidirectional"})
+    public String mode;
+
+    private IntSupplier query;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Fixtures.silenceConsole();
+        query = Fixtures.get(IntSupplier.class, "bfs", shape, nodes, mode);
+    }
+
+    @Benchmark
+    public int compute() {
+        return query.getAsInt();
+    }
+}
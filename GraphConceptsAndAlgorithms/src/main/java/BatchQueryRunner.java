@@ -0,0 +1,328 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs many path queries non-interactively.
+ * Every input line holds one query "graph source target" separated by whitespace, where graph is
+ * the position of the graph in the list or the name of its .gka file. Blank lines and lines
+ * starting with '#' are skipped.
+ * <p>
+ * Queries are read in blocks and each block is split across a fixed pool of worker threads. Every
+ * worker keeps its own search workspaces for the whole batch, the snapshots (and hierarchies) of the
+ * graphs are built once on first use and shared. If that fails (e.g. a negative weight for CH), only
+ * the queries on that graph are answered with an error. Results are written in input order, one tab separated line per query:
+ * <pre>  graph  source  target  status  edges  distance  microseconds  path</pre>
+ * status is "found", "unreachable" or "error" (then the message follows instead of the numbers).
+ * For BFS the distance is the amount of edges, for CH the sum of the weights.
+ */
+public class BatchQueryRunner {
+    /**
+     * Search used for every query.
+     */
+    public enum Mode {
+        /** hop distance, BreadthFirstSearch on a shared snapshot */
+        BFS,
+        /** weighted distance, ContractionHierarchySearch (the hierarchy is built once per graph) */
+        CH
+    }
+
+    //queries held in memory at once, bounds memory for arbitrarily long inputs
+    private static final int BLOCK_SIZE = 8192;
+    private static final byte FOUND = 0;
+    private static final byte UNREACHABLE = 1;
+    private static final byte ERROR = 2;
+
+    private final List<Graph> graphs;
+    private final Map<String, Integer> graphsByName = new HashMap<>();
+    private final Mode mode;
+    private final int threads;
+    //filled once per graph by the first query on it, later queries wait for the same task
+    private final Map<Integer, FutureTask<Prepared>> prepared = new ConcurrentHashMap<>();
+    private NodeOrdering.Strategy ordering;
+
+    /**
+     * Read-only structures of one graph shared by all workers.
+     */
+    private record Prepared(CompactGraph compact, ContractionHierarchy hierarchy) {
+    }
+
+    /**
+     * Outcome of a whole batch.
+     */
+    public static final class Summary {
+        private long queries;
+        private long found;
+        private long unreachable;
+        private long errors;
+        private long wallNanos;
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        public long getQueries() {
+            return queries;
+        }
+
+        public long getFound() {
+            return found;
+        }
+
+        public long getUnreachable() {
+            return unreachable;
+        }
+
+        /**
+         * @return amount of malformed queries, queries naming unknown graphs or nodes and queries on graphs that cannot be prepared
+         */
+        public long getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return time of the whole batch including reading and writing
+         */
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        /**
+         * @return latency of the single searches (errors excluded)
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        /**
+         * @return queries per second over the whole batch
+         */
+        public double getThroughput() {
+            return wallNanos == 0 ? 0 : queries * 1e9 / wallNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Queries: %d (found %d, unreachable %d, errors %d)%n"
+                            + "Duration: %.1f ms, throughput: %.0f queries/s%n"
+                            + "Latency: p50 %.1f us, p90 %.1f us, p99 %.1f us, max %.1f us%n",
+                    queries, found, unreachable, errors, wallNanos / 1e6, getThroughput(),
+                    latency.getPercentile(50) / 1e3, latency.getPercentile(90) / 1e3,
+                    latency.getPercentile(99) / 1e3, latency.getMax() / 1e3);
+        }
+    }
+
+    /**
+     * @param graphs  the loaded graphs, queries refer to them by position or source file name
+     * @param mode    the search used for every query
+     * @param threads amount of worker threads
+     */
+    public BatchQueryRunner(List<Graph> graphs, Mode mode, int threads) {
+        if (graphs == null) throw new IllegalArgumentException("Graphs are null");
+        if (mode == null) throw new IllegalArgumentException("Mode is null");
+        if (threads < 1) throw new IllegalArgumentException("At least one thread is needed");
+        this.graphs = List.copyOf(graphs);
+        this.mode = mode;
+        this.threads = threads;
+        for (int i = 0; i < this.graphs.size(); i++) {
+            Object name = this.graphs.get(i).getAttribute("sourceFile");
+            if (name != null) graphsByName.putIfAbsent(name.toString(), i);
+        }
+    }
+
+    /**
+     * Relabels every snapshot with a {@link NodeOrdering} before the first query on it. A batch
+     * asks many queries on the same graph, so the ordering is paid once and every query traverses
+     * neighbors at close indices. Must be set before {@link #run}.
+     *
+     * @param ordering the order to apply or null to keep the graph order
+     */
+    public void setOrdering(NodeOrdering.Strategy ordering) {
+        this.ordering = ordering;
+    }
+
+    /**
+     * Runs all queries of the input and writes one result line per query.
+     *
+     * @param input the queries
+     * @param out   receives the results in input order
+     * @return counts, throughput and latency of the batch
+     * @throws IOException if the input cannot be read
+     */
+    public Summary run(Reader input, PrintStream out) throws IOException {
+        Summary summary = new Summary();
+        long start = System.nanoTime();
+        BufferedReader reader = input instanceof BufferedReader buffered ? buffered : new BufferedReader(input);
+        //workspaces per slice position and graph, slice k of every block runs after slice k of the previous one
+        List<Map<Integer, Object>> workspaces = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) workspaces.add(new HashMap<>());
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<String> block = new ArrayList<>(BLOCK_SIZE);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                block.add(line);
+                if (block.size() == BLOCK_SIZE) {
+                    runBlock(block, executor, workspaces, out, summary);
+                    block.clear();
+                }
+            }
+            if (!block.isEmpty()) runBlock(block, executor, workspaces, out, summary);
+        }
+        out.flush();
+        summary.wallNanos = System.nanoTime() - start;
+        return summary;
+    }
+
+    private void runBlock(List<String> block, ExecutorService executor, List<Map<Integer, Object>> workspaces,
+                          PrintStream out, Summary summary) {
+        String[] results = new String[block.size()];
+        byte[] statuses = new byte[block.size()];
+        long[] latencies = new long[block.size()];
+        int slice = (block.size() + threads - 1) / threads;
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int from = 0, worker = 0; from < block.size(); from += slice, worker++) {
+            final int begin = from;
+            final int end = Math.min(block.size(), from + slice);
+            final Map<Integer, Object> own = workspaces.get(worker);
+            tasks.add(executor.submit(() -> {
+                for (int i = begin; i < end; i++) {
+                    results[i] = answer(block.get(i), own, statuses, latencies, i);
+                }
+            }));
+        }
+        try {
+            for (Future<?> task : tasks) task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+
+        for (int i = 0; i < results.length; i++) {
+            out.println(results[i]);
+            summary.queries++;
+            switch (statuses[i]) {
+                case FOUND -> summary.found++;
+                case UNREACHABLE -> summary.unreachable++;
+                default -> summary.errors++;
+            }
+            if (latencies[i] >= 0) summary.latency.record(latencies[i]);
+        }
+    }
+
+    /**
+     * Runs one query.
+     *
+     * @return the result line
+     */
+    private String answer(String query, Map<Integer, Object> workspaces, byte[] statuses, long[] latencies, int slot) {
+        statuses[slot] = ERROR;
+        latencies[slot] = -1;
+        String[] parts = query.split("\\s+");
+        if (parts.length != 3) return error("", "", "", "Malformed query, expected: graph source target: " + query);
+        String graphRef = parts[0];
+        String source = parts[1];
+        String target = parts[2];
+
+        Integer index = graphsByName.get(graphRef);
+        if (index == null) {
+            try {
+                index = Integer.parseInt(graphRef);
+            } catch (NumberFormatException e) {
+                return error(graphRef, source, target, "Unknown graph");
+            }
+        }
+        if (index < 0 || index >= graphs.size()) return error(graphRef, source, target, "Unknown graph");
+        final int graphIndex = index;
+        Prepared graph;
+        try {
+            graph = prepared(graphIndex);
+        } catch (ExecutionException e) {
+            return error(graphRef, source, target, "Graph cannot be prepared: " + e.getCause().getMessage());
+        }
+        if (graph.compact().indexOf(source) < 0 || graph.compact().indexOf(target) < 0) {
+            return error(graphRef, source, target, "Source or target node are null");
+        }
+
+        PathSearch search;
+        if (mode == Mode.BFS) {
+            BreadthFirstSearch bfs = new BreadthFirstSearch(source, target);
+            bfs.init(graph.compact(), (BfsWorkspace) workspaces.computeIfAbsent(graphIndex,
+                    i -> BfsWorkspace.forGraph(graph.compact())));
+            search = bfs;
+        } else {
+            ContractionHierarchySearch ch = new ContractionHierarchySearch(source, target);
+            ch.init(graph.hierarchy(), (ContractionHierarchySearch.Workspace) workspaces.computeIfAbsent(graphIndex,
+                    i -> new ContractionHierarchySearch.Workspace(graph.compact().getNodeCount())));
+            search = ch;
+        }
+        search.compute();
+        TraversalStats stats = search.getStats();
+        latencies[slot] = stats.getWallNanos();
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(graphRef).append('\t').append(source).append('\t').append(target).append('\t');
+        if (!stats.isFound()) {
+            statuses[slot] = UNREACHABLE;
+            return sb.append("unreachable\t-1\t-1\t").append(stats.getWallNanos() / 1000).append('\t').toString();
+        }
+        statuses[slot] = FOUND;
+        List<Node> path = search.getPath();
+        long distance = search instanceof ContractionHierarchySearch ch ? ch.getDistance() : path.size() - 1;
+        sb.append("found\t").append(path.size() - 1).append('\t').append(distance).append('\t')
+                .append(stats.getWallNanos() / 1000).append('\t');
+        for (int i = 0; i < path.size(); i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(path.get(i).getId());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the shared structures of a graph, building them on the calling thread if no other query did.
+     * The build runs outside of the map, so queries on other graphs are not blocked, and a failed build
+     * is remembered and reported for every query on that graph.
+     */
+    private Prepared prepared(int index) throws ExecutionException {
+        FutureTask<Prepared> task = prepared.get(index);
+        if (task == null) {
+            FutureTask<Prepared> created = new FutureTask<>(() -> prepare(index));
+            task = prepared.putIfAbsent(index, created);
+            if (task == null) {
+                task = created;
+                created.run();
+            }
+        }
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch was interrupted", e);
+        }
+    }
+
+    private Prepared prepare(int index) {
+        CompactGraph compact = CompactGraph.of(graphs.get(index));
+        if (ordering != null) compact = NodeOrdering.apply(compact, ordering);
+        return new Prepared(compact, mode == Mode.CH ? ContractionHierarchy.build(compact) : null);
+    }
+
+    private static String error(String graph, String source, String target, String message) {
+        return graph + '\t' + source + '\t' + target + "\terror\t" + message;
+    }
+}
@@ -0,0 +1,227 @@
+import java.util.Arrays;
+
+/**
+ * Preallocated, reusable state for breadth-first searches on a {@link CompactGraph}.
+ * The queue is an int ring buffer, parents are kept in an int array and visited nodes are
+ * marked with an epoch stamp, so starting a new query only increments the epoch instead of
+ * clearing or allocating anything. Once the workspace is large enough for the graph a query
+ * allocates no memory.
+ * A workspace is not thread-safe, use one per thread.
+ */
+public class BfsWorkspace {
+    private int[] queue;
+    private int mask;
+    private int[] parent;
+    private int[] stamp;
+    private int epoch;
+    //reused as long as queries run on the same compressed graph
+    private CompressedGraph.NeighborCursor cursor;
+
+    /**
+     * @param capacity amount of nodes the workspace is sized for (it grows if needed)
+     */
+    public BfsWorkspace(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative");
+        allocate(capacity);
+    }
+
+    /**
+     * @param graph the snapshot the workspace is used for
+     * @return a workspace sized for the given snapshot
+     */
+    public static BfsWorkspace forGraph(CompactGraph graph) {
+        return new BfsWorkspace(graph.getNodeCount());
+    }
+
+    private void allocate(int capacity) {
+        //ring buffer length is a power of two so the index can be wrapped with a mask
+        int length = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        queue = new int[length];
+        mask = length - 1;
+        parent = new int[capacity];
+        stamp = new int[capacity];
+        epoch = 0;
+    }
+
+    /**
+     * Starts a new query: grows the arrays if the graph has more nodes than before and
+     * invalidates all visited marks of the previous query.
+     *
+     * @param nodeCount amount of nodes of the graph that is searched next
+     */
+    void reset(int nodeCount) {
+        if (nodeCount > stamp.length) allocate(nodeCount);
+        if (++epoch == 0) {
+            //epoch wrapped around, old stamps could be mistaken for current ones
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * Runs a BFS from source until target is dequeued or the component is exhausted.
+     *
+     * @param graph  the snapshot to search
+     * @param source dense index of the source node
+     * @param target dense index of the target node
+     * @return true if the target was reached
+     */
+    public boolean search(CompactGraph graph, int source, int target) {
+        return search(graph, source, target, null);
+    }
+
+    /**
+     * Runs a BFS from source until target is dequeued or the component is exhausted
+     * and records the work done.
+     *
+     * @param graph  the snapshot to search
+     * @param source dense index of the source node
+     * @param target dense index of the target node
+     * @param stats  receives dequeued nodes, scanned edges and level sizes, may be null
+     * @return true if the target was reached
+     */
+    public boolean search(CompactGraph graph, int source, int target, TraversalStats stats) {
+        reset(graph.getNodeCount());
+        final int[] offsets = graph.offsets();
+        final int[] targets = graph.targets();
+        final int[] queue = this.queue;
+        final int[] parent = this.parent;
+        final int[] stamp = this.stamp;
+        final int epoch = this.epoch;
+        final int mask = this.mask;
+
+        int head = 0;
+        int tail = 0;
+        stamp[source] = epoch;
+        parent[source] = source;
+        queue[tail++ & mask] = source;
+        //counters stay in locals, stats is only touched at level borders and at the end
+        int levelEnd = tail;
+        long scanned = 0;
+        if (stats != null) stats.level(1);
+        boolean found = false;
+        while (head != tail) {
+            if (head == levelEnd) {
+                levelEnd = tail;
+                if (stats != null) stats.level(tail - head);
+            }
+            int currentNode = queue[head++ & mask];
+            if (currentNode == target) {
+                found = true;
+                break;
+            }
+            int end = offsets[currentNode + 1];
+            scanned += end - offsets[currentNode];
+            for (int i = offsets[currentNode]; i < end; i++) {
+                int neighbor = targets[i];
+                if (stamp[neighbor] != epoch) {
+                    stamp[neighbor] = epoch;
+                    parent[neighbor] = currentNode;
+                    queue[tail++ & mask] = neighbor;
+                }
+            }
+        }
+        if (stats != null) {
+            stats.dequeued(head);
+            stats.scanned(scanned);
+        }
+        return found;
+    }
+
+    /**
+     * Runs a BFS on a compressed graph, decoding each neighbor list once when its node is dequeued.
+     *
+     * @param graph  the compressed snapshot to search
+     * @param source dense index of the source node
+     * @param target dense index of the target node
+     * @param stats  receives dequeued nodes, scanned edges and level sizes, may be null
+     * @return true if the target was reached
+     */
+    public boolean search(CompressedGraph graph, int source, int target, TraversalStats stats) {
+        reset(graph.getNodeCount());
+        if (cursor == null || cursor.graph() != graph) cursor = graph.cursor();
+        final CompressedGraph.NeighborCursor cursor = this.cursor;
+        final int[] queue = this.queue;
+        final int[] parent = this.parent;
+        final int[] stamp = this.stamp;
+        final int epoch = this.epoch;
+        final int mask = this.mask;
+
+        int head = 0;
+        int tail = 0;
+        stamp[source] = epoch;
+        parent[source] = source;
+        queue[tail++ & mask] = source;
+        int levelEnd = tail;
+        long scanned = 0;
+        if (stats != null) stats.level(1);
+        boolean found = false;
+        while (head != tail) {
+            if (head == levelEnd) {
+                levelEnd = tail;
+                if (stats != null) stats.level(tail - head);
+            }
+            int currentNode = queue[head++ & mask];
+            if (currentNode == target) {
+                found = true;
+                break;
+            }
+            scanned += cursor.reset(currentNode);
+            for (int neighbor = cursor.next(); neighbor >= 0; neighbor = cursor.next()) {
+                if (stamp[neighbor] != epoch) {
+                    stamp[neighbor] = epoch;
+                    parent[neighbor] = currentNode;
+                    queue[tail++ & mask] = neighbor;
+                }
+            }
+        }
+        if (stats != null) {
+            stats.dequeued(head);
+            stats.scanned(scanned);
+        }
+        return found;
+    }
+
+    /**
+     * @param node dense node index
+     * @return true if the node was reached by the last query
+     */
+    public boolean isVisited(int node) {
+        return stamp[node] == epoch;
+    }
+
+    /**
+     * @param node dense node index
+     * @return the predecessor of a visited node (the source is its own parent) or -1 if not visited
+     */
+    public int parent(int node) {
+        return isVisited(node) ? parent[node] : -1;
+    }
+
+    /**
+     * Copies the path of the last query from the source to the given node into an array,
+     * without allocating.
+     *
+     * @param target a node visited by the last query
+     * @param out    array receiving the dense indices (source first), must be large enough
+     * @return length of the path in nodes, 0 if the node was not visited
+     */
+    public int copyPath(int target, int[] out) {
+        if (!isVisited(target)) return 0;
+        int length = 1;
+        for (int current = target; parent[current] != current; current = parent[current]) length++;
+        int current = target;
+        for (int i = length - 1; i >= 0; i--) {
+            out[i] = current;
+            current = parent[current];
+        }
+        return length;
+    }
+
+    /**
+     * Raw parent array of the last query. Entries are only valid for visited nodes.
+     */
+    int[] parents() {
+        return parent;
+    }
+}
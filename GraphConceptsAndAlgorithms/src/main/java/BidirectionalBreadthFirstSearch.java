@@ -0,0 +1,166 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * Bidirectional breadth-first search for point-to-point queries.
+ * A forward search follows outgoing arcs from the source, a backward search follows incoming arcs
+ * from the target. The side with the cheaper frontier is expanded one full level at a time until
+ * both searches meet; the two halves are then spliced into one shortest path.
+ */
+public class BidirectionalBreadthFirstSearch extends PathSearch {
+    private CompactGraph compact;
+    private int visitedNodes;
+
+    public BidirectionalBreadthFirstSearch(String sourceNodeID, String targetNodeID) {
+        super(sourceNodeID, targetNodeID);
+    }
+
+    @Override
+    public void init(Graph graph) {
+        init(CompactGraph.of(graph));
+    }
+
+    /**
+     * Initialize the algorithm with an existing compact snapshot.
+     * @param compact the snapshot on which the search will run
+     */
+    public void init(CompactGraph compact) {
+        if(compact == null) throw new IllegalArgumentException("Graph is null");
+        super.init(compact.getGraph());
+        this.compact = compact;
+    }
+
+    @Override
+    protected long snapshotRemovals() {
+        return compact.connectivityRemovals();
+    }
+
+    @Override
+    protected boolean contains(String nodeID) {
+        return compact.indexOf(nodeID) >= 0;
+    }
+
+    /**
+     * Executes the bidirectional search.
+     *
+     * @throws IllegalStateException if the source or target node does not exist in graph.
+     */
+    @Override
+    protected boolean search(TraversalStats stats) {
+        final int source = compact.indexOf(sourceNodeID);
+        final int target = compact.indexOf(targetNodeID);
+        if(source < 0 || target < 0) {
+            throw new IllegalStateException("Source or target node are null");
+        }
+
+        final int n = compact.getNodeCount();
+        final CompactGraph reverse = compact.transpose();
+        //parentForward[v]: predecessor of v towards the source, parentBackward[v]: successor of v towards the target
+        int[] parentForward = new int[n];
+        int[] parentBackward = new int[n];
+        int[] distForward = new int[n];
+        int[] distBackward = new int[n];
+        Arrays.fill(parentForward, -1);
+        Arrays.fill(parentBackward, -1);
+        int[] queueForward = new int[n];
+        int[] queueBackward = new int[n];
+
+        parentForward[source] = source;
+        parentBackward[target] = target;
+        queueForward[0] = source;
+        queueBackward[0] = target;
+        //[head, tail) of the current level in each queue
+        int headForward = 0, tailForward = 1;
+        int headBackward = 0, tailBackward = 1;
+        visitedNodes = source == target ? 1 : 2;
+
+        int meet = source == target ? source : -1;
+        int best = meet < 0 ? Integer.MAX_VALUE : 0;
+
+        while (meet < 0 && headForward < tailForward && headBackward < tailBackward) {
+            //expand the side whose current level has fewer arcs to scan
+            long arcsForward = levelArcs(compact, queueForward, headForward, tailForward);
+            long arcsBackward = levelArcs(reverse, queueBackward, headBackward, tailBackward);
+            boolean forward = arcsForward <= arcsBackward;
+            CompactGraph side = forward ? compact : reverse;
+            int[] queue = forward ? queueForward : queueBackward;
+            int[] parent = forward ? parentForward : parentBackward;
+            int[] dist = forward ? distForward : distBackward;
+            int[] otherParent = forward ? parentBackward : parentForward;
+            int[] otherDist = forward ? distBackward : distForward;
+            int head = forward ? headForward : headBackward;
+            int tail = forward ? tailForward : tailBackward;
+
+            final int[] offsets = side.offsets();
+            final int[] targets = side.targets();
+            final int levelEnd = tail;
+            //levels of both sides are recorded in the order they are expanded
+            stats.level(levelEnd - head);
+            stats.dequeued(levelEnd - head);
+            stats.scanned(forward ? arcsForward : arcsBackward);
+            for (; head < levelEnd; head++) {
+                int u = queue[head];
+                for (int i = offsets[u], end = offsets[u + 1]; i < end; i++) {
+                    int v = targets[i];
+                    if (parent[v] >= 0) continue;
+                    parent[v] = u;
+                    dist[v] = dist[u] + 1;
+                    queue[tail++] = v;
+                    visitedNodes++;
+                    //the level is finished before stopping, a later node of it may close a shorter path
+                    if (otherParent[v] >= 0 && dist[v] + otherDist[v] < best) {
+                        best = dist[v] + otherDist[v];
+                        meet = v;
+                    }
+                }
+            }
+
+            if (forward) {
+                headForward = head;
+                tailForward = tail;
+            } else {
+                headBackward = head;
+                tailBackward = tail;
+            }
+        }
+
+        if (meet < 0) return false;
+        this.path = splice(parentForward, parentBackward, meet);
+        return true;
+    }
+
+    private static long levelArcs(CompactGraph side, int[] queue, int head, int tail) {
+        long arcs = 0;
+        for (int i = head; i < tail; i++) arcs += side.degree(queue[i]);
+        return arcs;
+    }
+
+    /**
+     * Joins the forward half (source ... meet) with the backward half (meet ... target).
+     */
+    private LinkedList<Node> splice(int[] parentForward, int[] parentBackward, int meet) {
+        LinkedList<Node> result = new LinkedList<>();
+        int current = meet;
+        while (parentForward[current] != current) {
+            result.addFirst(compact.node(current));
+            current = parentForward[current];
+        }
+        result.addFirst(compact.node(current));
+        current = meet;
+        while (parentBackward[current] != current) {
+            current = parentBackward[current];
+            result.addLast(compact.node(current));
+        }
+        return result;
+    }
+
+    /**
+     * @return amount of nodes reached by both searches together during the last computation
+     */
+    public int getVisitedNodes() {
+        return visitedNodes;
+    }
+}
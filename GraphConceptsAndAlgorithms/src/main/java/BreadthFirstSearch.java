@@ -1,20 +1,16 @@
-import org.graphstream.algorithm.Algorithm;
 import org.graphstream.graph.Edge;
 import org.graphstream.graph.Graph;
 import org.graphstream.graph.Node;
 
 import java.util.*;
 
-public class BreadthFirstSearch implements Algorithm {
-    private final String sourceNodeID;
-    private final String targetNodeID;
-    private Graph graph;
-    private List<Node> path;
+public class BreadthFirstSearch extends PathSearch {
+    private CompactGraph compact;
+    private CompressedGraph compressed;
+    private BfsWorkspace workspace;
 
     public BreadthFirstSearch(String sourceNodeID, String targetNodeID) {
-        this.sourceNodeID = sourceNodeID;
-        this.targetNodeID = targetNodeID;
-        path = new LinkedList<>();
+        super(sourceNodeID, targetNodeID);
     }
 
     /**
@@ -24,8 +20,62 @@ public class BreadthFirstSearch implements Algorithm {
      */
     @Override
     public void init(Graph graph) {
-        if(graph == null) throw new IllegalArgumentException("Graph is null");
-        this.graph = graph;
+        super.init(graph);
+        this.compact = null;
+        this.compressed = null;
+        this.workspace = null;
+    }
+
+    /**
+     * Initialize the algorithm with a compact snapshot of a graph.
+     * The search then runs on the flat adjacency arrays instead of the node objects.
+     * @param compact the snapshot on which the BFS will run
+     */
+    public void init(CompactGraph compact) {
+        if(compact == null) throw new IllegalArgumentException("Graph is null");
+        init(compact, BfsWorkspace.forGraph(compact));
+    }
+
+    /**
+     * Initialize the algorithm with a compact snapshot and a workspace that is reused across queries.
+     * Sharing one workspace between many searches avoids allocating queue, parent and visited state per query.
+     * @param compact the snapshot on which the BFS will run
+     * @param workspace the reusable search state (not thread-safe)
+     */
+    public void init(CompactGraph compact, BfsWorkspace workspace) {
+        if(compact == null) throw new IllegalArgumentException("Graph is null");
+        if(workspace == null) throw new IllegalArgumentException("Workspace is null");
+        this.graph = compact.getGraph();
+        this.compact = compact;
+        this.compressed = null;
+        this.workspace = workspace;
+    }
+
+    /**
+     * Initialize the algorithm with a compressed snapshot and a workspace that is reused across queries.
+     * Neighbor lists are decoded while searching, the result is the same as on the uncompressed snapshot.
+     * @param compressed the compressed snapshot on which the BFS will run
+     * @param workspace the reusable search state (not thread-safe)
+     */
+    public void init(CompressedGraph compressed, BfsWorkspace workspace) {
+        if(compressed == null) throw new IllegalArgumentException("Graph is null");
+        if(workspace == null) throw new IllegalArgumentException("Workspace is null");
+        this.graph = compressed.getGraph();
+        this.compact = null;
+        this.compressed = compressed;
+        this.workspace = workspace;
+    }
+
+    @Override
+    protected long snapshotRemovals() {
+        return compressed != null ? compressed.connectivityRemovals()
+                : compact != null ? compact.connectivityRemovals() : ConnectivityIndex.LIVE_GRAPH;
+    }
+
+    @Override
+    protected boolean contains(String nodeID) {
+        return compressed != null ? compressed.indexOf(nodeID) >= 0
+                : compact != null ? compact.indexOf(nodeID) >= 0 : super.contains(nodeID);
     }
 
     /**
@@ -35,14 +85,16 @@ public class BreadthFirstSearch implements Algorithm {
      * @throws IllegalStateException if the source or target node does not exist in graph.
      */
     @Override
-    public void compute() {
-        // To calculate duration
-        long startTime = System.nanoTime();
-
-        // To calculate
-        Runtime runtime = Runtime.getRuntime();
-        long beforeUsed = runtime.totalMemory() - runtime.freeMemory();
+    protected boolean search(TraversalStats stats) {
+        if (compressed != null) return searchCompressed(stats);
+        return compact == null ? searchNodes(stats) : searchCompact(stats);
+    }
 
+    /**
+     * BFS over the GraphStream node objects.
+     * @return true if the target was reached
+     */
+    private boolean searchNodes(TraversalStats stats) {
         final Node source = graph.getNode(sourceNodeID);
         final Node target = graph.getNode(targetNodeID);
 
@@ -56,30 +108,26 @@ public class BreadthFirstSearch implements Algorithm {
 
         visitedNodes.add(source);
         queue.add(source);
+        stats.level(1);
+        //nodes of the current level that are still in the queue
+        int levelRemaining = 1;
         while(! (queue.isEmpty())) {
             //extracting node from queue
             Node currentNode = queue.poll();
+            stats.dequeued(1);
 
             //When the current node equals the target node, the bfs algorithm is finished.
-            //The path is built and performance measurements are printed
             if (currentNode.equals(target)) {
                 //variable that stores the nodes that are part of thg shortest path
                 this.path = buildPath(parent, target);
-
-                long endTime = System.nanoTime();
-                double durationMs = (endTime - startTime) / 1_000_000.0;
-
-                long afterUsed = runtime.totalMemory() - runtime.freeMemory();
-                double usedMb = (afterUsed - beforeUsed) / (1024.0 * 1024.0);
-
-                System.out.println("\nDuration (BFS): " + durationMs + " Seconds.");
-                System.out.println("Memory used: " + usedMb + " MB.");
-                return;
+                return true;
             }
 
             //This for-Loop iterates over a list that stores the neighbor node's.
             //Every node has its own neighbor node
-            for (Node neighbor : neighbors(currentNode)) {
+            List<Node> neighbors = neighbors(currentNode);
+            stats.scanned(neighbors.size());
+            for (Node neighbor : neighbors) {
                 //checking if the neighbor nodes are already in the set of elements that have
                 //been visited. If not then we add the neighbor to the visited nodes and map the neighbor node
                 //to the current Node.
@@ -90,7 +138,52 @@ public class BreadthFirstSearch implements Algorithm {
                 }
             }
 
+            //the queue now holds exactly the next level
+            if (--levelRemaining == 0 && !queue.isEmpty()) {
+                levelRemaining = queue.size();
+                stats.level(levelRemaining);
+            }
         }
+        return false;
+    }
+
+    /**
+     * BFS over the flat adjacency arrays of the compact snapshot, using the preallocated workspace.
+     * @return true if the target was reached
+     */
+    private boolean searchCompact(TraversalStats stats) {
+        final int source = compact.indexOf(sourceNodeID);
+        final int target = compact.indexOf(targetNodeID);
+
+        if(source < 0 || target < 0) {
+            throw new IllegalStateException("Source or target node are null");
+        }
+
+        if (!workspace.search(compact, source, target, stats)) return false;
+        this.path = buildPath(compact, workspace.parents(), target);
+        return true;
+    }
+
+    /**
+     * BFS over the compressed neighbor lists, using the preallocated workspace.
+     * @return true if the target was reached
+     */
+    private boolean searchCompressed(TraversalStats stats) {
+        final int source = compressed.indexOf(sourceNodeID);
+        final int target = compressed.indexOf(targetNodeID);
+
+        if(source < 0 || target < 0) {
+            throw new IllegalStateException("Source or target node are null");
+        }
+
+        if (!workspace.search(compressed, source, target, stats)) return false;
+        LinkedList<Node> result = new LinkedList<>();
+        for (int current = target; ; current = workspace.parent(current)) {
+            result.addFirst(compressed.node(current));
+            if (current == source) break;
+        }
+        this.path = result;
+        return true;
     }
 
     /**
@@ -136,26 +229,4 @@ public class BreadthFirstSearch implements Algorithm {
         }
         return neighbors.size() < 2 ? neighbors: neighbors.stream().distinct().toList(); //remove duplicates (multigraphs)
     }
-
-    /**
-     * @return String of the shortest path.
-     */
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        for(Node n : path) {
-            sb.append("-").append(n.getId()).append("-");
-        }
-        int edgeAmount = path.size() - 1;
-        return "\nShortest path: Source <-" + sb + "-> Target\nAmount of Edges: " + edgeAmount;
-    }
-
-    /**
-     * Returns the path found by the BFS algorithm (source -> target)
-     * @return an unmodifiable list of nodes forming the path
-     */
-    public List<Node> getPath() {
-        //For the Test class
-        return path == null ? Collections.emptyList() : Collections.unmodifiableList(path);
-    }
-
 }
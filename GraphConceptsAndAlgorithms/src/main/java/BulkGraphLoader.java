@@ -0,0 +1,137 @@
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.util.Arrays;
+
+/**
+ * Collects parsed edges in primitive buffers and builds the graph in one pass afterwards.
+ * Node names are mapped to dense ids by a {@link NodeDictionary} and duplicate edges are detected
+ * with a {@link LongHashSet} of packed (node, node, direction) keys, so loading is linear in the
+ * amount of edges instead of scanning the graph for every edge like GraphGenerator.updateGraph.
+ * The resulting graph is the same as the one built by calling updateGraph for every edge:
+ * same node and edge order, IDs, "ui.label", "weight" and "label" attributes and duplicate rules.
+ */
+public class BulkGraphLoader implements GkaLexer.EdgeHandler {
+    private final NodeDictionary nodes = new NodeDictionary();
+    private final LongHashSet edgeKeys = new LongHashSet();
+    private int[] sources = new int[16];
+    private int[] targets = new int[16];
+    private boolean[] directed = new boolean[16];
+    private int[] weights = new int[16];
+    private boolean[] weighted = new boolean[16];
+    //labels are rare, the array is only allocated once the first label shows up
+    private String[] labels;
+    private int edgeCount;
+    private int duplicateCount;
+
+    @Override
+    public void edge(String source, String directed, String target, String edgeLabel, Integer edgeWeight) {
+        add(source, target, directed, edgeLabel, edgeWeight);
+    }
+
+    /**
+     * Buffers an edge. Same parameters as GraphGenerator.updateGraph.
+     *
+     * @param source     is the source node.
+     * @param target     is the target node.
+     * @param direction  "->" for directed edges, everything else is undirected.
+     * @param edgeLabel  nullable label.
+     * @param edgeWeight nullable weight.
+     * @return false if the edge is a duplicate and was skipped
+     */
+    public boolean add(String source, String target, String direction, String edgeLabel, Integer edgeWeight) {
+        int s = nodes.add(source);
+        int t = nodes.add(target);
+        boolean isDirected = direction.equals("->");
+
+        //"A->B" and "B->A" count as duplicates just like in GraphGenerator.generateEdge
+        long low = Math.min(s, t);
+        long high = Math.max(s, t);
+        if (!edgeKeys.add(low << 32 | high << 1 | (isDirected ? 1 : 0))) {
+            duplicateCount++;
+            return false;
+        }
+
+        if (edgeCount == sources.length) grow();
+        sources[edgeCount] = s;
+        targets[edgeCount] = t;
+        directed[edgeCount] = isDirected;
+        if (edgeWeight != null) {
+            weights[edgeCount] = edgeWeight;
+            weighted[edgeCount] = true;
+        }
+        if (edgeLabel != null) {
+            if (labels == null) labels = new String[sources.length];
+            labels[edgeCount] = edgeLabel;
+        }
+        edgeCount++;
+        return true;
+    }
+
+    private void grow() {
+        int capacity = sources.length * 2;
+        sources = Arrays.copyOf(sources, capacity);
+        targets = Arrays.copyOf(targets, capacity);
+        directed = Arrays.copyOf(directed, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        weighted = Arrays.copyOf(weighted, capacity);
+        if (labels != null) labels = Arrays.copyOf(labels, capacity);
+    }
+
+    /**
+     * Adds all buffered nodes and edges to the graph in one pass.
+     * Nodes or edges that already exist in the graph are kept and not added twice.
+     *
+     * @param g the graph to fill
+     */
+    public void build(Graph g) {
+        //lookups are only needed if the graph already has content
+        final boolean merge = g.getNodeCount() > 0;
+
+        Node[] created = new Node[nodes.size()];
+        for (int id = 0; id < created.length; id++) {
+            String name = nodes.name(id);
+            Node node = merge ? g.getNode(name) : null;
+            if (node == null) {
+                node = g.addNode(name);
+                node.setAttribute("ui.label", name);
+            }
+            created[id] = node;
+        }
+
+        for (int i = 0; i < edgeCount; i++) {
+            String direction = directed[i] ? "->" : "--";
+            String source = nodes.name(sources[i]);
+            String target = nodes.name(targets[i]);
+            String name = source + direction + target;
+            if (merge && (g.getEdge(name) != null || g.getEdge(target + direction + source) != null)) continue;
+
+            Edge currentEdge = g.addEdge(name, created[sources[i]], created[targets[i]], directed[i]);
+            currentEdge.setAttribute("ui.label", name);
+            if (weighted[i]) currentEdge.setAttribute("weight", weights[i]);
+            if (labels != null && labels[i] != null) currentEdge.setAttribute("label", labels[i]);
+        }
+    }
+
+    /**
+     * @return amount of distinct nodes buffered so far
+     */
+    public int getNodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * @return amount of edges buffered so far (without duplicates)
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @return amount of duplicate edges that were skipped
+     */
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+}
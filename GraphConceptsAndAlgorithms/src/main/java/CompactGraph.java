@@ -0,0 +1,327 @@
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.util.Arrays;
+
+/**
+ * A read-only compressed-sparse-row (CSR) snapshot of a GraphStream graph.
+ * Nodes are addressed by dense int indices. The neighbors of node v are stored in
+ * targets[offsets[v]] ... targets[offsets[v + 1] - 1], with edge direction already applied
+ * (directed edges are only stored at their source, undirected edges at both ends).
+ * weights[i] holds the "weight" attribute of the edge behind targets[i] (1 if it has none).
+ * Later changes to the graph are not reflected, a new snapshot has to be built.
+ * <p>
+ * Dense indices start out as the node indices of the graph (insertion order). A snapshot can be
+ * relabeled with {@link #reorder} (see {@link NodeOrdering}) so that neighbors get close indices;
+ * {@link #node}, {@link #indexOf}, {@link #originalIndex} and {@link #reorderedIndex} translate
+ * between both numberings, so paths built from a reordered snapshot name the original nodes.
+ */
+public class CompactGraph {
+    private final Graph graph;
+    private final Node[] nodes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    //dense index of every graph node index, null while the snapshot is in graph order
+    private final int[] rank;
+    //removals the connectivity index had seen when the graph was copied
+    private final long connectivityRemovals;
+    private volatile CompactGraph transpose;
+
+    private CompactGraph(Graph graph, Node[] nodes, int[] offsets, int[] targets, int[] weights, int[] rank,
+                         long connectivityRemovals) {
+        this.graph = graph;
+        this.connectivityRemovals = connectivityRemovals;
+        this.nodes = nodes;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.rank = rank;
+    }
+
+    /**
+     * Builds a snapshot of the given graph. Neighbors keep the edge order of the graph
+     * and duplicates (multigraphs) are removed, so traversals see the same neighbors as
+     * BreadthFirstSearch.neighbors() in the same order. Of several parallel edges the
+     * smallest weight is kept.
+     *
+     * @param graph the graph to copy
+     * @return the compact snapshot
+     */
+    public static CompactGraph of(Graph graph) {
+        if (graph == null) throw new IllegalArgumentException("Graph is null");
+        final long removals = ConnectivityIndex.removalsOf(graph);
+        final int n = graph.getNodeCount();
+        Node[] nodes = new Node[n];
+        int[] offsets = new int[n + 1];
+
+        //every edge is seen at most twice (once from each end)
+        long capacity = 0;
+        for (int i = 0; i < n; i++) {
+            nodes[i] = graph.getNode(i);
+            capacity += nodes[i].getDegree();
+        }
+        if (capacity > Integer.MAX_VALUE - 8) throw new IllegalStateException("Graph is too large for a compact snapshot");
+        int[] targets = new int[(int) capacity];
+        int[] weights = new int[(int) capacity];
+
+        //stamp of the node that last added a neighbor, used to drop duplicates (multigraphs)
+        int[] seenBy = new int[n];
+        Arrays.fill(seenBy, -1);
+        //position of that neighbor in targets, to keep the lighter of two parallel edges
+        int[] slot = new int[n];
+
+        int size = 0;
+        for (int v = 0; v < n; v++) {
+            offsets[v] = size;
+            Node currentNode = nodes[v];
+            for (int i = 0; i < currentNode.getDegree(); i++) {
+                Edge currentEdge = currentNode.getEdge(i);
+                Node neighbor;
+                if (currentEdge.isDirected()) {
+                    // Only consider outgoing edges
+                    if (currentEdge.getSourceNode() != currentNode) continue;
+                    neighbor = currentEdge.getTargetNode();
+                } else {
+                    neighbor = currentEdge.getOpposite(currentNode);
+                }
+                int w = neighbor.getIndex();
+                int weight = weightOf(currentEdge);
+                if (seenBy[w] != v) {
+                    seenBy[w] = v;
+                    slot[w] = size;
+                    weights[size] = weight;
+                    targets[size++] = w;
+                } else if (weight < weights[slot[w]]) {
+                    weights[slot[w]] = weight;
+                }
+            }
+        }
+        offsets[n] = size;
+        if (size < targets.length) {
+            targets = Arrays.copyOf(targets, size);
+            weights = Arrays.copyOf(weights, size);
+        }
+        return new CompactGraph(graph, nodes, offsets, targets, weights, null, removals);
+    }
+
+    /**
+     * Relabels the nodes: node order[i] of this snapshot becomes node i of the new one.
+     * Neighbor lists are sorted by their new indices, so a traversal touches the target
+     * and weight arrays as sequentially as the order allows.
+     *
+     * @param order a permutation of 0 ... getNodeCount() - 1 (new index -> index in this snapshot)
+     * @return the relabeled snapshot of the same graph
+     */
+    public CompactGraph reorder(int[] order) {
+        final int n = nodes.length;
+        if (order == null || order.length != n) throw new IllegalArgumentException("Order must contain every node once");
+        int[] newIndex = new int[n];
+        Arrays.fill(newIndex, -1);
+        for (int i = 0; i < n; i++) {
+            if (order[i] < 0 || order[i] >= n || newIndex[order[i]] >= 0) {
+                throw new IllegalArgumentException("Order must contain every node once");
+            }
+            newIndex[order[i]] = i;
+        }
+
+        Node[] reorderedNodes = new Node[n];
+        int[] reorderedOffsets = new int[n + 1];
+        int[] reorderedTargets = new int[targets.length];
+        int[] reorderedWeights = new int[targets.length];
+        long[] packed = new long[16];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            int v = order[i];
+            reorderedNodes[i] = nodes[v];
+            reorderedOffsets[i] = size;
+            int degree = offsets[v + 1] - offsets[v];
+            if (packed.length < degree) packed = new long[Math.max(degree, packed.length * 2)];
+            //new target in the high half keeps the weights attached while sorting
+            for (int k = 0; k < degree; k++) {
+                int arc = offsets[v] + k;
+                packed[k] = (long) newIndex[targets[arc]] << 32 | (weights[arc] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(packed, 0, degree);
+            for (int k = 0; k < degree; k++) {
+                reorderedTargets[size] = (int) (packed[k] >>> 32);
+                reorderedWeights[size++] = (int) packed[k];
+            }
+        }
+        reorderedOffsets[n] = size;
+
+        //graph index -> new index, composed with the current relabeling
+        int[] reorderedRank = new int[n];
+        for (int i = 0; i < n; i++) reorderedRank[originalIndex(order[i])] = i;
+        return new CompactGraph(graph, reorderedNodes, reorderedOffsets, reorderedTargets, reorderedWeights, reorderedRank,
+                connectivityRemovals);
+    }
+
+    private static int weightOf(Edge edge) {
+        //edges without a weight count as one step, like in a BFS
+        return edge.getAttribute("weight") instanceof Number number ? number.intValue() : 1;
+    }
+
+    /**
+     * @return the graph this snapshot was built from
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return {@link ConnectivityIndex#removalsOf} of the graph at the time it was copied
+     */
+    long connectivityRemovals() {
+        return connectivityRemovals;
+    }
+
+    /**
+     * @return amount of nodes in the snapshot
+     */
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    /**
+     * @return amount of stored (directed) adjacencies, undirected edges count twice
+     */
+    public int getArcCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the dense index of a node id.
+     *
+     * @param nodeID the id of the node
+     * @return the index or -1 if the node is not part of the snapshot
+     */
+    public int indexOf(String nodeID) {
+        Node node = graph.getNode(nodeID);
+        if (node == null || node.getIndex() >= nodes.length) return -1;
+        int index = reorderedIndex(node.getIndex());
+        //the graph may have changed since the snapshot was taken
+        return nodes[index] == node ? index : -1;
+    }
+
+    /**
+     * @param index dense node index of this snapshot
+     * @return the index of the node in the graph (insertion order) at the time of the snapshot
+     */
+    public int originalIndex(int index) {
+        return rank == null ? index : nodes[index].getIndex();
+    }
+
+    /**
+     * @param originalIndex index of the node in the graph at the time of the snapshot
+     * @return the dense index of the node in this snapshot
+     */
+    public int reorderedIndex(int originalIndex) {
+        return rank == null ? originalIndex : rank[originalIndex];
+    }
+
+    /**
+     * Graph index -> dense index table of a reordered snapshot, shared and must not be modified.
+     *
+     * @return the table or null if the snapshot is in graph order
+     */
+    int[] ranks() {
+        return rank;
+    }
+
+    /**
+     * @return true if the snapshot was relabeled and dense indices differ from the graph's node indices
+     */
+    public boolean isReordered() {
+        return rank != null;
+    }
+
+    /**
+     * Identifies the numbering of the snapshot, e.g. for index files that store dense indices.
+     *
+     * @return 0 for graph order, a non-zero hash of the permutation otherwise
+     */
+    public int orderHash() {
+        if (rank == null) return 0;
+        int hash = Arrays.hashCode(rank);
+        return hash == 0 ? 1 : hash;
+    }
+
+    /**
+     * @param index dense node index
+     * @return the GraphStream node belonging to the index
+     */
+    public Node node(int index) {
+        return nodes[index];
+    }
+
+    /**
+     * Offsets into {@link #targets()}, node v owns the range [offsets[v], offsets[v + 1]).
+     * The array is shared and must not be modified.
+     *
+     * @return the offset array with getNodeCount() + 1 entries
+     */
+    public int[] offsets() {
+        return offsets;
+    }
+
+    /**
+     * The concatenated neighbor lists of all nodes. The array is shared and must not be modified.
+     *
+     * @return the target array
+     */
+    public int[] targets() {
+        return targets;
+    }
+
+    /**
+     * The weights of the arcs, parallel to {@link #targets()}. The array is shared and must not be modified.
+     *
+     * @return the weight array
+     */
+    public int[] weights() {
+        return weights;
+    }
+
+    /**
+     * @param index dense node index
+     * @return amount of (outgoing) neighbors of the node
+     */
+    public int degree(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Returns the snapshot with every arc reversed, so its neighbor lists hold the incoming
+     * neighbors (predecessors) of each node. Undirected edges stay in both directions.
+     * The transpose is built on first use and then cached.
+     *
+     * @return the reversed snapshot, sharing nodes and graph with this one
+     */
+    public CompactGraph transpose() {
+        CompactGraph result = transpose;
+        if (result == null) {
+            final int n = nodes.length;
+            int[] inOffsets = new int[n + 1];
+            for (int target : targets) inOffsets[target + 1]++;
+            for (int v = 0; v < n; v++) inOffsets[v + 1] += inOffsets[v];
+
+            //counting sort by target keeps the sources of every list in ascending order
+            int[] fill = Arrays.copyOf(inOffsets, n);
+            int[] sources = new int[targets.length];
+            int[] inWeights = new int[targets.length];
+            for (int v = 0; v < n; v++) {
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int position = fill[targets[i]]++;
+                    sources[position] = v;
+                    inWeights[position] = weights[i];
+                }
+            }
+            result = new CompactGraph(graph, nodes, inOffsets, sources, inWeights, rank, connectivityRemovals);
+            result.transpose = this;
+            transpose = result;
+        }
+        return result;
+    }
+}
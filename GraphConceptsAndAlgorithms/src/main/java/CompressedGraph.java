@@ -0,0 +1,469 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.util.Arrays;
+
+/**
+ * An immutable, compressed version of a {@link CompactGraph} in the style of WebGraph.
+ * Every neighbor list is sorted and stored in one byte array with variable-length integers
+ * (7 bits per byte, the high bit marks a following byte):
+ * <pre>
+ *   degree
+ *   reference         0, or r &gt; 0: the list of node v - r is used as reference
+ *   copy blocks       if referenced: block count, then alternating lengths of copied and skipped runs
+ *                     of the reference list, starting with copied; the last run is implicit
+ *                     (copied if the block count is even, skipped if it is odd)
+ *   extra neighbors   the neighbors not copied, ascending: first as zig-zag gap to v, then gap - 1
+ *   weights           only if the graph has weights other than 1: zig-zag weight per neighbor, in list order
+ * </pre>
+ * Neighboring nodes of real graphs (crawl order, BFS order, generated grids) tend to have similar
+ * lists, so copying from one of the previous {@code window} nodes and small gaps make most
+ * arcs cost one or two bytes instead of eight (target and weight in CompactGraph).
+ * Reference chains are limited to {@code maxChain} so decoding a list stays cheap.
+ * <p>
+ * Lists are read with a {@link NeighborCursor}. Nodes keep the dense indices of the snapshot the
+ * graph was compressed from, so results can be compared with searches on the snapshot.
+ * Gaps are smallest when neighbors have close indices, compressing a snapshot reordered by
+ * {@link NodeOrdering} usually saves more.
+ */
+public class CompressedGraph {
+    /** how many previous nodes are tried as reference */
+    public static final int DEFAULT_WINDOW = 7;
+    /** longest allowed chain of references */
+    public static final int DEFAULT_MAX_CHAIN = 3;
+
+    private final Graph graph;
+    private final Node[] nodes;
+    //graph index -> dense index if the snapshot was reordered, otherwise null
+    private final int[] rank;
+    private final int[] offsets;
+    private final byte[] data;
+    private final long arcCount;
+    private final boolean weighted;
+    private final int maxDegree;
+    private final int maxChain;
+    //taken over from the compressed snapshot
+    private final long connectivityRemovals;
+
+    private CompressedGraph(Graph graph, Node[] nodes, int[] rank, int[] offsets, byte[] data, long arcCount,
+                            boolean weighted, int maxDegree, int maxChain, long connectivityRemovals) {
+        this.graph = graph;
+        this.connectivityRemovals = connectivityRemovals;
+        this.nodes = nodes;
+        this.rank = rank;
+        this.offsets = offsets;
+        this.data = data;
+        this.arcCount = arcCount;
+        this.weighted = weighted;
+        this.maxDegree = maxDegree;
+        this.maxChain = maxChain;
+    }
+
+    /**
+     * Compresses a snapshot with {@link #DEFAULT_WINDOW} and {@link #DEFAULT_MAX_CHAIN}.
+     *
+     * @param compact the snapshot
+     * @return the compressed graph
+     */
+    public static CompressedGraph of(CompactGraph compact) {
+        return of(compact, DEFAULT_WINDOW, DEFAULT_MAX_CHAIN);
+    }
+
+    /**
+     * Compresses a snapshot.
+     *
+     * @param compact  the snapshot
+     * @param window   amount of previous nodes tried as reference, 0 disables reference copying
+     * @param maxChain longest allowed chain of references
+     * @return the compressed graph
+     */
+    public static CompressedGraph of(CompactGraph compact, int window, int maxChain) {
+        if (compact == null) throw new IllegalArgumentException("Graph is null");
+        if (window < 0 || maxChain < 0) throw new IllegalArgumentException("Window and chain length must not be negative");
+        final int n = compact.getNodeCount();
+        final int[] compactOffsets = compact.offsets();
+        final int[] compactTargets = compact.targets();
+        final int[] compactWeights = compact.weights();
+        boolean weighted = false;
+        for (int weight : compactWeights) {
+            if (weight != 1) {
+                weighted = true;
+                break;
+            }
+        }
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) maxDegree = Math.max(maxDegree, compact.degree(v));
+
+        //sorted lists (and their weights) of the last window + 1 nodes
+        final int slots = window + 1;
+        int[][] lists = new int[slots][maxDegree];
+        int[][] listWeights = new int[slots][maxDegree];
+        int[] lengths = new int[slots];
+        int[] chain = new int[n];
+        long[] packed = new long[maxDegree];
+        ByteWriter out = new ByteWriter(Math.max(16, compact.getArcCount() * 2));
+        ByteWriter best = new ByteWriter(16);
+        ByteWriter candidate = new ByteWriter(16);
+        ByteWriter extras = new ByteWriter(16);
+        int[] blocks = new int[maxDegree + 1];
+        int[] offsets = new int[n + 1];
+
+        for (int v = 0; v < n; v++) {
+            //sort the neighbors, weights travel along in the low half
+            int degree = compact.degree(v);
+            for (int i = 0; i < degree; i++) {
+                int arc = compactOffsets[v] + i;
+                packed[i] = (long) compactTargets[arc] << 32 | (compactWeights[arc] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(packed, 0, degree);
+            int slot = v % slots;
+            int[] list = lists[slot];
+            int[] weights = listWeights[slot];
+            for (int i = 0; i < degree; i++) {
+                list[i] = (int) (packed[i] >>> 32);
+                weights[i] = (int) packed[i];
+            }
+            lengths[slot] = degree;
+
+            best.reset();
+            encode(v, list, degree, null, 0, 0, best, blocks, extras);
+            //distance to the chosen reference, 0 for none
+            int bestR = 0;
+            if (degree > 0) {
+                for (int r = 1; r <= window && r <= v; r++) {
+                    int reference = v - r;
+                    if (chain[reference] >= maxChain || lengths[reference % slots] == 0) continue;
+                    candidate.reset();
+                    encode(v, list, degree, lists[reference % slots], lengths[reference % slots], r, candidate, blocks, extras);
+                    if (candidate.size < best.size) {
+                        ByteWriter swap = best;
+                        best = candidate;
+                        candidate = swap;
+                        bestR = r;
+                    }
+                }
+            }
+            chain[v] = bestR == 0 ? 0 : chain[v - bestR] + 1;
+
+            offsets[v] = out.size;
+            out.write(best);
+            if (weighted) {
+                for (int i = 0; i < degree; i++) out.writeVarint(zigzag(weights[i]));
+            }
+        }
+        if (out.size > Integer.MAX_VALUE - 8) throw new IllegalStateException("Graph is too large to compress");
+        offsets[n] = out.size;
+
+        Node[] nodes = new Node[n];
+        for (int v = 0; v < n; v++) nodes[v] = compact.node(v);
+        return new CompressedGraph(compact.getGraph(), nodes, compact.ranks(), offsets, Arrays.copyOf(out.bytes, out.size),
+                compact.getArcCount(), weighted, maxDegree, maxChain, compact.connectivityRemovals());
+    }
+
+    /**
+     * Encodes degree, reference, copy blocks and extra neighbors of one sorted list.
+     */
+    private static void encode(int v, int[] list, int degree, int[] reference, int referenceLength, int r, ByteWriter out,
+                               int[] blocks, ByteWriter extras) {
+        out.writeVarint(degree);
+        if (degree == 0) return;
+        out.writeVarint(r);
+        int previous = 0;
+        boolean first = true;
+        if (reference != null) {
+            //walk both sorted lists, runs of copied / skipped reference entries become blocks
+            int blockCount = 0;
+            int run = 0;
+            boolean copying = true;
+            int i = 0;
+            int j = 0;
+            extras.reset();
+            while (i < degree || j < referenceLength) {
+                if (j < referenceLength && (i == degree || reference[j] < list[i])) {
+                    //only in the reference: skipped
+                    if (copying) {
+                        blocks[blockCount++] = run;
+                        run = 0;
+                        copying = false;
+                    }
+                    run++;
+                    j++;
+                } else if (i < degree && (j == referenceLength || list[i] < reference[j])) {
+                    //only in the list: extra
+                    extras.writeVarint(first ? zigzag(list[i] - v) : list[i] - previous - 1);
+                    previous = list[i];
+                    first = false;
+                    i++;
+                } else {
+                    //in both: copied
+                    if (!copying) {
+                        blocks[blockCount++] = run;
+                        run = 0;
+                        copying = true;
+                    }
+                    run++;
+                    i++;
+                    j++;
+                }
+            }
+            //the last run is implicit, its kind follows from the parity of the block count
+            out.writeVarint(blockCount);
+            for (int b = 0; b < blockCount; b++) out.writeVarint(blocks[b]);
+            out.write(extras);
+            return;
+        }
+        for (int i = 0; i < degree; i++) {
+            out.writeVarint(first ? zigzag(list[i] - v) : list[i] - previous - 1);
+            previous = list[i];
+            first = false;
+        }
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Growable byte buffer for the encoder.
+     */
+    private static final class ByteWriter {
+        byte[] bytes;
+        int size;
+
+        ByteWriter(long capacity) {
+            bytes = new byte[(int) Math.min(Integer.MAX_VALUE - 8, capacity)];
+        }
+
+        void reset() {
+            size = 0;
+        }
+
+        void writeVarint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void write(ByteWriter other) {
+            ensure(other.size);
+            System.arraycopy(other.bytes, 0, bytes, size, other.size);
+            size += other.size;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int) Math.min(Integer.MAX_VALUE - 8, Math.max((long) size + extra, bytes.length * 2L)));
+            }
+        }
+    }
+
+    /**
+     * @return the graph the compressed snapshot was built from
+     */
+    public Graph getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return {@link ConnectivityIndex#removalsOf} of the graph at the time the snapshot was taken
+     */
+    long connectivityRemovals() {
+        return connectivityRemovals;
+    }
+
+    /**
+     * @return amount of nodes
+     */
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    /**
+     * @return amount of stored (directed) adjacencies, undirected edges count twice
+     */
+    public long getArcCount() {
+        return arcCount;
+    }
+
+    /**
+     * @return bytes used by the encoded lists and their offsets
+     */
+    public long byteSize() {
+        return data.length + 4L * offsets.length;
+    }
+
+    /**
+     * Returns the dense index of a node id.
+     *
+     * @param nodeID the id of the node
+     * @return the index or -1 if the node is not part of the snapshot
+     */
+    public int indexOf(String nodeID) {
+        Node node = graph.getNode(nodeID);
+        if (node == null || node.getIndex() >= nodes.length) return -1;
+        int index = rank == null ? node.getIndex() : rank[node.getIndex()];
+        //the graph may have changed since the snapshot was taken
+        return nodes[index] == node ? index : -1;
+    }
+
+    /**
+     * @param index dense node index
+     * @return the GraphStream node belonging to the index
+     */
+    public Node node(int index) {
+        return nodes[index];
+    }
+
+    /**
+     * @param index dense node index
+     * @return amount of (outgoing) neighbors of the node, read without decoding the list
+     */
+    public int degree(int index) {
+        return readVarint(offsets[index]);
+    }
+
+    private int readVarint(int position) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data[position++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+    }
+
+    /**
+     * @return a new cursor for reading neighbor lists (one per thread)
+     */
+    public NeighborCursor cursor() {
+        return new NeighborCursor();
+    }
+
+    /**
+     * Sequential reader of neighbor lists. reset(v) decodes the list of v (following references)
+     * into an internal buffer, next() then returns the neighbors in ascending order.
+     * The buffers are sized for the largest degree once, so reading lists allocates nothing.
+     * Not thread-safe, use one cursor per thread.
+     */
+    public final class NeighborCursor {
+        //one list buffer per reference depth, the copied entries are collected in the next level
+        private final int[][] lists = new int[maxChain + 2][maxDegree];
+        private final int[] weights = new int[maxDegree];
+        private int length;
+        private int index;
+        private int position;
+
+        private NeighborCursor() {
+        }
+
+        /**
+         * @return the compressed graph this cursor reads
+         */
+        public CompressedGraph graph() {
+            return CompressedGraph.this;
+        }
+
+        /**
+         * Decodes the neighbor list of a node.
+         *
+         * @param v dense node index
+         * @return the degree of the node
+         */
+        public int reset(int v) {
+            length = decode(v, 0);
+            index = 0;
+            if (weighted) {
+                //position is right behind the extra neighbors of v
+                for (int i = 0; i < length; i++) weights[i] = unzigzag(varint());
+            }
+            return length;
+        }
+
+        /**
+         * @return the next neighbor of the current node or -1 if the list is exhausted
+         */
+        public int next() {
+            return index < length ? lists[0][index++] : -1;
+        }
+
+        /**
+         * @return weight of the neighbor last returned by next()
+         */
+        public int weight() {
+            return weighted ? weights[index - 1] : 1;
+        }
+
+        private int varint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = data[position++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+        }
+
+        /**
+         * Decodes the list of v into lists[depth] and leaves position behind its extra neighbors.
+         */
+        private int decode(int v, int depth) {
+            position = offsets[v];
+            final int degree = varint();
+            if (degree == 0) return 0;
+            final int r = varint();
+            final int[] out = lists[depth];
+            if (r == 0) {
+                int previous = 0;
+                for (int i = 0; i < degree; i++) {
+                    previous = i == 0 ? v + unzigzag(varint()) : previous + varint() + 1;
+                    out[i] = previous;
+                }
+                return degree;
+            }
+
+            //the reference list ends up in the next buffer, position has to be restored afterwards
+            int saved = position;
+            final int referenceLength = decode(v - r, depth + 1);
+            position = saved;
+            final int[] reference = lists[depth + 1];
+            //compact the copied entries to the front of the reference buffer
+            final int blockCount = varint();
+            int copied = 0;
+            int j = 0;
+            for (int b = 0; b < blockCount; b++) {
+                int run = varint();
+                if ((b & 1) == 0) {
+                    System.arraycopy(reference, j, reference, copied, run);
+                    copied += run;
+                }
+                j += run;
+            }
+            if ((blockCount & 1) == 0) {
+                int rest = referenceLength - j;
+                System.arraycopy(reference, j, reference, copied, rest);
+                copied += rest;
+            }
+
+            //merge copied entries with the extra neighbors read on the fly
+            int extras = degree - copied;
+            int nextExtra = extras > 0 ? v + unzigzag(varint()) : Integer.MAX_VALUE;
+            int read = extras > 0 ? 1 : 0;
+            int c = 0;
+            for (int i = 0; i < degree; i++) {
+                if (c < copied && reference[c] < nextExtra) {
+                    out[i] = reference[c++];
+                } else {
+                    out[i] = nextExtra;
+                    nextExtra = read < extras ? nextExtra + varint() + 1 : Integer.MAX_VALUE;
+                    if (read < extras) read++;
+                }
+            }
+            return degree;
+        }
+    }
+}
@@ -0,0 +1,357 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.stream.SinkAdapter;
+
+import java.util.Arrays;
+
+/**
+ * Answers "can there be a path from s to t?" in constant time so that searches can skip targets in
+ * other components instead of draining the whole component of the source.
+ * <ul>
+ *     <li>A union-find over all edges (ignoring their direction) gives the weakly connected components.
+ *     Different components mean no path in any graph. Insertions are a single union.</li>
+ *     <li>If the graph has directed edges, the strongly connected components are computed as well
+ *     (iterative Tarjan). Their condensation is a DAG and every component gets its position in a
+ *     topological order of that DAG; an edge never leads to an earlier position, so s cannot reach t
+ *     if the component of s comes after the component of t. Same component means reachable.</li>
+ * </ul>
+ * The index follows the live graph as a sink. An inserted edge that points backwards in the
+ * topological order (or joins two components with an undirected edge) may merge components, then
+ * only the directed part is marked stale and recomputed on the next query. Removals rebuild the
+ * whole index on the next query.
+ * <p>
+ * Queries never write the union-find (no path compression at query time) and the lazy rebuild is
+ * synchronized, so several threads may query at once (e.g. the workers of a {@link BatchQueryRunner}).
+ * Changing the graph while querying is not supported, like for the graph itself.
+ * <p>
+ * {@link #attach(Graph)} stores the index as graph attribute, every {@link PathSearch} on the graph
+ * consults it before searching. A search on a snapshot only does so if no node or edge was removed
+ * since the snapshot was taken (see {@link #removalsOf(Graph)}): insertions only add paths to the live
+ * graph, so "unreachable" stays true for an older snapshot, removals do not.
+ */
+public class ConnectivityIndex extends SinkAdapter {
+    /** graph attribute holding the attached index */
+    public static final String ATTRIBUTE = "connectivity";
+    /** removal count of searches that read the live graph, which the index always describes */
+    public static final long LIVE_GRAPH = -1;
+    //removal count of snapshots taken while no index was attached, never matches
+    private static final long NO_INDEX = -2;
+
+    private final Graph graph;
+    private int[] parent = new int[0];
+    private int[] rank = new int[0];
+    private int weakComponents;
+    //strong component and topological position of its component, per node index
+    private int[] strong = new int[0];
+    private int[] order = new int[0];
+    private int strongComponents;
+    //next unused component id and position, new nodes get singleton components at the end
+    private int nextComponent;
+    private int nextOrder;
+    private boolean directed;
+    //written by the graph thread or under the lock in refresh(), read by concurrent queries
+    private volatile boolean strongStale;
+    private volatile boolean stale;
+    private volatile long removals;
+    private long rebuilds;
+
+    private ConnectivityIndex(Graph graph) {
+        this.graph = graph;
+        rebuild();
+    }
+
+    /**
+     * Builds the index of a graph, registers it as sink and stores it as graph attribute.
+     * An index already attached to the graph is returned as is.
+     *
+     * @param graph the graph
+     * @return the attached index
+     */
+    public static ConnectivityIndex attach(Graph graph) {
+        if (graph == null) throw new IllegalArgumentException("Graph is null");
+        ConnectivityIndex index = of(graph);
+        if (index != null) return index;
+        index = new ConnectivityIndex(graph);
+        graph.addSink(index);
+        graph.setAttribute(ATTRIBUTE, index);
+        return index;
+    }
+
+    /**
+     * @param graph the graph
+     * @return the index attached to the graph or null
+     */
+    public static ConnectivityIndex of(Graph graph) {
+        return graph == null ? null : graph.getAttribute(ATTRIBUTE, ConnectivityIndex.class);
+    }
+
+    /**
+     * Removal count to record in a snapshot of the graph, see {@link #describes(long)}.
+     *
+     * @param graph the graph a snapshot is taken of
+     * @return the amount of removals seen by the attached index, or a value no index matches if none is attached
+     */
+    public static long removalsOf(Graph graph) {
+        ConnectivityIndex index = of(graph);
+        return index == null ? NO_INDEX : index.removals;
+    }
+
+    /**
+     * @param snapshotRemovals {@link #removalsOf(Graph)} at the time a snapshot was taken, or LIVE_GRAPH
+     * @return true if "unreachable" answers of the index also hold for that snapshot
+     */
+    public boolean describes(long snapshotRemovals) {
+        return snapshotRemovals == LIVE_GRAPH || snapshotRemovals == removals;
+    }
+
+    /**
+     * Stops following the graph and removes the attribute, searches no longer consult the index.
+     */
+    public void detach() {
+        graph.removeSink(this);
+        if (graph.getAttribute(ATTRIBUTE) == this) graph.removeAttribute(ATTRIBUTE);
+    }
+
+    /**
+     * @param sourceNodeID id of the source node
+     * @param targetNodeID id of the target node
+     * @return false if there is certainly no path, true if there may be one (or a node is unknown)
+     */
+    public boolean mayReach(String sourceNodeID, String targetNodeID) {
+        Node sourceNode = graph.getNode(sourceNodeID);
+        Node targetNode = graph.getNode(targetNodeID);
+        //unknown nodes are left to the search, which reports them
+        if (sourceNode == null || targetNode == null) return true;
+        if (stale || strongStale) refresh();
+        int s = sourceNode.getIndex();
+        int t = targetNode.getIndex();
+        if (s == t) return true;
+        if (root(s) != root(t)) return false;
+        if (!directed) return true;
+        return strong[s] == strong[t] || order[s] < order[t];
+    }
+
+    /**
+     * @param sourceNodeID id of the source node
+     * @param targetNodeID id of the target node
+     * @return true if both nodes are in the same strongly connected component, which guarantees a path
+     * @throws IllegalStateException if the source or target node does not exist in graph.
+     */
+    public boolean stronglyConnected(String sourceNodeID, String targetNodeID) {
+        Node sourceNode = graph.getNode(sourceNodeID);
+        Node targetNode = graph.getNode(targetNodeID);
+        if (sourceNode == null || targetNode == null) throw new IllegalStateException("Source or target node are null");
+        if (stale || strongStale) refresh();
+        if (!directed) return root(sourceNode.getIndex()) == root(targetNode.getIndex());
+        return strong[sourceNode.getIndex()] == strong[targetNode.getIndex()];
+    }
+
+    /**
+     * @return amount of weakly connected components
+     */
+    public int getWeakComponentCount() {
+        if (stale || strongStale) refresh();
+        return weakComponents;
+    }
+
+    /**
+     * @return amount of strongly connected components (equal to the weak ones in undirected graphs)
+     */
+    public int getStrongComponentCount() {
+        if (stale || strongStale) refresh();
+        return directed ? strongComponents : weakComponents;
+    }
+
+    /**
+     * @return amount of full or partial rebuilds after removals and merging insertions, including the initial build
+     */
+    public long getRebuilds() {
+        return rebuilds;
+    }
+
+    /**
+     * Brings stale parts up to date. Concurrent queries wait for the first one to finish; the volatile
+     * flags are cleared last, so a query that sees them cleared also sees the new arrays.
+     */
+    private synchronized void refresh() {
+        if (stale) rebuild();
+        if (strongStale) {
+            if (directed) computeStrongComponents();
+            else strongStale = false;
+        }
+    }
+
+    private void rebuild() {
+        final int n = graph.getNodeCount();
+        parent = new int[Math.max(n, 16)];
+        rank = new int[parent.length];
+        strong = new int[parent.length];
+        order = new int[parent.length];
+        for (int v = 0; v < n; v++) parent[v] = v;
+        weakComponents = n;
+        directed = false;
+        graph.edges().forEach(edge -> {
+            union(edge.getSourceNode().getIndex(), edge.getTargetNode().getIndex());
+            directed |= edge.isDirected();
+        });
+        //flat trees, queries then find every root in one step
+        for (int v = 0; v < n; v++) parent[v] = find(v);
+        if (directed) computeStrongComponents();
+        else rebuilds++;
+        stale = false;
+    }
+
+    /**
+     * Iterative Tarjan. Components are completed in reverse topological order of the condensation,
+     * so the i-th completed component gets position count - 1 - i.
+     */
+    private void computeStrongComponents() {
+        rebuilds++;
+        final int n = graph.getNodeCount();
+        int[] low = new int[n];
+        int[] discovery = new int[n];
+        Arrays.fill(discovery, -1);
+        int[] stack = new int[n];
+        boolean[] onStack = new boolean[n];
+        //explicit call stack: node and position in its leaving edges
+        int[] callNode = new int[n];
+        int[] callEdge = new int[n];
+        int stackSize = 0;
+        int time = 0;
+        int completed = 0;
+
+        for (int root = 0; root < n; root++) {
+            if (discovery[root] >= 0) continue;
+            int depth = 0;
+            callNode[0] = root;
+            callEdge[0] = 0;
+            discovery[root] = low[root] = time++;
+            stack[stackSize++] = root;
+            onStack[root] = true;
+            while (depth >= 0) {
+                int v = callNode[depth];
+                Node node = graph.getNode(v);
+                if (callEdge[depth] < node.getOutDegree()) {
+                    int w = node.getLeavingEdge(callEdge[depth]++).getOpposite(node).getIndex();
+                    if (discovery[w] < 0) {
+                        discovery[w] = low[w] = time++;
+                        stack[stackSize++] = w;
+                        onStack[w] = true;
+                        depth++;
+                        callNode[depth] = w;
+                        callEdge[depth] = 0;
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], discovery[w]);
+                    }
+                    continue;
+                }
+                if (low[v] == discovery[v]) {
+                    int w;
+                    do {
+                        w = stack[--stackSize];
+                        onStack[w] = false;
+                        strong[w] = completed;
+                    } while (w != v);
+                    completed++;
+                }
+                depth--;
+                if (depth >= 0) low[callNode[depth]] = Math.min(low[callNode[depth]], low[v]);
+            }
+        }
+        for (int v = 0; v < n; v++) order[v] = completed - 1 - strong[v];
+        strongComponents = completed;
+        nextComponent = completed;
+        nextOrder = completed;
+        strongStale = false;
+    }
+
+    /**
+     * Root lookup for queries, does not modify the trees.
+     */
+    private int root(int v) {
+        while (parent[v] != v) v = parent[v];
+        return v;
+    }
+
+    /**
+     * Root lookup with path halving, only used while the index is modified.
+     */
+    private int find(int v) {
+        while (parent[v] != v) {
+            //path halving
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    private void union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra == rb) return;
+        if (rank[ra] < rank[rb]) {
+            int swap = ra;
+            ra = rb;
+            rb = swap;
+        }
+        parent[rb] = ra;
+        if (rank[ra] == rank[rb]) rank[ra]++;
+        weakComponents--;
+    }
+
+    @Override
+    public void nodeAdded(String sourceId, long timeId, String nodeId) {
+        if (stale) return;
+        int v = graph.getNode(nodeId).getIndex();
+        if (v >= parent.length) {
+            int capacity = Math.max(v + 1, parent.length * 2);
+            parent = Arrays.copyOf(parent, capacity);
+            rank = Arrays.copyOf(rank, capacity);
+            strong = Arrays.copyOf(strong, capacity);
+            order = Arrays.copyOf(order, capacity);
+        }
+        parent[v] = v;
+        rank[v] = 0;
+        weakComponents++;
+        //an isolated node is its own strong component, any position in the order is valid
+        strong[v] = nextComponent++;
+        order[v] = nextOrder++;
+        strongComponents++;
+    }
+
+    @Override
+    public void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId, boolean directed) {
+        if (stale) return;
+        int from = graph.getNode(fromNodeId).getIndex();
+        int to = graph.getNode(toNodeId).getIndex();
+        union(from, to);
+        if (!directed) {
+            //two strong components joined by an undirected edge become one
+            if (this.directed && strong[from] != strong[to]) strongStale = true;
+        } else if (!this.directed) {
+            this.directed = true;
+            strongStale = true;
+        } else if (strong[from] != strong[to] && order[from] > order[to]) {
+            //the edge points backwards in the order, it may close a cycle
+            strongStale = true;
+        }
+    }
+
+    @Override
+    public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+        removals++;
+        stale = true;
+    }
+
+    @Override
+    public void edgeRemoved(String sourceId, long timeId, String edgeId) {
+        removals++;
+        stale = true;
+    }
+
+    @Override
+    public void graphCleared(String sourceId, long timeId) {
+        removals++;
+        stale = true;
+    }
+}
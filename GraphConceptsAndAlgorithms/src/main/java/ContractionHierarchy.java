@@ -0,0 +1,460 @@
+import java.util.Arrays;
+
+/**
+ * Contraction hierarchy of a weighted {@link CompactGraph} for fast repeated point-to-point queries
+ * (see {@link ContractionHierarchySearch}).
+ * <p>
+ * Preprocessing contracts the nodes one by one in order of their priority (edge difference: shortcuts
+ * needed minus arcs removed, plus the amount of already contracted neighbors so contraction spreads
+ * evenly). Contracting v removes it from the remaining graph; for every pair u -> v -> x whose path
+ * through v is not matched by a witness path avoiding v, the shortcut u -> x (middle node v) is added.
+ * The position in that order is the rank of a node.
+ * <p>
+ * The result is stored as two CSR graphs: the upward graph holds every arc (original or shortcut) at
+ * its lower-ranked tail, the downward graph holds every arc pointing to a lower-ranked head at that
+ * head, reversed, so a backward search from the target also only climbs in rank.
+ * Shortcuts keep their middle node so paths can be unpacked into original arcs.
+ */
+public class ContractionHierarchy {
+    //settled nodes after which a witness search gives up (then a possibly unneeded shortcut is added)
+    private static final int WITNESS_SETTLE_LIMIT = 200;
+
+    private final CompactGraph compact;
+    private final int[] rank;
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final long[] upWeights;
+    private final int[] upMiddle;
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final long[] downWeights;
+    private final int[] downMiddle;
+    private final int shortcuts;
+
+    private ContractionHierarchy(CompactGraph compact, int[] rank, int[] upOffsets, int[] upTargets, long[] upWeights,
+                                 int[] upMiddle, int[] downOffsets, int[] downSources, long[] downWeights,
+                                 int[] downMiddle, int shortcuts) {
+        this.compact = compact;
+        this.rank = rank;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upMiddle = upMiddle;
+        this.downOffsets = downOffsets;
+        this.downSources = downSources;
+        this.downWeights = downWeights;
+        this.downMiddle = downMiddle;
+        this.shortcuts = shortcuts;
+    }
+
+    /**
+     * Contracts all nodes of the snapshot.
+     *
+     * @param compact the snapshot, edge weights must not be negative
+     * @return the hierarchy
+     * @throws IllegalStateException if an edge has a negative weight
+     */
+    public static ContractionHierarchy build(CompactGraph compact) {
+        if (compact == null) throw new IllegalArgumentException("Graph is null");
+        for (int weight : compact.weights()) {
+            if (weight < 0) throw new IllegalStateException("Negative edge weight: " + weight);
+        }
+        return new Contractor(compact).run();
+    }
+
+    /**
+     * Mutable remaining graph used while contracting. Every node has growable out and in lists
+     * (head/tail, weight, middle node) holding only arcs between uncontracted nodes, at most one per pair.
+     */
+    private static final class Contractor {
+        private final CompactGraph compact;
+        private final int n;
+        private final int[][] outNode;
+        private final long[][] outWeight;
+        private final int[][] outMid;
+        private final int[] outCount;
+        private final int[][] inNode;
+        private final long[][] inWeight;
+        private final int[][] inMid;
+        private final int[] inCount;
+        private final boolean[] contracted;
+        private final int[] contractedNeighbors;
+
+        //witness search state, reset with an epoch
+        private final IndexedMinHeap heap;
+        private final long[] distance;
+        private final int[] stamp;
+        private int epoch;
+
+        //final arcs, collected when their lower-ranked end is contracted
+        private final int[] rank;
+        private int[] upTail = new int[16], upHead = new int[16], upMid = new int[16];
+        private long[] upWeight = new long[16];
+        private int upCount;
+        private int[] downTail = new int[16], downHead = new int[16], downMid = new int[16];
+        private long[] downWeight = new long[16];
+        private int downCount;
+        private int shortcuts;
+
+        Contractor(CompactGraph compact) {
+            this.compact = compact;
+            this.n = compact.getNodeCount();
+            outNode = new int[n][];
+            outWeight = new long[n][];
+            outMid = new int[n][];
+            outCount = new int[n];
+            inNode = new int[n][];
+            inWeight = new long[n][];
+            inMid = new int[n][];
+            inCount = new int[n];
+            contracted = new boolean[n];
+            contractedNeighbors = new int[n];
+            heap = new IndexedMinHeap(n);
+            distance = new long[n];
+            stamp = new int[n];
+            rank = new int[n];
+
+            final int[] offsets = compact.offsets();
+            final int[] targets = compact.targets();
+            final int[] weights = compact.weights();
+            for (int v = 0; v < n; v++) {
+                outNode[v] = new int[Math.max(2, offsets[v + 1] - offsets[v])];
+                outWeight[v] = new long[outNode[v].length];
+                outMid[v] = new int[outNode[v].length];
+                inNode[v] = new int[2];
+                inWeight[v] = new long[2];
+                inMid[v] = new int[2];
+            }
+            for (int u = 0; u < n; u++) {
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    //self loops never shorten a path
+                    if (targets[i] != u) addOrImprove(u, targets[i], weights[i], -1);
+                }
+            }
+        }
+
+        ContractionHierarchy run() {
+            IndexedMinHeap order = new IndexedMinHeap(n);
+            for (int v = 0; v < n; v++) order.insertOrDecrease(v, priority(v));
+
+            int nextRank = 0;
+            while (!order.isEmpty()) {
+                int v = order.poll();
+                //lazy update: the stored priority may be outdated, contract only if v is still the best
+                long current = priority(v);
+                if (!order.isEmpty() && current > order.peekKey()) {
+                    order.insertOrDecrease(v, current);
+                    continue;
+                }
+                rank[v] = nextRank++;
+                contract(v);
+            }
+            return finish();
+        }
+
+        private long priority(int v) {
+            int needed = contractNode(v, false);
+            return (long) needed - outCount[v] - inCount[v] + contractedNeighbors[v];
+        }
+
+        private void contract(int v) {
+            contractNode(v, true);
+            //remaining arcs of v are final, its neighbors all get a higher rank
+            for (int i = 0; i < outCount[v]; i++) {
+                addUp(v, outNode[v][i], outWeight[v][i], outMid[v][i]);
+                remove(inNode, inWeight, inMid, inCount, outNode[v][i], v);
+                contractedNeighbors[outNode[v][i]]++;
+            }
+            for (int i = 0; i < inCount[v]; i++) {
+                addDown(inNode[v][i], v, inWeight[v][i], inMid[v][i]);
+                remove(outNode, outWeight, outMid, outCount, inNode[v][i], v);
+                contractedNeighbors[inNode[v][i]]++;
+            }
+            contracted[v] = true;
+            outCount[v] = 0;
+            inCount[v] = 0;
+        }
+
+        /**
+         * Finds the shortcuts needed to contract v and adds them if requested.
+         *
+         * @return amount of shortcuts needed
+         */
+        private int contractNode(int v, boolean add) {
+            long maxOut = 0;
+            for (int j = 0; j < outCount[v]; j++) maxOut = Math.max(maxOut, outWeight[v][j]);
+
+            int needed = 0;
+            for (int i = 0; i < inCount[v]; i++) {
+                int u = inNode[v][i];
+                long toV = inWeight[v][i];
+                witnessSearch(u, v, toV + maxOut);
+                for (int j = 0; j < outCount[v]; j++) {
+                    int x = outNode[v][j];
+                    if (x == u) continue;
+                    long viaV = toV + outWeight[v][j];
+                    if (stamp[x] == epoch && distance[x] <= viaV) continue;
+                    needed++;
+                    if (add && addOrImprove(u, x, viaV, v)) shortcuts++;
+                }
+            }
+            return needed;
+        }
+
+        /**
+         * Dijkstra from u on the remaining graph without v, stopped at the given distance or settle limit.
+         */
+        private void witnessSearch(int u, int v, long maxDistance) {
+            if (++epoch == 0) {
+                Arrays.fill(stamp, 0);
+                epoch = 1;
+            }
+            heap.clear();
+            stamp[u] = epoch;
+            distance[u] = 0;
+            heap.insertOrDecrease(u, 0);
+            int settled = 0;
+            while (!heap.isEmpty() && settled++ < WITNESS_SETTLE_LIMIT) {
+                int w = heap.poll();
+                long base = distance[w];
+                if (base > maxDistance) break;
+                for (int i = 0; i < outCount[w]; i++) {
+                    int x = outNode[w][i];
+                    if (x == v) continue;
+                    long candidate = base + outWeight[w][i];
+                    if (stamp[x] != epoch || candidate < distance[x]) {
+                        stamp[x] = epoch;
+                        distance[x] = candidate;
+                        heap.insertOrDecrease(x, candidate);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Adds the arc u -> x or lowers the weight of an existing one.
+         *
+         * @return true if a new arc was added
+         */
+        private boolean addOrImprove(int u, int x, long weight, int mid) {
+            for (int i = 0; i < outCount[u]; i++) {
+                if (outNode[u][i] != x) continue;
+                if (weight < outWeight[u][i]) {
+                    outWeight[u][i] = weight;
+                    outMid[u][i] = mid;
+                    for (int j = 0; j < inCount[x]; j++) {
+                        if (inNode[x][j] == u) {
+                            inWeight[x][j] = weight;
+                            inMid[x][j] = mid;
+                        }
+                    }
+                }
+                return false;
+            }
+            append(outNode, outWeight, outMid, outCount, u, x, weight, mid);
+            append(inNode, inWeight, inMid, inCount, x, u, weight, mid);
+            return true;
+        }
+
+        private static void append(int[][] node, long[][] weight, int[][] mid, int[] count, int v, int other, long w, int m) {
+            int c = count[v];
+            if (c == node[v].length) {
+                node[v] = Arrays.copyOf(node[v], c * 2);
+                weight[v] = Arrays.copyOf(weight[v], c * 2);
+                mid[v] = Arrays.copyOf(mid[v], c * 2);
+            }
+            node[v][c] = other;
+            weight[v][c] = w;
+            mid[v][c] = m;
+            count[v] = c + 1;
+        }
+
+        private static void remove(int[][] node, long[][] weight, int[][] mid, int[] count, int v, int other) {
+            for (int i = 0; i < count[v]; i++) {
+                if (node[v][i] != other) continue;
+                int last = --count[v];
+                node[v][i] = node[v][last];
+                weight[v][i] = weight[v][last];
+                mid[v][i] = mid[v][last];
+                return;
+            }
+        }
+
+        private void addUp(int tail, int head, long weight, int mid) {
+            if (upCount == upTail.length) {
+                upTail = Arrays.copyOf(upTail, upCount * 2);
+                upHead = Arrays.copyOf(upHead, upCount * 2);
+                upMid = Arrays.copyOf(upMid, upCount * 2);
+                upWeight = Arrays.copyOf(upWeight, upCount * 2);
+            }
+            upTail[upCount] = tail;
+            upHead[upCount] = head;
+            upMid[upCount] = mid;
+            upWeight[upCount++] = weight;
+        }
+
+        private void addDown(int tail, int head, long weight, int mid) {
+            if (downCount == downTail.length) {
+                downTail = Arrays.copyOf(downTail, downCount * 2);
+                downHead = Arrays.copyOf(downHead, downCount * 2);
+                downMid = Arrays.copyOf(downMid, downCount * 2);
+                downWeight = Arrays.copyOf(downWeight, downCount * 2);
+            }
+            downTail[downCount] = tail;
+            downHead[downCount] = head;
+            downMid[downCount] = mid;
+            downWeight[downCount++] = weight;
+        }
+
+        private ContractionHierarchy finish() {
+            //counting sort of the collected arcs into CSR form: up arcs by tail, down arcs by head
+            int[] upOffsets = new int[n + 1];
+            for (int i = 0; i < upCount; i++) upOffsets[upTail[i] + 1]++;
+            for (int v = 0; v < n; v++) upOffsets[v + 1] += upOffsets[v];
+            int[] fill = Arrays.copyOf(upOffsets, n);
+            int[] upTargets = new int[upCount];
+            long[] upWeights = new long[upCount];
+            int[] upMiddle = new int[upCount];
+            for (int i = 0; i < upCount; i++) {
+                int p = fill[upTail[i]]++;
+                upTargets[p] = upHead[i];
+                upWeights[p] = upWeight[i];
+                upMiddle[p] = upMid[i];
+            }
+
+            int[] downOffsets = new int[n + 1];
+            for (int i = 0; i < downCount; i++) downOffsets[downHead[i] + 1]++;
+            for (int v = 0; v < n; v++) downOffsets[v + 1] += downOffsets[v];
+            fill = Arrays.copyOf(downOffsets, n);
+            int[] downSources = new int[downCount];
+            long[] downWeights = new long[downCount];
+            int[] downMiddle = new int[downCount];
+            for (int i = 0; i < downCount; i++) {
+                int p = fill[downHead[i]]++;
+                downSources[p] = downTail[i];
+                downWeights[p] = downWeight[i];
+                downMiddle[p] = downMid[i];
+            }
+            return new ContractionHierarchy(compact, rank, upOffsets, upTargets, upWeights, upMiddle,
+                    downOffsets, downSources, downWeights, downMiddle, shortcuts);
+        }
+    }
+
+    /**
+     * @return the snapshot the hierarchy was built on
+     */
+    public CompactGraph getGraph() {
+        return compact;
+    }
+
+    /**
+     * @param node dense node index
+     * @return position of the node in the contraction order
+     */
+    public int rank(int node) {
+        return rank[node];
+    }
+
+    /**
+     * @return amount of shortcut arcs added during preprocessing
+     */
+    public int getShortcutCount() {
+        return shortcuts;
+    }
+
+    /**
+     * Arcs of the upward graph: node v owns [upOffsets[v], upOffsets[v + 1]) of the other arrays.
+     * The arrays are shared and must not be modified.
+     */
+    int[] upOffsets() {
+        return upOffsets;
+    }
+
+    int[] upTargets() {
+        return upTargets;
+    }
+
+    long[] upWeights() {
+        return upWeights;
+    }
+
+    /**
+     * Reversed arcs of the downward graph: node v owns [downOffsets[v], downOffsets[v + 1]),
+     * each entry is an arc source -> v with source ranked higher than v.
+     */
+    int[] downOffsets() {
+        return downOffsets;
+    }
+
+    int[] downSources() {
+        return downSources;
+    }
+
+    long[] downWeights() {
+        return downWeights;
+    }
+
+    /**
+     * Appends the original nodes of the arc tail -> head (without tail) to a path buffer,
+     * replacing shortcuts by the two arcs they were made of.
+     * Shortcuts can nest as deep as the path is long, so they are expanded with an explicit stack.
+     *
+     * @param tail   start of the arc
+     * @param head   end of the arc
+     * @param mid    middle node of the arc, -1 for original arcs
+     * @param out    receives the nodes
+     * @param length amount of nodes already in out
+     * @return the new length
+     */
+    int unpack(int tail, int head, int mid, int[] out, int length) {
+        //pending arcs as (tail, head, mid) triples, the top one is the next on the path
+        int[] stack = new int[3 * 16];
+        int top = 0;
+        stack[top++] = tail;
+        stack[top++] = head;
+        stack[top++] = mid;
+        while (top > 0) {
+            final int m = stack[--top];
+            final int h = stack[--top];
+            final int t = stack[--top];
+            if (m < 0) {
+                out[length++] = h;
+                continue;
+            }
+            if (top + 6 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+            //tail -> mid was final when mid was contracted and is stored at mid in the downward graph,
+            //mid -> head likewise in the upward graph; the second half is pushed first
+            stack[top++] = m;
+            stack[top++] = h;
+            stack[top++] = upMiddle[findUp(m, h)];
+            stack[top++] = t;
+            stack[top++] = m;
+            stack[top++] = downMiddle[findDown(m, t)];
+        }
+        return length;
+    }
+
+    /**
+     * @return middle node of the upward arc with the given index
+     */
+    int upMiddle(int arc) {
+        return upMiddle[arc];
+    }
+
+    /**
+     * @return middle node of the downward arc with the given index
+     */
+    int downMiddle(int arc) {
+        return downMiddle[arc];
+    }
+
+    private int findUp(int tail, int head) {
+        for (int i = upOffsets[tail]; i < upOffsets[tail + 1]; i++) if (upTargets[i] == head) return i;
+        throw new IllegalStateException("Missing arc " + tail + " -> " + head + " in hierarchy");
+    }
+
+    private int findDown(int head, int tail) {
+        for (int i = downOffsets[head]; i < downOffsets[head + 1]; i++) if (downSources[i] == tail) return i;
+        throw new IllegalStateException("Missing arc " + tail + " -> " + head + " in hierarchy");
+    }
+}
@@ -0,0 +1,267 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * Weighted point-to-point query on a {@link ContractionHierarchy}.
+ * A forward Dijkstra from the source only follows upward arcs and a backward Dijkstra from the
+ * target only follows downward arcs in reverse, so both searches climb in rank and meet at the
+ * highest node of the shortest path. Each side stops once its smallest key cannot improve the best
+ * meeting distance. Shortcuts on the found path are unpacked into the original nodes, so getPath()
+ * returns the same kind of path as {@link Dijkstra}.
+ * The per-query arrays live in a {@link Workspace} that can be shared by consecutive queries.
+ */
+public class ContractionHierarchySearch extends PathSearch {
+    private ContractionHierarchy hierarchy;
+    private CompactGraph compact;
+    private Workspace workspace;
+
+    /**
+     * Reusable query state: heaps, distances, parents and epoch stamps of both search directions.
+     * Sized for a node count once, a new query only increments the epoch.
+     * Not thread-safe, use one per thread.
+     */
+    public static final class Workspace {
+        private final IndexedMinHeap forwardHeap;
+        private final IndexedMinHeap backwardHeap;
+        private final long[] forwardDistance;
+        private final long[] backwardDistance;
+        //node the search came from and index of the arc it used, per side
+        private final int[] forwardParent;
+        private final int[] forwardArc;
+        private final int[] backwardParent;
+        private final int[] backwardArc;
+        private final int[] forwardStamp;
+        private final int[] backwardStamp;
+        private final int[] unpacked;
+        private int epoch;
+
+        /**
+         * @param capacity amount of nodes of the graphs the workspace is used for
+         */
+        public Workspace(int capacity) {
+            forwardHeap = new IndexedMinHeap(capacity);
+            backwardHeap = new IndexedMinHeap(capacity);
+            forwardDistance = new long[capacity];
+            backwardDistance = new long[capacity];
+            forwardParent = new int[capacity];
+            forwardArc = new int[capacity];
+            backwardParent = new int[capacity];
+            backwardArc = new int[capacity];
+            forwardStamp = new int[capacity];
+            backwardStamp = new int[capacity];
+            unpacked = new int[capacity];
+        }
+
+        int capacity() {
+            return forwardStamp.length;
+        }
+    }
+
+    private long pathDistance = -1;
+
+    public ContractionHierarchySearch(String sourceNodeID, String targetNodeID) {
+        super(sourceNodeID, targetNodeID);
+    }
+
+    /**
+     * Builds a snapshot and its contraction hierarchy.
+     * Use init(ContractionHierarchy) to share one hierarchy between many queries.
+     */
+    @Override
+    public void init(Graph graph) {
+        init(ContractionHierarchy.build(CompactGraph.of(graph)));
+    }
+
+    /**
+     * Initialize the algorithm with a prebuilt hierarchy.
+     * @param hierarchy the hierarchy on which the search will run
+     */
+    public void init(ContractionHierarchy hierarchy) {
+        if(hierarchy == null) throw new IllegalArgumentException("Graph is null");
+        init(hierarchy, new Workspace(hierarchy.getGraph().getNodeCount()));
+    }
+
+    /**
+     * Initialize the algorithm with a prebuilt hierarchy and a workspace that is reused across queries.
+     * @param hierarchy the hierarchy on which the search will run
+     * @param workspace the reusable query state (not thread-safe)
+     */
+    public void init(ContractionHierarchy hierarchy, Workspace workspace) {
+        if(hierarchy == null) throw new IllegalArgumentException("Graph is null");
+        if(workspace == null) throw new IllegalArgumentException("Workspace is null");
+        if(workspace.capacity() < hierarchy.getGraph().getNodeCount()) {
+            throw new IllegalArgumentException("Workspace is too small for this graph");
+        }
+        super.init(hierarchy.getGraph().getGraph());
+        this.hierarchy = hierarchy;
+        this.compact = hierarchy.getGraph();
+        this.workspace = workspace;
+    }
+
+    @Override
+    protected long snapshotRemovals() {
+        return compact.connectivityRemovals();
+    }
+
+    @Override
+    protected boolean contains(String nodeID) {
+        return compact.indexOf(nodeID) >= 0;
+    }
+
+    /**
+     * Executes the bidirectional upward search.
+     *
+     * @throws IllegalStateException if the source or target node does not exist in graph.
+     */
+    @Override
+    protected boolean search(TraversalStats stats) {
+        final int source = compact.indexOf(sourceNodeID);
+        final int target = compact.indexOf(targetNodeID);
+        if(source < 0 || target < 0) {
+            throw new IllegalStateException("Source or target node are null");
+        }
+        final Workspace w = workspace;
+        final IndexedMinHeap forwardHeap = w.forwardHeap;
+        final IndexedMinHeap backwardHeap = w.backwardHeap;
+        final int[] forwardStamp = w.forwardStamp;
+        final int[] backwardStamp = w.backwardStamp;
+        if (++w.epoch == 0) {
+            //epoch wrapped around, old stamps could be mistaken for current ones
+            Arrays.fill(forwardStamp, 0);
+            Arrays.fill(backwardStamp, 0);
+            w.epoch = 1;
+        }
+        final int epoch = w.epoch;
+        pathDistance = -1;
+
+        forwardHeap.clear();
+        backwardHeap.clear();
+        reach(forwardStamp, w.forwardDistance, w.forwardParent, w.forwardArc, forwardHeap, epoch, source, 0, source, -1);
+        reach(backwardStamp, w.backwardDistance, w.backwardParent, w.backwardArc, backwardHeap, epoch, target, 0, target, -1);
+
+        long best = Long.MAX_VALUE;
+        int meet = -1;
+        long dequeued = 0;
+        long scanned = 0;
+        while (true) {
+            boolean forwardOpen = !forwardHeap.isEmpty() && forwardHeap.peekKey() < best;
+            boolean backwardOpen = !backwardHeap.isEmpty() && backwardHeap.peekKey() < best;
+            if (!forwardOpen && !backwardOpen) break;
+            boolean forward = forwardOpen && (!backwardOpen || forwardHeap.peekKey() <= backwardHeap.peekKey());
+
+            final int[] offsets = forward ? hierarchy.upOffsets() : hierarchy.downOffsets();
+            final int[] heads = forward ? hierarchy.upTargets() : hierarchy.downSources();
+            final long[] weights = forward ? hierarchy.upWeights() : hierarchy.downWeights();
+            //arcs of the opposite direction, used to stall nodes that are reached cheaper from above
+            final int[] stallOffsets = forward ? hierarchy.downOffsets() : hierarchy.upOffsets();
+            final int[] stallHeads = forward ? hierarchy.downSources() : hierarchy.upTargets();
+            final long[] stallWeights = forward ? hierarchy.downWeights() : hierarchy.upWeights();
+            IndexedMinHeap heap = forward ? forwardHeap : backwardHeap;
+            int[] stamp = forward ? forwardStamp : backwardStamp;
+            long[] distance = forward ? w.forwardDistance : w.backwardDistance;
+            int[] parent = forward ? w.forwardParent : w.backwardParent;
+            int[] arc = forward ? w.forwardArc : w.backwardArc;
+            int[] otherStamp = forward ? backwardStamp : forwardStamp;
+            long[] otherDistance = forward ? w.backwardDistance : w.forwardDistance;
+
+            int u = heap.poll();
+            dequeued++;
+            long base = distance[u];
+            if (otherStamp[u] == epoch && base + otherDistance[u] < best) {
+                best = base + otherDistance[u];
+                meet = u;
+            }
+            if (stalled(u, base, stallOffsets, stallHeads, stallWeights, stamp, distance, epoch)) continue;
+            scanned += offsets[u + 1] - offsets[u];
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = heads[i];
+                long candidate = base + weights[i];
+                if (stamp[v] != epoch || (candidate < distance[v] && heap.contains(v))) {
+                    reach(stamp, distance, parent, arc, heap, epoch, v, candidate, u, i);
+                }
+            }
+        }
+        stats.dequeued(dequeued);
+        stats.scanned(scanned);
+
+        if (meet < 0) return false;
+        pathDistance = best;
+        this.path = unpackPath(source, target, meet);
+        return true;
+    }
+
+    /**
+     * Stall-on-demand: if a higher ranked node already reached by this side leads to u more cheaply,
+     * the distance of u is not a shortest one and relaxing its arcs would only widen the search.
+     */
+    private static boolean stalled(int u, long base, int[] offsets, int[] heads, long[] weights,
+                                   int[] stamp, long[] distance, int epoch) {
+        for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+            int v = heads[i];
+            if (stamp[v] == epoch && distance[v] + weights[i] < base) return true;
+        }
+        return false;
+    }
+
+    private static void reach(int[] stamp, long[] distance, int[] parent, int[] arc, IndexedMinHeap heap, int epoch,
+                              int node, long value, int from, int via) {
+        stamp[node] = epoch;
+        distance[node] = value;
+        parent[node] = from;
+        arc[node] = via;
+        heap.insertOrDecrease(node, value);
+    }
+
+    /**
+     * Expands the hierarchy path source ... meet ... target into original nodes.
+     */
+    private LinkedList<Node> unpackPath(int source, int target, int meet) {
+        final int[] forwardParent = workspace.forwardParent;
+        final int[] backwardParent = workspace.backwardParent;
+        final int[] unpacked = workspace.unpacked;
+        //forward half: collect the arcs from meet back to the source, then unpack them in order
+        int arcs = 0;
+        for (int v = meet; v != source; v = forwardParent[v]) arcs++;
+        int[] chain = new int[arcs];
+        int k = arcs;
+        for (int v = meet; v != source; v = forwardParent[v]) chain[--k] = v;
+
+        int length = 0;
+        unpacked[length++] = source;
+        for (int v : chain) {
+            length = hierarchy.unpack(forwardParent[v], v, hierarchy.upMiddle(workspace.forwardArc[v]), unpacked, length);
+        }
+        //backward half: the backward parent of v is the next node towards the target
+        for (int v = meet; v != target; v = backwardParent[v]) {
+            length = hierarchy.unpack(v, backwardParent[v], hierarchy.downMiddle(workspace.backwardArc[v]), unpacked, length);
+        }
+
+        LinkedList<Node> result = new LinkedList<>();
+        for (int i = 0; i < length; i++) result.add(compact.node(unpacked[i]));
+        return result;
+    }
+
+    @Override
+    protected void clearResult() {
+        super.clearResult();
+        pathDistance = -1;
+    }
+
+    /**
+     * @return sum of the weights along the path of the last computation or -1 if the target was not reached
+     */
+    public long getDistance() {
+        return pathDistance;
+    }
+
+    /**
+     * @return String of the shortest path and its weighted distance.
+     */
+    @Override
+    public String toString() {
+        return super.toString() + "\nDistance: " + pathDistance;
+    }
+}
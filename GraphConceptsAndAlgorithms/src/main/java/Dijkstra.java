@@ -0,0 +1,148 @@
+import org.graphstream.graph.Graph;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra's algorithm for weighted point-to-point queries on the "weight" attribute of the edges.
+ * Runs on the weight array of a {@link CompactGraph} (edges without weight count as 1) with an
+ * {@link IndexedMinHeap}. Distances, parents and visited marks live in arrays that are allocated
+ * once per graph and reused by every compute(), a new query only increments an epoch.
+ * Edge direction is handled like in BreadthFirstSearch.neighbors().
+ */
+public class Dijkstra extends PathSearch {
+    private CompactGraph compact;
+    private IndexedMinHeap heap;
+    private long[] distance;
+    private int[] parent;
+    private int[] stamp;
+    private int epoch;
+    private long pathDistance = -1;
+
+    public Dijkstra(String sourceNodeID, String targetNodeID) {
+        super(sourceNodeID, targetNodeID);
+    }
+
+    @Override
+    public void init(Graph graph) {
+        init(CompactGraph.of(graph));
+    }
+
+    /**
+     * Initialize the algorithm with an existing compact snapshot.
+     * @param compact the snapshot on which the search will run
+     * @throws IllegalStateException if an edge has a negative weight
+     */
+    public void init(CompactGraph compact) {
+        if(compact == null) throw new IllegalArgumentException("Graph is null");
+        for (int weight : compact.weights()) {
+            if (weight < 0) throw new IllegalStateException("Negative edge weight: " + weight);
+        }
+        super.init(compact.getGraph());
+        this.compact = compact;
+        final int n = compact.getNodeCount();
+        if (heap == null || heap.capacity() < n) {
+            heap = new IndexedMinHeap(n);
+            distance = new long[n];
+            parent = new int[n];
+            stamp = new int[n];
+            epoch = 0;
+        }
+    }
+
+    @Override
+    protected long snapshotRemovals() {
+        return compact.connectivityRemovals();
+    }
+
+    @Override
+    protected boolean contains(String nodeID) {
+        return compact.indexOf(nodeID) >= 0;
+    }
+
+    /**
+     * Executes Dijkstra's algorithm until the target is settled or all reachable nodes are.
+     *
+     * @throws IllegalStateException if the source or target node does not exist in graph.
+     */
+    @Override
+    protected boolean search(TraversalStats stats) {
+        final int source = compact.indexOf(sourceNodeID);
+        final int target = compact.indexOf(targetNodeID);
+        if(source < 0 || target < 0) {
+            throw new IllegalStateException("Source or target node are null");
+        }
+        if (++epoch == 0) {
+            //epoch wrapped around, old stamps could be mistaken for current ones
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        pathDistance = -1;
+
+        final int[] offsets = compact.offsets();
+        final int[] targets = compact.targets();
+        final int[] weights = compact.weights();
+        //stamp == epoch: reached in this query, the distance may still shrink until the node is polled
+        heap.clear();
+        stamp[source] = epoch;
+        distance[source] = 0;
+        parent[source] = source;
+        heap.insertOrDecrease(source, 0);
+
+        long dequeued = 0;
+        long scanned = 0;
+        boolean found = false;
+        while (!heap.isEmpty()) {
+            int currentNode = heap.poll();
+            dequeued++;
+            if (currentNode == target) {
+                found = true;
+                break;
+            }
+            final long base = distance[currentNode];
+            int end = offsets[currentNode + 1];
+            scanned += end - offsets[currentNode];
+            for (int i = offsets[currentNode]; i < end; i++) {
+                int neighbor = targets[i];
+                long candidate = base + weights[i];
+                if (stamp[neighbor] != epoch) {
+                    stamp[neighbor] = epoch;
+                    distance[neighbor] = candidate;
+                    parent[neighbor] = currentNode;
+                    heap.insertOrDecrease(neighbor, candidate);
+                } else if (candidate < distance[neighbor] && heap.contains(neighbor)) {
+                    distance[neighbor] = candidate;
+                    parent[neighbor] = currentNode;
+                    heap.insertOrDecrease(neighbor, candidate);
+                }
+            }
+        }
+        stats.dequeued(dequeued);
+        stats.scanned(scanned);
+
+        if (!found) return false;
+        pathDistance = distance[target];
+        this.path = buildPath(compact, parent, target);
+        return true;
+    }
+
+    @Override
+    protected void clearResult() {
+        super.clearResult();
+        pathDistance = -1;
+    }
+
+    /**
+     * @return sum of the weights along the path of the last computation or -1 if the target was not reached
+     */
+    public long getDistance() {
+        return pathDistance;
+    }
+
+    /**
+     * @return String of the shortest path and its weighted distance.
+     */
+    @Override
+    public String toString() {
+        return super.toString() + "\nDistance: " + pathDistance;
+    }
+}
@@ -0,0 +1,156 @@
+import org.graphstream.graph.Graph;
+
+import java.util.Arrays;
+
+/**
+ * Direction-optimizing breadth-first search (Beamer et al.).
+ * Each level is expanded either top-down (the frontier scans its outgoing arcs) or bottom-up
+ * (every unvisited node scans its incoming arcs until it finds a parent in the frontier).
+ * Bottom-up steps pay off in the middle levels of low-diameter graphs where most arcs of a
+ * large frontier point to already visited nodes.
+ * The result is a shortest path like the one of BreadthFirstSearch, if several shortest paths
+ * exist the chosen one may differ.
+ */
+public class DirectionOptimizingBFS extends PathSearch {
+    //switch to bottom-up once the frontier's arcs exceed 1/ALPHA of the unexplored arcs
+    private static final int ALPHA = 14;
+    //switch back to top-down once the frontier shrinks below 1/BETA of all nodes
+    private static final int BETA = 24;
+
+    private CompactGraph compact;
+    private int bottomUpSteps;
+
+    public DirectionOptimizingBFS(String sourceNodeID, String targetNodeID) {
+        super(sourceNodeID, targetNodeID);
+    }
+
+    @Override
+    public void init(Graph graph) {
+        init(CompactGraph.of(graph));
+    }
+
+    /**
+     * Initialize the algorithm with an existing compact snapshot.
+     * @param compact the snapshot on which the search will run
+     */
+    public void init(CompactGraph compact) {
+        if(compact == null) throw new IllegalArgumentException("Graph is null");
+        super.init(compact.getGraph());
+        this.compact = compact;
+    }
+
+    @Override
+    protected long snapshotRemovals() {
+        return compact.connectivityRemovals();
+    }
+
+    @Override
+    protected boolean contains(String nodeID) {
+        return compact.indexOf(nodeID) >= 0;
+    }
+
+    /**
+     * Executes the search from the source node level by level until the target is discovered.
+     *
+     * @throws IllegalStateException if the source or target node does not exist in graph.
+     */
+    @Override
+    protected boolean search(TraversalStats stats) {
+        final int source = compact.indexOf(sourceNodeID);
+        final int target = compact.indexOf(targetNodeID);
+        if(source < 0 || target < 0) {
+            throw new IllegalStateException("Source or target node are null");
+        }
+
+        final int n = compact.getNodeCount();
+        final int[] offsets = compact.offsets();
+        final int[] targets = compact.targets();
+        final CompactGraph reverse = compact.transpose();
+        final int[] inOffsets = reverse.offsets();
+        final int[] sources = reverse.targets();
+
+        //-1 marks unvisited nodes, the source is its own parent
+        int[] parent = new int[n];
+        Arrays.fill(parent, -1);
+        int[] frontier = new int[n];
+        int[] next = new int[n];
+        long[] inFrontier = new long[(n + 63) >>> 6];
+
+        parent[source] = source;
+        frontier[0] = source;
+        int frontierSize = 1;
+        //arcs that bottom-up steps may still have to check
+        long unexploredArcs = reverse.getArcCount() - reverse.degree(source);
+        bottomUpSteps = 0;
+        boolean bottomUp = false;
+
+        while (frontierSize > 0 && parent[target] < 0) {
+            long frontierArcs = 0;
+            for (int i = 0; i < frontierSize; i++) frontierArcs += compact.degree(frontier[i]);
+            stats.level(frontierSize);
+            stats.dequeued(frontierSize);
+
+            if (!bottomUp && frontierArcs > unexploredArcs / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontierSize < n / BETA) {
+                bottomUp = false;
+            }
+
+            int nextSize = 0;
+            if (bottomUp) {
+                bottomUpSteps++;
+                for (int i = 0; i < frontierSize; i++) {
+                    int v = frontier[i];
+                    inFrontier[v >>> 6] |= 1L << v;
+                }
+                long scanned = 0;
+                for (int v = 0; v < n; v++) {
+                    if (parent[v] >= 0) continue;
+                    //first predecessor found in the frontier becomes the parent
+                    int i = inOffsets[v];
+                    for (int end = inOffsets[v + 1]; i < end; i++) {
+                        int u = sources[i];
+                        if ((inFrontier[u >>> 6] & (1L << u)) != 0) {
+                            parent[v] = u;
+                            next[nextSize++] = v;
+                            i++;
+                            break;
+                        }
+                    }
+                    scanned += i - inOffsets[v];
+                }
+                stats.scanned(scanned);
+                for (int i = 0; i < frontierSize; i++) inFrontier[frontier[i] >>> 6] = 0;
+            } else {
+                stats.scanned(frontierArcs);
+                for (int i = 0; i < frontierSize; i++) {
+                    int u = frontier[i];
+                    for (int j = offsets[u], end = offsets[u + 1]; j < end; j++) {
+                        int v = targets[j];
+                        if (parent[v] < 0) {
+                            parent[v] = u;
+                            next[nextSize++] = v;
+                        }
+                    }
+                }
+            }
+
+            for (int i = 0; i < nextSize; i++) unexploredArcs -= reverse.degree(next[i]);
+            int[] swap = frontier;
+            frontier = next;
+            next = swap;
+            frontierSize = nextSize;
+        }
+
+        if (parent[target] < 0) return false;
+        this.path = buildPath(compact, parent, target);
+        return true;
+    }
+
+    /**
+     * @return amount of levels of the last computation that were expanded bottom-up
+     */
+    public int getBottomUpSteps() {
+        return bottomUpSteps;
+    }
+}
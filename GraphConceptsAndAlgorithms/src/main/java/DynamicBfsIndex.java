@@ -0,0 +1,248 @@
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.stream.SinkAdapter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BFS distances and parents from a registered set of source nodes that stay up to date while the
+ * graph grows. The index subscribes to the live graph as a sink:
+ * <ul>
+ *     <li>an added node is unreached from every source, nothing has to be searched</li>
+ *     <li>an added edge u -> v can only shorten distances through v, so a BFS is started at v only if
+ *     d(u) + 1 < d(v) and only continues into nodes whose distance improves</li>
+ *     <li>removals can make distances longer, which a local repair cannot detect cheaply; the index is
+ *     marked stale and every tree is recomputed on the next query</li>
+ * </ul>
+ * Trees are kept per dense node index of the graph, node indices only change on removals.
+ * Like the graph itself the index is not thread-safe.
+ */
+public final class DynamicBfsIndex extends SinkAdapter {
+    private final Graph graph;
+    private final Map<String, Tree> trees = new LinkedHashMap<>();
+    //set by removals, the next query recomputes all trees
+    private boolean stale;
+    private int[] queue = new int[0];
+    private long recomputations;
+    private long repairs;
+
+    /**
+     * Distances and parents of one source, indexed by node index, -1 marks unreached nodes.
+     */
+    private static final class Tree {
+        int source = -1;
+        int[] distance = new int[0];
+        int[] parent = new int[0];
+    }
+
+    /**
+     * Registers the index as sink of the graph.
+     *
+     * @param graph the graph whose changes are followed
+     */
+    public DynamicBfsIndex(Graph graph) {
+        if (graph == null) throw new IllegalArgumentException("Graph is null");
+        this.graph = graph;
+        graph.addSink(this);
+    }
+
+    /**
+     * Stops following the graph. The trees keep their current state.
+     */
+    public void detach() {
+        graph.removeSink(this);
+    }
+
+    /**
+     * Adds a source and computes its tree with a full BFS.
+     *
+     * @param sourceNodeID id of the source node
+     * @throws IllegalStateException if the source node does not exist in graph.
+     */
+    public void addSource(String sourceNodeID) {
+        if (graph.getNode(sourceNodeID) == null) throw new IllegalStateException("Source node is null");
+        if (trees.containsKey(sourceNodeID)) return;
+        Tree tree = new Tree();
+        trees.put(sourceNodeID, tree);
+        if (!stale) recompute(sourceNodeID, tree);
+    }
+
+    /**
+     * @param sourceNodeID id of a registered source
+     * @return true if the source was registered
+     */
+    public boolean removeSource(String sourceNodeID) {
+        return trees.remove(sourceNodeID) != null;
+    }
+
+    /**
+     * @param sourceNodeID id of a registered source
+     * @param targetNodeID id of the target node
+     * @return the hop distance from the source or -1 if the target is unreachable or unknown
+     * @throws IllegalStateException if the source is not registered.
+     */
+    public int distanceTo(String sourceNodeID, String targetNodeID) {
+        Tree tree = tree(sourceNodeID);
+        Node target = graph.getNode(targetNodeID);
+        if (target == null || target.getIndex() >= tree.distance.length) return -1;
+        return tree.distance[target.getIndex()];
+    }
+
+    /**
+     * Returns a shortest path following the stored parents.
+     *
+     * @param sourceNodeID id of a registered source
+     * @param targetNodeID id of the target node
+     * @return an unmodifiable list of nodes (source -> target), empty if the target is unreachable
+     * @throws IllegalStateException if the source is not registered or the target node does not exist in graph.
+     */
+    public List<Node> pathTo(String sourceNodeID, String targetNodeID) {
+        Tree tree = tree(sourceNodeID);
+        Node targetNode = graph.getNode(targetNodeID);
+        if (targetNode == null) throw new IllegalStateException("Target node is null");
+        int target = targetNode.getIndex();
+        if (target >= tree.distance.length || tree.distance[target] < 0) return Collections.emptyList();
+
+        LinkedList<Node> path = new LinkedList<>();
+        for (int current = target; current != tree.source; current = tree.parent[current]) {
+            path.addFirst(graph.getNode(current));
+        }
+        path.addFirst(graph.getNode(tree.source));
+        return Collections.unmodifiableList(path);
+    }
+
+    /**
+     * @return amount of full recomputations of a tree, including the initial one of each source
+     */
+    public long getRecomputations() {
+        return recomputations;
+    }
+
+    /**
+     * @return amount of node distances improved by incremental repairs
+     */
+    public long getRepairs() {
+        return repairs;
+    }
+
+    private Tree tree(String sourceNodeID) {
+        Tree tree = trees.get(sourceNodeID);
+        if (tree == null) throw new IllegalStateException("Source is not registered: " + sourceNodeID);
+        if (stale) {
+            for (Map.Entry<String, Tree> entry : trees.entrySet()) recompute(entry.getKey(), entry.getValue());
+            stale = false;
+        }
+        return tree;
+    }
+
+    /**
+     * Full BFS of one source on the current graph.
+     */
+    private void recompute(String sourceNodeID, Tree tree) {
+        recomputations++;
+        final int n = graph.getNodeCount();
+        tree.distance = new int[Math.max(n, tree.distance.length)];
+        tree.parent = new int[tree.distance.length];
+        Arrays.fill(tree.distance, -1);
+        Node source = graph.getNode(sourceNodeID);
+        //a removed source reaches nothing until it is added again
+        tree.source = source == null ? -1 : source.getIndex();
+        if (source == null) return;
+        tree.distance[tree.source] = 0;
+        tree.parent[tree.source] = tree.source;
+        relaxFrom(tree, tree.source);
+    }
+
+    /**
+     * BFS from a node whose distance is already set, continuing only into nodes that get closer.
+     * Starting at a single node with unit weights every node is improved at most once.
+     */
+    private void relaxFrom(Tree tree, int start) {
+        if (queue.length < graph.getNodeCount()) queue = new int[Math.max(graph.getNodeCount(), queue.length * 2)];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int currentNode = queue[head++];
+            Node node = graph.getNode(currentNode);
+            int next = tree.distance[currentNode] + 1;
+            for (int i = 0; i < node.getOutDegree(); i++) {
+                int neighbor = node.getLeavingEdge(i).getOpposite(node).getIndex();
+                if (tree.distance[neighbor] < 0 || next < tree.distance[neighbor]) {
+                    tree.distance[neighbor] = next;
+                    tree.parent[neighbor] = currentNode;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+    }
+
+    /**
+     * Repairs all trees after an edge from -> to was added.
+     */
+    private void edgeInserted(int from, int to) {
+        for (Tree tree : trees.values()) {
+            int base = tree.distance[from];
+            if (base < 0) continue;
+            if (tree.distance[to] >= 0 && tree.distance[to] <= base + 1) continue;
+            tree.distance[to] = base + 1;
+            tree.parent[to] = from;
+            repairs++;
+            relaxFrom(tree, to);
+        }
+    }
+
+    @Override
+    public void nodeAdded(String sourceId, long timeId, String nodeId) {
+        if (stale) return;
+        int index = graph.getNode(nodeId).getIndex();
+        for (Map.Entry<String, Tree> entry : trees.entrySet()) {
+            Tree tree = entry.getValue();
+            if (index >= tree.distance.length) {
+                int capacity = Math.max(index + 1, tree.distance.length * 2);
+                int old = tree.distance.length;
+                tree.distance = Arrays.copyOf(tree.distance, capacity);
+                tree.parent = Arrays.copyOf(tree.parent, capacity);
+                Arrays.fill(tree.distance, old, capacity, -1);
+            }
+            tree.distance[index] = -1;
+            if (entry.getKey().equals(nodeId)) {
+                //a removed source was added again
+                tree.source = index;
+                tree.distance[index] = 0;
+                tree.parent[index] = index;
+            }
+        }
+    }
+
+    @Override
+    public void edgeAdded(String sourceId, long timeId, String edgeId, String fromNodeId, String toNodeId, boolean directed) {
+        if (stale) return;
+        Edge edge = graph.getEdge(edgeId);
+        int from = edge.getSourceNode().getIndex();
+        int to = edge.getTargetNode().getIndex();
+        edgeInserted(from, to);
+        if (!directed) edgeInserted(to, from);
+    }
+
+    @Override
+    public void nodeRemoved(String sourceId, long timeId, String nodeId) {
+        stale = true;
+    }
+
+    @Override
+    public void edgeRemoved(String sourceId, long timeId, String edgeId) {
+        stale = true;
+    }
+
+    @Override
+    public void graphCleared(String sourceId, long timeId) {
+        stale = true;
+    }
+}
@@ -0,0 +1,605 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * A disk-resident adjacency file for graphs that do not fit into memory as GraphStream objects or
+ * snapshots, searched by {@link SemiExternalBFS}. Only per-node data is loaded into memory: the node
+ * names (a {@link NodeDictionary}) and the start of every adjacency list; the arcs stay on disk.
+ * <p>
+ * The file is produced by two external sorts: records are collected in a bounded buffer, each full
+ * buffer is sorted and written as a run, and the runs are merged. The first sort groups the edges
+ * by node pair to drop duplicates with the rules of {@link BulkGraphLoader}, the second one orders
+ * the arcs by (source, target). Directed edges give one arc, undirected ones an arc at both ends,
+ * parallel arcs are stored once. Weights are not stored, the file serves hop distance searches.
+ * <p>
+ * Layout (little endian): a 64 byte header (magic, version, node count, arc count, position of the
+ * offsets and of the names, length and modification time of the source file), the targets of all
+ * arcs sorted by source (ints), the offsets (n + 1 longs, aligned to 8) and the names (length + UTF-8).
+ */
+public final class ExternalEdgeFile {
+    /** records sorted in memory before they are written as a run, 8 bytes each */
+    public static final int DEFAULT_RUN_SIZE = 1 << 22;
+
+    static final int HEADER_SIZE = 64;
+    private static final int MAGIC = 0x45414B47; //"GKAE"
+    private static final int VERSION = 1;
+    private static final int IO_BUFFER = 1 << 16;
+
+    private final Path file;
+    private final NodeDictionary nodes;
+    private final long[] offsets;
+    private final long sourceLength;
+    private final long sourceModified;
+
+    private ExternalEdgeFile(Path file, NodeDictionary nodes, long[] offsets, long sourceLength, long sourceModified) {
+        this.file = file;
+        this.nodes = nodes;
+        this.offsets = offsets;
+        this.sourceLength = sourceLength;
+        this.sourceModified = sourceModified;
+    }
+
+    /**
+     * @param gkaFile the text file
+     * @return the edge file stored next to it
+     */
+    public static File edgeFile(File gkaFile) {
+        return new File(gkaFile.getPath() + ".edges");
+    }
+
+    /**
+     * Opens the edge file of a .gka file if it was converted from the current version of the file,
+     * otherwise converts the file again.
+     *
+     * @param gkaFile the .gka file
+     * @return the edge file
+     * @throws IOException if the .gka file cannot be read or the edge file cannot be written
+     */
+    public static ExternalEdgeFile openOrConvert(File gkaFile) throws IOException {
+        File file = edgeFile(gkaFile);
+        if (file.isFile()) {
+            try {
+                ExternalEdgeFile edges = open(file.toPath());
+                if (edges.sourceLength == gkaFile.length() && edges.sourceModified == gkaFile.lastModified()) return edges;
+            } catch (IOException e) {
+                //corrupt file, convert again below
+            }
+        }
+        return convert(gkaFile.toPath(), file.toPath(), DEFAULT_RUN_SIZE);
+    }
+
+    /**
+     * Streams a .gka file through the {@link GkaLexer} into an edge file without building a graph.
+     *
+     * @param gkaFile the .gka file
+     * @param target  the edge file, an existing file is replaced
+     * @param runSize amount of records sorted in memory at once
+     * @return the edge file
+     * @throws IOException if the .gka file cannot be read or the edge file cannot be written
+     */
+    public static ExternalEdgeFile convert(Path gkaFile, Path target, int runSize) throws IOException {
+        File source = gkaFile.toFile();
+        //recorded before reading, a file changing during the conversion is converted again next time
+        long length = source.length();
+        long modified = source.lastModified();
+        try (Writer writer = writer(target, runSize)) {
+            try {
+                new GkaLexer().parse(gkaFile, writer);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return writer.finish(length, modified);
+        }
+    }
+
+    /**
+     * @param target  the edge file to write
+     * @param runSize amount of records sorted in memory at once
+     * @return a writer collecting edges
+     */
+    public static Writer writer(Path target, int runSize) {
+        if (target == null) throw new IllegalArgumentException("Target file is null");
+        if (runSize < 1) throw new IllegalArgumentException("Run size must be positive");
+        return new Writer(target, runSize);
+    }
+
+    /**
+     * Reads the header, offsets and names of an edge file, the arcs are left on disk.
+     *
+     * @param file the edge file
+     * @return the opened file
+     * @throws IOException if the file cannot be read or is not an edge file
+     */
+    public static ExternalEdgeFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (size < HEADER_SIZE || channel.read(header, 0) != HEADER_SIZE
+                    || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not an edge file: " + file);
+            }
+            long n = header.getLong(8);
+            long m = header.getLong(16);
+            long offsetsPosition = header.getLong(24);
+            long namesPosition = header.getLong(32);
+            if (n < 0 || n >= Integer.MAX_VALUE || m < 0 || offsetsPosition != align(HEADER_SIZE + 4 * m)
+                    || namesPosition != offsetsPosition + 8 * (n + 1) || namesPosition > size) {
+                throw new IOException("Corrupt edge file header: " + file);
+            }
+
+            BlockReader reader = new BlockReader(channel, offsetsPosition, size);
+            long[] offsets = new long[(int) n + 1];
+            for (int v = 0; v <= n; v++) offsets[v] = reader.readLong();
+            for (int v = 0; v < n; v++) {
+                if (offsets[v] > offsets[v + 1]) throw new IOException("Corrupt edge file offsets: " + file);
+            }
+            if (offsets[0] != 0 || offsets[(int) n] != m) throw new IOException("Corrupt edge file offsets: " + file);
+            NodeDictionary nodes = new NodeDictionary((int) n);
+            for (int v = 0; v < n; v++) {
+                byte[] name = new byte[reader.readInt()];
+                reader.readBytes(name);
+                if (nodes.add(new String(name, StandardCharsets.UTF_8)) != v) throw new IOException("Duplicate node name in " + file);
+            }
+            return new ExternalEdgeFile(file, nodes, offsets, header.getLong(40), header.getLong(48));
+        }
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    /**
+     * @return the file holding the arcs
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return amount of nodes
+     */
+    public int getNodeCount() {
+        return nodes.size();
+    }
+
+    /**
+     * @return amount of stored arcs, undirected edges count twice
+     */
+    public long getArcCount() {
+        return offsets[offsets.length - 1];
+    }
+
+    /**
+     * @param name node name
+     * @return the node id or -1 if the name is unknown
+     */
+    public int indexOf(String name) {
+        return nodes.indexOf(name);
+    }
+
+    /**
+     * @param id node id
+     * @return the name of the node
+     */
+    public String name(int id) {
+        return nodes.name(id);
+    }
+
+    /**
+     * @param id node id
+     * @return amount of arcs leaving the node
+     */
+    public int degree(int id) {
+        return (int) (offsets[id + 1] - offsets[id]);
+    }
+
+    /**
+     * @param id node id, or the node count for the end of the last list
+     * @return file position of the first target of the node's adjacency list
+     */
+    long arcPosition(int id) {
+        return HEADER_SIZE + 4 * offsets[id];
+    }
+
+    /**
+     * Collects edges (from the {@link GkaLexer}, {@link SyntheticGraphs} or directly) and writes the
+     * edge file. Memory use is the node dictionary plus two runs of records. Closing the writer
+     * removes the temporary run files, also if {@link #finish} was never called.
+     */
+    public static final class Writer implements GkaLexer.EdgeHandler, SyntheticGraphs.EdgeSink, Closeable {
+        private final Path target;
+        private final NodeDictionary nodes = new NodeDictionary();
+        //edges as low << 33 | high << 2 | directed << 1 | reversed, the first pass drops duplicates
+        private final ExternalSorter edges;
+        //arcs as source << 32 | target, the second pass sorts them by source
+        private final ExternalSorter arcs;
+        //duplicates within the current run of edges, duplicates across runs are dropped by the merge
+        private LongHashSet runKeys = new LongHashSet();
+
+        private Writer(Path target, int runSize) {
+            this.target = target;
+            this.edges = new ExternalSorter(target, runSize, 1);
+            this.arcs = new ExternalSorter(target, runSize, 0);
+        }
+
+        /**
+         * @throws UncheckedIOException if a run cannot be written
+         */
+        @Override
+        public void edge(String source, String directed, String target, String edgeLabel, Integer edgeWeight) {
+            try {
+                add(source, target, directed.equals("->"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Adds a generated edge, node n is named "v" + n like in {@link SyntheticGraphs.GraphSink}.
+         *
+         * @throws UncheckedIOException if a run cannot be written
+         */
+        @Override
+        public void edge(int source, int target, boolean directed, int weight) {
+            try {
+                add("v" + source, "v" + target, directed);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Adds an edge. Like in {@link BulkGraphLoader} "A->B" and "B->A" count as duplicates, the
+         * edge seen first is kept.
+         *
+         * @param source   source node
+         * @param target   target node
+         * @param directed true for "->"
+         * @return false if the edge is a duplicate within the current run (duplicates of edges in
+         * earlier runs are only dropped by {@link #finish})
+         * @throws IOException if a full run cannot be written
+         */
+        public boolean add(String source, String target, boolean directed) throws IOException {
+            long s = nodes.add(source);
+            long t = nodes.add(target);
+            long low = Math.min(s, t);
+            long high = Math.max(s, t);
+            long key = low << 32 | high << 1 | (directed ? 1 : 0);
+            if (edges.isFull()) {
+                edges.spill();
+                runKeys = new LongHashSet();
+            }
+            if (!runKeys.add(key)) return false;
+            edges.add(low << 33 | high << 2 | (directed ? 2 : 0) | (s != low ? 1 : 0));
+            return true;
+        }
+
+        /**
+         * Merges the runs and writes the edge file.
+         *
+         * @param sourceLength   length of the .gka file the edges came from (0 if none)
+         * @param sourceModified modification time of the .gka file (0 if none)
+         * @return the written file
+         * @throws IOException if the file cannot be written
+         */
+        public ExternalEdgeFile finish(long sourceLength, long sourceModified) throws IOException {
+            //first pass: the first edge of every node pair and direction becomes one or two arcs
+            long previous = 0;
+            boolean first = true;
+            for (ExternalSorter.Merge merge = edges.merge(); merge.next(); ) {
+                long edge = merge.current();
+                if (!first && edge >>> 1 == previous >>> 1) continue;
+                first = false;
+                previous = edge;
+                long low = edge >>> 33;
+                long high = (edge >>> 2) & 0x7FFFFFFFL;
+                boolean reversed = (edge & 1) != 0;
+                arcs.add(reversed ? high << 32 | low : low << 32 | high);
+                if ((edge & 2) == 0 && low != high) arcs.add(reversed ? low << 32 | high : high << 32 | low);
+                if (arcs.isFull()) arcs.spill();
+            }
+            edges.close();
+
+            //second pass: arcs by source, "A--B" and "B->A" give the same arc once
+            final int n = nodes.size();
+            long[] offsets = new long[n + 1];
+            long m = 0;
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                BlockWriter writer = new BlockWriter(channel);
+                writer.skip(HEADER_SIZE);
+                previous = -1;
+                for (ExternalSorter.Merge merge = arcs.merge(); merge.next(); ) {
+                    long arc = merge.current();
+                    if (arc == previous) continue;
+                    writer.writeInt((int) arc);
+                    offsets[(int) (arc >>> 32) + 1]++;
+                    m++;
+                    previous = arc;
+                }
+                arcs.close();
+
+                for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+                long offsetsPosition = align(HEADER_SIZE + 4 * m);
+                writer.skip(offsetsPosition - (HEADER_SIZE + 4 * m));
+                for (long offset : offsets) writer.writeLong(offset);
+                for (int v = 0; v < n; v++) {
+                    byte[] name = nodes.name(v).getBytes(StandardCharsets.UTF_8);
+                    writer.writeInt(name.length);
+                    writer.writeBytes(name);
+                }
+                writer.flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, n).putLong(16, m)
+                        .putLong(24, offsetsPosition).putLong(32, offsetsPosition + 8L * (n + 1))
+                        .putLong(40, sourceLength).putLong(48, sourceModified);
+                while (header.hasRemaining()) channel.write(header, header.position());
+            }
+            return new ExternalEdgeFile(target, nodes, offsets, sourceLength, sourceModified);
+        }
+
+        /**
+         * Removes the temporary runs.
+         */
+        @Override
+        public void close() throws IOException {
+            edges.close();
+            arcs.close();
+        }
+    }
+
+    /**
+     * Sorts more longs than fit into memory: full buffers are sorted and written as runs next to the
+     * target file, {@link #merge} streams all values in order. Values that are equal without their
+     * lowest ignored bits come out in the order of their runs, the values still buffered count as the
+     * last run.
+     */
+    private static final class ExternalSorter implements Closeable {
+        private final Path target;
+        private final long[] buffer;
+        private final int ignoredBits;
+        private final List<Path> runs = new ArrayList<>();
+        private final List<FileChannel> open = new ArrayList<>();
+        private int size;
+
+        ExternalSorter(Path target, int runSize, int ignoredBits) {
+            this.target = target;
+            this.buffer = new long[runSize];
+            this.ignoredBits = ignoredBits;
+        }
+
+        boolean isFull() {
+            return size == buffer.length;
+        }
+
+        void add(long value) throws IOException {
+            if (isFull()) spill();
+            buffer[size++] = value;
+        }
+
+        void spill() throws IOException {
+            sortUnsigned();
+            Path run = Files.createTempFile(target.toAbsolutePath().getParent(), target.getFileName().toString(), ".run");
+            runs.add(run);
+            try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE)) {
+                BlockWriter writer = new BlockWriter(channel);
+                for (int i = 0; i < size; i++) writer.writeLong(buffer[i]);
+                writer.flush();
+            }
+            size = 0;
+        }
+
+        /**
+         * Edge records use the sign bit, flipping it makes the signed sort an unsigned one.
+         */
+        private void sortUnsigned() {
+            for (int i = 0; i < size; i++) buffer[i] ^= Long.MIN_VALUE;
+            Arrays.sort(buffer, 0, size);
+            for (int i = 0; i < size; i++) buffer[i] ^= Long.MIN_VALUE;
+        }
+
+        Merge merge() throws IOException {
+            sortUnsigned();
+            Merge merge = new Merge(ignoredBits);
+            for (int i = 0; i < runs.size(); i++) {
+                FileChannel input = FileChannel.open(runs.get(i), StandardOpenOption.READ);
+                open.add(input);
+                merge.add(new Run(i, new BlockReader(input, 0, input.size()), null, 0));
+            }
+            merge.add(new Run(runs.size(), null, buffer, size));
+            size = 0;
+            return merge;
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (FileChannel input : open) input.close();
+            open.clear();
+            for (Path run : runs) Files.deleteIfExists(run);
+            runs.clear();
+        }
+
+        /**
+         * k-way merge of the runs.
+         */
+        static final class Merge {
+            private final PriorityQueue<Run> heap;
+            private long current;
+
+            Merge(int ignoredBits) {
+                heap = new PriorityQueue<>((a, b) -> {
+                    long x = a.current >>> ignoredBits;
+                    long y = b.current >>> ignoredBits;
+                    if (x != y) return Long.compareUnsigned(x, y);
+                    if (a.number != b.number) return Integer.compare(a.number, b.number);
+                    return Long.compareUnsigned(a.current, b.current);
+                });
+            }
+
+            private void add(Run run) throws IOException {
+                if (run.advance()) heap.add(run);
+            }
+
+            /**
+             * @return false once all values were returned
+             */
+            boolean next() throws IOException {
+                Run run = heap.poll();
+                if (run == null) return false;
+                current = run.current;
+                add(run);
+                return true;
+            }
+
+            long current() {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Sorted values of one run, read from disk or from the in-memory buffer.
+     */
+    private static final class Run {
+        private final int number;
+        private final BlockReader reader;
+        private final long[] memory;
+        private long remaining;
+        private int index;
+        long current;
+
+        Run(int number, BlockReader reader, long[] memory, int size) {
+            this.number = number;
+            this.reader = reader;
+            this.memory = memory;
+            this.remaining = reader != null ? reader.remaining() / 8 : size;
+        }
+
+        boolean advance() throws IOException {
+            if (remaining == 0) return false;
+            remaining--;
+            current = reader != null ? reader.readLong() : memory[index++];
+            return true;
+        }
+    }
+
+    /**
+     * Sequential little endian reads through a fixed buffer.
+     */
+    static final class BlockReader {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        private final long end;
+        private long position;
+
+        BlockReader(FileChannel channel, long position, long end) {
+            this.channel = channel;
+            this.position = position;
+            this.end = end;
+            buffer.limit(0);
+        }
+
+        long remaining() {
+            return end - position + buffer.remaining();
+        }
+
+        private void require(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) return;
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                int limit = (int) Math.min(buffer.capacity(), buffer.position() + (end - position));
+                if (limit <= buffer.position()) throw new EOFException("Unexpected end of file");
+                buffer.limit(limit);
+                int read = channel.read(buffer, position);
+                if (read < 0) throw new EOFException("Unexpected end of file");
+                position += read;
+            }
+            buffer.flip();
+        }
+
+        int readInt() throws IOException {
+            require(4);
+            return buffer.getInt();
+        }
+
+        long readLong() throws IOException {
+            require(8);
+            return buffer.getLong();
+        }
+
+        void readBytes(byte[] bytes) throws IOException {
+            int done = 0;
+            while (done < bytes.length) {
+                require(1);
+                int chunk = Math.min(buffer.remaining(), bytes.length - done);
+                buffer.get(bytes, done, chunk);
+                done += chunk;
+            }
+        }
+    }
+
+    /**
+     * Sequential little endian writes through a fixed buffer, starting at position 0.
+     */
+    private static final class BlockWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        private long position;
+
+        BlockWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) flush();
+        }
+
+        void skip(long bytes) throws IOException {
+            for (long i = 0; i < bytes; i++) {
+                ensure(1);
+                buffer.put((byte) 0);
+            }
+        }
+
+        void writeInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void writeLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void writeBytes(byte[] bytes) throws IOException {
+            int done = 0;
+            while (done < bytes.length) {
+                ensure(1);
+                int chunk = Math.min(buffer.remaining(), bytes.length - done);
+                buffer.put(bytes, done, chunk);
+                done += chunk;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) position += channel.write(buffer, position);
+            buffer.clear();
+        }
+    }
+}
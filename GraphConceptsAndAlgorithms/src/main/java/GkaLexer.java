@@ -0,0 +1,231 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A regex-free tokenizer for .gka files that reads the file through memory-mapped NIO buffers.
+ * Every line is matched by a hand-written byte-level state machine that accepts exactly the
+ * grammar of the pattern in GraphParser.lineParser:
+ * <pre>  node ws* (-> | --) ws* node [ws* "(" label ")"] ws* [":" ws* digits["." digits]] ws* [";"]</pre>
+ * Lines are trimmed like String.trim() and may end with \n, \r\n or \r.
+ * Nodes are ASCII word characters, labels are decoded as UTF-8.
+ * Large files are mapped window by window, lines crossing a window border are carried into the next window.
+ */
+public class GkaLexer {
+    /**
+     * Receives the edges found by the lexer.
+     */
+    public interface EdgeHandler {
+        /**
+         * Called for every line matching the grammar, in file order.
+         *
+         * @param source     source node
+         * @param directed   "->" or "--"
+         * @param target     target node
+         * @param edgeLabel  label or null
+         * @param edgeWeight weight or null (also null for fractional or too large weights)
+         */
+        void edge(String source, String directed, String target, String edgeLabel, Integer edgeWeight);
+
+        /**
+         * Called for every matching line with its line number, delegates to {@link #edge} by default.
+         *
+         * @param lineNumber 1-based line number in the file
+         */
+        default void edge(long lineNumber, String source, String directed, String target, String edgeLabel, Integer edgeWeight) {
+            edge(source, directed, target, edgeLabel, edgeWeight);
+        }
+
+        /**
+         * Called for every non-blank line that does not match the grammar. Ignored by default.
+         *
+         * @param lineNumber 1-based line number in the file
+         */
+        default void rejected(long lineNumber) {
+        }
+    }
+
+    private static final int DEFAULT_WINDOW = 1 << 30;
+
+    private final int windowSize;
+
+    public GkaLexer() {
+        this(DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param windowSize amount of bytes mapped at once (grows automatically for longer lines)
+     */
+    GkaLexer(int windowSize) {
+        if (windowSize < 1) throw new IllegalArgumentException("Window size must be positive");
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Tokenizes a whole .gka file.
+     *
+     * @param file    the file to read
+     * @param handler receives every matching line
+     * @return amount of lines that matched the grammar
+     * @throws IOException if the file cannot be mapped
+     */
+    public long parse(Path file, EdgeHandler handler) throws IOException {
+        long matched = 0;
+        long lineNumber = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            long position = 0;
+            int window = windowSize;
+            while (position < size) {
+                int length = (int) Math.min(window, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    byte b = buffer.get(i);
+                    if (b != '\n' && b != '\r') continue;
+                    //a \r at the window border may be the first half of \r\n, keep it for the next window
+                    if (b == '\r' && i + 1 == length && !last) break;
+                    if (parseLine(buffer, lineStart, i, ++lineNumber, handler)) matched++;
+                    if (b == '\r' && i + 1 < length && buffer.get(i + 1) == '\n') i++;
+                    lineStart = i + 1;
+                }
+                if (last) {
+                    if (lineStart < length && parseLine(buffer, lineStart, length, ++lineNumber, handler)) matched++;
+                    break;
+                }
+                if (lineStart == 0) {
+                    //no complete line in this window, map a larger one
+                    if (window == Integer.MAX_VALUE) throw new IOException("Line too long in " + file);
+                    window = (int) Math.min(Integer.MAX_VALUE, window * 2L);
+                    continue;
+                }
+                position += lineStart;
+                window = windowSize;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * Matches a single line [start, end) of the buffer and hands it to the handler.
+     * Blank lines are skipped, other lines that do not match are reported as rejected.
+     *
+     * @return true if the line matched the grammar
+     */
+    private static boolean parseLine(MappedByteBuffer buffer, int start, int end, long lineNumber, EdgeHandler handler) {
+        //trim like String.trim()
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') start++;
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') end--;
+        if (start == end) return false;
+        int i = start;
+
+        //source node
+        int sourceStart = i;
+        while (i < end && isWordChar(buffer.get(i))) i++;
+        if (i == sourceStart) return reject(handler, lineNumber);
+        int sourceEnd = i;
+        i = skipWhitespace(buffer, i, end);
+
+        //direction
+        if (i + 1 >= end || buffer.get(i) != '-') return reject(handler, lineNumber);
+        byte arrow = buffer.get(i + 1);
+        if (arrow != '>' && arrow != '-') return reject(handler, lineNumber);
+        i = skipWhitespace(buffer, i + 2, end);
+
+        //target node
+        int targetStart = i;
+        while (i < end && isWordChar(buffer.get(i))) i++;
+        if (i == targetStart) return reject(handler, lineNumber);
+        int targetEnd = i;
+        i = skipWhitespace(buffer, i, end);
+
+        //optional label, at least one character that is not ')'
+        int labelStart = -1;
+        int labelEnd = -1;
+        if (i < end && buffer.get(i) == '(') {
+            labelStart = i + 1;
+            i = labelStart;
+            while (i < end && buffer.get(i) != ')') i++;
+            if (i == end || i == labelStart) return reject(handler, lineNumber);
+            labelEnd = i;
+            i = skipWhitespace(buffer, i + 1, end);
+        }
+
+        //optional weight, digits with an optional fraction
+        Integer edgeWeight = null;
+        if (i < end && buffer.get(i) == ':') {
+            i = skipWhitespace(buffer, i + 1, end);
+            int digitsStart = i;
+            long value = 0;
+            boolean overflow = false;
+            while (i < end && isDigit(buffer.get(i))) {
+                if (!overflow) {
+                    value = value * 10 + (buffer.get(i) - '0');
+                    overflow = value > Integer.MAX_VALUE;
+                }
+                i++;
+            }
+            if (i == digitsStart) return reject(handler, lineNumber);
+            boolean fraction = false;
+            if (i < end && buffer.get(i) == '.') {
+                int fractionStart = ++i;
+                while (i < end && isDigit(buffer.get(i))) i++;
+                if (i == fractionStart) return reject(handler, lineNumber);
+                fraction = true;
+            }
+            //Integer.parseInt rejects fractions and overflows, the line still counts as parsed
+            if (!fraction && !overflow) edgeWeight = (int) value;
+            i = skipWhitespace(buffer, i, end);
+        }
+
+        //optional semicolon, then the line has to end
+        if (i < end && buffer.get(i) == ';') i++;
+        if (i != end) return reject(handler, lineNumber);
+
+        String source = ascii(buffer, sourceStart, sourceEnd);
+        String target = ascii(buffer, targetStart, targetEnd);
+        String edgeLabel = labelStart < 0 ? null : utf8(buffer, labelStart, labelEnd);
+        handler.edge(lineNumber, source, arrow == '>' ? "->" : "--", target, edgeLabel, edgeWeight);
+        return true;
+    }
+
+    private static boolean reject(EdgeHandler handler, long lineNumber) {
+        handler.rejected(lineNumber);
+        return false;
+    }
+
+    private static int skipWhitespace(MappedByteBuffer buffer, int i, int end) {
+        //same set as \s: space, \t, \n, \x0B, \f, \r
+        while (i < end) {
+            byte b = buffer.get(i);
+            if (b != ' ' && (b < '\t' || b > '\r')) break;
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWordChar(byte b) {
+        return (b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || isDigit(b) || b == '_';
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    private static String ascii(MappedByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private static String utf8(MappedByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
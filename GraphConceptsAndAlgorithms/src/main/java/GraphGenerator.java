@@ -4,11 +4,13 @@ import org.graphstream.graph.Node;
 import org.graphstream.graph.implementations.DefaultGraph;
 
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public class GraphGenerator {
     private final ArrayList<Graph> graphs = new ArrayList<>();
-    private static int graphId = 0;
+    //shared by all generators, atomic so graphs can be created from several threads
+    private static final AtomicInteger graphId = new AtomicInteger();
 
     /**
      * returns a mutable version of the graph list of the generator used for parsing purposes
@@ -38,8 +40,7 @@ public class GraphGenerator {
 
     public Graph createNewGraph(String fileName) {
         //unique identifier generated when graph is created
-        ++graphId;
-        Graph graph = new DefaultGraph("graph:" + graphId);
+        Graph graph = new DefaultGraph("graph:" + graphId.incrementAndGet());
         graph.setAttribute("sourceFile", fileName);
         return graph;
     }
@@ -52,10 +53,8 @@ public class GraphGenerator {
      * @return true if nodeID already exists in graph.
      */
     public boolean containsNodeId(Graph g, String node) {
-        return g.nodes()
-                .anyMatch(n ->
-                        n.getId()
-                                .equals(node));
+        //hash lookup instead of scanning all nodes
+        return g.getNode(node) != null;
     }
 
     /**
@@ -66,14 +65,15 @@ public class GraphGenerator {
      * @param target     is the target node.
      * @param directed   is the state of an edge.
      * @param edgeWeight is an integer value associated with an edge.
+     * @return false if the edge was a duplicate and skipped
      */
-    public void updateGraph(Graph g, String source, String target, String directed, String edgeLabel, Integer edgeWeight) {
+    public boolean updateGraph(Graph g, String source, String target, String directed, String edgeLabel, Integer edgeWeight) {
         //generate source
         generateNode(g, source);
         //generate target
         generateNode(g, target);
         //generate edge
-        generateEdge(g, source, target, directed, edgeLabel, edgeWeight);
+        return generateEdge(g, source, target, directed, edgeLabel, edgeWeight);
     }
 
     public void generateNode(Graph g, String name) {
@@ -94,17 +94,16 @@ public class GraphGenerator {
      * @param directed   if edge is directed or not
      * @param edgeLabel  a custom name for an edge
      * @param edgeWeight integer value storing an edge weight
+     * @return false if the edge already exists (in either direction) and was skipped
      */
-    public void generateEdge(Graph g, String source, String target, String directed, String edgeLabel, Integer edgeWeight) {
+    public boolean generateEdge(Graph g, String source, String target, String directed, String edgeLabel, Integer edgeWeight) {
         //don't generate duplicates
         String name = source + directed + target;
         String reversed = target + directed + source;
 
        //undirected duplicate checker
-        if (g.getEdge(name) != null || g.getEdge(reversed)!= null) {
-            System.out.printf("Skipped: s=%s %s t=%s (duplicate edge)\n", source, directed, target);
-            return;
-        }
+        //callers report skipped duplicates (see ParseReport), printing them here slowed down large loads
+        if (g.getEdge(name) != null || g.getEdge(reversed)!= null) return false;
 
         //adds attributes in order: label, source, target, direction (bool)
         g.addEdge(name, g.getNode(source), g.getNode(target), checkDirected(directed));
@@ -114,6 +113,7 @@ public class GraphGenerator {
         //add attributes if they exist
         if (edgeWeight != null) currentEdge.setAttribute("weight", edgeWeight);
         if (edgeLabel != null) currentEdge.setAttribute("label", edgeLabel);
+        return true;
     }
 
     /**
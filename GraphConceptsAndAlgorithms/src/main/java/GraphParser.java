@@ -1,16 +1,37 @@
 import org.graphstream.graph.Graph;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class GraphParser {
     private final GraphGenerator gg;
     private final File dir;
+    private boolean memoryMapped;
+    private boolean bulkLoading;
+    private boolean snapshots;
+    private ParseReport.Verbosity verbosity = ParseReport.Verbosity.SUMMARY;
+    private List<ParseReport> reports = new ArrayList<>();
+    //output a concurrently parsed file may buffer while an earlier file is still printing
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
 
     public GraphParser(GraphGenerator gg) {
         //init parsed directory
@@ -22,6 +43,56 @@ public class GraphParser {
         this.dir = Objects.requireNonNull(dir, "Directory needs to be not null");
     }
 
+    /**
+     * Switches between the Scanner/RegEX parser and the memory-mapped byte-level lexer (GkaLexer).
+     * Both accept the same input, the lexer is considerably faster on large files.
+     *
+     * @param memoryMapped true to parse files through GkaLexer
+     */
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    /**
+     * Switches between adding every edge through GraphGenerator.updateGraph and collecting all edges
+     * of a file in a BulkGraphLoader that builds the graph in one pass after the file was read.
+     * Both produce the same graph, bulk loading avoids the per-edge node scans on large files.
+     *
+     * @param bulkLoading true to build graphs with BulkGraphLoader
+     */
+    public void setBulkLoading(boolean bulkLoading) {
+        this.bulkLoading = bulkLoading;
+    }
+
+    /**
+     * Enables binary snapshots: after a .gka file was parsed its graph is written to a snapshot file next to it
+     * (see GraphSnapshot) and on the next run the snapshot is loaded instead, as long as the .gka file is unchanged.
+     *
+     * @param snapshots true to read and write snapshots
+     */
+    public void setSnapshots(boolean snapshots) {
+        this.snapshots = snapshots;
+    }
+
+    /**
+     * Sets how much is printed while parsing: a summary per file (default) or every single line.
+     *
+     * @param verbosity SUMMARY or TRACE
+     */
+    public void setVerbosity(ParseReport.Verbosity verbosity) {
+        this.verbosity = Objects.requireNonNull(verbosity, "Verbosity needs to be not null");
+    }
+
+    /**
+     * Returns the reports of the last fileParser or concurrentFileParser call, in file order.
+     * Files loaded from a snapshot have an empty report.
+     *
+     * @return one report per file
+     */
+    public List<ParseReport> getReports() {
+        return Collections.unmodifiableList(reports);
+    }
+
     /**
      * This method helps to extract files from a fixed directory (dir)
      * Strings are matched via the Pattern class.
@@ -42,15 +113,16 @@ public class GraphParser {
      * Strings are matched via the Pattern class.
      *
      * @param file selects a file to be parsed by scanner object
+     * @param out  stream receiving error messages
      * @returns the initialized scanner
      */
-    private Scanner initializeScanner(File file) {
+    private Scanner initializeScanner(File file, PrintStream out) {
         //initialize parser with file param
         Scanner parser = null;
         try {
             parser = new Scanner(file);
         } catch (FileNotFoundException e) {
-            System.out.println(e.getMessage());
+            out.println(e.getMessage());
         }
         return parser;
     }
@@ -62,24 +134,253 @@ public class GraphParser {
      * @param files list of files to be parsed one by one
      */
     public void fileParser(ArrayList<File> files) {
+        List<ParseReport> parsed = new ArrayList<>();
         //iterate over each file in file list
         for (File file : files) {
-            String fileName = file.getName();
-            boolean invalidFileContentFlag = true; //assume every file content is corrupted
-            Scanner parser = initializeScanner(file);
-            if (parser == null) continue; //skip incorrectly initialized parsers
+            ParseReport report = new ParseReport(file.getName(), verbosity, System.out, ParseReport.DEFAULT_SAMPLE_SIZE);
+            parsed.add(report);
+            Graph graph = parseFile(file, null, report, System.out);
+            //mutable array list to expand this with each parsed file
+            if (graph != null && !gg.isEmpty(graph)) gg.getMutableGraphs().add(graph);
+        }
+        reports = parsed;
+    }
+
+    /**
+     * Parses all files concurrently, every file on its own virtual thread.
+     * Graph IDs are handed out in file order before parsing starts, only to files that can be read,
+     * and the parsed graphs are registered in file order afterwards, so the result is the same as with fileParser.
+     * The console output is printed in file order as well: the earliest unfinished file prints directly,
+     * later files buffer at most OUTPUT_BUFFER_SIZE bytes and then wait for their turn.
+     *
+     * @param files list of files to be parsed
+     */
+    public void concurrentFileParser(ArrayList<File> files) {
+        //graphs are created up front on this thread, which fixes their IDs
+        List<Graph> graphs = new ArrayList<>();
+        for (File file : files) graphs.add(file.isFile() && file.canRead() ? gg.createNewGraph(file.getName()) : null);
+
+        List<Future<?>> tasks = new ArrayList<>();
+        //each slot is written by one task and read after its future completed
+        ParseReport[] parsed = new ParseReport[files.size()];
+        OrderedOutput output = new OrderedOutput(System.out, files.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < files.size(); i++) {
+                final File file = files.get(i);
+                final Graph graph = graphs.get(i);
+                final int slot = i;
+                tasks.add(executor.submit(() -> {
+                    try (PrintStream out = new PrintStream(output.slot(slot), false, StandardCharsets.UTF_8)) {
+                        parsed[slot] = new ParseReport(file.getName(), verbosity, out, ParseReport.DEFAULT_SAMPLE_SIZE);
+                        if (graph == null) {
+                            //reported like a file the scanner cannot open, no graph ID is used up
+                            out.println(file.getPath() + " (cannot be read)");
+                        } else {
+                            parseFile(file, graph, parsed[slot], out);
+                        }
+                    } finally {
+                        output.finish(slot);
+                    }
+                    return null;
+                }));
+            }
+
+            for (int i = 0; i < files.size(); i++) {
+                tasks.get(i).get();
+                Graph graph = graphs.get(i);
+                if (graph != null && !gg.isEmpty(graph)) gg.getMutableGraphs().add(graph);
+            }
+            reports = List.of(parsed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Parsing was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Prints the output of concurrently parsed files in file order.
+     * The slot of the earliest unfinished file writes through to the target, every other slot
+     * buffers up to OUTPUT_BUFFER_SIZE bytes and blocks when it is full until it becomes the head.
+     * A ReentrantLock is used instead of synchronized so waiting virtual threads do not pin their carrier.
+     */
+    private static final class OrderedOutput {
+        private final PrintStream target;
+        private final ByteArrayOutputStream[] buffers;
+        private final boolean[] finished;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition advanced = lock.newCondition();
+        private int head;
+
+        OrderedOutput(PrintStream target, int slots) {
+            this.target = target;
+            this.buffers = new ByteArrayOutputStream[slots];
+            this.finished = new boolean[slots];
+        }
+
+        OutputStream slot(int slot) {
+            return new OutputStream() {
+                @Override
+                public void write(int b) {
+                    write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) {
+                    lock.lock();
+                    try {
+                        while (slot != head && buffered(slot) + length > OUTPUT_BUFFER_SIZE && buffered(slot) > 0) {
+                            advanced.awaitUninterruptibly();
+                        }
+                        if (slot == head) {
+                            target.write(bytes, offset, length);
+                        } else {
+                            if (buffers[slot] == null) buffers[slot] = new ByteArrayOutputStream();
+                            buffers[slot].write(bytes, offset, length);
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            };
+        }
+
+        private int buffered(int slot) {
+            return buffers[slot] == null ? 0 : buffers[slot].size();
+        }
+
+        /**
+         * Marks a slot as complete and hands the output over to the next unfinished slot,
+         * printing everything the following slots buffered in the meantime.
+         */
+        void finish(int slot) {
+            lock.lock();
+            try {
+                finished[slot] = true;
+                while (head < finished.length && finished[head]) {
+                    head++;
+                    if (head < buffers.length && buffers[head] != null) {
+                        buffers[head].writeTo(target);
+                        buffers[head] = null;
+                    }
+                }
+                target.flush();
+                advanced.signalAll();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Parses a single .gka file with the Scanner/RegEX parser or the memory-mapped lexer.
+     *
+     * @param file  the .gka file
+     * @param graph  the graph to fill, or null to create one once the file could be opened
+     * @param report collects accepted, rejected and duplicate lines
+     * @param out    stream receiving the parse output
+     * @return the filled graph or null if the file could not be read
+     */
+    private Graph parseFile(File file, Graph graph, ParseReport report, PrintStream out) {
+        String fileName = file.getName();
+        File snapshot = GraphSnapshot.snapshotFile(file);
+        if (snapshots && GraphSnapshot.isUpToDate(snapshot, file)) {
+            Graph loaded = graph == null ? gg.createNewGraph(fileName) : graph;
+            try {
+                GraphSnapshot.read(snapshot.toPath(), loaded);
+                out.println("--------------");
+                out.printf("Loaded snapshot: %s\n", fileName);
+                return loaded;
+            } catch (IOException | RuntimeException e) {
+                //corrupt snapshot, fall back to parsing the text file into a clean graph
+                out.println(e.getMessage());
+                loaded.clear();
+                loaded.setAttribute("sourceFile", fileName);
+                graph = loaded;
+            }
+        }
+
+        boolean invalidFileContentFlag = true; //assume every file content is corrupted
+        BulkGraphLoader loader = bulkLoading ? new BulkGraphLoader() : null;
+        if (memoryMapped) {
+            if (graph == null) graph = gg.createNewGraph(fileName);
+            out.println("--------------");
+            out.printf("Parsing: %s\n", fileName);
+            try {
+                long matched = new GkaLexer().parse(file.toPath(), edgeSink(graph, loader, report));
+                invalidFileContentFlag = matched == 0;
+            } catch (IOException e) {
+                out.println(e.getMessage());
+                return null;
+            }
+        } else {
+            Scanner parser = initializeScanner(file, out);
+            if (parser == null) return null; //skip incorrectly initialized parsers
+            //create graph with filename
+            if (graph == null) graph = gg.createNewGraph(fileName);
             //skip file not found exceptions
-            System.out.println("--------------");
-            System.out.printf("Parsing: %s\n", fileName);
+            out.println("--------------");
+            out.printf("Parsing: %s\n", fileName);
             //if lineParser extracts at least one information fileContentFlag disabled
-            invalidFileContentFlag = lineParser(parser, invalidFileContentFlag, fileName);
+            invalidFileContentFlag = lineParser(parser, invalidFileContentFlag, edgeSink(graph, loader, report));
+            parser.close();
+        }
+        if (loader != null) loader.build(graph);
+        out.print(report.summary());
 
-            if (invalidFileContentFlag) {
-                System.out.println("Invalid file content");
-                System.out.println("No parsable information detected");
+        if (invalidFileContentFlag) {
+            out.println("Invalid file content");
+            out.println("No parsable information detected");
+        }
+        if (snapshots && !gg.isEmpty(graph)) {
+            try {
+                GraphSnapshot.write(graph, snapshot.toPath(), file);
+            } catch (IOException e) {
+                out.println(e.getMessage());
             }
-            parser.close();
         }
+        return graph;
+    }
+
+    /**
+     * Returns the destination of parsed edges: the generator itself or a bulk loader.
+     * Every line is recorded in the report, edges that already exist count as duplicates.
+     *
+     * @param graph  the graph of the file
+     * @param loader the bulk loader or null to update the graph edge by edge
+     * @param report collects accepted, rejected and duplicate lines
+     * @return the handler receiving all parsed edges
+     */
+    private GkaLexer.EdgeHandler edgeSink(Graph graph, BulkGraphLoader loader, ParseReport report) {
+        return new GkaLexer.EdgeHandler() {
+            @Override
+            public void edge(String source, String directed, String target, String edgeLabel, Integer edgeWeight) {
+                //line number unknown, counted without a line sample
+                report.accepted(source, directed, target, edgeLabel, edgeWeight);
+                if (!add(source, directed, target, edgeLabel, edgeWeight)) report.duplicate(source, directed, target);
+            }
+
+            @Override
+            public void edge(long lineNumber, String source, String directed, String target, String edgeLabel, Integer edgeWeight) {
+                report.accepted(lineNumber, source, directed, target, edgeLabel, edgeWeight);
+                if (!add(source, directed, target, edgeLabel, edgeWeight)) report.duplicate(lineNumber, source, directed, target);
+            }
+
+            private boolean add(String source, String directed, String target, String edgeLabel, Integer edgeWeight) {
+                return loader == null
+                        ? gg.updateGraph(graph, source, target, directed, edgeLabel, edgeWeight)
+                        : loader.add(source, target, directed, edgeLabel, edgeWeight);
+            }
+
+            @Override
+            public void rejected(long lineNumber) {
+                report.rejected(lineNumber);
+            }
+        };
     }
 
     /**
@@ -87,10 +388,10 @@ public class GraphParser {
      *
      * @param parser                 the initialized parser with a valid .gka file
      * @param invalidFileContentFlag a flag to represent invalid content (corrupted text)
-     * @param fileName               (the file name associated with the scanner)
+     * @param sink                   receives the parsed edges and rejected lines
      * @return boolean value. Returns true if no content was parsed in this file
      */
-    private boolean lineParser(Scanner parser, boolean invalidFileContentFlag, String fileName) {
+    private boolean lineParser(Scanner parser, boolean invalidFileContentFlag, GkaLexer.EdgeHandler sink) {
         final String node = "(\\w+)";
         final String direction = "(->|--)";
         final String label = "(?:\\s*\\(([^)]+)\\))?";
@@ -100,12 +401,13 @@ public class GraphParser {
         final String ws = "\\s*";
         final Pattern pattern = Pattern.compile("^" + node + ws + direction + ws + node + label + ws + weight + ws + ";?" + "$");
 
-        //create graph with filename
-        Graph graph = gg.createNewGraph(fileName);
-
+        long lineNumber = 0;
         //while parses each line of document
         while (parser.hasNextLine()) {
             String line = parser.nextLine().trim();
+            lineNumber++;
+            //blank lines are neither parsed nor rejected
+            if (line.isEmpty()) continue;
             Matcher matcher = pattern.matcher(line);
 
             //information extracted with groups
@@ -120,41 +422,15 @@ public class GraphParser {
                 //Only update graph if at least source node dir. and target is known
                 if (source != null && directed != null && target != null) {
                     //label and weight are nullable
-                    gg.updateGraph(graph, source, target, directed, edgeLabel, edgeWeight);
+                    sink.edge(lineNumber, source, directed, target, edgeLabel, edgeWeight);
                 }
-                //pretty print
-                parsePrintHelper(source, directed, target, edgeLabel, edgeWeight);
+            } else {
+                sink.rejected(lineNumber);
             }
         }
-        //mutable array list to expand this with each parsed file
-        if(!gg.isEmpty(graph)) gg.getMutableGraphs().add(graph);
         return invalidFileContentFlag;
     }
 
-    /**
-     * This method prints parsing output in a pretty format. It accounts for invalid lines and cases where at least one information could not be parsed properly
-     *
-     * @param source     source node
-     * @param directed   direction of graph
-     * @param target     target node
-     * @param edgeLabel  label
-     * @param edgeWeight weight
-     */
-    private void parsePrintHelper(String source, String directed, String target, String edgeLabel, Integer edgeWeight) {
-        if (edgeLabel == null && edgeWeight == null && source != null && directed != null && target != null) {
-            System.out.printf("Parsed: s=%s %s t=%s\n", source, directed, target);
-        } else if (edgeLabel != null && edgeWeight != null) {
-            System.out.printf("Parsed: s=%s %s t=%s edgeLabel=%s weight=%s%n", source, directed, target, edgeLabel, edgeWeight);
-        } else if (edgeLabel != null) {
-            System.out.printf("Parsed: s=%s %s t=%s edgeLabel=%s%n", source, directed, target, edgeLabel);
-        } else if (edgeWeight != null) {
-            System.out.printf("Parsed: s=%s %s t=%s weight=%s%n", source, directed, target, edgeWeight);
-        } else {
-            System.out.println("Parsed: No parsable information found!"); //there needs to be at least a source, a direction and a target for an edge to be valid
-        }
-    }
-
-
     /**
      * This method parses Integers. If none is found null is returned
      *
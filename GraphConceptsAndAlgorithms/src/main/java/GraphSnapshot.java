@@ -0,0 +1,236 @@
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary snapshot of a graph built by GraphGenerator, written after a .gka file was parsed
+ * and read back on the next start instead of parsing the text again.
+ * <p>
+ * Layout (little endian, every section starts 4-byte aligned so it can be read from a mapped buffer):
+ * <pre>
+ * header   magic, version, source file length, source file modification time, node count, edge count,
+ *          CRC32 of the whole file except the CRC field itself
+ * names    (nodeCount + 1) int offsets, UTF-8 bytes of all node IDs
+ * edges    edgeCount int sources, edgeCount int targets, edgeCount int weights, edgeCount byte flags
+ * labels   (edgeCount + 1) int offsets, UTF-8 bytes of all edge labels
+ * </pre>
+ * Edge IDs are not stored, they are derived like in GraphGenerator (source + "->" or "--" + target).
+ */
+public class GraphSnapshot {
+    private static final int MAGIC = 0x474B4153; //"GKAS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4 + 8;
+
+    private static final byte DIRECTED = 1;
+    private static final byte WEIGHTED = 2;
+    private static final byte LABELLED = 4;
+
+    private GraphSnapshot() {
+    }
+
+    /**
+     * @param gkaFile the parsed text file
+     * @return the snapshot file stored next to it
+     */
+    public static File snapshotFile(File gkaFile) {
+        return new File(gkaFile.getPath() + ".snapshot");
+    }
+
+    /**
+     * Writes a snapshot of a graph.
+     *
+     * @param graph  the graph to store
+     * @param target the snapshot file
+     * @param source the .gka file the graph was parsed from, its length and modification time are recorded
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static void write(Graph graph, Path target, File source) throws IOException {
+        final int nodeCount = graph.getNodeCount();
+        final int edgeCount = graph.getEdgeCount();
+
+        byte[][] names = new byte[nodeCount][];
+        long namesBytes = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            names[i] = graph.getNode(i).getId().getBytes(StandardCharsets.UTF_8);
+            namesBytes += names[i].length;
+        }
+        byte[][] labels = new byte[edgeCount][];
+        long labelBytes = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            Object label = graph.getEdge(i).getAttribute("label");
+            if (label != null) {
+                labels[i] = label.toString().getBytes(StandardCharsets.UTF_8);
+                labelBytes += labels[i].length;
+            }
+        }
+
+        long size = HEADER_SIZE
+                + 4L * (nodeCount + 1) + align(namesBytes)
+                + 12L * edgeCount + align(edgeCount)
+                + 4L * (edgeCount + 1) + align(labelBytes);
+        if (size > Integer.MAX_VALUE) throw new IOException("Graph too large for a snapshot");
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.position(HEADER_SIZE);
+
+            int offset = 0;
+            for (byte[] name : names) {
+                buffer.putInt(offset);
+                offset += name.length;
+            }
+            buffer.putInt(offset);
+            for (byte[] name : names) buffer.put(name);
+            pad(buffer);
+
+            for (int i = 0; i < edgeCount; i++) buffer.putInt(graph.getEdge(i).getSourceNode().getIndex());
+            for (int i = 0; i < edgeCount; i++) buffer.putInt(graph.getEdge(i).getTargetNode().getIndex());
+            for (int i = 0; i < edgeCount; i++) {
+                Object weight = graph.getEdge(i).getAttribute("weight");
+                buffer.putInt(weight instanceof Number number ? number.intValue() : 0);
+            }
+            for (int i = 0; i < edgeCount; i++) {
+                Edge edge = graph.getEdge(i);
+                byte flags = 0;
+                if (edge.isDirected()) flags |= DIRECTED;
+                if (edge.getAttribute("weight") instanceof Number) flags |= WEIGHTED;
+                if (labels[i] != null) flags |= LABELLED;
+                buffer.put(flags);
+            }
+            pad(buffer);
+
+            offset = 0;
+            for (byte[] label : labels) {
+                buffer.putInt(offset);
+                if (label != null) offset += label.length;
+            }
+            buffer.putInt(offset);
+            for (byte[] label : labels) if (label != null) buffer.put(label);
+            pad(buffer);
+
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(8, source.length());
+            buffer.putLong(16, source.lastModified());
+            buffer.putInt(24, nodeCount);
+            buffer.putInt(28, edgeCount);
+            buffer.putLong(32, checksum(buffer, (int) size));
+            buffer.force();
+        }
+    }
+
+    /**
+     * Checks whether a snapshot exists, is intact and was written for the current version of the source file.
+     *
+     * @param snapshot the snapshot file
+     * @param source   the .gka file
+     * @return true if the snapshot can be used instead of parsing the source
+     */
+    public static boolean isUpToDate(File snapshot, File source) {
+        if (!snapshot.isFile()) return false;
+        try (FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) return false;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            return header.getInt(0) == MAGIC && header.getInt(4) == VERSION
+                    && header.getLong(8) == source.length() && header.getLong(16) == source.lastModified();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads a snapshot into a graph. The file is memory-mapped and validated with its checksum before
+     * any node is added.
+     *
+     * @param snapshot the snapshot file
+     * @param graph    the (usually empty) graph to fill
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public static void read(Path snapshot, Graph graph) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) throw new IOException("Invalid snapshot size: " + snapshot);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) throw new IOException("Not a graph snapshot: " + snapshot);
+            if (buffer.getLong(32) != checksum(buffer, (int) size)) throw new IOException("Corrupt snapshot (checksum mismatch): " + snapshot);
+
+            final int nodeCount = buffer.getInt(24);
+            final int edgeCount = buffer.getInt(28);
+            //the counts size every section, the fixed size part has to fit into the file
+            long fixed = HEADER_SIZE + 4L * (nodeCount + 1) + 12L * edgeCount + align(edgeCount) + 4L * (edgeCount + 1);
+            if (nodeCount < 0 || edgeCount < 0 || fixed > size) throw new IOException("Corrupt snapshot (invalid counts): " + snapshot);
+
+            int position = HEADER_SIZE;
+            final int nameOffsets = position;
+            position += 4 * (nodeCount + 1);
+            final int nameBytes = position;
+            position += (int) align(buffer.getInt(nameOffsets + 4 * nodeCount));
+            final int sources = position;
+            final int targets = sources + 4 * edgeCount;
+            final int weights = targets + 4 * edgeCount;
+            final int flags = weights + 4 * edgeCount;
+            position = flags + (int) align(edgeCount);
+            final int labelOffsets = position;
+            final int labelBytes = labelOffsets + 4 * (edgeCount + 1);
+
+            Node[] nodes = new Node[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                String name = string(buffer, nameBytes, buffer.getInt(nameOffsets + 4 * i), buffer.getInt(nameOffsets + 4 * i + 4));
+                Node node = graph.addNode(name);
+                node.setAttribute("ui.label", name);
+                nodes[i] = node;
+            }
+            for (int i = 0; i < edgeCount; i++) {
+                byte flag = buffer.get(flags + i);
+                Node source = nodes[buffer.getInt(sources + 4 * i)];
+                Node target = nodes[buffer.getInt(targets + 4 * i)];
+                boolean directed = (flag & DIRECTED) != 0;
+                String name = source.getId() + (directed ? "->" : "--") + target.getId();
+                Edge edge = graph.addEdge(name, source, target, directed);
+                edge.setAttribute("ui.label", name);
+                if ((flag & WEIGHTED) != 0) edge.setAttribute("weight", buffer.getInt(weights + 4 * i));
+                if ((flag & LABELLED) != 0) {
+                    edge.setAttribute("label", string(buffer, labelBytes,
+                            buffer.getInt(labelOffsets + 4 * i), buffer.getInt(labelOffsets + 4 * i + 4)));
+                }
+            }
+        }
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 3) & ~3L;
+    }
+
+    private static void pad(ByteBuffer buffer) {
+        while ((buffer.position() & 3) != 0) buffer.put((byte) 0);
+    }
+
+    private static long checksum(ByteBuffer buffer, int size) {
+        CRC32 crc = new CRC32();
+        //header up to the CRC field, then the body
+        crc.update(buffer.slice(0, 32));
+        crc.update(buffer.slice(HEADER_SIZE, size - HEADER_SIZE));
+        return crc.getValue();
+    }
+
+    private static String string(ByteBuffer buffer, int base, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(base + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,135 @@
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of dense node indices ordered by a long key, with decrease-key.
+ * Heap entries, keys and the position of every node in the heap are plain int and long
+ * arrays, so no boxed values or per-node objects are created.
+ * Not thread-safe.
+ */
+public class IndexedMinHeap {
+    private final int[] heap;
+    //position of a node in heap, -1 if it is not contained
+    private final int[] position;
+    private final long[] keys;
+    private int size;
+
+    /**
+     * @param capacity amount of nodes (node indices must be smaller)
+     */
+    public IndexedMinHeap(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity must not be negative");
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new long[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * @return amount of nodes the heap was created for
+     */
+    public int capacity() {
+        return position.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param node dense node index
+     * @return true if the node is currently in the heap
+     */
+    public boolean contains(int node) {
+        return position[node] >= 0;
+    }
+
+    /**
+     * Inserts a node or lowers its key if it is already contained. Larger keys are ignored.
+     *
+     * @param node dense node index
+     * @param key  the new key
+     */
+    public void insertOrDecrease(int node, long key) {
+        int i = position[node];
+        if (i < 0) {
+            i = size++;
+            heap[i] = node;
+            position[node] = i;
+        } else if (key >= keys[node]) {
+            return;
+        }
+        keys[node] = key;
+        siftUp(i);
+    }
+
+    /**
+     * @return key of the node on top of the heap
+     */
+    public long peekKey() {
+        if (size == 0) throw new IllegalStateException("Heap is empty");
+        return keys[heap[0]];
+    }
+
+    /**
+     * Removes the node with the smallest key.
+     *
+     * @return the removed node
+     */
+    public int poll() {
+        if (size == 0) throw new IllegalStateException("Heap is empty");
+        int top = heap[0];
+        position[top] = -1;
+        if (--size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            position[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Removes all nodes. Costs O(size), not O(capacity), so the heap can be reused cheaply.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) position[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        final int node = heap[i];
+        final long key = keys[node];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int parentNode = heap[parent];
+            if (keys[parentNode] <= key) break;
+            heap[i] = parentNode;
+            position[parentNode] = i;
+            i = parent;
+        }
+        heap[i] = node;
+        position[node] = i;
+    }
+
+    private void siftDown(int i) {
+        final int node = heap[i];
+        final long key = keys[node];
+        final int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) child = right;
+            int childNode = heap[child];
+            if (key <= keys[childNode]) break;
+            heap[i] = childNode;
+            position[childNode] = i;
+            i = child;
+        }
+        heap[i] = node;
+        position[node] = i;
+    }
+}
@@ -0,0 +1,160 @@
+import org.graphstream.graph.Graph;
+
+import java.util.Arrays;
+
+/**
+ * A* search with landmark lower bounds (ALT) for weighted point-to-point queries.
+ * Nodes are taken from the heap in order of distance from the source plus the {@link LandmarkIndex}
+ * bound to the target, so the search settles mostly nodes in the direction of the target instead of
+ * a full Dijkstra ball. The bounds are consistent, the first time the target is taken from the heap
+ * its distance is final and the path is a shortest path (same distance as {@link Dijkstra}).
+ */
+public class LandmarkAStar extends PathSearch {
+    /** amount of landmarks used when the index is built by init(Graph) */
+    public static final int DEFAULT_LANDMARKS = 8;
+
+    private CompactGraph compact;
+    private LandmarkIndex landmarks;
+    private IndexedMinHeap heap;
+    private long[] distance;
+    private int[] parent;
+    private int[] stamp;
+    private int epoch;
+    private long pathDistance = -1;
+
+    public LandmarkAStar(String sourceNodeID, String targetNodeID) {
+        super(sourceNodeID, targetNodeID);
+    }
+
+    /**
+     * Builds a snapshot and a landmark index with {@link #DEFAULT_LANDMARKS} landmarks.
+     * Use init(CompactGraph, LandmarkIndex) to share one index between many queries.
+     */
+    @Override
+    public void init(Graph graph) {
+        CompactGraph snapshot = CompactGraph.of(graph);
+        init(snapshot, LandmarkIndex.build(snapshot, Math.min(DEFAULT_LANDMARKS, Math.max(1, snapshot.getNodeCount()))));
+    }
+
+    /**
+     * Initialize the algorithm with an existing snapshot and a landmark index built for it.
+     * @param compact the snapshot on which the search will run
+     * @param landmarks the precomputed landmark distances of the snapshot
+     */
+    public void init(CompactGraph compact, LandmarkIndex landmarks) {
+        if(compact == null) throw new IllegalArgumentException("Graph is null");
+        if(landmarks == null) throw new IllegalArgumentException("Landmark index is null");
+        if(landmarks.getNodeCount() != compact.getNodeCount()) {
+            throw new IllegalArgumentException("Landmark index was built for another graph");
+        }
+        super.init(compact.getGraph());
+        this.compact = compact;
+        this.landmarks = landmarks;
+        final int n = compact.getNodeCount();
+        if (heap == null || heap.capacity() < n) {
+            heap = new IndexedMinHeap(n);
+            distance = new long[n];
+            parent = new int[n];
+            stamp = new int[n];
+            epoch = 0;
+        }
+    }
+
+    @Override
+    protected long snapshotRemovals() {
+        return compact.connectivityRemovals();
+    }
+
+    @Override
+    protected boolean contains(String nodeID) {
+        return compact.indexOf(nodeID) >= 0;
+    }
+
+    /**
+     * Executes the goal-directed search until the target is taken from the heap or all reachable nodes are.
+     *
+     * @throws IllegalStateException if the source or target node does not exist in graph.
+     */
+    @Override
+    protected boolean search(TraversalStats stats) {
+        final int source = compact.indexOf(sourceNodeID);
+        final int target = compact.indexOf(targetNodeID);
+        if(source < 0 || target < 0) {
+            throw new IllegalStateException("Source or target node are null");
+        }
+        if (++epoch == 0) {
+            //epoch wrapped around, old stamps could be mistaken for current ones
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+        pathDistance = -1;
+
+        final int[] offsets = compact.offsets();
+        final int[] targets = compact.targets();
+        final int[] weights = compact.weights();
+        heap.clear();
+        stamp[source] = epoch;
+        distance[source] = 0;
+        parent[source] = source;
+        heap.insertOrDecrease(source, landmarks.lowerBound(source, target));
+
+        long dequeued = 0;
+        long scanned = 0;
+        boolean found = false;
+        while (!heap.isEmpty()) {
+            int currentNode = heap.poll();
+            dequeued++;
+            if (currentNode == target) {
+                found = true;
+                break;
+            }
+            final long base = distance[currentNode];
+            int end = offsets[currentNode + 1];
+            scanned += end - offsets[currentNode];
+            for (int i = offsets[currentNode]; i < end; i++) {
+                int neighbor = targets[i];
+                long candidate = base + weights[i];
+                if (stamp[neighbor] != epoch) {
+                    stamp[neighbor] = epoch;
+                    distance[neighbor] = candidate;
+                    parent[neighbor] = currentNode;
+                    heap.insertOrDecrease(neighbor, candidate + landmarks.lowerBound(neighbor, target));
+                } else if (candidate < distance[neighbor] && heap.contains(neighbor)) {
+                    //the bound of a node does not change, only its distance part
+                    long bound = landmarks.lowerBound(neighbor, target);
+                    distance[neighbor] = candidate;
+                    parent[neighbor] = currentNode;
+                    heap.insertOrDecrease(neighbor, candidate + bound);
+                }
+            }
+        }
+        stats.dequeued(dequeued);
+        stats.scanned(scanned);
+
+        if (!found) return false;
+        pathDistance = distance[target];
+        this.path = buildPath(compact, parent, target);
+        return true;
+    }
+
+    @Override
+    protected void clearResult() {
+        super.clearResult();
+        pathDistance = -1;
+    }
+
+    /**
+     * @return sum of the weights along the path of the last computation or -1 if the target was not reached
+     */
+    public long getDistance() {
+        return pathDistance;
+    }
+
+    /**
+     * @return String of the shortest path and its weighted distance.
+     */
+    @Override
+    public String toString() {
+        return super.toString() + "\nDistance: " + pathDistance;
+    }
+}
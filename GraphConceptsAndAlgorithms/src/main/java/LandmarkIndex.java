@@ -0,0 +1,336 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Precomputed landmark distances for goal-directed (ALT) searches with {@link LandmarkAStar}.
+ * For every landmark L the weighted distances L -> v and v -> L are kept for all nodes in flat
+ * long arrays (landmark-major). By the triangle inequality
+ * <pre>  d(v, t) >= max(d(L, t) - d(L, v), d(v, L) - d(t, L))</pre>
+ * which gives A* a lower bound that steers the search towards the target.
+ * Landmarks are chosen by farthest selection: each new landmark is the node farthest away from
+ * the ones chosen so far, which places them at the border of the graph where bounds are tight.
+ * <p>
+ * The index can be stored next to the .gka file (see {@link #loadOrBuild}). It is only valid for the
+ * graph it was built on, so the file records the source file's length and modification time, the
+ * node and arc counts of the snapshot and its {@link CompactGraph#orderHash() numbering}.
+ */
+public class LandmarkIndex {
+    /** distance of unreachable nodes */
+    public static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private static final int MAGIC = 0x474B414C; //"GKAL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4 + 4 + 4 + 8;
+    //buffer the tables are streamed through
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    private final int nodeCount;
+    private final int[] landmarks;
+    //from[l * n + v] = d(landmark l, v), to[l * n + v] = d(v, landmark l)
+    private final long[] from;
+    private final long[] to;
+
+    private LandmarkIndex(int nodeCount, int[] landmarks, long[] from, long[] to) {
+        this.nodeCount = nodeCount;
+        this.landmarks = landmarks;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Selects k landmarks and computes their distance tables (2k full Dijkstra runs).
+     *
+     * @param compact the snapshot, edge weights must not be negative
+     * @param k       amount of landmarks, at most the amount of nodes
+     * @return the index
+     * @throws IllegalStateException if an edge has a negative weight
+     */
+    public static LandmarkIndex build(CompactGraph compact, int k) {
+        if (compact == null) throw new IllegalArgumentException("Graph is null");
+        final int n = compact.getNodeCount();
+        if (k < 1 || k > n) throw new IllegalArgumentException("Amount of landmarks must be between 1 and " + n);
+        if ((long) k * n > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many landmarks for this graph");
+        for (int weight : compact.weights()) {
+            if (weight < 0) throw new IllegalStateException("Negative edge weight: " + weight);
+        }
+
+        final CompactGraph reverse = compact.transpose();
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        int[] landmarks = new int[k];
+        long[] from = new long[k * n];
+        long[] to = new long[k * n];
+        //smallest distance of every node to the landmarks chosen so far
+        long[] nearest = new long[n];
+        long[] scratch = new long[n];
+
+        //the first landmark is the node farthest away from node 0
+        distances(compact, 0, heap, scratch, 0);
+        int next = farthest(scratch);
+        Arrays.fill(nearest, UNREACHABLE);
+        for (int l = 0; l < k; l++) {
+            landmarks[l] = next;
+            distances(compact, next, heap, from, l * n);
+            distances(reverse, next, heap, to, l * n);
+            for (int v = 0; v < n; v++) nearest[v] = Math.min(nearest[v], from[l * n + v]);
+            //nodes the landmarks cannot reach yet are the farthest ones, so other components get landmarks too
+            next = farthest(nearest);
+        }
+        return new LandmarkIndex(n, landmarks, from, to);
+    }
+
+    /**
+     * One-to-all Dijkstra writing the distances into out[offset ... offset + n).
+     */
+    private static void distances(CompactGraph g, int source, IndexedMinHeap heap, long[] out, int offset) {
+        final int[] offsets = g.offsets();
+        final int[] targets = g.targets();
+        final int[] weights = g.weights();
+        Arrays.fill(out, offset, offset + g.getNodeCount(), UNREACHABLE);
+        heap.clear();
+        out[offset + source] = 0;
+        heap.insertOrDecrease(source, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            long base = out[offset + u];
+            for (int i = offsets[u], end = offsets[u + 1]; i < end; i++) {
+                int v = targets[i];
+                long candidate = base + weights[i];
+                if (candidate < out[offset + v]) {
+                    out[offset + v] = candidate;
+                    heap.insertOrDecrease(v, candidate);
+                }
+            }
+        }
+    }
+
+    private static int farthest(long[] distance) {
+        int best = 0;
+        for (int v = 1; v < distance.length; v++) if (distance[v] > distance[best]) best = v;
+        return best;
+    }
+
+    /**
+     * Lower bound of the weighted distance from v to t.
+     *
+     * @param v dense node index
+     * @param t dense index of the target
+     * @return a value that never exceeds d(v, t), 0 if no landmark gives a bound
+     */
+    public long lowerBound(int v, int t) {
+        final int n = nodeCount;
+        long bound = 0;
+        for (int l = 0, base = 0; l < landmarks.length; l++, base += n) {
+            //terms with unreachable distances give no bound
+            long lt = from[base + t];
+            long lv = from[base + v];
+            if (lt != UNREACHABLE && lv != UNREACHABLE && lt - lv > bound) bound = lt - lv;
+            long vl = to[base + v];
+            long tl = to[base + t];
+            if (vl != UNREACHABLE && tl != UNREACHABLE && vl - tl > bound) bound = vl - tl;
+        }
+        return bound;
+    }
+
+    /**
+     * @return amount of nodes the index was built for
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return dense indices of the landmarks
+     */
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * @param landmark position of the landmark (0 ... k - 1)
+     * @param node     dense node index
+     * @return d(landmark, node) or UNREACHABLE
+     */
+    public long distanceFrom(int landmark, int node) {
+        return from[landmark * nodeCount + node];
+    }
+
+    /**
+     * @param landmark position of the landmark (0 ... k - 1)
+     * @param node     dense node index
+     * @return d(node, landmark) or UNREACHABLE
+     */
+    public long distanceTo(int landmark, int node) {
+        return to[landmark * nodeCount + node];
+    }
+
+    /**
+     * @param gkaFile the parsed text file
+     * @return the landmark file stored next to it
+     */
+    public static File landmarkFile(File gkaFile) {
+        return new File(gkaFile.getPath() + ".landmarks");
+    }
+
+    /**
+     * Reads the landmark file of a .gka file if it belongs to the current file and graph,
+     * otherwise builds the index and writes it for the next run.
+     *
+     * @param compact the snapshot of the graph parsed from the file
+     * @param gkaFile the .gka file
+     * @param k       amount of landmarks to build if the file cannot be used
+     * @return the index
+     * @throws IOException if a new index cannot be written
+     */
+    public static LandmarkIndex loadOrBuild(CompactGraph compact, File gkaFile, int k) throws IOException {
+        File file = landmarkFile(gkaFile);
+        if (file.isFile()) {
+            try {
+                LandmarkIndex index = read(file.toPath(), compact, gkaFile);
+                if (index != null && index.landmarks.length == Math.min(k, compact.getNodeCount())) return index;
+            } catch (IOException e) {
+                //corrupt file, rebuild it below
+            }
+        }
+        LandmarkIndex index = build(compact, Math.min(k, compact.getNodeCount()));
+        index.write(file.toPath(), compact, gkaFile);
+        return index;
+    }
+
+    /**
+     * Writes the index. The tables are streamed through a small buffer, so files larger than
+     * a single mapping (2 GB) are fine.
+     *
+     * @param target  the landmark file
+     * @param compact the snapshot the index was built on
+     * @param source  the .gka file, its length and modification time are recorded
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path target, CompactGraph compact, File source) throws IOException {
+        final int k = landmarks.length;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            //body first, the header carries its checksum
+            channel.position(HEADER_SIZE);
+            for (int landmark : landmarks) {
+                if (buffer.remaining() < Integer.BYTES) drain(channel, buffer, crc);
+                buffer.putInt(landmark);
+            }
+            putLongs(channel, buffer, crc, from);
+            putLongs(channel, buffer, crc, to);
+            drain(channel, buffer, crc);
+
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putLong(source.length());
+            buffer.putLong(source.lastModified());
+            buffer.putInt(nodeCount);
+            buffer.putInt(compact.getArcCount());
+            buffer.putInt(k);
+            buffer.putInt(compact.orderHash());
+            buffer.putLong(crc.getValue());
+            buffer.flip();
+            for (long position = 0; buffer.hasRemaining(); ) position += channel.write(buffer, position);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reads an index written by {@link #write}.
+     *
+     * @param file    the landmark file
+     * @param compact the snapshot the index is used with
+     * @param source  the .gka file the graph was parsed from
+     * @return the index or null if it was written for another version of the file or graph
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public static LandmarkIndex read(Path file, CompactGraph compact, File source) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) throw new IOException("Invalid landmark file size: " + file);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) throw new IOException("Invalid landmark file size: " + file);
+            }
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) throw new IOException("Not a landmark file: " + file);
+            if (header.getLong(8) != source.length() || header.getLong(16) != source.lastModified()
+                    || header.getInt(24) != compact.getNodeCount() || header.getInt(28) != compact.getArcCount()
+                    || header.getInt(36) != compact.orderHash()) {
+                return null;
+            }
+            final int n = header.getInt(24);
+            final int k = header.getInt(32);
+            if (k < 1 || (long) k * n > Integer.MAX_VALUE || size != HEADER_SIZE + 4L * k + 16L * k * n) {
+                throw new IOException("Invalid landmark file size: " + file);
+            }
+
+            int[] landmarks = new int[k];
+            long[] from = new long[k * n];
+            long[] to = new long[k * n];
+            ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(0);
+            CRC32 crc = new CRC32();
+            channel.position(HEADER_SIZE);
+            for (int l = 0; l < k; l++) {
+                if (buffer.remaining() < Integer.BYTES) refill(channel, buffer, crc);
+                landmarks[l] = buffer.getInt();
+            }
+            getLongs(channel, buffer, crc, from);
+            getLongs(channel, buffer, crc, to);
+            if (header.getLong(40) != crc.getValue()) throw new IOException("Corrupt landmark file (checksum mismatch): " + file);
+            return new LandmarkIndex(n, landmarks, from, to);
+        }
+    }
+
+    private static void putLongs(FileChannel channel, ByteBuffer buffer, CRC32 crc, long[] values) throws IOException {
+        for (int i = 0; i < values.length; ) {
+            if (buffer.remaining() < Long.BYTES) drain(channel, buffer, crc);
+            int count = Math.min(buffer.remaining() / Long.BYTES, values.length - i);
+            buffer.asLongBuffer().put(values, i, count);
+            buffer.position(buffer.position() + count * Long.BYTES);
+            i += count;
+        }
+    }
+
+    private static void getLongs(FileChannel channel, ByteBuffer buffer, CRC32 crc, long[] values) throws IOException {
+        for (int i = 0; i < values.length; ) {
+            if (buffer.remaining() < Long.BYTES) refill(channel, buffer, crc);
+            int count = Math.min(buffer.remaining() / Long.BYTES, values.length - i);
+            buffer.asLongBuffer().get(values, i, count);
+            buffer.position(buffer.position() + count * Long.BYTES);
+            i += count;
+        }
+    }
+
+    /**
+     * Writes the filled part of the buffer at the current channel position and empties it.
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+
+    /**
+     * Keeps the unread rest of the buffer and appends the next bytes of the channel.
+     */
+    private static void refill(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException {
+        buffer.compact();
+        int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) break;
+        }
+        buffer.flip();
+        if (buffer.limit() == start) throw new IOException("Unexpected end of landmark file");
+        crc.update(buffer.duplicate().position(start));
+    }
+}
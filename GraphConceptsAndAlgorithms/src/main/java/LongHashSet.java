@@ -0,0 +1,90 @@
+import java.util.Arrays;
+
+/**
+ * A set of primitive long keys based on open addressing (linear probing).
+ * Used where boxing every key into a HashSet&lt;Long&gt; would be too expensive, e.g. edge deduplication.
+ */
+public class LongHashSet {
+    //Long.MIN_VALUE marks free slots, the key itself is tracked separately
+    private static final long FREE = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int size;
+    private boolean containsFree;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize amount of keys the set is sized for (it grows if needed)
+     */
+    public LongHashSet(int expectedSize) {
+        keys = new long[Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1];
+        Arrays.fill(keys, FREE);
+    }
+
+    private static int slot(long key, int mask) {
+        //murmur3 finalizer spreads packed keys over the table
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key & mask;
+    }
+
+    /**
+     * @param key the key to add
+     * @return true if the key was not contained before
+     */
+    public boolean add(long key) {
+        if (key == FREE) {
+            if (containsFree) return false;
+            containsFree = true;
+            size++;
+            return true;
+        }
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == key) return false;
+            if (keys[i] == FREE) {
+                keys[i] = key;
+                //load factor of at most 0.5
+                if (++size * 2 > keys.length) rehash();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param key the key to look up
+     * @return true if the key is contained
+     */
+    public boolean contains(long key) {
+        if (key == FREE) return containsFree;
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            if (keys[i] == key) return true;
+            if (keys[i] == FREE) return false;
+        }
+    }
+
+    /**
+     * @return amount of keys in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    private void rehash() {
+        long[] old = keys;
+        keys = new long[old.length * 2];
+        Arrays.fill(keys, FREE);
+        int mask = keys.length - 1;
+        for (long key : old) {
+            if (key == FREE) continue;
+            int i = slot(key, mask);
+            while (keys[i] != FREE) i = (i + 1) & mask;
+            keys[i] = key;
+        }
+    }
+}
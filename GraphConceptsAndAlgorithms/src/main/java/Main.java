@@ -2,17 +2,96 @@ import org.graphstream.graph.Graph;
 import org.graphstream.ui.view.Viewer;
 
 import java.awt.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.Scanner;
 
 public class Main {
     private static GraphGenerator gg = new GraphGenerator();
     //Entry point
-    static void main() {
+    public static void main(String[] args) throws IOException {
+        String batch = null;
+        String output = null;
+        File graphDir = null;
+        BatchQueryRunner.Mode mode = BatchQueryRunner.Mode.BFS;
+        int threads = Runtime.getRuntime().availableProcessors();
+        NodeOrdering.Strategy ordering = null;
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 == args.length) throw new IllegalArgumentException("Missing value for " + option);
+            String value = args[++i];
+            switch (option) {
+                case "--batch" -> batch = value;
+                case "--out" -> output = value;
+                case "--graphs" -> graphDir = new File(value);
+                case "--mode" -> mode = BatchQueryRunner.Mode.valueOf(value.toUpperCase());
+                case "--threads" -> threads = Integer.parseInt(value);
+                case "--order" -> ordering = NodeOrdering.Strategy.valueOf(value.toUpperCase());
+                default -> throw new IllegalArgumentException("Unknown option " + option
+                        + ", expected: --batch <file|-> [--mode bfs|ch] [--threads n] [--order bfs|rcm|degree|gorder] [--out file] [--graphs dir]");
+            }
+        }
+
         //Initialize parser with same generator instance
-        GraphParser gp = new GraphParser(gg);
-        //parse all files found in check files
-        gp.fileParser(gp.checkFiles());
-        initializeTextBasedUI();
+        GraphParser gp = graphDir == null ? new GraphParser(gg) : new GraphParser(gg, graphDir);
+        gp.setMemoryMapped(true);
+        gp.setBulkLoading(true);
+        gp.setSnapshots(true);
+        if (batch == null) {
+            //parse all files found in check files
+            gp.concurrentFileParser(gp.checkFiles());
+            attachConnectivity();
+            initializeTextBasedUI();
+            return;
+        }
+
+        //keep stdout free for the results, the parse summaries go to stderr
+        PrintStream console = System.out;
+        System.setOut(System.err);
+        try {
+            gp.concurrentFileParser(gp.checkFiles());
+        } finally {
+            System.setOut(console);
+        }
+        attachConnectivity();
+        runBatch(batch, output, mode, threads, ordering);
+    }
+
+    /**
+     * Attaches a connectivity index to every parsed graph, so searches answer targets in other
+     * components without traversing the component of the source.
+     */
+    private static void attachConnectivity() {
+        for (Graph g : gg.getImmutableGraphs()) ConnectivityIndex.attach(g);
+    }
+
+    /**
+     * Answers all queries of a file (or stdin for "-") without user interaction, see {@link BatchQueryRunner}.
+     * The results go to the output file (or stdout), the summary to stderr.
+     *
+     * @param batch    query file or "-"
+     * @param output   result file or null for stdout
+     * @param mode     search used for the queries
+     * @param threads  amount of worker threads
+     * @param ordering node order applied to the snapshots or null for the graph order
+     * @throws IOException if the queries cannot be read or the results cannot be written
+     */
+    public static void runBatch(String batch, String output, BatchQueryRunner.Mode mode, int threads,
+                                NodeOrdering.Strategy ordering) throws IOException {
+        BatchQueryRunner runner = new BatchQueryRunner(gg.getImmutableGraphs(), mode, threads);
+        runner.setOrdering(ordering);
+        Reader input = batch.equals("-")
+                ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : new FileReader(batch, StandardCharsets.UTF_8);
+        PrintStream out = output == null
+                ? System.out
+                : new PrintStream(new BufferedOutputStream(new FileOutputStream(output)), false, StandardCharsets.UTF_8);
+        try (BufferedReader reader = new BufferedReader(input)) {
+            BatchQueryRunner.Summary summary = runner.run(reader, out);
+            System.err.print(summary);
+        } finally {
+            if (out != System.out) out.close();
+        }
     }
 
     /**
@@ -49,7 +128,7 @@ public class Main {
 
         Scanner scanner = new Scanner(System.in);
 
-        System.out.println("\n\nPress 0 if you want to visualize a graph\nPress 1 if you want to use the BFS algorithm\n");
+        System.out.println("\n\nPress 0 if you want to visualize a graph\nPress 1 if you want to use the BFS algorithm\nPress 2 if you want to use the Dijkstra algorithm (weighted)\nPress 3 if you want hop distance statistics (diameter, radius)\n");
         String input = scanner.nextLine();
 
 
@@ -60,7 +139,8 @@ public class Main {
                 UIHelper(Integer.parseInt(scanner.nextLine()), gg);
                 break;
             case "1":
-                System.out.println("\nEnter the number of the graph that you want the BFS algorithm to be performed on");
+            case "2":
+                System.out.println("\nEnter the number of the graph that you want the " + (input.equals("1") ? "BFS" : "Dijkstra") + " algorithm to be performed on");
                 int graphNum = Integer.parseInt(scanner.nextLine());
 
                 System.out.println("\nEnter the ID of the source node");
@@ -77,10 +157,30 @@ public class Main {
                     targetID = tID;
                 }
 
-                BreadthFirstSearch bfs = new BreadthFirstSearch(sourceID, targetID);
-                bfs.init(gg.getImmutableGraphs().get(graphNum));
-                bfs.compute();
-                System.out.println(bfs.toString());
+                CompactGraph compact = CompactGraph.of(gg.getImmutableGraphs().get(graphNum));
+                PathSearch search;
+                if (input.equals("1")) {
+                    BreadthFirstSearch bfs = new BreadthFirstSearch(sourceID, targetID);
+                    bfs.init(compact);
+                    search = bfs;
+                } else {
+                    Dijkstra dijkstra = new Dijkstra(sourceID, targetID);
+                    dijkstra.init(compact);
+                    search = dijkstra;
+                }
+                search.addListener(TraversalListener.printing(System.out));
+                search.compute();
+                System.out.println(search.toString());
+                break;
+            case "3":
+                System.out.println("\nEnter the number of the graph that you want the statistics of");
+                CompactGraph snapshot = CompactGraph.of(gg.getImmutableGraphs().get(Integer.parseInt(scanner.nextLine())));
+                System.out.println("\nEnter the amount of sampled source nodes, 0 for all nodes (exact)");
+                int samples = Integer.parseInt(scanner.nextLine());
+                int threads = Runtime.getRuntime().availableProcessors();
+                System.out.print(samples <= 0
+                        ? MultiSourceBFS.summarize(snapshot, threads)
+                        : MultiSourceBFS.estimate(snapshot, samples, System.nanoTime(), threads));
                 break;
             default:
                 System.out.println("Invalid input");
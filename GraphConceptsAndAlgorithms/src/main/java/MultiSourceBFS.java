@@ -0,0 +1,401 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-source BFS (MS-BFS): a batch of up to 64 * words sources is searched at once. Every node
+ * carries one bit per source in three bitsets (seen, visit in this level, visit in the next level),
+ * so a node reached by many sources in the same level has its adjacency list scanned once for all
+ * of them, and a single and-not of two longs decides which of 64 searches discover a neighbor.
+ * Analytics that need a BFS from every node (eccentricity, diameter, radius, distance distribution)
+ * cost n / (64 * words) traversals instead of n; {@link #summarize} runs the batches on several threads.
+ * Searches follow the arcs of the snapshot, so directed graphs give out-eccentricities.
+ * An instance reuses its bitsets between batches and must be used by one thread at a time.
+ */
+public class MultiSourceBFS {
+    /** longs per node and bitset, 64 sources each; wider batches share more scans but do more bit work */
+    public static final int DEFAULT_WORDS = 4;
+    /** share of the reachable pairs within the effective diameter */
+    public static final double EFFECTIVE_DIAMETER_SHARE = 0.9;
+
+    private final CompactGraph compact;
+    private final int words;
+    private final long[] seen;
+    private long[] visit;
+    private long[] next;
+    //active[w]: lanes of word w that discovered a node in the current level
+    private final long[] active;
+    private final int[] laneEccentricity;
+    private long[] histogram = new long[16];
+    private long edgesScanned;
+
+    /**
+     * @param compact the snapshot to search
+     */
+    public MultiSourceBFS(CompactGraph compact) {
+        this(compact, DEFAULT_WORDS);
+    }
+
+    /**
+     * @param compact the snapshot to search
+     * @param words   longs per node and bitset, the batch size is 64 * words
+     */
+    public MultiSourceBFS(CompactGraph compact, int words) {
+        if (compact == null) throw new IllegalArgumentException("Graph is null");
+        if (words < 1) throw new IllegalArgumentException("At least one word per node is needed");
+        final long size = (long) compact.getNodeCount() * words;
+        if (size > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Too many words for this graph");
+        this.compact = compact;
+        this.words = words;
+        seen = new long[(int) size];
+        visit = new long[(int) size];
+        next = new long[(int) size];
+        active = new long[words];
+        laneEccentricity = new int[64 * words];
+    }
+
+    /**
+     * @return amount of sources searched at once
+     */
+    public int getBatchSize() {
+        return 64 * words;
+    }
+
+    /**
+     * Searches from up to {@link #getBatchSize()} sources at once.
+     *
+     * @param sources dense node indices
+     * @param from    first source of the batch
+     * @param count   amount of sources of the batch
+     * @return the eccentricity of every source of the batch: the largest hop distance to a node it reaches
+     */
+    public int[] run(int[] sources, int from, int count) {
+        if (sources == null) throw new IllegalArgumentException("Sources are null");
+        if (count < 0 || count > getBatchSize() || from < 0 || from + count > sources.length) {
+            throw new IllegalArgumentException("A batch holds 0 to " + getBatchSize() + " sources");
+        }
+        final int n = compact.getNodeCount();
+        final int[] offsets = compact.offsets();
+        final int[] targets = compact.targets();
+        final int words = this.words;
+        Arrays.fill(seen, 0);
+        Arrays.fill(visit, 0);
+        Arrays.fill(laneEccentricity, 0, count, 0);
+        for (int lane = 0; lane < count; lane++) {
+            int source = sources[from + lane];
+            if (source < 0 || source >= n) throw new IllegalStateException("Source node is null");
+            seen[source * words + (lane >>> 6)] |= 1L << lane;
+            visit[source * words + (lane >>> 6)] |= 1L << lane;
+        }
+        histogram[0] += count;
+
+        long scanned = 0;
+        int level = 0;
+        boolean more = count > 0;
+        while (more) {
+            level++;
+            more = false;
+            Arrays.fill(next, 0);
+            Arrays.fill(active, 0);
+            long discovered = 0;
+            for (int v = 0; v < n; v++) {
+                final int base = v * words;
+                if (!any(visit, base, words)) continue;
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    scanned++;
+                    final int neighbor = targets[i] * words;
+                    for (int w = 0; w < words; w++) {
+                        long d = visit[base + w] & ~seen[neighbor + w];
+                        if (d == 0) continue;
+                        next[neighbor + w] |= d;
+                        seen[neighbor + w] |= d;
+                        active[w] |= d;
+                        discovered += Long.bitCount(d);
+                    }
+                }
+            }
+            if (discovered > 0) {
+                more = true;
+                if (level == histogram.length) histogram = Arrays.copyOf(histogram, level * 2);
+                histogram[level] += discovered;
+                //levels only grow, the last level a lane discovers something is its eccentricity
+                for (int w = 0; w < words; w++) {
+                    for (long bits = active[w]; bits != 0; bits &= bits - 1) {
+                        laneEccentricity[w << 6 | Long.numberOfTrailingZeros(bits)] = level;
+                    }
+                }
+            }
+            long[] swap = visit;
+            visit = next;
+            next = swap;
+        }
+        edgesScanned += scanned;
+        return Arrays.copyOf(laneEccentricity, count);
+    }
+
+    private static boolean any(long[] bits, int from, int words) {
+        for (int w = 0; w < words; w++) {
+            if (bits[from + w] != 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return pairs (source, node) per hop distance over all batches run so far, index 0 counts the sources
+     */
+    public long[] getHistogram() {
+        int length = histogram.length;
+        while (length > 1 && histogram[length - 1] == 0) length--;
+        return Arrays.copyOf(histogram, length);
+    }
+
+    /**
+     * @return adjacency entries scanned over all batches run so far
+     */
+    public long getEdgesScanned() {
+        return edgesScanned;
+    }
+
+    /**
+     * Exact eccentricities of all nodes, diameter, radius and distance distribution.
+     *
+     * @param compact the snapshot
+     * @param threads amount of threads running batches
+     * @return the summary over all nodes as sources
+     */
+    public static Summary summarize(CompactGraph compact, int threads) {
+        if (compact == null) throw new IllegalArgumentException("Graph is null");
+        int[] sources = new int[compact.getNodeCount()];
+        for (int v = 0; v < sources.length; v++) sources[v] = v;
+        return summarize(compact, sources, threads);
+    }
+
+    /**
+     * Estimate from a random sample of sources: the diameter is a lower bound, the radius an upper
+     * bound and the distribution is the one of the sampled sources.
+     *
+     * @param compact the snapshot
+     * @param samples amount of sources, exact if at least the node count
+     * @param seed    seed of the sample
+     * @param threads amount of threads running batches
+     * @return the summary over the sampled sources
+     */
+    public static Summary estimate(CompactGraph compact, int samples, long seed, int threads) {
+        if (compact == null) throw new IllegalArgumentException("Graph is null");
+        if (samples < 1) throw new IllegalArgumentException("At least one sample is needed");
+        final int n = compact.getNodeCount();
+        if (samples >= n) return summarize(compact, threads);
+        //partial Fisher-Yates shuffle, the sample is sorted to keep batch starts close in memory
+        int[] nodes = new int[n];
+        for (int v = 0; v < n; v++) nodes[v] = v;
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < samples; i++) {
+            int j = i + random.nextInt(n - i);
+            int swap = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = swap;
+        }
+        int[] sources = Arrays.copyOf(nodes, samples);
+        Arrays.sort(sources);
+        return summarize(compact, sources, threads);
+    }
+
+    /**
+     * Runs the sources in batches on several threads, every thread with its own bitsets.
+     *
+     * @param compact the snapshot
+     * @param sources dense node indices
+     * @param threads amount of threads running batches
+     * @return the summary over the sources
+     */
+    public static Summary summarize(CompactGraph compact, int[] sources, int threads) {
+        if (compact == null) throw new IllegalArgumentException("Graph is null");
+        if (sources == null) throw new IllegalArgumentException("Sources are null");
+        if (threads < 1) throw new IllegalArgumentException("At least one thread is needed");
+        final int batchSize = 64 * DEFAULT_WORDS;
+        final int batches = (sources.length + batchSize - 1) / batchSize;
+        final int[] eccentricities = new int[compact.getNodeCount()];
+        Arrays.fill(eccentricities, -1);
+        final AtomicInteger nextBatch = new AtomicInteger();
+        final int workers = Math.max(1, Math.min(threads, batches));
+        List<MultiSourceBFS> engines = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) engines.add(new MultiSourceBFS(compact));
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newFixedThreadPool(workers)) {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (MultiSourceBFS engine : engines) {
+                futures.add(executor.submit(() -> {
+                    for (int batch = nextBatch.getAndIncrement(); batch < batches; batch = nextBatch.getAndIncrement()) {
+                        int from = batch * batchSize;
+                        int count = Math.min(batchSize, sources.length - from);
+                        int[] result = engine.run(sources, from, count);
+                        //a node may be listed twice, both lanes compute the same value
+                        for (int lane = 0; lane < count; lane++) eccentricities[sources[from + lane]] = result[lane];
+                    }
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing the summary", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+
+        long[] histogram = new long[1];
+        long scanned = 0;
+        for (MultiSourceBFS engine : engines) {
+            long[] part = engine.getHistogram();
+            if (part.length > histogram.length) histogram = Arrays.copyOf(histogram, part.length);
+            for (int d = 0; d < part.length; d++) histogram[d] += part[d];
+            scanned += engine.getEdgesScanned();
+        }
+        boolean exact = true;
+        boolean[] covered = new boolean[compact.getNodeCount()];
+        for (int source : sources) covered[source] = true;
+        for (boolean c : covered) exact &= c;
+        return new Summary(eccentricities, histogram, sources.length, exact, scanned, System.nanoTime() - start);
+    }
+
+    /**
+     * Eccentricities and hop distance distribution of a set of sources. Eccentricities count reachable
+     * nodes only: in a disconnected graph a node's eccentricity is the one within what it reaches.
+     */
+    public static final class Summary {
+        private final int[] eccentricities;
+        private final long[] histogram;
+        private final int sources;
+        private final boolean exact;
+        private final long edgesScanned;
+        private final long wallNanos;
+
+        private Summary(int[] eccentricities, long[] histogram, int sources, boolean exact, long edgesScanned, long wallNanos) {
+            this.eccentricities = eccentricities;
+            this.histogram = histogram;
+            this.sources = sources;
+            this.exact = exact;
+            this.edgesScanned = edgesScanned;
+            this.wallNanos = wallNanos;
+        }
+
+        /**
+         * @param index dense node index
+         * @return the eccentricity of the node or -1 if it was not a source
+         */
+        public int getEccentricity(int index) {
+            return eccentricities[index];
+        }
+
+        /**
+         * @return the largest eccentricity, a lower bound of the diameter unless {@link #isExact()}
+         */
+        public int getDiameter() {
+            int diameter = 0;
+            for (int eccentricity : eccentricities) diameter = Math.max(diameter, eccentricity);
+            return diameter;
+        }
+
+        /**
+         * Nodes that reach no other node (eccentricity 0) are left out, they would make the radius of
+         * every graph with a sink or an isolated node 0.
+         *
+         * @return the smallest positive eccentricity, an upper bound of the radius unless {@link #isExact()},
+         * 0 if no source reaches another node
+         */
+        public int getRadius() {
+            int radius = Integer.MAX_VALUE;
+            for (int eccentricity : eccentricities) {
+                if (eccentricity > 0) radius = Math.min(radius, eccentricity);
+            }
+            return radius == Integer.MAX_VALUE ? 0 : radius;
+        }
+
+        /**
+         * @return pairs (source, node) per hop distance, index 0 counts the sources
+         */
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+
+        /**
+         * @return pairs (source, other node) with a path between them
+         */
+        public long getReachablePairs() {
+            long pairs = 0;
+            for (int d = 1; d < histogram.length; d++) pairs += histogram[d];
+            return pairs;
+        }
+
+        /**
+         * @return mean hop distance over the reachable pairs, 0 if there are none
+         */
+        public double getAverageDistance() {
+            long pairs = getReachablePairs();
+            if (pairs == 0) return 0;
+            double sum = 0;
+            for (int d = 1; d < histogram.length; d++) sum += (double) d * histogram[d];
+            return sum / pairs;
+        }
+
+        /**
+         * @return the smallest distance within which {@link #EFFECTIVE_DIAMETER_SHARE} of the reachable pairs lie
+         */
+        public int getEffectiveDiameter() {
+            long pairs = getReachablePairs();
+            long within = 0;
+            for (int d = 1; d < histogram.length; d++) {
+                within += histogram[d];
+                if (within >= EFFECTIVE_DIAMETER_SHARE * pairs) return d;
+            }
+            return 0;
+        }
+
+        /**
+         * @return amount of sources searched
+         */
+        public int getSources() {
+            return sources;
+        }
+
+        /**
+         * @return true if every node was a source, the values are exact and not estimates
+         */
+        public boolean isExact() {
+            return exact;
+        }
+
+        /**
+         * @return adjacency entries scanned by all batches
+         */
+        public long getEdgesScanned() {
+            return edgesScanned;
+        }
+
+        /**
+         * @return time taken by the batches
+         */
+        public long getWallNanos() {
+            return wallNanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Sources: %d (%s)%n", sources, exact ? "exact" : "sampled"));
+            sb.append(String.format("Diameter: %s%d, radius: %s%d, effective diameter: %d%n",
+                    exact ? "" : ">= ", getDiameter(), exact ? "" : "<= ", getRadius(), getEffectiveDiameter()));
+            sb.append(String.format("Reachable pairs: %d, average distance: %.2f%n", getReachablePairs(), getAverageDistance()));
+            sb.append("Hops:");
+            for (int d = 1; d < histogram.length; d++) sb.append(' ').append(d).append('=').append(histogram[d]);
+            sb.append(String.format("%nDuration: %.1f ms, edges scanned: %d%n", wallNanos / 1e6, edgesScanned));
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import java.util.Arrays;
+
+/**
+ * Maps node names to dense int ids (0, 1, 2, ... in insertion order) with an open-addressing
+ * hash table, so looking up or adding a name neither scans the graph nor boxes integers.
+ */
+public class NodeDictionary {
+    private String[] names;
+    private int[] table;
+    private int[] hashes;
+    private int size;
+
+    public NodeDictionary() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize amount of names the dictionary is sized for (it grows if needed)
+     */
+    public NodeDictionary(int expectedSize) {
+        names = new String[Math.max(4, expectedSize)];
+        hashes = new int[names.length];
+        table = new int[tableSizeFor(names.length)];
+        Arrays.fill(table, -1);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        //load factor of at most 0.5
+        return Integer.highestOneBit(Math.max(4, capacity) * 2 - 1) << 1;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Returns the id of a name, assigning the next free id if the name is new.
+     *
+     * @param name the node name
+     * @return the dense id of the name
+     */
+    public int add(String name) {
+        int hash = mix(name.hashCode());
+        int mask = table.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = table[slot];
+            if (id < 0) {
+                if (size == names.length) {
+                    grow();
+                    return add(name);
+                }
+                names[size] = name;
+                hashes[size] = hash;
+                table[slot] = size;
+                return size++;
+            }
+            if (hashes[id] == hash && names[id].equals(name)) return id;
+        }
+    }
+
+    /**
+     * @param name the node name
+     * @return the id of the name or -1 if it is unknown
+     */
+    public int indexOf(String name) {
+        int hash = mix(name.hashCode());
+        int mask = table.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            int id = table[slot];
+            if (id < 0) return -1;
+            if (hashes[id] == hash && names[id].equals(name)) return id;
+        }
+    }
+
+    /**
+     * @param id a dense id
+     * @return the name belonging to the id
+     */
+    public String name(int id) {
+        if (id < 0 || id >= size) throw new IndexOutOfBoundsException("Unknown node id " + id);
+        return names[id];
+    }
+
+    /**
+     * @return amount of names in the dictionary
+     */
+    public int size() {
+        return size;
+    }
+
+    private void grow() {
+        names = Arrays.copyOf(names, names.length * 2);
+        hashes = Arrays.copyOf(hashes, names.length);
+        table = new int[tableSizeFor(names.length)];
+        Arrays.fill(table, -1);
+        int mask = table.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hashes[id] & mask;
+            while (table[slot] >= 0) slot = (slot + 1) & mask;
+            table[slot] = id;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+import java.util.Arrays;
+
+/**
+ * Computes node orders that place neighbors at close dense indices, for {@link CompactGraph#reorder}.
+ * Parsed graphs are numbered in the order the file mentions the nodes, which for large power-law
+ * graphs is close to random: every step of a traversal then lands on another cache line.
+ * All strategies look at the graph as undirected (successors and predecessors) and handle every
+ * connected component, the result is always a permutation of all nodes.
+ */
+public final class NodeOrdering {
+    /** amount of recently placed nodes Gorder compares a candidate with */
+    public static final int GORDER_WINDOW = 5;
+
+    /**
+     * Available orders.
+     */
+    public enum Strategy {
+        /** the order in which a BFS from the highest degree node of each component reaches the nodes */
+        BFS,
+        /** reverse Cuthill-McKee: BFS from a low degree node visiting neighbors by ascending degree, reversed */
+        RCM,
+        /** descending degree, hubs share the first cache lines */
+        DEGREE,
+        /**
+         * greedy Gorder: the next node is the one with the most edges and shared neighbors with the
+         * last {@link #GORDER_WINDOW} placed nodes; by far the most expensive to compute, worth it
+         * for snapshots that answer many queries
+         */
+        GORDER
+    }
+
+    private NodeOrdering() {
+    }
+
+    /**
+     * Computes the order and relabels the snapshot with it.
+     *
+     * @param compact  the snapshot
+     * @param strategy the order to use
+     * @return the reordered snapshot
+     */
+    public static CompactGraph apply(CompactGraph compact, Strategy strategy) {
+        return compact.reorder(compute(compact, strategy));
+    }
+
+    /**
+     * @param compact  the snapshot
+     * @param strategy the order to use
+     * @return new index -> index in the snapshot
+     */
+    public static int[] compute(CompactGraph compact, Strategy strategy) {
+        if (compact == null) throw new IllegalArgumentException("Graph is null");
+        if (strategy == null) throw new IllegalArgumentException("Strategy is null");
+        return switch (strategy) {
+            case BFS -> bfs(compact, false);
+            case RCM -> bfs(compact, true);
+            case DEGREE -> byDegree(compact);
+            case GORDER -> gorder(compact);
+        };
+    }
+
+    /**
+     * Undirected degree: successors plus predecessors (undirected edges count twice, which does not
+     * change any comparison between nodes).
+     */
+    private static int[] degrees(CompactGraph compact) {
+        CompactGraph reverse = compact.transpose();
+        int[] degrees = new int[compact.getNodeCount()];
+        for (int v = 0; v < degrees.length; v++) degrees[v] = compact.degree(v) + reverse.degree(v);
+        return degrees;
+    }
+
+    private static int[] byDegree(CompactGraph compact) {
+        int[] degrees = degrees(compact);
+        //stable: equal degrees keep their relative order
+        return sortedBy(degrees, true);
+    }
+
+    /**
+     * @return node indices sorted by key (counting sort, stable)
+     */
+    private static int[] sortedBy(int[] keys, boolean descending) {
+        int max = 0;
+        for (int key : keys) max = Math.max(max, key);
+        int[] start = new int[max + 2];
+        for (int key : keys) start[(descending ? max - key : key) + 1]++;
+        for (int i = 0; i <= max; i++) start[i + 1] += start[i];
+        int[] order = new int[keys.length];
+        for (int v = 0; v < keys.length; v++) order[start[descending ? max - keys[v] : keys[v]]++] = v;
+        return order;
+    }
+
+    /**
+     * BFS order over all components. Cuthill-McKee starts each component at its lowest degree node,
+     * expands neighbors by ascending degree and reverses the result at the end.
+     */
+    private static int[] bfs(CompactGraph compact, boolean cuthillMcKee) {
+        final int n = compact.getNodeCount();
+        //both directions are expanded, so directed graphs are ordered by their weak components
+        final CompactGraph[] sides = {compact, compact.transpose()};
+        final int[] degrees = degrees(compact);
+        //candidates for component starts, in the order they are tried
+        int[] starts = sortedBy(degrees, !cuthillMcKee);
+        //neighbors of a node are expanded in this rank order (ascending degree for Cuthill-McKee)
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) rank[starts[i]] = i;
+
+        boolean[] placed = new boolean[n];
+        int[] order = new int[n];
+        int[] scratch = new int[16];
+        int tail = 0;
+        int head = 0;
+        for (int start : starts) {
+            if (placed[start]) continue;
+            placed[start] = true;
+            order[tail++] = start;
+            while (head < tail) {
+                int v = order[head++];
+                int count = 0;
+                for (CompactGraph side : sides) {
+                    for (int i = side.offsets()[v]; i < side.offsets()[v + 1]; i++) {
+                        int w = side.targets()[i];
+                        if (placed[w]) continue;
+                        placed[w] = true;
+                        if (count == scratch.length) scratch = Arrays.copyOf(scratch, count * 2);
+                        scratch[count++] = w;
+                    }
+                }
+                if (cuthillMcKee) sortByRank(scratch, count, rank);
+                System.arraycopy(scratch, 0, order, tail, count);
+                tail += count;
+            }
+        }
+        if (cuthillMcKee) {
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+        }
+        return order;
+    }
+
+    private static void sortByRank(int[] nodes, int count, int[] rank) {
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) packed[i] = (long) rank[nodes[i]] << 32 | nodes[i];
+        Arrays.sort(packed);
+        for (int i = 0; i < count; i++) nodes[i] = (int) packed[i];
+    }
+
+    /**
+     * Greedy Gorder. score[x] counts, over the window of the last placed nodes u, the edges between
+     * x and u plus the common neighbors of x and u. Entering and leaving the window adds and removes
+     * those contributions; the unplaced node with the highest score is placed next. Neighbors with
+     * a degree above the hub limit are not expanded to siblings, they would touch most of the graph.
+     */
+    private static int[] gorder(CompactGraph compact) {
+        final int n = compact.getNodeCount();
+        final CompactGraph reverse = compact.transpose();
+        final int hubLimit = Math.max(16, (int) Math.sqrt(n));
+        final int[] fallback = sortedBy(degrees(compact), true);
+        int nextFallback = 0;
+
+        UnitHeap heap = new UnitHeap(n);
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            int next = heap.pollMax();
+            if (next < 0) {
+                //no node is related to the window, start over with the largest remaining hub
+                while (heap.placed[fallback[nextFallback]]) nextFallback++;
+                next = fallback[nextFallback];
+                heap.remove(next);
+            }
+            order[i] = next;
+
+            update(compact, reverse, next, true, heap, hubLimit);
+            if (i >= GORDER_WINDOW) update(compact, reverse, order[i - GORDER_WINDOW], false, heap, hubLimit);
+        }
+        return order;
+    }
+
+    /**
+     * Adds or removes the contributions of window node u to the scores.
+     */
+    private static void update(CompactGraph compact, CompactGraph reverse, int u, boolean add, UnitHeap heap, int hubLimit) {
+        //successors w of u: siblings share w as successor; predecessors w: siblings are successors of w
+        for (int side = 0; side < 2; side++) {
+            CompactGraph from = side == 0 ? compact : reverse;
+            CompactGraph back = side == 0 ? reverse : compact;
+            for (int i = from.offsets()[u]; i < from.offsets()[u + 1]; i++) {
+                int w = from.targets()[i];
+                heap.change(w, add);
+                if (back.degree(w) > hubLimit) continue;
+                for (int j = back.offsets()[w]; j < back.offsets()[w + 1]; j++) {
+                    int x = back.targets()[j];
+                    if (x != u) heap.change(x, add);
+                }
+            }
+        }
+    }
+
+    /**
+     * Priority queue for scores that only change by one: a doubly linked bucket per score, so an
+     * update is a constant time move between neighboring buckets. Nodes with score 0 are in no bucket.
+     */
+    private static final class UnitHeap {
+        final boolean[] placed;
+        final int[] score;
+        final int[] next;
+        final int[] previous;
+        int[] head = new int[64];
+        int top;
+
+        UnitHeap(int n) {
+            placed = new boolean[n];
+            score = new int[n];
+            next = new int[n];
+            previous = new int[n];
+            Arrays.fill(head, -1);
+        }
+
+        void change(int x, boolean add) {
+            if (placed[x]) return;
+            unlink(x);
+            score[x] += add ? 1 : -1;
+            link(x);
+        }
+
+        /**
+         * @return the unplaced node with the highest positive score, marked as placed, or -1
+         */
+        int pollMax() {
+            while (top > 0 && head[top] < 0) top--;
+            if (top == 0) return -1;
+            int x = head[top];
+            remove(x);
+            return x;
+        }
+
+        void remove(int x) {
+            unlink(x);
+            placed[x] = true;
+        }
+
+        private void link(int x) {
+            int s = score[x];
+            if (s <= 0) return;
+            if (s >= head.length) {
+                int old = head.length;
+                head = Arrays.copyOf(head, Math.max(s + 1, old * 2));
+                Arrays.fill(head, old, head.length, -1);
+            }
+            previous[x] = -1;
+            next[x] = head[s];
+            if (head[s] >= 0) previous[head[s]] = x;
+            head[s] = x;
+            if (s > top) top = s;
+        }
+
+        private void unlink(int x) {
+            int s = score[x];
+            if (s <= 0) return;
+            if (previous[x] >= 0) next[previous[x]] = next[x];
+            else head[s] = next[x];
+            if (next[x] >= 0) previous[next[x]] = previous[x];
+        }
+    }
+}
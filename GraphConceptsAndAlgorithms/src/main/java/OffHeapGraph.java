@@ -0,0 +1,468 @@
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A read-only CSR graph whose data lives outside the Java heap in a single {@link MemorySegment}:
+ * adjacency (offsets, targets), arc weights and the node-id dictionary (UTF-8 names and an
+ * open-addressing hash table). The garbage collector only sees this object and the segment handle,
+ * no matter how large the graph is.
+ * <p>
+ * The segment uses the same layout in memory and on disk, so a graph can be built into anonymous
+ * memory ({@link Builder#build(Arena)}), written to a file, built straight into a file
+ * ({@link Builder#build(Path, Arena)}) or mapped from a file without reading it ({@link #open}).
+ * The lifetime of the memory is the lifetime of the {@link Arena} passed in; closing the arena
+ * invalidates the graph. Use a shared or global arena if several threads search the graph.
+ * <p>
+ * Layout (little endian, sections aligned to 8 bytes): a 64 byte header (magic, version, node count,
+ * arc count, name bytes, table size), offsets (n + 1 longs), targets (m ints), weights (m ints),
+ * name offsets (n + 1 longs), names (UTF-8), table (ints, node id + 1, 0 is free).
+ * Arcs follow the same rules as {@link CompactGraph}: directed edges are stored at their source,
+ * undirected ones at both ends, parallel arcs are merged keeping the smallest weight and missing
+ * weights count as 1. {@link OffHeapSearch} runs BFS and Dijkstra directly on the segment.
+ */
+public final class OffHeapGraph {
+    static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT.withOrder(ByteOrder.LITTLE_ENDIAN);
+    static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private static final int MAGIC = 0x4F414B47; //"GKAO"
+    private static final int VERSION = 1;
+    private static final long HEADER_SIZE = 64;
+
+    private final MemorySegment segment;
+    private final int nodeCount;
+    private final long arcCount;
+    private final MemorySegment offsets;
+    private final MemorySegment targets;
+    private final MemorySegment weights;
+    private final MemorySegment nameOffsets;
+    private final MemorySegment names;
+    private final MemorySegment table;
+
+    private OffHeapGraph(MemorySegment segment) throws IOException {
+        if (segment.byteSize() < HEADER_SIZE || segment.get(INT, 0) != MAGIC || segment.get(INT, 4) != VERSION) {
+            throw new IOException("Not an off-heap graph");
+        }
+        long n = segment.get(LONG, 8);
+        long m = segment.get(LONG, 16);
+        long nameBytes = segment.get(LONG, 24);
+        long tableSize = segment.get(LONG, 32);
+        if (n < 0 || n >= Integer.MAX_VALUE || m < 0 || nameBytes < 0 || tableSize < 1 || Long.bitCount(tableSize) != 1
+                || segment.byteSize() != sizeOf(n, m, nameBytes, tableSize)) {
+            throw new IOException("Corrupt off-heap graph header");
+        }
+        this.segment = segment;
+        this.nodeCount = (int) n;
+        this.arcCount = m;
+        long position = HEADER_SIZE;
+        offsets = segment.asSlice(position, 8 * (n + 1));
+        position = align(position + offsets.byteSize());
+        targets = segment.asSlice(position, 4 * m);
+        position = align(position + targets.byteSize());
+        weights = segment.asSlice(position, 4 * m);
+        position = align(position + weights.byteSize());
+        nameOffsets = segment.asSlice(position, 8 * (n + 1));
+        position = align(position + nameOffsets.byteSize());
+        names = segment.asSlice(position, nameBytes);
+        position = align(position + nameBytes);
+        table = segment.asSlice(position, 4 * tableSize);
+    }
+
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static long sizeOf(long n, long m, long nameBytes, long tableSize) {
+        long size = HEADER_SIZE;
+        size = align(size + 8 * (n + 1));
+        size = align(size + 4 * m);
+        size = align(size + 4 * m);
+        size = align(size + 8 * (n + 1));
+        size = align(size + nameBytes);
+        return size + 4 * tableSize;
+    }
+
+    /**
+     * Copies a snapshot off-heap, node names are the GraphStream node ids.
+     *
+     * @param compact the snapshot
+     * @param arena   owns the memory of the new graph
+     * @return the off-heap graph
+     */
+    public static OffHeapGraph of(CompactGraph compact, Arena arena) {
+        if (compact == null) throw new IllegalArgumentException("Graph is null");
+        if (arena == null) throw new IllegalArgumentException("Arena is null");
+        String[] ids = new String[compact.getNodeCount()];
+        for (int v = 0; v < ids.length; v++) ids[v] = compact.node(v).getId();
+        int[] offsets = compact.offsets();
+        long[] wideOffsets = new long[offsets.length];
+        for (int v = 0; v < offsets.length; v++) wideOffsets[v] = offsets[v];
+        Layout layout = new Layout(ids, wideOffsets, compact.targets(), compact.weights());
+        MemorySegment segment = arena.allocate(layout.size(), 8);
+        layout.writeTo(segment);
+        return wrap(segment);
+    }
+
+    /**
+     * Maps a file written by {@link #write} or {@link Builder#build(Path, Arena)} without copying it.
+     *
+     * @param file  the graph file
+     * @param arena owns the mapping, closing it unmaps the file
+     * @return the graph backed by the file
+     * @throws IOException if the file cannot be read or is not a graph file
+     */
+    public static OffHeapGraph open(Path file, Arena arena) throws IOException {
+        if (arena == null) throw new IllegalArgumentException("Arena is null");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new OffHeapGraph(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena));
+        }
+    }
+
+    private static OffHeapGraph wrap(MemorySegment segment) {
+        try {
+            return new OffHeapGraph(segment);
+        } catch (IOException e) {
+            //only possible for foreign data, a freshly written layout is always valid
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes the graph into a file that can be mapped with {@link #open}.
+     *
+     * @param file the target file, an existing file is replaced
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             Arena arena = Arena.ofConfined()) {
+            MemorySegment target = channel.map(FileChannel.MapMode.READ_WRITE, 0, segment.byteSize(), arena);
+            target.copyFrom(segment);
+            target.force();
+        }
+    }
+
+    /**
+     * @return amount of nodes
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return amount of stored (directed) arcs, undirected edges count twice
+     */
+    public long getArcCount() {
+        return arcCount;
+    }
+
+    /**
+     * @return size of the off-heap data in bytes
+     */
+    public long byteSize() {
+        return segment.byteSize();
+    }
+
+    /**
+     * Node v owns the arcs [offset(v), offset(v + 1)).
+     *
+     * @param v dense node index, getNodeCount() is allowed for the end of the last node
+     * @return index of the first arc of the node
+     */
+    public long offset(int v) {
+        return offsets.getAtIndex(LONG, v);
+    }
+
+    /**
+     * @param arc arc index
+     * @return the node the arc leads to
+     */
+    public int target(long arc) {
+        return targets.getAtIndex(INT, arc);
+    }
+
+    /**
+     * @param arc arc index
+     * @return the weight of the arc
+     */
+    public int weight(long arc) {
+        return weights.getAtIndex(INT, arc);
+    }
+
+    /**
+     * @param v dense node index
+     * @return amount of (outgoing) neighbors of the node
+     */
+    public long degree(int v) {
+        return offset(v + 1) - offset(v);
+    }
+
+    /**
+     * Looks a node name up in the off-heap hash table.
+     *
+     * @param nodeID the node name
+     * @return the dense index or -1 if the node is unknown
+     */
+    public int indexOf(String nodeID) {
+        if (nodeID == null) return -1;
+        MemorySegment key = MemorySegment.ofArray(nodeID.getBytes(StandardCharsets.UTF_8));
+        long mask = table.byteSize() / 4 - 1;
+        for (long slot = hash(key, 0, key.byteSize()) & mask; ; slot = (slot + 1) & mask) {
+            int id = table.getAtIndex(INT, slot) - 1;
+            if (id < 0) return -1;
+            long start = nameOffsets.getAtIndex(LONG, id);
+            long end = nameOffsets.getAtIndex(LONG, id + 1);
+            if (end - start == key.byteSize() && MemorySegment.mismatch(names, start, end, key, 0, key.byteSize()) < 0) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * @param v dense node index
+     * @return the name of the node
+     */
+    public String name(int v) {
+        if (v < 0 || v >= nodeCount) throw new IndexOutOfBoundsException("Unknown node index " + v);
+        long start = nameOffsets.getAtIndex(LONG, v);
+        byte[] bytes = new byte[(int) (nameOffsets.getAtIndex(LONG, v + 1) - start)];
+        MemorySegment.copy(names, ValueLayout.JAVA_BYTE, start, bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int hash(MemorySegment bytes, long from, long to) {
+        int hash = 0;
+        for (long i = from; i < to; i++) hash = 31 * hash + bytes.get(ValueLayout.JAVA_BYTE, i);
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Heap-side CSR and names, serialized into the segment layout.
+     */
+    private record Layout(String[] ids, long[] offsets, int[] targets, int[] weights) {
+        long size() {
+            return sizeOf(ids.length, targets.length, nameBytes(), tableSize());
+        }
+
+        private long nameBytes() {
+            long total = 0;
+            for (String id : ids) total += id.getBytes(StandardCharsets.UTF_8).length;
+            return total;
+        }
+
+        private long tableSize() {
+            //load factor of at most 0.5
+            return Long.highestOneBit(Math.max(4L, ids.length) * 2 - 1) << 1;
+        }
+
+        void writeTo(MemorySegment segment) {
+            final int n = ids.length;
+            final long m = targets.length;
+            long nameBytes = nameBytes();
+            long tableSize = tableSize();
+            segment.set(INT, 0, MAGIC);
+            segment.set(INT, 4, VERSION);
+            segment.set(LONG, 8, n);
+            segment.set(LONG, 16, m);
+            segment.set(LONG, 24, nameBytes);
+            segment.set(LONG, 32, tableSize);
+
+            long position = HEADER_SIZE;
+            MemorySegment.copy(offsets, 0, segment, LONG, position, n + 1);
+            position = align(position + 8L * (n + 1));
+            MemorySegment.copy(targets, 0, segment, INT, position, targets.length);
+            position = align(position + 4 * m);
+            MemorySegment.copy(weights, 0, segment, INT, position, weights.length);
+            position = align(position + 4 * m);
+            long nameOffsetsStart = position;
+            position = align(position + 8L * (n + 1));
+            long namesStart = position;
+            position = align(position + nameBytes);
+            long tableStart = position;
+            segment.asSlice(tableStart, 4 * tableSize).fill((byte) 0);
+
+            long mask = tableSize - 1;
+            long nameOffset = 0;
+            for (int v = 0; v < n; v++) {
+                byte[] bytes = ids[v].getBytes(StandardCharsets.UTF_8);
+                segment.set(LONG, nameOffsetsStart + 8L * v, nameOffset);
+                MemorySegment.copy(bytes, 0, segment, ValueLayout.JAVA_BYTE, namesStart + nameOffset, bytes.length);
+                long slot = hash(MemorySegment.ofArray(bytes), 0, bytes.length) & mask;
+                while (segment.get(INT, tableStart + 4 * slot) != 0) slot = (slot + 1) & mask;
+                segment.set(INT, tableStart + 4 * slot, v + 1);
+                nameOffset += bytes.length;
+            }
+            segment.set(LONG, nameOffsetsStart + 8L * n, nameOffset);
+        }
+    }
+
+    /**
+     * @return a builder collecting edges for a new off-heap graph
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Collects edges from the GKA lexer or a generator without creating GraphStream objects.
+     * Duplicates are skipped with the same rules as {@link BulkGraphLoader}, labels are not stored.
+     * The edge buffers live on the heap only until the graph is built.
+     */
+    public static final class Builder implements GkaLexer.EdgeHandler, SyntheticGraphs.EdgeSink {
+        private final NodeDictionary nodes = new NodeDictionary();
+        private final LongHashSet edgeKeys = new LongHashSet();
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private int[] weights = new int[16];
+        private boolean[] directed = new boolean[16];
+        private int edgeCount;
+
+        private Builder() {
+        }
+
+        @Override
+        public void edge(String source, String directed, String target, String edgeLabel, Integer edgeWeight) {
+            add(source, target, directed.equals("->"), edgeWeight == null ? 1 : edgeWeight);
+        }
+
+        /**
+         * Adds a generated edge, node n is named "v" + n like in {@link SyntheticGraphs.GraphSink}.
+         */
+        @Override
+        public void edge(int source, int target, boolean directed, int weight) {
+            add("v" + source, "v" + target, directed, weight < 0 ? 1 : weight);
+        }
+
+        /**
+         * @param source   source node
+         * @param target   target node
+         * @param directed true for "->"
+         * @param weight   weight of the edge
+         * @return false if the edge is a duplicate and was skipped
+         */
+        public boolean add(String source, String target, boolean directed, int weight) {
+            int s = nodes.add(source);
+            int t = nodes.add(target);
+            long low = Math.min(s, t);
+            long high = Math.max(s, t);
+            if (!edgeKeys.add(low << 32 | high << 1 | (directed ? 1 : 0))) return false;
+            if (edgeCount == sources.length) {
+                int capacity = sources.length * 2;
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                this.directed = Arrays.copyOf(this.directed, capacity);
+            }
+            sources[edgeCount] = s;
+            targets[edgeCount] = t;
+            weights[edgeCount] = weight;
+            this.directed[edgeCount] = directed;
+            edgeCount++;
+            return true;
+        }
+
+        /**
+         * @return amount of distinct nodes collected so far
+         */
+        public int getNodeCount() {
+            return nodes.size();
+        }
+
+        /**
+         * Builds the graph into memory owned by the arena.
+         *
+         * @param arena owns the memory of the new graph
+         * @return the off-heap graph
+         */
+        public OffHeapGraph build(Arena arena) {
+            if (arena == null) throw new IllegalArgumentException("Arena is null");
+            Layout layout = layout();
+            MemorySegment segment = arena.allocate(layout.size(), 8);
+            layout.writeTo(segment);
+            return wrap(segment);
+        }
+
+        /**
+         * Builds the graph directly into a memory-mapped file, which can later be mapped again with {@link #open}.
+         *
+         * @param file  the target file, an existing file is replaced
+         * @param arena owns the mapping of the new graph
+         * @return the graph backed by the file
+         * @throws IOException if the file cannot be written
+         */
+        public OffHeapGraph build(Path file, Arena arena) throws IOException {
+            if (arena == null) throw new IllegalArgumentException("Arena is null");
+            Layout layout = layout();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MemorySegment segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, layout.size(), arena);
+                layout.writeTo(segment);
+                segment.force();
+                return wrap(segment);
+            }
+        }
+
+        /**
+         * Counting sort of the arcs by source, then parallel arcs are merged like in CompactGraph.of.
+         */
+        private Layout layout() {
+            final int n = nodes.size();
+            long[] offsets = new long[n + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                offsets[sources[i] + 1]++;
+                if (!directed[i] && sources[i] != targets[i]) offsets[targets[i] + 1]++;
+            }
+            for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+            if (offsets[n] > Integer.MAX_VALUE - 8) throw new IllegalStateException("Too many edges for the builder");
+
+            int[] arcTargets = new int[(int) offsets[n]];
+            int[] arcWeights = new int[arcTargets.length];
+            long[] fill = Arrays.copyOf(offsets, n);
+            for (int i = 0; i < edgeCount; i++) {
+                int position = (int) fill[sources[i]]++;
+                arcTargets[position] = targets[i];
+                arcWeights[position] = weights[i];
+                if (!directed[i] && sources[i] != targets[i]) {
+                    position = (int) fill[targets[i]]++;
+                    arcTargets[position] = sources[i];
+                    arcWeights[position] = weights[i];
+                }
+            }
+
+            //"A->B" and "A--B" are different edges but the same arc, keep the lighter one
+            int[] seenBy = new int[n];
+            Arrays.fill(seenBy, -1);
+            int[] slot = new int[n];
+            int size = 0;
+            for (int v = 0; v < n; v++) {
+                int begin = (int) offsets[v];
+                int end = (int) offsets[v + 1];
+                offsets[v] = size;
+                for (int i = begin; i < end; i++) {
+                    int w = arcTargets[i];
+                    if (seenBy[w] != v) {
+                        seenBy[w] = v;
+                        slot[w] = size;
+                        arcWeights[size] = arcWeights[i];
+                        arcTargets[size++] = w;
+                    } else if (arcWeights[i] < arcWeights[slot[w]]) {
+                        arcWeights[slot[w]] = arcWeights[i];
+                    }
+                }
+            }
+            offsets[n] = size;
+
+            String[] ids = new String[n];
+            for (int v = 0; v < n; v++) ids[v] = nodes.name(v);
+            return new Layout(ids, offsets, Arrays.copyOf(arcTargets, size), Arrays.copyOf(arcWeights, size));
+        }
+    }
+}
@@ -0,0 +1,267 @@
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * BFS and Dijkstra running directly on an {@link OffHeapGraph}. The per-query state (epoch stamps,
+ * parents, distances, queue and an indexed binary heap) is allocated off-heap as well, once per
+ * searcher, and the {@link TraversalStats} object is refilled by every query, so a query allocates
+ * nothing but the resulting path.
+ * A searcher owns a confined arena: it must be used and closed by the thread that created it.
+ * Several searchers on different threads can share one graph built in a shared or global arena.
+ */
+public class OffHeapSearch implements AutoCloseable {
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT;
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG;
+
+    private final OffHeapGraph graph;
+    private final Arena arena = Arena.ofConfined();
+    private final MemorySegment stamp;
+    private final MemorySegment parent;
+    private final MemorySegment distance;
+    //queue of the BFS, heap array of Dijkstra (the two are never used at the same time)
+    private final MemorySegment queue;
+    //position of a node in the heap, -1 once it was taken out
+    private final MemorySegment position;
+    private int heapSize;
+    private int epoch;
+
+    private List<String> path = Collections.emptyList();
+    private long pathDistance = -1;
+    private TraversalStats stats;
+
+    /**
+     * @param graph the graph to search
+     */
+    public OffHeapSearch(OffHeapGraph graph) {
+        if (graph == null) throw new IllegalArgumentException("Graph is null");
+        this.graph = graph;
+        final long n = Math.max(1, graph.getNodeCount());
+        stamp = arena.allocate(4 * n, 4);
+        stamp.fill((byte) 0);
+        parent = arena.allocate(4 * n, 4);
+        distance = arena.allocate(8 * n, 8);
+        queue = arena.allocate(4 * n, 4);
+        position = arena.allocate(4 * n, 4);
+    }
+
+    /**
+     * Hop distance search.
+     *
+     * @param sourceNodeID id of the source node
+     * @param targetNodeID id of the target node
+     * @return true if the target was reached
+     * @throws IllegalStateException if the source or target node does not exist in graph.
+     */
+    public boolean bfs(String sourceNodeID, String targetNodeID) {
+        final int source = graph.indexOf(sourceNodeID);
+        final int target = graph.indexOf(targetNodeID);
+        if (source < 0 || target < 0) throw new IllegalStateException("Source or target node are null");
+        TraversalStats current = begin("OffHeapBFS", sourceNodeID, targetNodeID);
+
+        final int epoch = nextEpoch();
+        stamp.setAtIndex(INT, source, epoch);
+        parent.setAtIndex(INT, source, source);
+        distance.setAtIndex(LONG, source, 0);
+        int head = 0;
+        int tail = 0;
+        queue.setAtIndex(INT, tail++, source);
+        long scanned = 0;
+        boolean found = source == target;
+        while (head < tail && !found) {
+            int currentNode = queue.getAtIndex(INT, head++);
+            long next = distance.getAtIndex(LONG, currentNode) + 1;
+            long end = graph.offset(currentNode + 1);
+            for (long i = graph.offset(currentNode); i < end; i++) {
+                scanned++;
+                int neighbor = graph.target(i);
+                if (stamp.getAtIndex(INT, neighbor) == epoch) continue;
+                stamp.setAtIndex(INT, neighbor, epoch);
+                parent.setAtIndex(INT, neighbor, currentNode);
+                distance.setAtIndex(LONG, neighbor, next);
+                if (neighbor == target) {
+                    found = true;
+                    break;
+                }
+                queue.setAtIndex(INT, tail++, neighbor);
+            }
+        }
+        current.dequeued(head);
+        current.scanned(scanned);
+        return end(current, found, source, target);
+    }
+
+    /**
+     * Weighted distance search, weights must not be negative.
+     *
+     * @param sourceNodeID id of the source node
+     * @param targetNodeID id of the target node
+     * @return true if the target was reached
+     * @throws IllegalStateException if the source or target node does not exist in graph or a negative weight is met.
+     */
+    public boolean dijkstra(String sourceNodeID, String targetNodeID) {
+        final int source = graph.indexOf(sourceNodeID);
+        final int target = graph.indexOf(targetNodeID);
+        if (source < 0 || target < 0) throw new IllegalStateException("Source or target node are null");
+        TraversalStats current = begin("OffHeapDijkstra", sourceNodeID, targetNodeID);
+
+        final int epoch = nextEpoch();
+        heapSize = 0;
+        stamp.setAtIndex(INT, source, epoch);
+        parent.setAtIndex(INT, source, source);
+        distance.setAtIndex(LONG, source, 0);
+        push(source);
+        long dequeued = 0;
+        long scanned = 0;
+        boolean found = false;
+        while (heapSize > 0) {
+            int currentNode = pop();
+            dequeued++;
+            if (currentNode == target) {
+                found = true;
+                break;
+            }
+            final long base = distance.getAtIndex(LONG, currentNode);
+            long end = graph.offset(currentNode + 1);
+            for (long i = graph.offset(currentNode); i < end; i++) {
+                scanned++;
+                int weight = graph.weight(i);
+                if (weight < 0) throw new IllegalStateException("Negative edge weight: " + weight);
+                int neighbor = graph.target(i);
+                long candidate = base + weight;
+                if (stamp.getAtIndex(INT, neighbor) != epoch) {
+                    stamp.setAtIndex(INT, neighbor, epoch);
+                    parent.setAtIndex(INT, neighbor, currentNode);
+                    distance.setAtIndex(LONG, neighbor, candidate);
+                    push(neighbor);
+                } else if (candidate < distance.getAtIndex(LONG, neighbor) && position.getAtIndex(INT, neighbor) >= 0) {
+                    parent.setAtIndex(INT, neighbor, currentNode);
+                    distance.setAtIndex(LONG, neighbor, candidate);
+                    siftUp(position.getAtIndex(INT, neighbor));
+                }
+            }
+        }
+        current.dequeued(dequeued);
+        current.scanned(scanned);
+        return end(current, found, source, target);
+    }
+
+    private TraversalStats begin(String algorithm, String sourceNodeID, String targetNodeID) {
+        TraversalStats current = stats == null ? new TraversalStats(algorithm, sourceNodeID, targetNodeID) : stats;
+        current.reset(algorithm, sourceNodeID, targetNodeID);
+        current.start();
+        path = Collections.emptyList();
+        pathDistance = -1;
+        return current;
+    }
+
+    private boolean end(TraversalStats current, boolean found, int source, int target) {
+        if (found) {
+            pathDistance = distance.getAtIndex(LONG, target);
+            ArrayList<String> result = new ArrayList<>();
+            for (int v = target; v != source; v = parent.getAtIndex(INT, v)) result.add(graph.name(v));
+            result.add(graph.name(source));
+            Collections.reverse(result);
+            path = Collections.unmodifiableList(result);
+        }
+        current.finish(found);
+        stats = current;
+        return found;
+    }
+
+    private int nextEpoch() {
+        if (++epoch == 0) {
+            //epoch wrapped around, old stamps could be mistaken for current ones
+            stamp.fill((byte) 0);
+            epoch = 1;
+        }
+        return epoch;
+    }
+
+    private void push(int node) {
+        queue.setAtIndex(INT, heapSize, node);
+        position.setAtIndex(INT, node, heapSize);
+        siftUp(heapSize++);
+    }
+
+    private int pop() {
+        int top = queue.getAtIndex(INT, 0);
+        position.setAtIndex(INT, top, -1);
+        int last = queue.getAtIndex(INT, --heapSize);
+        if (heapSize > 0) {
+            queue.setAtIndex(INT, 0, last);
+            position.setAtIndex(INT, last, 0);
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int index) {
+        int node = queue.getAtIndex(INT, index);
+        long key = distance.getAtIndex(LONG, node);
+        while (index > 0) {
+            int up = (index - 1) >>> 1;
+            int other = queue.getAtIndex(INT, up);
+            if (distance.getAtIndex(LONG, other) <= key) break;
+            queue.setAtIndex(INT, index, other);
+            position.setAtIndex(INT, other, index);
+            index = up;
+        }
+        queue.setAtIndex(INT, index, node);
+        position.setAtIndex(INT, node, index);
+    }
+
+    private void siftDown(int index) {
+        int node = queue.getAtIndex(INT, index);
+        long key = distance.getAtIndex(LONG, node);
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && distance.getAtIndex(LONG, queue.getAtIndex(INT, child + 1))
+                    < distance.getAtIndex(LONG, queue.getAtIndex(INT, child))) {
+                child++;
+            }
+            int other = queue.getAtIndex(INT, child);
+            if (distance.getAtIndex(LONG, other) >= key) break;
+            queue.setAtIndex(INT, index, other);
+            position.setAtIndex(INT, other, index);
+            index = child;
+        }
+        queue.setAtIndex(INT, index, node);
+        position.setAtIndex(INT, node, index);
+    }
+
+    /**
+     * @return node names of the path of the last search (source -> target), empty if the target was not reached
+     */
+    public List<String> getPath() {
+        return path;
+    }
+
+    /**
+     * @return hop distance (bfs) or sum of the weights (dijkstra) of the last search, -1 if the target was not reached
+     */
+    public long getDistance() {
+        return pathDistance;
+    }
+
+    /**
+     * The same object is refilled by the next search, read it before searching again.
+     *
+     * @return the measurements of the last search or null if none ran yet
+     */
+    public TraversalStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Frees the off-heap workspace. The graph is not affected.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+}
@@ -0,0 +1,169 @@
+import org.graphstream.graph.Graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Level-synchronous breadth-first search that expands every frontier level in parallel on a ForkJoinPool.
+ * Nodes are claimed with a compare-and-set on their parent entry, so every node gets exactly one parent
+ * from the previous level and the reconstructed path is a shortest path.
+ * Edge direction is handled like in BreadthFirstSearch.neighbors() (via the compact snapshot).
+ */
+public class ParallelBreadthFirstSearch extends PathSearch {
+    //frontier slices smaller than this are expanded by a single task
+    private static final int SEQUENTIAL_THRESHOLD = 512;
+
+    private final ForkJoinPool pool;
+    private CompactGraph compact;
+
+    public ParallelBreadthFirstSearch(String sourceNodeID, String targetNodeID) {
+        this(sourceNodeID, targetNodeID, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param sourceNodeID id of the source node
+     * @param targetNodeID id of the target node
+     * @param pool         the pool the frontier levels are processed on
+     */
+    public ParallelBreadthFirstSearch(String sourceNodeID, String targetNodeID, ForkJoinPool pool) {
+        super(sourceNodeID, targetNodeID);
+        if (pool == null) throw new IllegalArgumentException("Pool is null");
+        this.pool = pool;
+    }
+
+    @Override
+    public void init(Graph graph) {
+        init(CompactGraph.of(graph));
+    }
+
+    /**
+     * Initialize the algorithm with an existing compact snapshot.
+     * @param compact the snapshot on which the search will run
+     */
+    public void init(CompactGraph compact) {
+        if(compact == null) throw new IllegalArgumentException("Graph is null");
+        super.init(compact.getGraph());
+        this.compact = compact;
+    }
+
+    @Override
+    protected long snapshotRemovals() {
+        return compact.connectivityRemovals();
+    }
+
+    @Override
+    protected boolean contains(String nodeID) {
+        return compact.indexOf(nodeID) >= 0;
+    }
+
+    /**
+     * Executes the search level by level until the target has been claimed or the component is exhausted.
+     *
+     * @throws IllegalStateException if the source or target node does not exist in graph.
+     */
+    @Override
+    protected boolean search(TraversalStats stats) {
+        final int source = compact.indexOf(sourceNodeID);
+        final int target = compact.indexOf(targetNodeID);
+        if(source < 0 || target < 0) {
+            throw new IllegalStateException("Source or target node are null");
+        }
+
+        final int n = compact.getNodeCount();
+        //-1 marks unvisited nodes, the source is its own parent
+        AtomicIntegerArray parent = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) parent.set(i, -1);
+        parent.set(source, source);
+
+        int[] frontier = new int[n];
+        int[] next = new int[n];
+        frontier[0] = source;
+        int frontierSize = 1;
+        AtomicInteger nextSize = new AtomicInteger();
+        LongAdder scanned = new LongAdder();
+
+        while (frontierSize > 0 && parent.get(target) < 0) {
+            stats.level(frontierSize);
+            stats.dequeued(frontierSize);
+            nextSize.set(0);
+            pool.invoke(new LevelTask(compact, parent, frontier, 0, frontierSize, next, nextSize, scanned));
+            int[] swap = frontier;
+            frontier = next;
+            next = swap;
+            frontierSize = nextSize.get();
+        }
+        stats.scanned(scanned.sum());
+
+        if (parent.get(target) >= 0) {
+            this.path = buildPath(compact, parent::get, target);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Expands the slice [from, to) of the current frontier. Discovered nodes are collected in a local buffer
+     * and appended to the next frontier with a single atomic reservation per task.
+     * Tasks only live for one level and are never serialized.
+     */
+    @SuppressWarnings("serial")
+    private static final class LevelTask extends RecursiveAction {
+        private final CompactGraph compact;
+        private final AtomicIntegerArray parent;
+        private final int[] frontier;
+        private final int from;
+        private final int to;
+        private final int[] next;
+        private final AtomicInteger nextSize;
+        private final LongAdder scanned;
+
+        LevelTask(CompactGraph compact, AtomicIntegerArray parent, int[] frontier, int from, int to,
+                  int[] next, AtomicInteger nextSize, LongAdder scanned) {
+            this.compact = compact;
+            this.parent = parent;
+            this.frontier = frontier;
+            this.from = from;
+            this.to = to;
+            this.next = next;
+            this.nextSize = nextSize;
+            this.scanned = scanned;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SEQUENTIAL_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new LevelTask(compact, parent, frontier, from, mid, next, nextSize, scanned),
+                        new LevelTask(compact, parent, frontier, mid, to, next, nextSize, scanned));
+                return;
+            }
+
+            final int[] offsets = compact.offsets();
+            final int[] targets = compact.targets();
+            int[] local = new int[Math.max(16, to - from)];
+            int count = 0;
+            long arcs = 0;
+            for (int i = from; i < to; i++) {
+                int u = frontier[i];
+                arcs += offsets[u + 1] - offsets[u];
+                for (int j = offsets[u], end = offsets[u + 1]; j < end; j++) {
+                    int v = targets[j];
+                    //cheap read first, only unvisited nodes are claimed with a CAS
+                    if (parent.get(v) < 0 && parent.compareAndSet(v, -1, u)) {
+                        if (count == local.length) local = Arrays.copyOf(local, count * 2);
+                        local[count++] = v;
+                    }
+                }
+            }
+            scanned.add(arcs);
+            if (count > 0) {
+                int start = nextSize.getAndAdd(count);
+                System.arraycopy(local, 0, next, start, count);
+            }
+        }
+    }
+}
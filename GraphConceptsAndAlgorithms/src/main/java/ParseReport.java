@@ -0,0 +1,186 @@
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Collects the outcome of parsing one .gka file: accepted, rejected and duplicate lines,
+ * plus the first line numbers of rejected and duplicate lines as a bounded sample.
+ * With {@link Verbosity#SUMMARY} nothing is printed while parsing and {@link #summary()} gives
+ * a few lines per file; {@link Verbosity#TRACE} additionally prints every line as it is handled.
+ * A report belongs to a single file and is not thread-safe.
+ */
+public class ParseReport {
+    /**
+     * How much the parser prints.
+     */
+    public enum Verbosity {
+        /** counts and line number samples once per file */
+        SUMMARY,
+        /** every accepted, rejected and duplicate line */
+        TRACE
+    }
+
+    /** default amount of line numbers kept per category */
+    public static final int DEFAULT_SAMPLE_SIZE = 10;
+
+    private final String fileName;
+    private final PrintStream trace;
+    private final long[] rejectedSample;
+    private final long[] duplicateSample;
+    private long accepted;
+    private long rejected;
+    private long duplicates;
+    private int duplicatesSampled;
+
+    /**
+     * @param fileName   name of the parsed file
+     * @param verbosity  SUMMARY or TRACE
+     * @param out        stream receiving the trace output
+     * @param sampleSize amount of line numbers kept per category
+     */
+    public ParseReport(String fileName, Verbosity verbosity, PrintStream out, int sampleSize) {
+        if (sampleSize < 0) throw new IllegalArgumentException("Sample size must not be negative");
+        this.fileName = fileName;
+        this.trace = verbosity == Verbosity.TRACE ? out : null;
+        this.rejectedSample = new long[sampleSize];
+        this.duplicateSample = new long[sampleSize];
+    }
+
+    /**
+     * Records a line that matched the grammar.
+     *
+     * @param lineNumber 1-based line number
+     * @param source     source node
+     * @param directed   direction of the edge
+     * @param target     target node
+     * @param edgeLabel  label or null
+     * @param edgeWeight weight or null
+     */
+    public void accepted(long lineNumber, String source, String directed, String target, String edgeLabel, Integer edgeWeight) {
+        accepted(source, directed, target, edgeLabel, edgeWeight);
+    }
+
+    /**
+     * Records a line that matched the grammar when its line number is not known.
+     *
+     * @param source     source node
+     * @param directed   direction of the edge
+     * @param target     target node
+     * @param edgeLabel  label or null
+     * @param edgeWeight weight or null
+     */
+    public void accepted(String source, String directed, String target, String edgeLabel, Integer edgeWeight) {
+        accepted++;
+        if (trace == null) return;
+        if (edgeLabel != null && edgeWeight != null) {
+            trace.printf("Parsed: s=%s %s t=%s edgeLabel=%s weight=%s%n", source, directed, target, edgeLabel, edgeWeight);
+        } else if (edgeLabel != null) {
+            trace.printf("Parsed: s=%s %s t=%s edgeLabel=%s%n", source, directed, target, edgeLabel);
+        } else if (edgeWeight != null) {
+            trace.printf("Parsed: s=%s %s t=%s weight=%s%n", source, directed, target, edgeWeight);
+        } else {
+            trace.printf("Parsed: s=%s %s t=%s%n", source, directed, target);
+        }
+    }
+
+    /**
+     * Records a non-blank line that did not match the grammar.
+     *
+     * @param lineNumber 1-based line number
+     */
+    public void rejected(long lineNumber) {
+        if (rejected < rejectedSample.length) rejectedSample[(int) rejected] = lineNumber;
+        rejected++;
+        if (trace != null) trace.printf("Rejected: line %d (no parsable edge)%n", lineNumber);
+    }
+
+    /**
+     * Records a line whose edge already existed and was skipped. The line also counts as accepted.
+     *
+     * @param lineNumber 1-based line number
+     * @param source     source node
+     * @param directed   direction of the edge
+     * @param target     target node
+     */
+    public void duplicate(long lineNumber, String source, String directed, String target) {
+        if (duplicatesSampled < duplicateSample.length) duplicateSample[duplicatesSampled++] = lineNumber;
+        duplicate(source, directed, target);
+    }
+
+    /**
+     * Records a duplicate line when its line number is not known. It is counted but not sampled.
+     *
+     * @param source   source node
+     * @param directed direction of the edge
+     * @param target   target node
+     */
+    public void duplicate(String source, String directed, String target) {
+        duplicates++;
+        if (trace != null) trace.printf("Skipped: s=%s %s t=%s (duplicate edge)%n", source, directed, target);
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * @return amount of lines that matched the grammar (including duplicates)
+     */
+    public long getAccepted() {
+        return accepted;
+    }
+
+    /**
+     * @return amount of non-blank lines that did not match the grammar
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * @return amount of accepted lines whose edge was skipped as a duplicate
+     */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * @return the first rejected line numbers, at most the sample size
+     */
+    public long[] getRejectedLines() {
+        return Arrays.copyOf(rejectedSample, (int) Math.min(rejected, rejectedSample.length));
+    }
+
+    /**
+     * @return the first duplicate line numbers, at most the sample size
+     */
+    public long[] getDuplicateLines() {
+        return Arrays.copyOf(duplicateSample, duplicatesSampled);
+    }
+
+    /**
+     * @return counts and line number samples of the file, one item per line
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Parsed: %s - %d accepted, %d rejected, %d duplicates%n", fileName, accepted, rejected, duplicates));
+        appendSample(sb, "Rejected lines", getRejectedLines(), rejected);
+        appendSample(sb, "Duplicate lines", getDuplicateLines(), duplicates);
+        return sb.toString();
+    }
+
+    private static void appendSample(StringBuilder sb, String title, long[] sample, long total) {
+        if (sample.length == 0) return;
+        sb.append(title).append(": ");
+        for (int i = 0; i < sample.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(sample[i]);
+        }
+        if (total > sample.length) sb.append(" (and ").append(total - sample.length).append(" more)");
+        sb.append(System.lineSeparator());
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+}
@@ -0,0 +1,212 @@
+import org.graphstream.algorithm.Algorithm;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+
+import jdk.jfr.EventType;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Common base of the point-to-point search algorithms.
+ * Holds source and target id, the graph and the resulting path and reports it
+ * in the same format for every algorithm.
+ * Every computation is measured ({@link TraversalStats}), handed to the registered
+ * {@link TraversalListener}s and committed as a JFR {@link TraversalEvent}.
+ * If a {@link ConnectivityIndex} is attached to the graph, targets it rules out are reported
+ * as unreachable without searching, as long as the index still describes the snapshot the search runs on.
+ */
+public abstract class PathSearch implements Algorithm {
+    private static final EventType TRAVERSAL_EVENT = EventType.getEventType(TraversalEvent.class);
+    protected final String sourceNodeID;
+    protected final String targetNodeID;
+    protected Graph graph;
+    protected List<Node> path;
+    private final List<TraversalListener> listeners = new CopyOnWriteArrayList<>();
+    private TraversalStats stats;
+
+    protected PathSearch(String sourceNodeID, String targetNodeID) {
+        this.sourceNodeID = sourceNodeID;
+        this.targetNodeID = targetNodeID;
+        path = new LinkedList<>();
+    }
+
+    /**
+     * Initialize the algorithm with a specific graph.
+     * This method must be called before compute().
+     * @param graph the graph on which the search will run
+     */
+    @Override
+    public void init(Graph graph) {
+        if(graph == null) throw new IllegalArgumentException("Graph is null");
+        this.graph = graph;
+    }
+
+    /**
+     * Runs the search and reports its measurements, also when the target is not reachable.
+     *
+     * @throws IllegalStateException if the source or target node does not exist in graph.
+     */
+    @Override
+    public final void compute() {
+        //the stats of the previous run are reused unless a listener may have kept them
+        String algorithm = getClass().getSimpleName();
+        TraversalStats current = stats != null && listeners.isEmpty()
+                ? stats : new TraversalStats(algorithm, sourceNodeID, targetNodeID);
+        current.reset(algorithm, sourceNodeID, targetNodeID);
+        //events are only created while a recording enables them
+        TraversalEvent event = TRAVERSAL_EVENT.isEnabled() ? new TraversalEvent() : null;
+        if (event != null) event.begin();
+        current.start();
+        boolean found;
+        ConnectivityIndex connectivity = ConnectivityIndex.of(graph);
+        //unknown ids are left to search(), which reports them, the index would call them unreachable
+        if (connectivity != null && connectivity.describes(snapshotRemovals())
+                && contains(sourceNodeID) && contains(targetNodeID)
+                && !connectivity.mayReach(sourceNodeID, targetNodeID)) {
+            //answered by the index, the search would drain the whole component of the source
+            clearResult();
+            current.shortCircuited();
+            found = false;
+        } else {
+            found = search(current);
+        }
+        current.finish(found);
+        this.stats = current;
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.algorithm = current.getAlgorithm();
+                event.source = sourceNodeID;
+                event.target = targetNodeID;
+                event.found = found;
+                event.shortCircuited = current.isShortCircuited();
+                event.nodesDequeued = current.getNodesDequeued();
+                event.edgesScanned = current.getEdgesScanned();
+                event.levels = current.getLevels();
+                for (int size : current.getFrontierSizes()) event.maxFrontier = Math.max(event.maxFrontier, size);
+                event.allocatedBytes = current.getAllocatedBytes();
+                event.commit();
+            }
+        }
+        for (TraversalListener listener : listeners) listener.traversalFinished(current);
+    }
+
+    /**
+     * Executes the search and stores the path if the target was reached.
+     *
+     * @param stats counters to fill while searching
+     * @return true if the target was reached
+     * @throws IllegalStateException if the source or target node does not exist in graph.
+     */
+    protected abstract boolean search(TraversalStats stats);
+
+    /**
+     * Searches on a snapshot return the removal count recorded in it, so an index that has seen
+     * removals since then is not consulted.
+     *
+     * @return {@link ConnectivityIndex#removalsOf} at the time the searched snapshot was taken,
+     * or {@link ConnectivityIndex#LIVE_GRAPH} if the search reads the graph itself
+     */
+    protected long snapshotRemovals() {
+        return ConnectivityIndex.LIVE_GRAPH;
+    }
+
+    /**
+     * Searches on a snapshot look the node up in the snapshot, which may not contain nodes
+     * added to the graph after it was taken.
+     *
+     * @param nodeID id of the source or target node
+     * @return true if the searched graph or snapshot contains the node
+     */
+    protected boolean contains(String nodeID) {
+        return graph.getNode(nodeID) != null;
+    }
+
+    /**
+     * Resets the result of a previous computation when the target is known to be unreachable.
+     */
+    protected void clearResult() {
+        path = new LinkedList<>();
+    }
+
+    /**
+     * @param listener receives the measurements of every following computation
+     */
+    public void addListener(TraversalListener listener) {
+        if (listener == null) throw new IllegalArgumentException("Listener is null");
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener a listener registered before
+     */
+    public void removeListener(TraversalListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Without registered listeners the same object is refilled by the next computation,
+     * so read it before calling compute() again.
+     *
+     * @return the measurements of the last computation or null if compute() has not run yet
+     */
+    public TraversalStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Reconstructs the path from source to the target node based on a parent array
+     * of dense node indices (the source is its own parent).
+     * @param compact the snapshot the indices belong to
+     * @param parent the predecessor of every visited node
+     * @param target index of the target node
+     * @return a list of nodes representing the path.
+     */
+    protected static List<Node> buildPath(CompactGraph compact, int[] parent, int target) {
+        return buildPath(compact, node -> parent[node], target);
+    }
+
+    /**
+     * Reconstructs the path from source to the target node, for parents that are not kept in a plain array.
+     * @param compact the snapshot the indices belong to
+     * @param parent returns the predecessor of a visited node (the source is its own parent)
+     * @param target index of the target node
+     * @return a list of nodes representing the path.
+     */
+    protected static List<Node> buildPath(CompactGraph compact, IntUnaryOperator parent, int target) {
+        LinkedList<Node> path = new LinkedList<>();
+        int current = target;
+        while (parent.applyAsInt(current) != current) {
+            path.addFirst(compact.node(current));
+            current = parent.applyAsInt(current);
+        }
+        path.addFirst(compact.node(current));
+        return path;
+    }
+
+    /**
+     * @return String of the shortest path.
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for(Node n : path) {
+            sb.append("-").append(n.getId()).append("-");
+        }
+        int edgeAmount = path.size() - 1;
+        return "\nShortest path: Source <-" + sb + "-> Target\nAmount of Edges: " + edgeAmount;
+    }
+
+    /**
+     * Returns the path found by the search (source -> target)
+     * @return an unmodifiable list of nodes forming the path
+     */
+    public List<Node> getPath() {
+        //For the Test class
+        return path == null ? Collections.emptyList() : Collections.unmodifiableList(path);
+    }
+}
@@ -0,0 +1,244 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Semi-external BFS over an {@link ExternalEdgeFile}: the per-node state (visited and frontier bits,
+ * parent ids) lives in memory, the adjacency lists are streamed from disk.
+ * The search is level-synchronous. A frontier is a bitset, so its nodes are expanded in id order, and
+ * because the file stores the lists sorted by source, the reads of one level move forward through the
+ * file: lists that lie close together are served by a single read, a dense frontier becomes one
+ * sequential scan, and a sparse frontier only reads its own lists and the small gaps between them.
+ * Per node the search needs 4 bytes of parents and 3 bits, plus the offsets and names held by the
+ * edge file.
+ * A searcher keeps the file open and must be used by one thread at a time.
+ */
+public class SemiExternalBFS implements AutoCloseable {
+    /** bytes read from the file at once */
+    public static final int DEFAULT_BLOCK_SIZE = 1 << 20;
+    //gaps between frontier lists up to this size are read through instead of starting a new read
+    private static final int MAX_GAP = 4096;
+    //reads are never smaller than this (unless the block is), next levels often continue close by
+    private static final int MIN_READ = 1 << 14;
+
+    private final ExternalEdgeFile graph;
+    private final FileChannel channel;
+    private final ByteBuffer block;
+    //file range held by the block
+    private long blockStart;
+    private long blockEnd;
+
+    private final long[] visited;
+    private long[] frontier;
+    private long[] next;
+    private final int[] parent;
+
+    private List<String> path = Collections.emptyList();
+    private int pathDistance = -1;
+    private TraversalStats stats;
+    private long bytesRead;
+    private long blockReads;
+
+    /**
+     * @param graph the edge file to search
+     * @throws IOException if the file cannot be opened
+     */
+    public SemiExternalBFS(ExternalEdgeFile graph) throws IOException {
+        this(graph, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param graph     the edge file to search
+     * @param blockSize bytes read from the file at once, at least 4
+     * @throws IOException if the file cannot be opened
+     */
+    public SemiExternalBFS(ExternalEdgeFile graph, int blockSize) throws IOException {
+        if (graph == null) throw new IllegalArgumentException("Graph is null");
+        if (blockSize < 4) throw new IllegalArgumentException("Block size must be at least 4 bytes");
+        this.graph = graph;
+        this.channel = FileChannel.open(graph.getFile(), StandardOpenOption.READ);
+        this.block = ByteBuffer.allocateDirect(blockSize & ~3).order(ByteOrder.LITTLE_ENDIAN);
+        final int n = graph.getNodeCount();
+        final int words = (n + 63) >>> 6;
+        visited = new long[words];
+        frontier = new long[words];
+        next = new long[words];
+        parent = new int[n];
+    }
+
+    /**
+     * Hop distance search.
+     *
+     * @param sourceNodeID id of the source node
+     * @param targetNodeID id of the target node
+     * @return true if the target was reached
+     * @throws IOException           if the edge file cannot be read
+     * @throws IllegalStateException if the source or target node does not exist in graph.
+     */
+    public boolean search(String sourceNodeID, String targetNodeID) throws IOException {
+        final int source = graph.indexOf(sourceNodeID);
+        final int target = graph.indexOf(targetNodeID);
+        if (source < 0 || target < 0) throw new IllegalStateException("Source or target node are null");
+        TraversalStats current = new TraversalStats("SemiExternalBFS", sourceNodeID, targetNodeID);
+        current.start();
+        path = Collections.emptyList();
+        pathDistance = -1;
+        bytesRead = 0;
+        blockReads = 0;
+
+        Arrays.fill(visited, 0);
+        Arrays.fill(frontier, 0);
+        visited[source >>> 6] |= 1L << source;
+        frontier[source >>> 6] |= 1L << source;
+        parent[source] = source;
+        int frontierSize = 1;
+        int level = 0;
+        long dequeued = 0;
+        long scanned = 0;
+        boolean found = source == target;
+        while (!found && frontierSize > 0) {
+            current.level(frontierSize);
+            Arrays.fill(next, 0);
+            int nextSize = 0;
+            level++;
+            expand:
+            for (int word = 0; word < frontier.length; word++) {
+                for (long bits = frontier[word]; bits != 0; bits &= bits - 1) {
+                    final int v = word << 6 | Long.numberOfTrailingZeros(bits);
+                    dequeued++;
+                    final long end = graph.arcPosition(v + 1);
+                    for (long position = graph.arcPosition(v); position < end; position += 4) {
+                        scanned++;
+                        int w = readTarget(v, position);
+                        long mask = 1L << w;
+                        if ((visited[w >>> 6] & mask) != 0) continue;
+                        visited[w >>> 6] |= mask;
+                        parent[w] = v;
+                        if (w == target) {
+                            found = true;
+                            break expand;
+                        }
+                        next[w >>> 6] |= mask;
+                        nextSize++;
+                    }
+                }
+            }
+            long[] swap = frontier;
+            frontier = next;
+            next = swap;
+            frontierSize = nextSize;
+        }
+        current.dequeued(dequeued);
+        current.scanned(scanned);
+
+        if (found) {
+            pathDistance = level;
+            ArrayList<String> result = new ArrayList<>(level + 1);
+            for (int v = target; v != source; v = parent[v]) result.add(graph.name(v));
+            result.add(graph.name(source));
+            Collections.reverse(result);
+            path = Collections.unmodifiableList(result);
+        }
+        current.finish(found);
+        stats = current;
+        return found;
+    }
+
+    /**
+     * Reads one target of the list of v, refilling the block from the given position if it is not buffered.
+     */
+    private int readTarget(int v, long position) throws IOException {
+        if (position < blockStart || position + 4 > blockEnd) {
+            block.clear();
+            block.limit((int) (readLimit(v, position) - position));
+            while (block.hasRemaining()) {
+                int read = channel.read(block, position + block.position());
+                if (read < 0) break;
+            }
+            block.flip();
+            if (block.remaining() < 4) throw new IOException("Unexpected end of edge file " + graph.getFile());
+            blockStart = position;
+            blockEnd = position + block.remaining();
+            bytesRead += block.remaining();
+            blockReads++;
+        }
+        return block.getInt((int) (position - blockStart));
+    }
+
+    /**
+     * End of the file range worth reading for the list of v from the given position: the rest of the
+     * list plus the lists of the following frontier nodes, as long as the gap to the next one is at most
+     * MAX_GAP bytes and everything fits into the block, but at least MIN_READ bytes. A sparse frontier
+     * then reads little more than its own lists, a dense one still reads whole blocks.
+     */
+    private long readLimit(int v, long position) {
+        final long max = position + block.capacity();
+        long limit = Math.max(graph.arcPosition(v + 1), Math.min(position + MIN_READ, graph.arcPosition(graph.getNodeCount())));
+        if (limit >= max) return max;
+        final int n = graph.getNodeCount();
+        for (int word = (v + 1) >>> 6; word < frontier.length; word++) {
+            //lists are sorted by source, no later node starts before the first one of this word
+            if (graph.arcPosition(Math.min(word << 6, n)) - limit > MAX_GAP) break;
+            long bits = frontier[word];
+            if (word == (v + 1) >>> 6) bits &= -1L << (v + 1);
+            for (; bits != 0; bits &= bits - 1) {
+                final int u = word << 6 | Long.numberOfTrailingZeros(bits);
+                if (graph.arcPosition(u) - limit > MAX_GAP) return limit;
+                limit = graph.arcPosition(u + 1);
+                if (limit >= max) return max;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * @return node names of the path of the last search (source -> target), empty if the target was not reached
+     */
+    public List<String> getPath() {
+        return path;
+    }
+
+    /**
+     * @return hop distance of the last search, -1 if the target was not reached
+     */
+    public int getDistance() {
+        return pathDistance;
+    }
+
+    /**
+     * @return the measurements of the last search or null if none ran yet
+     */
+    public TraversalStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return bytes read from the edge file by the last search
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * @return amount of block reads issued by the last search
+     */
+    public long getBlockReads() {
+        return blockReads;
+    }
+
+    /**
+     * Closes the edge file.
+     *
+     * @throws IOException if closing fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,109 @@
+import org.graphstream.graph.Node;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * The complete BFS tree of one source node. It is computed with a single sweep over the
+ * compact snapshot and afterwards answers any number of targets by following the stored
+ * parents, which costs O(path length) per target instead of a new search.
+ */
+public class ShortestPathTree {
+    private final CompactGraph compact;
+    private final int source;
+    private final int[] parent;
+    private final int[] distance;
+
+    private ShortestPathTree(CompactGraph compact, int source, int[] parent, int[] distance) {
+        this.compact = compact;
+        this.source = source;
+        this.parent = parent;
+        this.distance = distance;
+    }
+
+    /**
+     * Runs a full BFS from the source node and keeps parents and hop distances of all reached nodes.
+     *
+     * @param compact      the snapshot to search
+     * @param sourceNodeID id of the source node
+     * @return the shortest path tree of the source
+     * @throws IllegalStateException if the source node does not exist in graph.
+     */
+    public static ShortestPathTree compute(CompactGraph compact, String sourceNodeID) {
+        if (compact == null) throw new IllegalArgumentException("Graph is null");
+        final int source = compact.indexOf(sourceNodeID);
+        if (source < 0) throw new IllegalStateException("Source node is null");
+
+        final int n = compact.getNodeCount();
+        final int[] offsets = compact.offsets();
+        final int[] targets = compact.targets();
+        //-1 marks unreached nodes, the source is its own parent
+        int[] parent = new int[n];
+        int[] distance = new int[n];
+        Arrays.fill(distance, -1);
+        int[] queue = new int[n];
+
+        int head = 0;
+        int tail = 0;
+        parent[source] = source;
+        distance[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int currentNode = queue[head++];
+            for (int i = offsets[currentNode], end = offsets[currentNode + 1]; i < end; i++) {
+                int neighbor = targets[i];
+                if (distance[neighbor] < 0) {
+                    distance[neighbor] = distance[currentNode] + 1;
+                    parent[neighbor] = currentNode;
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return new ShortestPathTree(compact, source, parent, distance);
+    }
+
+    /**
+     * @return the snapshot the tree was computed on
+     */
+    public CompactGraph getGraph() {
+        return compact;
+    }
+
+    /**
+     * @return the source node of the tree
+     */
+    public Node getSource() {
+        return compact.node(source);
+    }
+
+    /**
+     * @param targetNodeID id of the target node
+     * @return the hop distance from the source or -1 if the target is unreachable or unknown
+     */
+    public int distanceTo(String targetNodeID) {
+        int target = compact.indexOf(targetNodeID);
+        return target < 0 ? -1 : distance[target];
+    }
+
+    /**
+     * Returns the shortest path from the source to a target, following the stored parents.
+     *
+     * @param targetNodeID id of the target node
+     * @return an unmodifiable list of nodes (source -> target), empty if the target is unreachable
+     * @throws IllegalStateException if the target node does not exist in graph.
+     */
+    public List<Node> pathTo(String targetNodeID) {
+        int target = compact.indexOf(targetNodeID);
+        if (target < 0) throw new IllegalStateException("Target node is null");
+        if (distance[target] < 0) return Collections.emptyList();
+
+        LinkedList<Node> path = new LinkedList<>();
+        for (int current = target; current != source; current = parent[current]) {
+            path.addFirst(compact.node(current));
+        }
+        path.addFirst(compact.node(source));
+        return Collections.unmodifiableList(path);
+    }
+}
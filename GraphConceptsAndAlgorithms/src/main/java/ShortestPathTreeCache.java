@@ -0,0 +1,67 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of shortest path trees for one graph snapshot.
+ * Repeated queries from the same source reuse the tree instead of traversing the graph again.
+ * The cache is thread-safe; trees themselves are immutable.
+ */
+public class ShortestPathTreeCache {
+    private final CompactGraph compact;
+    private final Map<String, ShortestPathTree> trees;
+
+    /**
+     * @param compact  the snapshot all cached trees belong to
+     * @param capacity maximal amount of source trees that are kept
+     */
+    public ShortestPathTreeCache(CompactGraph compact, int capacity) {
+        if (compact == null) throw new IllegalArgumentException("Graph is null");
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1");
+        this.compact = compact;
+        //access-ordered map, the eldest entry is the least recently used tree
+        this.trees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ShortestPathTree> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the tree of a source node, computing it on first access.
+     *
+     * @param sourceNodeID id of the source node
+     * @return the cached or newly computed tree
+     * @throws IllegalStateException if the source node does not exist in graph.
+     */
+    public ShortestPathTree get(String sourceNodeID) {
+        synchronized (trees) {
+            ShortestPathTree tree = trees.get(sourceNodeID);
+            if (tree != null) return tree;
+        }
+        //computed outside the lock so other sources are not blocked by a long sweep
+        ShortestPathTree tree = ShortestPathTree.compute(compact, sourceNodeID);
+        synchronized (trees) {
+            ShortestPathTree raced = trees.putIfAbsent(sourceNodeID, tree);
+            return raced != null ? raced : tree;
+        }
+    }
+
+    /**
+     * @return amount of trees currently cached
+     */
+    public int size() {
+        synchronized (trees) {
+            return trees.size();
+        }
+    }
+
+    /**
+     * Removes all cached trees, e.g. after the graph changed and a new snapshot was taken.
+     */
+    public void clear() {
+        synchronized (trees) {
+            trees.clear();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+import org.graphstream.graph.Graph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded generators for large synthetic graphs used for load tests and benchmarks:
+ * Erdős–Rényi G(n, m), R-MAT (power-law / Kronecker-like), 2D grids (road-like) and long chains.
+ * Edges are streamed to an {@link EdgeSink} one by one, so a generator never holds the whole graph.
+ * Sinks exist for writing .gka text and for building an in-memory graph through BulkGraphLoader.
+ * Nodes are named "v" followed by their number.
+ */
+public class SyntheticGraphs {
+    /**
+     * Receives generated edges. Node ids are numbers in [0, nodes).
+     */
+    public interface EdgeSink {
+        /**
+         * @param source   source node number
+         * @param target   target node number
+         * @param directed true for "->", false for "--"
+         * @param weight   the edge weight, or a negative value for an unweighted edge
+         */
+        void edge(int source, int target, boolean directed, int weight);
+    }
+
+    /**
+     * Distribution of the generated edge weights.
+     */
+    public enum Weights {
+        /** edges carry no weight */
+        NONE,
+        /** uniform in [1, maxWeight] */
+        UNIFORM,
+        /** heavy-tailed, 1 + an exponentially distributed value with mean maxWeight / 10, capped at maxWeight */
+        EXPONENTIAL
+    }
+
+    private final SplittableRandom random;
+    private final boolean directed;
+    private final Weights weights;
+    private final int maxWeight;
+
+    /**
+     * @param seed      seed making the generated graph reproducible
+     * @param directed  whether edges are directed
+     * @param weights   weight distribution
+     * @param maxWeight largest weight that is generated (ignored for Weights.NONE)
+     */
+    public SyntheticGraphs(long seed, boolean directed, Weights weights, int maxWeight) {
+        if (weights == null) throw new IllegalArgumentException("Weights is null");
+        if (weights != Weights.NONE && maxWeight < 1) throw new IllegalArgumentException("Max weight must be at least 1");
+        this.random = new SplittableRandom(seed);
+        this.directed = directed;
+        this.weights = weights;
+        this.maxWeight = maxWeight;
+    }
+
+    private int nextWeight() {
+        return switch (weights) {
+            case NONE -> -1;
+            case UNIFORM -> 1 + random.nextInt(maxWeight);
+            case EXPONENTIAL -> (int) Math.min(maxWeight, 1 + (-Math.log(1 - random.nextDouble()) * maxWeight / 10));
+        };
+    }
+
+    /**
+     * Erdős–Rényi G(n, m): m edges between uniformly chosen node pairs (self loops are skipped,
+     * duplicates are possible and are dropped by the graph builder like in a parsed file).
+     *
+     * @param nodes amount of nodes
+     * @param edges amount of edges to draw
+     * @param sink  receives the edges
+     */
+    public void erdosRenyi(int nodes, long edges, EdgeSink sink) {
+        if (nodes < 2) throw new IllegalArgumentException("At least two nodes are needed");
+        for (long i = 0; i < edges; i++) {
+            int s = random.nextInt(nodes);
+            int t = random.nextInt(nodes - 1);
+            //shift to avoid self loops without rejection sampling
+            if (t >= s) t++;
+            sink.edge(s, t, directed, nextWeight());
+        }
+    }
+
+    /**
+     * R-MAT generator (Chakrabarti et al.): every edge recursively picks one of four quadrants of the
+     * adjacency matrix with probabilities a, b, c and 1 - a - b - c, which yields a power-law degree
+     * distribution like the Graph500 Kronecker graphs (a = 0.57, b = c = 0.19).
+     * Node numbers are scrambled so high-degree nodes are not clustered at small numbers.
+     *
+     * @param scale amount of nodes is 2^scale
+     * @param edges amount of edges to draw
+     * @param a     probability of the top-left quadrant
+     * @param b     probability of the top-right quadrant
+     * @param c     probability of the bottom-left quadrant
+     * @param sink  receives the edges
+     */
+    public void rmat(int scale, long edges, double a, double b, double c, EdgeSink sink) {
+        if (scale < 1 || scale > 30) throw new IllegalArgumentException("Scale must be between 1 and 30");
+        if (a < 0 || b < 0 || c < 0 || a + b + c > 1) throw new IllegalArgumentException("Invalid quadrant probabilities");
+        final int nodes = 1 << scale;
+        int[] permutation = permutation(nodes);
+        for (long i = 0; i < edges; i++) {
+            int s = 0;
+            int t = 0;
+            for (int bit = scale - 1; bit >= 0; bit--) {
+                double p = random.nextDouble();
+                if (p < a) {
+                    continue;
+                } else if (p < a + b) {
+                    t |= 1 << bit;
+                } else if (p < a + b + c) {
+                    s |= 1 << bit;
+                } else {
+                    s |= 1 << bit;
+                    t |= 1 << bit;
+                }
+            }
+            if (s != t) sink.edge(permutation[s], permutation[t], directed, nextWeight());
+        }
+    }
+
+    /**
+     * Road-like 2D grid: every node is connected to its right and lower neighbor. A fraction of the
+     * grid edges can be dropped to create detours, like a road network with missing links.
+     *
+     * @param rows        amount of rows
+     * @param columns     amount of columns
+     * @param dropRate    probability in [0, 1) that a grid edge is left out
+     * @param sink        receives the edges
+     */
+    public void grid(int rows, int columns, double dropRate, EdgeSink sink) {
+        if (rows < 1 || columns < 1) throw new IllegalArgumentException("Grid needs at least one row and column");
+        if (dropRate < 0 || dropRate >= 1) throw new IllegalArgumentException("Drop rate must be in [0, 1)");
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                int v = r * columns + c;
+                if (c + 1 < columns && random.nextDouble() >= dropRate) sink.edge(v, v + 1, directed, nextWeight());
+                if (r + 1 < rows && random.nextDouble() >= dropRate) sink.edge(v, v + columns, directed, nextWeight());
+            }
+        }
+    }
+
+    /**
+     * A single long path v0 - v1 - ... - v(n-1), the worst case for BFS depth.
+     *
+     * @param nodes amount of nodes
+     * @param sink  receives the edges
+     */
+    public void chain(int nodes, EdgeSink sink) {
+        for (int i = 0; i + 1 < nodes; i++) sink.edge(i, i + 1, directed, nextWeight());
+    }
+
+    private int[] permutation(int n) {
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) permutation[i] = i;
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = swap;
+        }
+        return permutation;
+    }
+
+    /**
+     * A sink writing edges as .gka lines ("v1 -- v2 : 7;") into a buffered writer.
+     * Numbers are written digit by digit into a reused char buffer, no String is created per edge.
+     * The writer has to be closed by the caller.
+     */
+    public static class GkaWriter implements EdgeSink, Closeable {
+        private final Writer out;
+        private final char[] line = new char[64];
+
+        public GkaWriter(Writer out) {
+            if (out == null) throw new IllegalArgumentException("Writer is null");
+            this.out = out;
+        }
+
+        /**
+         * @param file the .gka file to create
+         * @return a writer sink on a buffered UTF-8 writer of the file
+         */
+        public static GkaWriter open(Path file) throws IOException {
+            return new GkaWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void edge(int source, int target, boolean directed, int weight) {
+            int length = 0;
+            line[length++] = 'v';
+            length = appendInt(source, length);
+            line[length++] = ' ';
+            line[length++] = '-';
+            line[length++] = directed ? '>' : '-';
+            line[length++] = ' ';
+            line[length++] = 'v';
+            length = appendInt(target, length);
+            if (weight >= 0) {
+                line[length++] = ' ';
+                line[length++] = ':';
+                line[length++] = ' ';
+                length = appendInt(weight, length);
+            }
+            line[length++] = ';';
+            line[length++] = '\n';
+            try {
+                out.write(line, 0, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private int appendInt(int value, int length) {
+            int digits = 1;
+            for (int rest = value / 10; rest > 0; rest /= 10) digits++;
+            for (int i = length + digits - 1; i >= length; i--) {
+                line[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+            return length + digits;
+        }
+
+        /**
+         * Flushes and closes the underlying writer.
+         */
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * A sink collecting edges in a BulkGraphLoader so they can be built into a GraphStream graph.
+     * Node names are created once per node number and cached.
+     */
+    public static class GraphSink implements EdgeSink {
+        private final BulkGraphLoader loader = new BulkGraphLoader();
+        private String[] names = new String[1024];
+
+        @Override
+        public void edge(int source, int target, boolean directed, int weight) {
+            loader.add(name(source), name(target), directed ? "->" : "--", null, weight >= 0 ? weight : null);
+        }
+
+        private String name(int node) {
+            if (node >= names.length) names = Arrays.copyOf(names, Math.max(node + 1, names.length * 2));
+            String name = names[node];
+            if (name == null) {
+                name = "v" + node;
+                names[node] = name;
+            }
+            return name;
+        }
+
+        /**
+         * Builds all collected edges into the graph.
+         *
+         * @param graph usually an empty graph created by GraphGenerator.createNewGraph
+         */
+        public void build(Graph graph) {
+            loader.build(graph);
+        }
+    }
+}
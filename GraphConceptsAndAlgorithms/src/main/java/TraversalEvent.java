@@ -0,0 +1,51 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event committed for every traversal of a {@link PathSearch}. The duration of the event is the
+ * wall time of compute(). Disabled unless a recording enables "graph.Traversal"
+ * (e.g. -XX:StartFlightRecording or a RecordingStream).
+ */
+@Name("graph.Traversal")
+@Label("Graph Traversal")
+@Category("Graph")
+@Description("Point-to-point search on a graph")
+@StackTrace(false)
+class TraversalEvent extends Event {
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Source")
+    String source;
+
+    @Label("Target")
+    String target;
+
+    @Label("Found")
+    boolean found;
+
+    @Label("Short-Circuited")
+    @Description("Answered as unreachable by the connectivity index without searching")
+    boolean shortCircuited;
+
+    @Label("Nodes Dequeued")
+    long nodesDequeued;
+
+    @Label("Edges Scanned")
+    long edgesScanned;
+
+    @Label("Levels")
+    int levels;
+
+    @Label("Largest Frontier")
+    int maxFrontier;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+}
@@ -0,0 +1,30 @@
+import java.io.PrintStream;
+
+/**
+ * Receives the measurements of every traversal run by a {@link PathSearch},
+ * whether the target was reached or not.
+ * Listeners are called on the thread that ran compute() and must not keep the search busy.
+ */
+@FunctionalInterface
+public interface TraversalListener {
+    /**
+     * @param stats the measurements of the finished traversal
+     */
+    void traversalFinished(TraversalStats stats);
+
+    /**
+     * @param out the stream to print to
+     * @return a listener printing duration and allocation of every traversal like the console output of Main
+     */
+    static TraversalListener printing(PrintStream out) {
+        return stats -> {
+            out.println("\nDuration (" + stats.getAlgorithm() + "): " + stats.getWallNanos() / 1_000_000.0 + " ms.");
+            if (stats.getAllocatedBytes() >= 0) {
+                out.println("Memory allocated: " + stats.getAllocatedBytes() / (1024.0 * 1024.0) + " MB.");
+            }
+            out.println("Nodes dequeued: " + stats.getNodesDequeued() + ", edges scanned: " + stats.getEdgesScanned()
+                    + ", levels: " + stats.getLevels());
+            if (!stats.isFound()) out.println("Target " + stats.getTargetNodeID() + " is not reachable.");
+        };
+    }
+}
@@ -0,0 +1,99 @@
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the measurements of many traversals per algorithm: query counts, reached and
+ * unreachable targets, work counters and a latency histogram.
+ * Thread-safe, one recorder can be shared by all searches of an application and scraped
+ * with {@link #format()}.
+ */
+public class TraversalRecorder implements TraversalListener {
+    private final Map<String, Metrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Aggregated values of one algorithm.
+     */
+    public static final class Metrics {
+        private final LongAdder queries = new LongAdder();
+        private final LongAdder unreachable = new LongAdder();
+        private final LongAdder nodesDequeued = new LongAdder();
+        private final LongAdder edgesScanned = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        public long getQueries() {
+            return queries.sum();
+        }
+
+        /**
+         * @return amount of queries whose target was not reached
+         */
+        public long getUnreachable() {
+            return unreachable.sum();
+        }
+
+        public long getNodesDequeued() {
+            return nodesDequeued.sum();
+        }
+
+        public long getEdgesScanned() {
+            return edgesScanned.sum();
+        }
+
+        public long getAllocatedBytes() {
+            return allocatedBytes.sum();
+        }
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+    }
+
+    @Override
+    public void traversalFinished(TraversalStats stats) {
+        Metrics m = metrics.computeIfAbsent(stats.getAlgorithm(), algorithm -> new Metrics());
+        m.queries.increment();
+        if (!stats.isFound()) m.unreachable.increment();
+        m.nodesDequeued.add(stats.getNodesDequeued());
+        m.edgesScanned.add(stats.getEdgesScanned());
+        if (stats.getAllocatedBytes() > 0) m.allocatedBytes.add(stats.getAllocatedBytes());
+        m.latency.record(stats.getWallNanos());
+    }
+
+    /**
+     * @param algorithm simple class name of the search
+     * @return the aggregated values or null if the algorithm has not been recorded
+     */
+    public Metrics get(String algorithm) {
+        return metrics.get(algorithm);
+    }
+
+    /**
+     * Formats all metrics in the Prometheus text format, one sample per line.
+     *
+     * @return the current values
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        //sorted so the output is stable between scrapes
+        for (Map.Entry<String, Metrics> entry : new TreeMap<>(metrics).entrySet()) {
+            String label = "{algorithm=\"" + entry.getKey() + "\"}";
+            Metrics m = entry.getValue();
+            LatencyHistogram latency = m.latency;
+            sb.append("graph_traversal_queries_total").append(label).append(' ').append(m.getQueries()).append('\n');
+            sb.append("graph_traversal_unreachable_total").append(label).append(' ').append(m.getUnreachable()).append('\n');
+            sb.append("graph_traversal_nodes_dequeued_total").append(label).append(' ').append(m.getNodesDequeued()).append('\n');
+            sb.append("graph_traversal_edges_scanned_total").append(label).append(' ').append(m.getEdgesScanned()).append('\n');
+            sb.append("graph_traversal_allocated_bytes_total").append(label).append(' ').append(m.getAllocatedBytes()).append('\n');
+            for (double quantile : new double[]{50, 90, 99, 99.9}) {
+                sb.append("graph_traversal_latency_seconds{algorithm=\"").append(entry.getKey())
+                        .append("\",quantile=\"").append(quantile / 100).append("\"} ")
+                        .append(latency.getPercentile(quantile) / 1e9).append('\n');
+            }
+            sb.append("graph_traversal_latency_seconds_max").append(label).append(' ').append(latency.getMax() / 1e9).append('\n');
+        }
+        return sb.toString();
+    }
+}
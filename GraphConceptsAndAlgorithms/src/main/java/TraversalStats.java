@@ -0,0 +1,180 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Measurements of a single traversal: nodes dequeued, edges scanned, frontier size per level,
+ * wall time and the bytes allocated by the calling thread.
+ * The counters are filled by the search while it runs and are final once the listeners are notified.
+ * A search without listeners reuses its stats for the next computation (see {@link #reset}).
+ */
+public final class TraversalStats {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final int[] NO_LEVELS = new int[0];
+
+    private String algorithm;
+    private String sourceNodeID;
+    private String targetNodeID;
+    private long nodesDequeued;
+    private long edgesScanned;
+    //allocated with the first level, kept when the stats are reused
+    private int[] frontierSizes = NO_LEVELS;
+    private int levels;
+    private boolean found;
+    private boolean shortCircuited;
+    private long startNanos;
+    private long wallNanos;
+    private long startAllocated;
+    private long allocatedBytes = -1;
+
+    TraversalStats(String algorithm, String sourceNodeID, String targetNodeID) {
+        this.algorithm = algorithm;
+        this.sourceNodeID = sourceNodeID;
+        this.targetNodeID = targetNodeID;
+    }
+
+    /**
+     * Clears all counters so the object can measure the next computation.
+     * The frontier level array is kept, so a reused object does not allocate again.
+     *
+     * @param algorithm    simple name of the search class
+     * @param sourceNodeID id of the source node of the next computation
+     * @param targetNodeID id of the target node of the next computation
+     */
+    void reset(String algorithm, String sourceNodeID, String targetNodeID) {
+        this.algorithm = algorithm;
+        this.sourceNodeID = sourceNodeID;
+        this.targetNodeID = targetNodeID;
+        nodesDequeued = 0;
+        edgesScanned = 0;
+        levels = 0;
+        found = false;
+        shortCircuited = false;
+        wallNanos = 0;
+        allocatedBytes = -1;
+    }
+
+    void start() {
+        startAllocated = allocatedBytes();
+        startNanos = System.nanoTime();
+    }
+
+    void finish(boolean found) {
+        wallNanos = System.nanoTime() - startNanos;
+        long allocated = allocatedBytes();
+        if (startAllocated >= 0 && allocated >= 0) allocatedBytes = allocated - startAllocated;
+        this.found = found;
+    }
+
+    /**
+     * Marks a computation that a {@link ConnectivityIndex} answered without searching.
+     */
+    void shortCircuited() {
+        shortCircuited = true;
+    }
+
+    /**
+     * @param nodes amount of nodes taken from the queue or frontier
+     */
+    void dequeued(long nodes) {
+        nodesDequeued += nodes;
+    }
+
+    /**
+     * @param edges amount of adjacency entries looked at
+     */
+    void scanned(long edges) {
+        edgesScanned += edges;
+    }
+
+    /**
+     * Records the size of the next frontier level, in the order the levels are expanded.
+     *
+     * @param size amount of nodes in the level
+     */
+    void level(int size) {
+        if (levels == frontierSizes.length) frontierSizes = Arrays.copyOf(frontierSizes, Math.max(8, levels * 2));
+        frontierSizes[levels++] = size;
+    }
+
+    private static long allocatedBytes() {
+        //HotSpot exposes per thread allocation counters, other VMs report -1
+        if (THREADS instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemoryEnabled()) {
+            return hotspot.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * @return simple name of the search class
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public String getSourceNodeID() {
+        return sourceNodeID;
+    }
+
+    public String getTargetNodeID() {
+        return targetNodeID;
+    }
+
+    /**
+     * @return true if the target was reached
+     */
+    public boolean isFound() {
+        return found;
+    }
+
+    /**
+     * @return true if the connectivity index ruled out the target and no search ran
+     */
+    public boolean isShortCircuited() {
+        return shortCircuited;
+    }
+
+    public long getNodesDequeued() {
+        return nodesDequeued;
+    }
+
+    public long getEdgesScanned() {
+        return edgesScanned;
+    }
+
+    /**
+     * @return size of every expanded frontier level, starting with the source level
+     */
+    public int[] getFrontierSizes() {
+        return Arrays.copyOf(frontierSizes, levels);
+    }
+
+    /**
+     * @return amount of expanded levels
+     */
+    public int getLevels() {
+        return levels;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Bytes allocated by the thread that called compute(). Work done on other threads
+     * (ParallelBreadthFirstSearch) is not included.
+     *
+     * @return allocated bytes or -1 if the VM does not support thread allocation counters
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + " " + sourceNodeID + " -> " + targetNodeID + (found ? " found" : shortCircuited ? " unreachable (index)" : " unreachable")
+                + ", duration " + wallNanos / 1_000_000.0 + " ms"
+                + ", dequeued " + nodesDequeued + ", scanned " + edgesScanned + ", levels " + levels
+                + (allocatedBytes >= 0 ? ", allocated " + allocatedBytes + " bytes" : "");
+    }
+}
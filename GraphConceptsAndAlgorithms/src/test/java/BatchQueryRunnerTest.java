@@ -0,0 +1,134 @@
+import org.graphstream.graph.Graph;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchQueryRunnerTest {
+
+    private static String[] run(BatchQueryRunner runner, String queries, BatchQueryRunner.Summary[] summary) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(buffer, false, StandardCharsets.UTF_8)) {
+            summary[0] = runner.run(new StringReader(queries), out);
+        }
+        String text = buffer.toString(StandardCharsets.UTF_8);
+        return text.isEmpty() ? new String[0] : text.split("\\R");
+    }
+
+    @Test
+    void testResultsKeepInputOrder() throws IOException {
+        Graph g = TestGraphs.synthetic("random", true, SyntheticGraphs.Weights.UNIFORM, 1, 400);
+        SplittableRandom random = new SplittableRandom(2);
+        StringBuilder queries = new StringBuilder("# comment\n\n");
+        String[][] expected = new String[500][];
+        for (int i = 0; i < expected.length; i++) {
+            String s = "v" + random.nextInt(400);
+            String t = "v" + random.nextInt(400);
+            expected[i] = new String[]{s, t};
+            queries.append("random.gka ").append(s).append(' ').append(t).append('\n');
+        }
+        BatchQueryRunner.Summary[] summary = new BatchQueryRunner.Summary[1];
+        String[] lines = run(new BatchQueryRunner(List.of(g), BatchQueryRunner.Mode.BFS, 4), queries.toString(), summary);
+
+        assertEquals(expected.length, lines.length);
+        CompactGraph compact = CompactGraph.of(g);
+        for (int i = 0; i < lines.length; i++) {
+            String[] columns = lines[i].split("\t");
+            assertEquals(expected[i][0], columns[1]);
+            assertEquals(expected[i][1], columns[2]);
+            BreadthFirstSearch bfs = new BreadthFirstSearch(expected[i][0], expected[i][1]);
+            bfs.init(compact);
+            bfs.compute();
+            if (!bfs.getStats().isFound()) {
+                assertEquals("unreachable", columns[3]);
+            } else {
+                assertEquals("found", columns[3]);
+                assertEquals(bfs.getPath().size() - 1, Integer.parseInt(columns[4]));
+            }
+        }
+        assertEquals(expected.length, summary[0].getQueries());
+        assertEquals(expected.length, summary[0].getFound() + summary[0].getUnreachable());
+        assertEquals(0, summary[0].getErrors());
+        assertEquals(expected.length, summary[0].getLatency().getCount());
+    }
+
+    @Test
+    void testChDistancesMatchDijkstra() throws IOException {
+        Graph first = TestGraphs.synthetic("sparse", true, SyntheticGraphs.Weights.UNIFORM, 3, 400);
+        Graph second = TestGraphs.synthetic("random", true, SyntheticGraphs.Weights.UNIFORM, 4, 400);
+        SplittableRandom random = new SplittableRandom(5);
+        StringBuilder queries = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            //graphs are addressed by position and by file name
+            queries.append(i % 2 == 0 ? "1" : "random.gka").append(' ')
+                    .append("v").append(random.nextInt(400)).append(' ')
+                    .append("v").append(random.nextInt(400)).append('\n');
+        }
+        BatchQueryRunner.Summary[] summary = new BatchQueryRunner.Summary[1];
+        String[] lines = run(new BatchQueryRunner(List.of(first, second), BatchQueryRunner.Mode.CH, 3), queries.toString(), summary);
+
+        CompactGraph compact = CompactGraph.of(second);
+        for (String line : lines) {
+            String[] columns = line.split("\t");
+            Dijkstra dijkstra = new Dijkstra(columns[1], columns[2]);
+            dijkstra.init(compact);
+            dijkstra.compute();
+            assertEquals(dijkstra.getDistance(), Long.parseLong(columns[5]), line);
+        }
+        assertEquals(200, summary[0].getQueries());
+    }
+
+    @Test
+    void testInvalidQueriesAreReportedAsErrors() throws IOException {
+        Graph g = TestGraphs.synthetic("random", true, SyntheticGraphs.Weights.UNIFORM, 6, 400);
+        String queries = "random.gka v1\n"
+                + "missing.gka v1 v2\n"
+                + "7 v1 v2\n"
+                + "0 v1 nope\n"
+                + "0 v1 v1\n";
+        BatchQueryRunner.Summary[] summary = new BatchQueryRunner.Summary[1];
+        String[] lines = run(new BatchQueryRunner(List.of(g), BatchQueryRunner.Mode.BFS, 2), queries, summary);
+
+        assertEquals(5, lines.length);
+        for (int i = 0; i < 4; i++) assertEquals("error", lines[i].split("\t")[3], lines[i]);
+        assertTrue(lines[4].startsWith("0\tv1\tv1\tfound\t0\t0\t"));
+        assertEquals(4, summary[0].getErrors());
+        assertEquals(1, summary[0].getFound());
+        assertEquals(1, summary[0].getLatency().getCount());
+    }
+
+    @Test
+    void testGraphThatCannotBePreparedOnlyFailsItsQueries() throws IOException {
+        Graph good = TestGraphs.synthetic("random", true, SyntheticGraphs.Weights.UNIFORM, 7, 400);
+        Graph negative = new GraphGenerator().createNewGraph("neg.gka");
+        negative.addNode("x");
+        negative.addNode("y");
+        negative.addEdge("x->y", "x", "y", true).setAttribute("weight", -3);
+        StringBuilder queries = new StringBuilder();
+        for (int i = 0; i < 40; i++) queries.append(i % 2 == 0 ? "neg.gka x y\n" : "random.gka v1 v1\n");
+        BatchQueryRunner.Summary[] summary = new BatchQueryRunner.Summary[1];
+        String[] lines = run(new BatchQueryRunner(List.of(good, negative), BatchQueryRunner.Mode.CH, 4), queries.toString(), summary);
+
+        assertEquals(40, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(i % 2 == 0 ? "error" : "found", lines[i].split("\t")[3], lines[i]);
+        }
+        assertTrue(lines[0].contains("Negative"), lines[0]);
+        assertEquals(20, summary[0].getErrors());
+        assertEquals(20, summary[0].getFound());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchQueryRunner(null, BatchQueryRunner.Mode.BFS, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BatchQueryRunner(List.of(), null, 1));
+        assertThrows(IllegalArgumentException.class, () -> new BatchQueryRunner(List.of(), BatchQueryRunner.Mode.BFS, 0));
+    }
+}
@@ -0,0 +1,63 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BfsWorkspaceTest {
+    private CompactGraph line;
+
+    @BeforeEach
+    void setup() {
+        //undirected line A-B-C-D and an isolated node E
+        Graph g = new SingleGraph("line");
+        g.addNode("A"); g.addNode("B"); g.addNode("C"); g.addNode("D"); g.addNode("E");
+        g.addEdge("AB", "A", "B", false);
+        g.addEdge("BC", "B", "C", false);
+        g.addEdge("CD", "C", "D", false);
+        line = CompactGraph.of(g);
+    }
+
+    @Test
+    void testCopyPath() {
+        BfsWorkspace ws = BfsWorkspace.forGraph(line);
+        assertTrue(ws.search(line, line.indexOf("A"), line.indexOf("D")));
+
+        int[] out = new int[line.getNodeCount()];
+        int length = ws.copyPath(line.indexOf("D"), out);
+        assertEquals(4, length);
+        assertEquals("A", line.node(out[0]).getId());
+        assertEquals("D", line.node(out[3]).getId());
+    }
+
+    @Test
+    void testVisitedMarksDoNotLeakBetweenQueries() {
+        BfsWorkspace ws = BfsWorkspace.forGraph(line);
+        //first query visits the whole component
+        assertTrue(ws.search(line, line.indexOf("A"), line.indexOf("D")));
+        assertTrue(ws.isVisited(line.indexOf("C")));
+
+        //second query starts at the isolated node, nothing of the first query may count as visited
+        assertFalse(ws.search(line, line.indexOf("E"), line.indexOf("A")));
+        assertFalse(ws.isVisited(line.indexOf("C")));
+        assertEquals(-1, ws.parent(line.indexOf("C")));
+        assertEquals(0, ws.copyPath(line.indexOf("A"), new int[5]));
+    }
+
+    @Test
+    void testWorkspaceGrowsAndIsShared() {
+        //workspace created too small, it has to grow on the first query
+        BfsWorkspace ws = new BfsWorkspace(1);
+        BreadthFirstSearch first = new BreadthFirstSearch("A", "C");
+        first.init(line, ws);
+        first.compute();
+        assertEquals(3, first.getPath().size());
+
+        BreadthFirstSearch second = new BreadthFirstSearch("D", "A");
+        second.init(line, ws);
+        second.compute();
+        assertEquals(4, second.getPath().size());
+        assertEquals("D", second.getPath().get(0).getId());
+    }
+}
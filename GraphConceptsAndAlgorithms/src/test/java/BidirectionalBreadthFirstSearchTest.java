@@ -0,0 +1,75 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidirectionalBreadthFirstSearchTest {
+
+    @Test
+    void testMatchesBreadthFirstSearchLengths() {
+        for (boolean directed : new boolean[]{false, true}) {
+            Graph g = new SingleGraph("random");
+            int n = 300;
+            for (int i = 0; i < n; i++) g.addNode("v" + i);
+            Random random = new Random(5);
+            for (int i = 0; i < 900; i++) {
+                int s = random.nextInt(n);
+                int t = random.nextInt(n);
+                if (s != t && g.getEdge(s + "_" + t) == null && g.getEdge(t + "_" + s) == null) {
+                    g.addEdge(s + "_" + t, "v" + s, "v" + t, directed);
+                }
+            }
+            CompactGraph compact = CompactGraph.of(g);
+            for (int s = 0; s < n; s += 31) {
+                for (int t = 0; t < n; t += 17) {
+                    BreadthFirstSearch bfs = new BreadthFirstSearch("v" + s, "v" + t);
+                    bfs.init(compact);
+                    bfs.compute();
+
+                    BidirectionalBreadthFirstSearch bidirectional = new BidirectionalBreadthFirstSearch("v" + s, "v" + t);
+                    bidirectional.init(compact);
+                    bidirectional.compute();
+
+                    List<Node> path = bidirectional.getPath();
+                    assertEquals(bfs.getPath().size(), path.size());
+                    if (!path.isEmpty()) {
+                        assertEquals("v" + s, path.get(0).getId());
+                        assertEquals("v" + t, path.get(path.size() - 1).getId());
+                    }
+                    for (int i = 0; i + 1 < path.size(); i++) {
+                        assertTrue(path.get(i).hasEdgeToward(path.get(i + 1)), "path must follow edge direction");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSourceEqualsTarget() {
+        Graph g = new SingleGraph("single");
+        g.addNode("A");
+        BidirectionalBreadthFirstSearch bidirectional = new BidirectionalBreadthFirstSearch("A", "A");
+        bidirectional.init(g);
+        bidirectional.compute();
+        assertEquals(1, bidirectional.getPath().size());
+    }
+
+    @Test
+    void testLongChainVisitsBothEnds() {
+        //undirected chain v0 - v1 - ... - v9, searches meet in the middle
+        Graph g = new SingleGraph("chain");
+        for (int i = 0; i < 10; i++) g.addNode("v" + i);
+        for (int i = 0; i < 9; i++) g.addEdge("e" + i, "v" + i, "v" + (i + 1), false);
+
+        BidirectionalBreadthFirstSearch bidirectional = new BidirectionalBreadthFirstSearch("v0", "v9");
+        bidirectional.init(g);
+        bidirectional.compute();
+        assertEquals(10, bidirectional.getPath().size());
+        assertEquals("v5", bidirectional.getPath().get(5).getId());
+    }
+}
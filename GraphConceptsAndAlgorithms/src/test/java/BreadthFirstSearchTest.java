@@ -138,4 +138,32 @@ class BreadthFirstSearchTest {
         assertTrue(reversePath.size() <= 1,
                 "C is not allowed to reach A because all edges are directed");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCompactMatchesObjectSearch() {
+        //both modes should return the same path on every test graph
+        for (Graph g : List.of(undirectedLine, diamond, directed)) {
+            for (Node s : g) {
+                for (Node t : g) {
+                    BreadthFirstSearch onNodes = new BreadthFirstSearch(s.getId(), t.getId());
+                    onNodes.init(g);
+                    onNodes.compute();
+
+                    BreadthFirstSearch onCompact = new BreadthFirstSearch(s.getId(), t.getId());
+                    onCompact.init(CompactGraph.of(g));
+                    onCompact.compute();
+
+                    assertEquals(onNodes.getPath(), onCompact.getPath());
+                    assertEquals(onNodes.toString(), onCompact.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testCompactUnknownNode() {
+        BreadthFirstSearch bfs = new BreadthFirstSearch("A", "X");
+        bfs.init(CompactGraph.of(undirectedLine));
+        assertThrows(IllegalStateException.class, bfs::compute);
+    }
+}
@@ -0,0 +1,72 @@
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkGraphLoaderTest {
+
+    private static List<String> describe(Graph g) {
+        List<String> result = new ArrayList<>();
+        for (Node n : g.nodes().toList()) result.add(n.getId() + "|" + n.getAttribute("ui.label"));
+        for (Edge e : g.edges().toList()) {
+            result.add(e.getId() + "|" + e.getSourceNode().getId() + "|" + e.getTargetNode().getId() + "|" + e.isDirected()
+                    + "|" + e.getAttribute("ui.label") + "|" + e.getAttribute("weight") + "|" + e.getAttribute("label"));
+        }
+        return result;
+    }
+
+    @Test
+    void testSameGraphAsUpdateGraph() {
+        GraphGenerator gg = new GraphGenerator();
+        Graph expected = gg.createNewGraph("expected.gka");
+        Graph actual = gg.createNewGraph("actual.gka");
+        BulkGraphLoader loader = new BulkGraphLoader();
+
+        //random edges with duplicates, reversed duplicates, self loops and mixed directions
+        //(a node pair always uses the same direction, the single graph rejects parallel edges)
+        Random random = new Random(1);
+        int duplicates = 0;
+        for (int i = 0; i < 3000; i++) {
+            int a = random.nextInt(200);
+            int b = random.nextInt(200);
+            String s = "n" + a;
+            String t = "n" + b;
+            String direction = (a + b) % 2 == 0 ? "->" : "--";
+            String label = random.nextInt(4) == 0 ? "l" + i : null;
+            Integer weight = random.nextBoolean() ? random.nextInt(100) : null;
+            long before = expected.getEdgeCount();
+            gg.updateGraph(expected, s, t, direction, label, weight);
+            if (expected.getEdgeCount() == before) duplicates++;
+            loader.add(s, t, direction, label, weight);
+        }
+        loader.build(actual);
+
+        assertEquals(describe(expected), describe(actual));
+        assertEquals(duplicates, loader.getDuplicateCount());
+        assertEquals(expected.getNodeCount(), loader.getNodeCount());
+    }
+
+    @Test
+    void testBuildIntoExistingGraph() {
+        GraphGenerator gg = new GraphGenerator();
+        Graph g = gg.createNewGraph("merge.gka");
+        gg.updateGraph(g, "A", "B", "--", null, 1);
+
+        BulkGraphLoader loader = new BulkGraphLoader();
+        loader.add("B", "A", "--", null, 2);
+        loader.add("B", "C", "->", "x", null);
+        loader.build(g);
+
+        //existing edge is kept, only B->C is new
+        assertEquals(3, g.getNodeCount());
+        assertEquals(2, g.getEdgeCount());
+        assertEquals(1, g.getEdge("A--B").getAttribute("weight"));
+        assertEquals("x", g.getEdge("B->C").getAttribute("label"));
+    }
+}
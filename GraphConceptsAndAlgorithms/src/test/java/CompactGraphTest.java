@@ -0,0 +1,60 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactGraphTest {
+
+    private static List<String> neighborIds(CompactGraph compact, String id) {
+        List<String> ids = new ArrayList<>();
+        int v = compact.indexOf(id);
+        for (int i = compact.offsets()[v]; i < compact.offsets()[v + 1]; i++) {
+            ids.add(compact.node(compact.targets()[i]).getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void testDirectionApplied() {
+        //A->B directed, B--C undirected
+        Graph g = new SingleGraph("mixed");
+        g.addNode("A"); g.addNode("B"); g.addNode("C");
+        g.addEdge("A_B", "A", "B", true);
+        g.addEdge("B_C", "B", "C", false);
+        CompactGraph compact = CompactGraph.of(g);
+
+        assertEquals(3, compact.getNodeCount());
+        //directed edge stored once, undirected edge twice
+        assertEquals(3, compact.getArcCount());
+        assertEquals(List.of("B"), neighborIds(compact, "A"));
+        assertEquals(List.of("C"), neighborIds(compact, "B"));
+        assertEquals(List.of("B"), neighborIds(compact, "C"));
+    }
+
+    @Test
+    void testMultiEdgesRemoved() {
+        //two parallel edges should only create one adjacency
+        Graph g = new MultiGraph("multi");
+        g.addNode("A"); g.addNode("B");
+        g.addEdge("AB1", "A", "B", false);
+        g.addEdge("AB2", "A", "B", false);
+        CompactGraph compact = CompactGraph.of(g);
+
+        assertEquals(1, compact.degree(compact.indexOf("A")));
+        assertEquals(1, compact.degree(compact.indexOf("B")));
+    }
+
+    @Test
+    void testIndexOfUnknownNode() {
+        Graph g = new SingleGraph("single");
+        g.addNode("A");
+        CompactGraph compact = CompactGraph.of(g);
+        assertEquals(-1, compact.indexOf("X"));
+        assertEquals("A", compact.node(compact.indexOf("A")).getId());
+    }
+}
@@ -0,0 +1,99 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedGraphTest {
+
+    /**
+     * Every decoded list must be the sorted list of the snapshot, with the same weights.
+     */
+    private static void assertSameLists(CompactGraph compact, CompressedGraph compressed) {
+        assertEquals(compact.getNodeCount(), compressed.getNodeCount());
+        assertEquals(compact.getArcCount(), compressed.getArcCount());
+        CompressedGraph.NeighborCursor cursor = compressed.cursor();
+        for (int v = 0; v < compact.getNodeCount(); v++) {
+            int degree = compact.degree(v);
+            long[] expected = new long[degree];
+            for (int i = 0; i < degree; i++) {
+                int arc = compact.offsets()[v] + i;
+                expected[i] = (long) compact.targets()[arc] << 32 | compact.weights()[arc];
+            }
+            Arrays.sort(expected);
+
+            assertEquals(degree, compressed.degree(v));
+            assertEquals(degree, cursor.reset(v));
+            for (int i = 0; i < degree; i++) {
+                assertEquals(expected[i] >>> 32, cursor.next(), "neighbor " + i + " of " + v);
+                assertEquals((int) expected[i], cursor.weight());
+            }
+            assertEquals(-1, cursor.next());
+        }
+    }
+
+    @Test
+    void testListsRoundTrip() {
+        for (String shape : new String[]{"grid", "rmat", "random"}) {
+            for (boolean directed : new boolean[]{false, true}) {
+                for (SyntheticGraphs.Weights weights : new SyntheticGraphs.Weights[]{SyntheticGraphs.Weights.NONE, SyntheticGraphs.Weights.UNIFORM}) {
+                    CompactGraph compact = CompactGraph.of(TestGraphs.synthetic(shape, directed, weights, 7, 1000));
+                    assertSameLists(compact, CompressedGraph.of(compact));
+                    //without references every list is gap coded on its own
+                    assertSameLists(compact, CompressedGraph.of(compact, 0, 0));
+                    //long chains of references
+                    assertSameLists(compact, CompressedGraph.of(compact, 16, 10));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testCompressionShrinksLocalGraphs() {
+        CompactGraph compact = CompactGraph.of(TestGraphs.synthetic("grid", false, SyntheticGraphs.Weights.NONE, 3, 1000));
+        CompressedGraph compressed = CompressedGraph.of(compact);
+        //offsets, targets and weights of the snapshot
+        long uncompressed = 4L * (compact.getNodeCount() + 1) + 8L * compact.getArcCount();
+        assertTrue(compressed.byteSize() * 3 < uncompressed, compressed.byteSize() + " vs " + uncompressed);
+        assertTrue(compressed.byteSize() <= CompressedGraph.of(compact, 0, 0).byteSize());
+    }
+
+    @Test
+    void testBfsMatchesSnapshot() {
+        for (boolean directed : new boolean[]{false, true}) {
+            CompactGraph compact = CompactGraph.of(TestGraphs.synthetic("rmat", directed,
+                    SyntheticGraphs.Weights.NONE, 11, 1000));
+            CompressedGraph compressed = CompressedGraph.of(compact);
+            BfsWorkspace workspace = new BfsWorkspace(compressed.getNodeCount());
+            SplittableRandom random = new SplittableRandom(12);
+            for (int i = 0; i < 200; i++) {
+                String s = compact.node(random.nextInt(compact.getNodeCount())).getId();
+                String t = compact.node(random.nextInt(compact.getNodeCount())).getId();
+                BreadthFirstSearch expected = new BreadthFirstSearch(s, t);
+                expected.init(compact);
+                expected.compute();
+                BreadthFirstSearch bfs = new BreadthFirstSearch(s, t);
+                bfs.init(compressed, workspace);
+                bfs.compute();
+                assertEquals(expected.getStats().isFound(), bfs.getStats().isFound());
+                assertEquals(expected.getPath().size(), bfs.getPath().size());
+                if (bfs.getStats().isFound()) {
+                    assertEquals(s, bfs.getPath().get(0).getId());
+                    assertEquals(t, bfs.getPath().get(bfs.getPath().size() - 1).getId());
+                }
+            }
+        }
+    }
+
+    @Test
+    void testInvalidArguments() {
+        CompactGraph compact = CompactGraph.of(TestGraphs.synthetic("grid", false, SyntheticGraphs.Weights.NONE, 1, 1000));
+        assertThrows(IllegalArgumentException.class, () -> CompressedGraph.of(null));
+        assertThrows(IllegalArgumentException.class, () -> CompressedGraph.of(compact, -1, 3));
+        assertThrows(IllegalArgumentException.class, () -> new BreadthFirstSearch("v0", "v1").init(CompressedGraph.of(compact), null));
+        BreadthFirstSearch bfs = new BreadthFirstSearch("v0", "missing");
+        bfs.init(CompressedGraph.of(compact), new BfsWorkspace(0));
+        assertThrows(IllegalStateException.class, bfs::compute);
+    }
+}
@@ -0,0 +1,220 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectivityIndexTest {
+
+    /**
+     * The index may only rule out pairs without a path; in undirected graphs it is exact.
+     * The strong component count is checked against mutual reachability.
+     */
+    private static void assertConsistent(ConnectivityIndex index, Graph g, boolean directed) {
+        CompactGraph compact = CompactGraph.of(g);
+        int[][] reach = new int[g.getNodeCount()][];
+        for (Node node : g) {
+            ShortestPathTree tree = ShortestPathTree.compute(compact, node.getId());
+            reach[node.getIndex()] = new int[g.getNodeCount()];
+            for (Node other : g) reach[node.getIndex()][other.getIndex()] = tree.distanceTo(other.getId());
+        }
+        int representatives = 0;
+        for (Node s : g) {
+            boolean representative = true;
+            for (Node t : g) {
+                boolean reachable = reach[s.getIndex()][t.getIndex()] >= 0;
+                boolean mayReach = index.mayReach(s.getId(), t.getId());
+                if (reachable) assertTrue(mayReach, s.getId() + " -> " + t.getId());
+                if (!directed) assertEquals(reachable, mayReach, s.getId() + " -> " + t.getId());
+                boolean mutual = reachable && reach[t.getIndex()][s.getIndex()] >= 0;
+                assertEquals(mutual, index.stronglyConnected(s.getId(), t.getId()));
+                if (mutual && t.getIndex() < s.getIndex()) representative = false;
+            }
+            if (representative) representatives++;
+        }
+        assertEquals(representatives, index.getStrongComponentCount());
+    }
+
+    @Test
+    void testIndexMatchesReachability() {
+        for (boolean directed : new boolean[]{false, true}) {
+            Graph g = TestGraphs.synthetic("sparse", directed, SyntheticGraphs.Weights.UNIFORM, directed ? 1 : 2, 300);
+            ConnectivityIndex index = ConnectivityIndex.attach(g);
+            assertSame(index, ConnectivityIndex.attach(g));
+            assertSame(index, ConnectivityIndex.of(g));
+            assertTrue(index.getWeakComponentCount() > 1);
+            assertConsistent(index, g, directed);
+        }
+    }
+
+    @Test
+    void testIndexFollowsInsertionsAndRemovals() {
+        for (String direction : new String[]{"--", "->"}) {
+            GraphGenerator gg = new GraphGenerator();
+            Graph g = gg.createNewGraph("growing.gka");
+            for (int i = 0; i < 60; i++) gg.generateNode(g, "v" + i);
+            ConnectivityIndex index = ConnectivityIndex.attach(g);
+            assertEquals(60, index.getWeakComponentCount());
+
+            SplittableRandom random = new SplittableRandom(3);
+            for (int step = 0; step < 120; step++) {
+                int bound = 60 + step / 4;
+                gg.updateGraph(g, "v" + random.nextInt(bound), "v" + random.nextInt(bound), direction, null, null);
+                if (step % 30 == 29) assertConsistent(index, g, direction.equals("->"));
+            }
+            if (direction.equals("--")) assertEquals(1, index.getRebuilds());
+
+            for (int step = 0; step < 10; step++) g.removeEdge(random.nextInt(g.getEdgeCount()));
+            g.removeNode("v5");
+            assertConsistent(index, g, direction.equals("->"));
+        }
+    }
+
+    @Test
+    void testSearchesAreShortCircuited() {
+        GraphGenerator gg = new GraphGenerator();
+        Graph g = gg.createNewGraph("components.gka");
+        gg.updateGraph(g, "a", "b", "->", null, 2);
+        gg.updateGraph(g, "b", "c", "->", null, 2);
+        gg.updateGraph(g, "x", "y", "--", null, 1);
+
+        BreadthFirstSearch reachable = new BreadthFirstSearch("a", "c");
+        reachable.init(g);
+        ConnectivityIndex.attach(g);
+        reachable.compute();
+        assertEquals(3, reachable.getPath().size());
+        assertFalse(reachable.getStats().isShortCircuited());
+
+        //other weak component and backwards in the topological order
+        for (String[] query : new String[][]{{"a", "x"}, {"c", "a"}}) {
+            BreadthFirstSearch bfs = new BreadthFirstSearch(query[0], query[1]);
+            bfs.init(CompactGraph.of(g));
+            bfs.compute();
+            assertTrue(bfs.getPath().isEmpty());
+            assertTrue(bfs.getStats().isShortCircuited());
+            assertEquals(0, bfs.getStats().getNodesDequeued());
+
+            Dijkstra dijkstra = new Dijkstra(query[0], query[1]);
+            dijkstra.init(g);
+            dijkstra.compute();
+            assertEquals(-1, dijkstra.getDistance());
+            assertTrue(dijkstra.getStats().isShortCircuited());
+        }
+
+        //an edge closing a cycle merges the components, the search runs again
+        gg.updateGraph(g, "c", "a", "->", null, 1);
+        Dijkstra dijkstra = new Dijkstra("c", "b");
+        dijkstra.init(g);
+        dijkstra.compute();
+        assertEquals(3, dijkstra.getDistance());
+        assertFalse(dijkstra.getStats().isShortCircuited());
+
+        //unknown nodes are still reported by the search
+        BreadthFirstSearch unknown = new BreadthFirstSearch("a", "missing");
+        unknown.init(g);
+        assertThrows(IllegalStateException.class, unknown::compute);
+
+        ConnectivityIndex.of(g).detach();
+        assertNull(ConnectivityIndex.of(g));
+        BreadthFirstSearch detached = new BreadthFirstSearch("a", "x");
+        detached.init(g);
+        detached.compute();
+        assertFalse(detached.getStats().isShortCircuited());
+    }
+
+    @Test
+    void testOlderSnapshotIsNotShortCircuitedAfterRemovals() {
+        GraphGenerator gg = new GraphGenerator();
+        Graph g = gg.createNewGraph("removal.gka");
+        gg.updateGraph(g, "a", "b", "--", null, 1);
+        gg.updateGraph(g, "b", "c", "--", null, 1);
+        ConnectivityIndex index = ConnectivityIndex.attach(g);
+        CompactGraph before = CompactGraph.of(g);
+        //an insertion only adds paths, the snapshot is still described by the index
+        gg.updateGraph(g, "x", "y", "--", null, 1);
+        assertTrue(index.describes(before.connectivityRemovals()));
+
+        g.removeEdge("b", "c");
+        assertFalse(index.mayReach("a", "c"));
+        assertFalse(index.describes(before.connectivityRemovals()));
+        //the snapshot still holds a - b - c
+        BreadthFirstSearch old = new BreadthFirstSearch("a", "c");
+        old.init(before);
+        old.compute();
+        assertEquals(3, old.getPath().size());
+        assertFalse(old.getStats().isShortCircuited());
+
+        BreadthFirstSearch fresh = new BreadthFirstSearch("a", "c");
+        fresh.init(CompactGraph.of(g));
+        fresh.compute();
+        assertTrue(fresh.getStats().isShortCircuited());
+    }
+
+    @Test
+    void testNodeAddedAfterSnapshotIsUnknownToIt() {
+        GraphGenerator gg = new GraphGenerator();
+        Graph g = gg.createNewGraph("insertion.gka");
+        gg.updateGraph(g, "a", "b", "->", null, 1);
+        ConnectivityIndex index = ConnectivityIndex.attach(g);
+        CompactGraph before = CompactGraph.of(g);
+        g.addNode("x");
+        //still described by the index, which knows x as an isolated node
+        assertTrue(index.describes(before.connectivityRemovals()));
+        assertFalse(index.mayReach("a", "x"));
+
+        PathSearch[] searches = {new BreadthFirstSearch("a", "x"), new BreadthFirstSearch("x", "a"),
+                new Dijkstra("a", "x"), new BidirectionalBreadthFirstSearch("a", "x")};
+        for (PathSearch search : searches) {
+            if (search instanceof BreadthFirstSearch bfs) bfs.init(before);
+            else if (search instanceof Dijkstra dijkstra) dijkstra.init(before);
+            else ((BidirectionalBreadthFirstSearch) search).init(before);
+            assertThrows(IllegalStateException.class, search::compute, search.getClass().getSimpleName());
+        }
+
+        //the live graph contains x, the index answers
+        BreadthFirstSearch live = new BreadthFirstSearch("a", "x");
+        live.init(g);
+        live.compute();
+        assertTrue(live.getStats().isShortCircuited());
+    }
+
+    @Test
+    void testConcurrentQueriesAfterRebuild() throws Exception {
+        for (boolean directed : new boolean[]{false, true}) {
+            Graph g = TestGraphs.synthetic("sparse", directed, SyntheticGraphs.Weights.UNIFORM, 9, 300);
+            ConnectivityIndex index = ConnectivityIndex.attach(g);
+            //a removal makes the next query rebuild, several threads race for it
+            g.removeEdge(g.getEdge(0));
+            //the same graph indexed after the removal
+            Graph same = TestGraphs.synthetic("sparse", directed, SyntheticGraphs.Weights.UNIFORM, 9, 300);
+            same.removeEdge(same.getEdge(0));
+            ConnectivityIndex reference = ConnectivityIndex.attach(same);
+            boolean[][] expected = new boolean[g.getNodeCount()][g.getNodeCount()];
+            for (Node s : g) {
+                for (Node t : g) expected[s.getIndex()][t.getIndex()] = reference.mayReach(s.getId(), t.getId());
+            }
+            List<Callable<Boolean>> workers = new ArrayList<>();
+            for (int w = 0; w < 8; w++) {
+                workers.add(() -> {
+                    for (Node s : g) {
+                        for (Node t : g) {
+                            if (index.mayReach(s.getId(), t.getId()) != expected[s.getIndex()][t.getIndex()]) return false;
+                        }
+                    }
+                    return true;
+                });
+            }
+            try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+                for (Future<Boolean> result : executor.invokeAll(workers)) assertTrue(result.get());
+            }
+        }
+    }
+}
@@ -0,0 +1,133 @@
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContractionHierarchyTest {
+
+    /**
+     * Checks that consecutive path nodes are connected by an edge that can be walked in that direction
+     * and returns the smallest total weight of such a walk.
+     */
+    private static long walk(List<Node> path) {
+        long total = 0;
+        for (int i = 0; i + 1 < path.size(); i++) {
+            Node from = path.get(i);
+            Node to = path.get(i + 1);
+            long best = Long.MAX_VALUE;
+            for (int j = 0; j < from.getDegree(); j++) {
+                Edge e = from.getEdge(j);
+                boolean usable = e.isDirected() ? e.getSourceNode() == from && e.getTargetNode() == to : e.getOpposite(from) == to;
+                if (usable) best = Math.min(best, e.getAttribute("weight") instanceof Number w ? w.longValue() : 1);
+            }
+            assertNotEquals(Long.MAX_VALUE, best, "no edge " + from.getId() + " -> " + to.getId());
+            total += best;
+        }
+        return total;
+    }
+
+    @Test
+    void testQueriesMatchDijkstra() {
+        for (boolean directed : new boolean[]{false, true}) {
+            for (boolean grid : new boolean[]{true, false}) {
+                Graph g = TestGraphs.synthetic(grid ? "grid" : "random", directed, SyntheticGraphs.Weights.UNIFORM,
+                        directed ? 3 : 4, grid ? 1600 : 800);
+                CompactGraph compact = CompactGraph.of(g);
+                ContractionHierarchy hierarchy = ContractionHierarchy.build(compact);
+                SplittableRandom random = new SplittableRandom(9);
+                for (int i = 0; i < 150; i++) {
+                    String s = compact.node(random.nextInt(compact.getNodeCount())).getId();
+                    String t = compact.node(random.nextInt(compact.getNodeCount())).getId();
+                    Dijkstra dijkstra = new Dijkstra(s, t);
+                    dijkstra.init(compact);
+                    dijkstra.compute();
+                    ContractionHierarchySearch ch = new ContractionHierarchySearch(s, t);
+                    ch.init(hierarchy);
+                    ch.compute();
+
+                    String query = "directed=" + directed + " grid=" + grid + " " + s + " -> " + t;
+                    assertEquals(dijkstra.getDistance(), ch.getDistance(), query);
+                    if (ch.getDistance() < 0) {
+                        assertTrue(ch.getPath().isEmpty(), query);
+                        continue;
+                    }
+                    //unpacked path consists of original edges and has the reported length
+                    List<Node> path = ch.getPath();
+                    assertEquals(s, path.get(0).getId(), query);
+                    assertEquals(t, path.get(path.size() - 1).getId(), query);
+                    assertEquals(ch.getDistance(), walk(path), query);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSearchSpaceIsSmall() {
+        Graph g = TestGraphs.synthetic("grid", false, SyntheticGraphs.Weights.UNIFORM, 8, 1600);
+        CompactGraph compact = CompactGraph.of(g);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(compact);
+        assertTrue(hierarchy.getShortcutCount() > 0);
+
+        Dijkstra dijkstra = new Dijkstra("v0", "v1599");
+        dijkstra.init(compact);
+        dijkstra.compute();
+        ContractionHierarchySearch ch = new ContractionHierarchySearch("v0", "v1599");
+        ch.init(hierarchy);
+        ch.compute();
+        assertEquals(dijkstra.getDistance(), ch.getDistance());
+        assertTrue(ch.getStats().getNodesDequeued() < dijkstra.getStats().getNodesDequeued(),
+                ch.getStats().getNodesDequeued() + " vs " + dijkstra.getStats().getNodesDequeued());
+    }
+
+    @Test
+    void testShortcutIsUnpacked() {
+        //a chain where the middle nodes get contracted first
+        Graph g = new SingleGraph("chain");
+        for (String id : new String[]{"A", "B", "C", "D", "E"}) g.addNode(id);
+        g.addEdge("AB", "A", "B", false).setAttribute("weight", 1);
+        g.addEdge("BC", "B", "C", false).setAttribute("weight", 2);
+        g.addEdge("CD", "C", "D", false).setAttribute("weight", 3);
+        g.addEdge("DE", "D", "E", false).setAttribute("weight", 4);
+        g.addEdge("AE", "A", "E", false).setAttribute("weight", 20);
+
+        ContractionHierarchySearch ch = new ContractionHierarchySearch("A", "E");
+        ch.init(g);
+        ch.compute();
+        assertEquals(10, ch.getDistance());
+        assertEquals(List.of("A", "B", "C", "D", "E"), ch.getPath().stream().map(Node::getId).toList());
+        assertTrue(ch.toString().endsWith("Amount of Edges: 4\nDistance: 10"));
+
+        ContractionHierarchySearch same = new ContractionHierarchySearch("C", "C");
+        same.init(g);
+        same.compute();
+        assertEquals(0, same.getDistance());
+        assertEquals(1, same.getPath().size());
+    }
+
+    @Test
+    void testLongChainIsUnpackedCompletely() {
+        //nested shortcuts spanning the whole chain
+        Graph g = TestGraphs.build("chain.gka",
+                sink -> new SyntheticGraphs(1, false, SyntheticGraphs.Weights.NONE, 1).chain(5000, sink));
+        ContractionHierarchySearch ch = new ContractionHierarchySearch("v0", "v4999");
+        ch.init(g);
+        ch.compute();
+        assertEquals(5000, ch.getPath().size());
+        for (int i = 0; i < 5000; i++) assertEquals("v" + i, ch.getPath().get(i).getId());
+    }
+
+    @Test
+    void testUnknownNodeThrows() {
+        Graph g = new SingleGraph("single");
+        g.addNode("A");
+        ContractionHierarchySearch ch = new ContractionHierarchySearch("A", "B");
+        ch.init(g);
+        assertThrows(IllegalStateException.class, ch::compute);
+    }
+}
@@ -0,0 +1,164 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.MultiGraph;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DijkstraTest {
+
+    private static Graph cities() {
+        Graph g = new SingleGraph("cities");
+        String[][] roads = {
+                {"Paderborn", "Hamburg", "228"}, {"Bremen", "Hamburg", "127"}, {"Bremen", "Bremerhaven", "66"},
+                {"Paderborn", "Bremen", "193"}, {"Hamburg", "Husum", "145"}, {"Bremerhaven", "Husum", "210"}
+        };
+        for (String[] road : roads) {
+            if (g.getNode(road[0]) == null) g.addNode(road[0]);
+            if (g.getNode(road[1]) == null) g.addNode(road[1]);
+            g.addEdge(road[0] + "--" + road[1], road[0], road[1], false).setAttribute("weight", Integer.parseInt(road[2]));
+        }
+        return g;
+    }
+
+    @Test
+    void testWeightedShortestPath() {
+        Dijkstra dijkstra = new Dijkstra("Paderborn", "Husum");
+        dijkstra.init(cities());
+        dijkstra.compute();
+
+        //via Hamburg (228 + 145 = 373) beats via Bremen (193 + 127 + 145 = 465 or 193 + 66 + 210 = 469)
+        assertEquals(373, dijkstra.getDistance());
+        assertEquals(List.of("Paderborn", "Hamburg", "Husum"), dijkstra.getPath().stream().map(Node::getId).toList());
+        assertTrue(dijkstra.toString().endsWith("Amount of Edges: 2\nDistance: 373"));
+        assertTrue(dijkstra.getStats().isFound());
+    }
+
+    @Test
+    void testLighterDetourIsPreferredOverFewerEdges() {
+        Graph g = new SingleGraph("detour");
+        for (String id : new String[]{"S", "A", "B", "T"}) g.addNode(id);
+        g.addEdge("ST", "S", "T", true).setAttribute("weight", 10);
+        g.addEdge("SA", "S", "A", true).setAttribute("weight", 1);
+        g.addEdge("AB", "A", "B", true).setAttribute("weight", 2);
+        g.addEdge("BT", "B", "T", true).setAttribute("weight", 3);
+
+        Dijkstra dijkstra = new Dijkstra("S", "T");
+        dijkstra.init(g);
+        dijkstra.compute();
+        assertEquals(6, dijkstra.getDistance());
+        assertEquals(4, dijkstra.getPath().size());
+
+        //directed edges are not walked backwards
+        Dijkstra back = new Dijkstra("T", "S");
+        back.init(g);
+        back.compute();
+        assertEquals(-1, back.getDistance());
+        assertTrue(back.getPath().isEmpty());
+        assertFalse(back.getStats().isFound());
+    }
+
+    @Test
+    void testParallelEdgesUseTheLightestWeight() {
+        Graph g = new MultiGraph("multi");
+        g.addNode("A");
+        g.addNode("B");
+        g.addEdge("e1", "A", "B", false).setAttribute("weight", 9);
+        g.addEdge("e2", "A", "B", false).setAttribute("weight", 4);
+        g.addEdge("e3", "B", "A", true); //no weight counts as 1, but only from B
+
+        Dijkstra forward = new Dijkstra("A", "B");
+        forward.init(g);
+        forward.compute();
+        assertEquals(4, forward.getDistance());
+
+        Dijkstra backward = new Dijkstra("B", "A");
+        backward.init(g);
+        backward.compute();
+        assertEquals(1, backward.getDistance());
+    }
+
+    @Test
+    void testMatchesGraphStreamDijkstraOnRandomGraphs() {
+        Random random = new Random(7);
+        for (int round = 0; round < 5; round++) {
+            Graph g = new SingleGraph("random" + round);
+            int n = 300;
+            for (int i = 0; i < n; i++) g.addNode("v" + i);
+            for (int i = 0; i < 1500; i++) {
+                int s = random.nextInt(n), t = random.nextInt(n);
+                String id = "v" + s + "--v" + t;
+                if (s == t || g.getEdge(id) != null || g.getEdge("v" + t + "--v" + s) != null) continue;
+                g.addEdge(id, s, t, false).setAttribute("weight", 1 + random.nextInt(100));
+            }
+
+            org.graphstream.algorithm.Dijkstra reference =
+                    new org.graphstream.algorithm.Dijkstra(org.graphstream.algorithm.Dijkstra.Element.EDGE, null, "weight");
+            reference.init(g);
+            reference.setSource(g.getNode("v0"));
+            reference.compute();
+
+            CompactGraph compact = CompactGraph.of(g);
+            for (int t = 0; t < n; t += 7) {
+                Dijkstra query = new Dijkstra("v0", "v" + t);
+                query.init(compact);
+                query.compute();
+                double expected = reference.getPathLength(g.getNode(t));
+                if (Double.isInfinite(expected)) {
+                    assertEquals(-1, query.getDistance());
+                } else {
+                    assertEquals((long) expected, query.getDistance(), "target v" + t);
+                    //a second run reuses the arrays of the first one
+                    query.compute();
+                    assertEquals((long) expected, query.getDistance(), "target v" + t);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testNegativeWeightsAreRejected() {
+        Graph g = cities();
+        g.getEdge("Bremen--Hamburg").setAttribute("weight", -5);
+        assertThrows(IllegalStateException.class, () -> new Dijkstra("Bremen", "Hamburg").init(g));
+    }
+
+    @Test
+    void testUnknownNodeThrows() {
+        Dijkstra dijkstra = new Dijkstra("Paderborn", "Berlin");
+        dijkstra.init(cities());
+        assertThrows(IllegalStateException.class, dijkstra::compute);
+    }
+
+    @Test
+    void testHeapPollsInKeyOrder() {
+        Random random = new Random(3);
+        IndexedMinHeap heap = new IndexedMinHeap(1000);
+        long[] keys = new long[1000];
+        for (int i = 0; i < 1000; i++) {
+            keys[i] = random.nextInt(1_000_000);
+            heap.insertOrDecrease(i, keys[i] + 500);
+        }
+        for (int i = 0; i < 1000; i += 3) heap.insertOrDecrease(i, keys[i]);
+        for (int i = 1; i < 1000; i += 3) keys[i] += 500;
+        for (int i = 2; i < 1000; i += 3) keys[i] += 500;
+        //larger keys do not raise the priority
+        heap.insertOrDecrease(0, Long.MAX_VALUE);
+
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        for (long expected : sorted) {
+            assertEquals(expected, heap.peekKey());
+            heap.poll();
+        }
+        assertTrue(heap.isEmpty());
+        heap.insertOrDecrease(5, 1);
+        heap.clear();
+        assertFalse(heap.contains(5));
+    }
+}
@@ -0,0 +1,79 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectionOptimizingBFSTest {
+
+    private static Graph randomGraph(String id, int n, int m, boolean directed, long seed) {
+        Graph g = new SingleGraph(id);
+        for (int i = 0; i < n; i++) g.addNode("v" + i);
+        Random random = new Random(seed);
+        for (int i = 0; i < m; i++) {
+            int s = random.nextInt(n);
+            int t = random.nextInt(n);
+            String name = s + "_" + t;
+            if (s != t && g.getEdge(name) == null && g.getEdge(t + "_" + s) == null) {
+                g.addEdge(name, "v" + s, "v" + t, directed);
+            }
+        }
+        return g;
+    }
+
+    private static void assertValidPath(Graph g, List<Node> path) {
+        for (int i = 0; i + 1 < path.size(); i++) {
+            Node from = path.get(i);
+            Node to = path.get(i + 1);
+            assertTrue(from.hasEdgeToward(to), "consecutive path nodes must be connected");
+        }
+    }
+
+    @Test
+    void testSameLengthAsBreadthFirstSearch() {
+        for (boolean directed : new boolean[]{false, true}) {
+            Graph g = randomGraph("random", 200, 1200, directed, 7);
+            CompactGraph compact = CompactGraph.of(g);
+            for (int t = 0; t < 200; t += 7) {
+                BreadthFirstSearch bfs = new BreadthFirstSearch("v0", "v" + t);
+                bfs.init(compact);
+                bfs.compute();
+
+                DirectionOptimizingBFS dobfs = new DirectionOptimizingBFS("v0", "v" + t);
+                dobfs.init(compact);
+                dobfs.compute();
+
+                assertEquals(bfs.getPath().size(), dobfs.getPath().size());
+                assertEquals("v0", dobfs.getPath().get(0).getId());
+                assertValidPath(g, dobfs.getPath());
+            }
+        }
+    }
+
+    @Test
+    void testBottomUpUsedOnDenseGraph() {
+        //dense low-diameter graph, the middle level should be expanded bottom-up
+        Graph g = randomGraph("dense", 500, 10000, false, 3);
+        DirectionOptimizingBFS dobfs = new DirectionOptimizingBFS("v0", "v499");
+        dobfs.init(g);
+        dobfs.compute();
+        assertTrue(dobfs.getBottomUpSteps() > 0);
+        assertValidPath(g, dobfs.getPath());
+    }
+
+    @Test
+    void testUnreachableTarget() {
+        //directed chain A -> B, B cannot reach A
+        Graph g = new SingleGraph("oneway");
+        g.addNode("A"); g.addNode("B");
+        g.addEdge("A_B", "A", "B", true);
+        DirectionOptimizingBFS dobfs = new DirectionOptimizingBFS("B", "A");
+        dobfs.init(g);
+        dobfs.compute();
+        assertTrue(dobfs.getPath().isEmpty());
+    }
+}
@@ -0,0 +1,108 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DynamicBfsIndexTest {
+    private static final String[] SOURCES = {"v0", "v7", "v33"};
+
+    /**
+     * Compares every registered source against a fresh BFS on a new snapshot.
+     */
+    private static void assertMatchesRecompute(DynamicBfsIndex index, Graph g) {
+        CompactGraph compact = CompactGraph.of(g);
+        for (String source : SOURCES) {
+            if (g.getNode(source) == null) continue;
+            ShortestPathTree expected = ShortestPathTree.compute(compact, source);
+            for (Node node : g) {
+                String target = node.getId();
+                assertEquals(expected.distanceTo(target), index.distanceTo(source, target), source + " -> " + target);
+                List<Node> path = index.pathTo(source, target);
+                assertEquals(Math.max(0, expected.distanceTo(target) + 1), path.size());
+                for (int i = 0; i + 1 < path.size(); i++) {
+                    Node from = path.get(i);
+                    Node to = path.get(i + 1);
+                    assertTrue(from.leavingEdges().anyMatch(e -> e.getOpposite(from) == to), "no edge " + from + " -> " + to);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testInsertionsAreRepairedIncrementally() {
+        for (String directed : new String[]{"->", "--"}) {
+            GraphGenerator gg = new GraphGenerator();
+            Graph g = gg.createNewGraph("dynamic.gka");
+            for (int i = 0; i < 50; i++) gg.generateNode(g, "v" + i);
+            DynamicBfsIndex index = new DynamicBfsIndex(g);
+            for (String source : SOURCES) index.addSource(source);
+
+            SplittableRandom random = new SplittableRandom(directed.length() + 11);
+            for (int step = 0; step < 300; step++) {
+                //new nodes join now and then, the rest are edges between existing and new nodes
+                int bound = 50 + step / 5;
+                gg.updateGraph(g, "v" + random.nextInt(bound), "v" + random.nextInt(bound), directed, null, null);
+                if (step % 25 == 0) assertMatchesRecompute(index, g);
+            }
+            assertMatchesRecompute(index, g);
+            //only the initial BFS of each source, everything else was repaired in place
+            assertEquals(SOURCES.length, index.getRecomputations());
+            assertTrue(index.getRepairs() > 0);
+        }
+    }
+
+    @Test
+    void testRemovalsFallBackToRecompute() {
+        GraphGenerator gg = new GraphGenerator();
+        Graph g = gg.createNewGraph("dynamic.gka");
+        SyntheticGraphs.GraphSink sink = new SyntheticGraphs.GraphSink();
+        new SyntheticGraphs(5, true, SyntheticGraphs.Weights.NONE, 1).erdosRenyi(200, 600, sink);
+        sink.build(g);
+        DynamicBfsIndex index = new DynamicBfsIndex(g);
+        for (String source : SOURCES) index.addSource(source);
+
+        SplittableRandom random = new SplittableRandom(6);
+        for (int step = 0; step < 20; step++) {
+            g.removeEdge(random.nextInt(g.getEdgeCount()));
+            assertMatchesRecompute(index, g);
+        }
+        long recomputations = index.getRecomputations();
+        //several removals between two queries cost one recompute per source
+        g.removeNode("v100");
+        g.removeNode("v101");
+        assertMatchesRecompute(index, g);
+        assertEquals(recomputations + SOURCES.length, index.getRecomputations());
+
+        //a removed source reaches nothing until it is added again
+        g.removeNode("v7");
+        assertEquals(-1, index.distanceTo("v7", "v0"));
+        gg.generateNode(g, "v7");
+        gg.updateGraph(g, "v7", "v0", "->", null, null);
+        assertEquals(1, index.distanceTo("v7", "v0"));
+        assertMatchesRecompute(index, g);
+    }
+
+    @Test
+    void testDetachAndInvalidSources() {
+        GraphGenerator gg = new GraphGenerator();
+        Graph g = gg.createNewGraph("dynamic.gka");
+        gg.updateGraph(g, "a", "b", "->", null, null);
+        DynamicBfsIndex index = new DynamicBfsIndex(g);
+        index.addSource("a");
+        assertThrows(IllegalStateException.class, () -> index.addSource("missing"));
+        assertThrows(IllegalStateException.class, () -> index.distanceTo("b", "a"));
+        assertThrows(IllegalStateException.class, () -> index.pathTo("a", "missing"));
+        assertEquals(-1, index.distanceTo("a", "missing"));
+
+        index.detach();
+        gg.updateGraph(g, "b", "c", "->", null, null);
+        assertEquals(-1, index.distanceTo("a", "c"));
+        assertTrue(index.removeSource("a"));
+        assertFalse(index.removeSource("a"));
+        assertThrows(IllegalArgumentException.class, () -> new DynamicBfsIndex(null));
+    }
+}
@@ -0,0 +1,85 @@
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GkaLexerTest {
+    //valid and invalid lines in every variation of the grammar
+    private static final String CONTENT = String.join("\r\n",
+            "a -> b;",
+            "  b--c (label one) : 12 ;  ",
+            "c -> d:7",
+            "d -- e (x)",
+            "e->f : 1.5;",
+            "f -- g : 99999999999;",
+            "g -- h (ü) : 3",
+            "10 (l);",
+            "12;",
+            "a -- g b -- j;",
+            "h -- i ();",
+            "i -- j :;",
+            "j -- k : 3.;",
+            "k - l;",
+            "",
+            "l -- m;;",
+            "m -> n (a(b) : 4") + "\rn -- o\n";
+
+    @TempDir
+    Path tempDir;
+
+    private static List<String> describe(Graph g) {
+        List<String> result = new ArrayList<>();
+        for (Edge e : g.edges().toList()) {
+            result.add(e.getId() + "|" + e.getAttribute("weight") + "|" + e.getAttribute("label") + "|" + e.isDirected());
+        }
+        return result;
+    }
+
+    private Graph parse(File dir, boolean memoryMapped) {
+        GraphGenerator gg = new GraphGenerator();
+        GraphParser gp = new GraphParser(gg, dir);
+        gp.setMemoryMapped(memoryMapped);
+        gp.fileParser(gp.checkFiles());
+        return gg.getImmutableGraphs().get(0);
+    }
+
+    @Test
+    void testAcceptsSameLinesAsRegexParser() throws IOException {
+        Files.writeString(tempDir.resolve("tricky.gka"), CONTENT, StandardCharsets.UTF_8);
+        Graph regex = parse(tempDir.toFile(), false);
+        Graph lexer = parse(tempDir.toFile(), true);
+
+        assertEquals(regex.getNodeCount(), lexer.getNodeCount());
+        assertEquals(describe(regex), describe(lexer));
+        assertEquals("label one", lexer.getEdge("b--c").getAttribute("label"));
+        assertEquals("ü", lexer.getEdge("g--h").getAttribute("label"));
+        assertNull(lexer.getEdge("e->f").getAttribute("weight"));
+    }
+
+    @Test
+    void testLinesAcrossWindowBorders() throws IOException {
+        Path file = tempDir.resolve("windows.gka");
+        Files.writeString(file, CONTENT, StandardCharsets.UTF_8);
+
+        List<String> expected = new ArrayList<>();
+        long matched = new GkaLexer().parse(file, (s, d, t, l, w) -> expected.add(s + d + t + l + w));
+        assertEquals(9, matched);
+
+        //tiny windows force carried lines, split \r\n pairs and growing windows
+        for (int window = 1; window < 40; window++) {
+            List<String> actual = new ArrayList<>();
+            new GkaLexer(window).parse(file, (s, d, t, l, w) -> actual.add(s + d + t + l + w));
+            assertEquals(expected, actual, "window size " + window);
+        }
+    }
+}
@@ -57,8 +57,8 @@ class GraphGeneratorTest {
     void testDuplicateEdgeSkipped() {
         //create duplicate edges
         Graph g = gg.createNewGraph("dup.gka");
-        gg.updateGraph(g, "A", "B", "--", null, null);
-        gg.updateGraph(g, "B", "A", "--", null, null); // should be skipped
+        assertTrue(gg.updateGraph(g, "A", "B", "--", null, null));
+        assertFalse(gg.updateGraph(g, "B", "A", "--", null, null)); // should be skipped
 
         long edgeCount = g.edges().count();
         //duplicate being skipped (only one edge updated)
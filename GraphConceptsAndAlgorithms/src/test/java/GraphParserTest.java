@@ -89,4 +89,92 @@ class GraphParserTest {
         //txt file is invalid
         assertFalse(result.contains(f2));
     }
+
+    @Test
+    void testConcurrentParsingKeepsFileOrder() throws IOException {
+        //several files, registered graphs must follow the order of the file list
+        ArrayList<File> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            File file = new File(graphDir, "g" + i + ".gka");
+            try (PrintWriter out = new PrintWriter(file)) {
+                for (int j = 0; j <= i; j++) out.println("n" + j + " -- n" + (j + 1) + ";");
+            }
+            files.add(file);
+        }
+        gp.setMemoryMapped(true);
+        gp.concurrentFileParser(files);
+
+        List<Graph> graphs = gg.getImmutableGraphs();
+        assertEquals(20, graphs.size());
+        int previousId = -1;
+        for (int i = 0; i < 20; i++) {
+            Graph g = graphs.get(i);
+            assertEquals("g" + i + ".gka", g.getAttribute("sourceFile"));
+            assertEquals(i + 1, g.getEdgeCount());
+            //IDs increase with the file order
+            int id = Integer.parseInt(g.getId().substring("graph:".length()));
+            assertTrue(id > previousId);
+            previousId = id;
+        }
+    }
+
+    @Test
+    void testConcurrentParsingSkipsMissingFiles() throws IOException {
+        //a missing file in between must not use up a graph ID
+        ArrayList<File> files = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            File file = new File(graphDir, "m" + i + ".gka");
+            if (i != 1) {
+                try (PrintWriter out = new PrintWriter(file)) {
+                    //enough trace lines to exceed the output buffer of a waiting file
+                    for (int j = 0; j < 3000; j++) out.println("n" + j + " -- n" + (j + 1) + ";");
+                }
+            }
+            files.add(file);
+        }
+        gp.setVerbosity(ParseReport.Verbosity.TRACE);
+        PrintStream console = System.out;
+        ByteArrayOutputStream printed = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(printed, true));
+        try {
+            gp.concurrentFileParser(files);
+        } finally {
+            System.setOut(console);
+        }
+
+        List<Graph> graphs = gg.getImmutableGraphs();
+        assertEquals(2, graphs.size());
+        int first = Integer.parseInt(graphs.get(0).getId().substring("graph:".length()));
+        int second = Integer.parseInt(graphs.get(1).getId().substring("graph:".length()));
+        assertEquals(first + 1, second);
+        assertEquals(3, gp.getReports().size());
+
+        //output stays in file order
+        String output = printed.toString();
+        int m0 = output.indexOf("Parsing: m0.gka");
+        int m1 = output.indexOf("m1.gka (cannot be read)");
+        int m2 = output.indexOf("Parsing: m2.gka");
+        assertTrue(m0 >= 0 && m0 < m1 && m1 < m2);
+        assertEquals(2 * 3000, output.split("Parsed: s=", -1).length - 1);
+    }
+
+    @Test
+    void testBulkLoadingCreatesSameGraph() throws IOException {
+        File file = new File(graphDir, "bulk.gka");
+        try (PrintWriter out = new PrintWriter(file)) {
+            out.println("A -> B : 5;");
+            out.println("B -- C (label1) : 7;");
+            out.println("C -- B;");
+            out.println("not an edge");
+        }
+        gp.setBulkLoading(true);
+        gp.fileParser(gp.checkFiles());
+        Graph g = gg.getImmutableGraphs().get(0);
+        //duplicate C -- B skipped, invalid line ignored
+        assertEquals(3, g.getNodeCount());
+        assertEquals(2, g.getEdgeCount());
+        assertEquals(5, g.getEdge("A->B").getAttribute("weight"));
+        assertEquals("label1", g.getEdge("B--C").getAttribute("label"));
+        assertEquals("B--C", g.getEdge("B--C").getAttribute("ui.label"));
+    }
 }
@@ -0,0 +1,125 @@
+import org.graphstream.graph.Edge;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphSnapshotTest {
+    private GraphGenerator gg;
+    private File gka;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setup() throws IOException {
+        gg = new GraphGenerator();
+        gka = tempDir.resolve("cities.gka").toFile();
+        try (PrintWriter out = new PrintWriter(gka, "UTF-8")) {
+            out.println("Paderborn -- Hamburg : 228;");
+            out.println("Hamburg -> Bremen (Autobahn) : 127;");
+            out.println("Bremen -- Koeln (Straße);");
+            out.println("Kiel -- Kiel;");
+        }
+    }
+
+    private static List<String> describe(Graph g) {
+        List<String> result = new ArrayList<>();
+        for (Node n : g.nodes().toList()) result.add(n.getId() + "|" + n.getAttribute("ui.label"));
+        for (Edge e : g.edges().toList()) {
+            result.add(e.getId() + "|" + e.isDirected() + "|" + e.getAttribute("ui.label")
+                    + "|" + e.getAttribute("weight") + "|" + e.getAttribute("label"));
+        }
+        return result;
+    }
+
+    private Graph parse(boolean snapshots) {
+        GraphGenerator generator = new GraphGenerator();
+        GraphParser gp = new GraphParser(generator, tempDir.toFile());
+        gp.setSnapshots(snapshots);
+        gp.fileParser(gp.checkFiles());
+        return generator.getImmutableGraphs().get(0);
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Graph parsed = parse(false);
+        File snapshot = GraphSnapshot.snapshotFile(gka);
+        GraphSnapshot.write(parsed, snapshot.toPath(), gka);
+        assertTrue(GraphSnapshot.isUpToDate(snapshot, gka));
+
+        Graph loaded = gg.createNewGraph("cities.gka");
+        GraphSnapshot.read(snapshot.toPath(), loaded);
+        assertEquals(describe(parsed), describe(loaded));
+    }
+
+    @Test
+    void testParserWritesAndReusesSnapshot() {
+        Graph first = parse(true);
+        File snapshot = GraphSnapshot.snapshotFile(gka);
+        assertTrue(snapshot.isFile());
+
+        //second run loads the snapshot and must produce the same graph
+        Graph second = parse(true);
+        assertEquals(describe(first), describe(second));
+        assertEquals("cities.gka", second.getAttribute("sourceFile"));
+    }
+
+    @Test
+    void testStaleSnapshotIgnored() throws IOException {
+        parse(true);
+        File snapshot = GraphSnapshot.snapshotFile(gka);
+        try (PrintWriter out = new PrintWriter(gka, "UTF-8")) {
+            out.println("X -- Y;");
+        }
+        assertFalse(GraphSnapshot.isUpToDate(snapshot, gka));
+        Graph reparsed = parse(true);
+        assertNotNull(reparsed.getNode("X"));
+        assertNull(reparsed.getNode("Hamburg"));
+    }
+
+    @Test
+    void testCorruptSnapshotRejected() throws IOException {
+        parse(true);
+        File snapshot = GraphSnapshot.snapshotFile(gka);
+        //flip a byte in the body
+        try (RandomAccessFile file = new RandomAccessFile(snapshot, "rw")) {
+            file.seek(file.length() - 8);
+            int b = file.read();
+            file.seek(file.length() - 8);
+            file.write(b ^ 0xFF);
+        }
+        Graph g = gg.createNewGraph("corrupt.gka");
+        assertThrows(IOException.class, () -> GraphSnapshot.read(snapshot.toPath(), g));
+
+        //the parser falls back to the text file
+        Graph reparsed = parse(true);
+        assertEquals(5, reparsed.getNodeCount());
+        assertEquals("cities.gka", reparsed.getAttribute("sourceFile"));
+    }
+
+    @Test
+    void testCorruptCountsRejected() throws IOException {
+        parse(true);
+        File snapshot = GraphSnapshot.snapshotFile(gka);
+        //a node count that would place every section outside of the file
+        try (RandomAccessFile file = new RandomAccessFile(snapshot, "rw")) {
+            file.seek(24);
+            file.writeInt(Integer.reverseBytes(1 << 28));
+        }
+        Graph g = gg.createNewGraph("corrupt.gka");
+        assertThrows(IOException.class, () -> GraphSnapshot.read(snapshot.toPath(), g));
+        assertEquals(0, g.getNodeCount());
+    }
+}
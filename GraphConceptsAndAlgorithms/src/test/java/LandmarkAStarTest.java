@@ -0,0 +1,176 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LandmarkAStarTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static CompactGraph grid;
+    private static LandmarkIndex gridLandmarks;
+
+    @BeforeAll
+    static void setup() {
+        //road-like weighted 60x60 grid with a few missing streets
+        grid = CompactGraph.of(TestGraphs.synthetic("grid", false, SyntheticGraphs.Weights.UNIFORM, 11, 3600));
+        gridLandmarks = LandmarkIndex.build(grid, 8);
+    }
+
+    @Test
+    void testSameDistancesAsDijkstra() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (int i = 0; i < 200; i++) {
+            String s = grid.node(random.nextInt(grid.getNodeCount())).getId();
+            String t = grid.node(random.nextInt(grid.getNodeCount())).getId();
+
+            Dijkstra dijkstra = new Dijkstra(s, t);
+            dijkstra.init(grid);
+            dijkstra.compute();
+            LandmarkAStar alt = new LandmarkAStar(s, t);
+            alt.init(grid, gridLandmarks);
+            alt.compute();
+
+            assertEquals(dijkstra.getDistance(), alt.getDistance(), s + " -> " + t);
+            if (alt.getDistance() >= 0) {
+                assertEquals(s, alt.getPath().get(0).getId());
+                assertEquals(t, alt.getPath().get(alt.getPath().size() - 1).getId());
+            }
+        }
+    }
+
+    @Test
+    void testSettlesFewerNodesThanDijkstra() {
+        //opposite corners
+        String s = grid.node(grid.indexOf("v0")).getId();
+        String t = grid.node(grid.indexOf("v3599")).getId();
+        Dijkstra dijkstra = new Dijkstra(s, t);
+        dijkstra.init(grid);
+        dijkstra.compute();
+        LandmarkAStar alt = new LandmarkAStar(s, t);
+        alt.init(grid, gridLandmarks);
+        alt.compute();
+
+        assertEquals(dijkstra.getDistance(), alt.getDistance());
+        assertTrue(alt.getStats().getNodesDequeued() < dijkstra.getStats().getNodesDequeued(),
+                alt.getStats().getNodesDequeued() + " vs " + dijkstra.getStats().getNodesDequeued());
+    }
+
+    @Test
+    void testBoundsAreAdmissible() {
+        int n = grid.getNodeCount();
+        for (int t = 0; t < n; t += 97) {
+            Dijkstra dijkstra = new Dijkstra(grid.node(0).getId(), grid.node(t).getId());
+            dijkstra.init(grid);
+            dijkstra.compute();
+            if (dijkstra.getDistance() >= 0) assertTrue(gridLandmarks.lowerBound(0, t) <= dijkstra.getDistance());
+        }
+        assertEquals(0, gridLandmarks.lowerBound(42, 42));
+    }
+
+    @Test
+    void testDirectedGraphAndUnreachableTarget() {
+        Graph g = new SingleGraph("directed");
+        for (String id : new String[]{"A", "B", "C", "D"}) g.addNode(id);
+        g.addEdge("AB", "A", "B", true).setAttribute("weight", 2);
+        g.addEdge("BC", "B", "C", true).setAttribute("weight", 2);
+        g.addEdge("AC", "A", "C", true).setAttribute("weight", 5);
+        g.addEdge("CD", "C", "D", true).setAttribute("weight", 1);
+
+        LandmarkAStar forward = new LandmarkAStar("A", "D");
+        forward.init(g);
+        forward.compute();
+        assertEquals(5, forward.getDistance());
+        assertEquals(4, forward.getPath().size());
+
+        LandmarkAStar backward = new LandmarkAStar("D", "A");
+        backward.init(g);
+        backward.compute();
+        assertEquals(-1, backward.getDistance());
+        assertFalse(backward.getStats().isFound());
+    }
+
+    @Test
+    void testPersistedNextToGkaFile() throws IOException {
+        File gka = new File(tempDir.toFile(), "roads.gka");
+        try (PrintWriter out = new PrintWriter(gka)) {
+            out.println("Paderborn -- Hamburg : 228;");
+            out.println("Bremen -- Hamburg : 127;");
+            out.println("Bremen -- Bremerhaven : 66;");
+            out.println("Hamburg -- Husum : 145;");
+        }
+        GraphGenerator gg = new GraphGenerator();
+        new GraphParser(gg, tempDir.toFile()).fileParser(new ArrayList<>(List.of(gka)));
+        CompactGraph compact = CompactGraph.of(gg.getImmutableGraphs().get(0));
+
+        LandmarkIndex built = LandmarkIndex.loadOrBuild(compact, gka, 3);
+        File stored = LandmarkIndex.landmarkFile(gka);
+        assertTrue(stored.isFile());
+        long written = stored.lastModified();
+
+        LandmarkIndex loaded = LandmarkIndex.loadOrBuild(compact, gka, 3);
+        assertArrayEquals(built.getLandmarks(), loaded.getLandmarks());
+        for (int l = 0; l < 3; l++) {
+            for (int v = 0; v < compact.getNodeCount(); v++) {
+                assertEquals(built.distanceFrom(l, v), loaded.distanceFrom(l, v));
+                assertEquals(built.distanceTo(l, v), loaded.distanceTo(l, v));
+            }
+        }
+        assertEquals(written, stored.lastModified());
+
+        //a changed .gka file makes the stored index stale
+        assertTrue(gka.setLastModified(gka.lastModified() + 10_000));
+        assertNull(LandmarkIndex.read(stored.toPath(), compact, gka));
+
+        //corrupt files are rebuilt
+        byte[] bytes = Files.readAllBytes(stored.toPath());
+        bytes[bytes.length - 1] ^= 0x55;
+        Files.write(stored.toPath(), bytes);
+        LandmarkIndex rebuilt = LandmarkIndex.loadOrBuild(compact, gka, 3);
+        assertArrayEquals(built.getLandmarks(), rebuilt.getLandmarks());
+
+        LandmarkAStar alt = new LandmarkAStar("Paderborn", "Bremerhaven");
+        alt.init(compact, rebuilt);
+        alt.compute();
+        assertEquals(228 + 127 + 66, alt.getDistance());
+    }
+
+    @Test
+    void testTablesLargerThanOneChunkRoundTrip() throws IOException {
+        //32 landmarks on the grid give about 1.8 MB of tables, more than the write buffer
+        LandmarkIndex index = LandmarkIndex.build(grid, 32);
+        File source = new File(tempDir.toFile(), "grid.gka");
+        assertTrue(source.createNewFile());
+        Path stored = tempDir.resolve("grid.gka.landmarks");
+        index.write(stored, grid, source);
+
+        LandmarkIndex loaded = LandmarkIndex.read(stored, grid, source);
+        assertNotNull(loaded);
+        assertArrayEquals(index.getLandmarks(), loaded.getLandmarks());
+        for (int l = 0; l < 32; l++) {
+            for (int v = 0; v < grid.getNodeCount(); v++) {
+                assertEquals(index.distanceFrom(l, v), loaded.distanceFrom(l, v));
+                assertEquals(index.distanceTo(l, v), loaded.distanceTo(l, v));
+            }
+        }
+
+        //a flipped byte in the middle of the tables is caught by the checksum
+        byte[] bytes = Files.readAllBytes(stored);
+        bytes[bytes.length / 2] ^= 0x55;
+        Files.write(stored, bytes);
+        assertThrows(IOException.class, () -> LandmarkIndex.read(stored, grid, source));
+    }
+}
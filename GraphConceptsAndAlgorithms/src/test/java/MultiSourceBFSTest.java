@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiSourceBFSTest {
+
+    /**
+     * Eccentricities and histogram from one ShortestPathTree per node.
+     */
+    private static long[] reference(CompactGraph compact, int[] eccentricities) {
+        long[] histogram = new long[compact.getNodeCount() + 1];
+        for (int s = 0; s < compact.getNodeCount(); s++) {
+            ShortestPathTree tree = ShortestPathTree.compute(compact, compact.node(s).getId());
+            for (int t = 0; t < compact.getNodeCount(); t++) {
+                int distance = tree.distanceTo(compact.node(t).getId());
+                if (distance < 0) continue;
+                histogram[distance]++;
+                eccentricities[s] = Math.max(eccentricities[s], distance);
+            }
+        }
+        int length = histogram.length;
+        while (length > 1 && histogram[length - 1] == 0) length--;
+        return Arrays.copyOf(histogram, length);
+    }
+
+    @Test
+    void testMatchesSingleSourceSearches() {
+        for (String shape : new String[]{"grid", "rmat", "sparse"}) {
+            for (boolean directed : new boolean[]{false, true}) {
+                CompactGraph compact = CompactGraph.of(TestGraphs.synthetic(shape, directed,
+                        SyntheticGraphs.Weights.NONE, 1, 300));
+                int[] expected = new int[compact.getNodeCount()];
+                long[] histogram = reference(compact, expected);
+
+                for (int threads : new int[]{1, 4}) {
+                    MultiSourceBFS.Summary summary = MultiSourceBFS.summarize(compact, threads);
+                    assertTrue(summary.isExact());
+                    assertEquals(compact.getNodeCount(), summary.getSources());
+                    assertArrayEquals(histogram, summary.getHistogram(), shape + " directed " + directed);
+                    for (int v = 0; v < compact.getNodeCount(); v++) {
+                        assertEquals(expected[v], summary.getEccentricity(v));
+                    }
+                    assertEquals(Arrays.stream(expected).max().orElse(0), summary.getDiameter());
+                    assertEquals(Arrays.stream(expected).filter(e -> e > 0).min().orElse(0), summary.getRadius());
+                }
+
+                //wider batches and sources listed twice give the same values
+                MultiSourceBFS wide = new MultiSourceBFS(compact, 3);
+                assertEquals(192, wide.getBatchSize());
+                int[] sources = new int[Math.min(192, compact.getNodeCount() + 10)];
+                for (int i = 0; i < sources.length; i++) sources[i] = (i * 7) % compact.getNodeCount();
+                int[] result = wide.run(sources, 0, sources.length);
+                for (int i = 0; i < sources.length; i++) assertEquals(expected[sources[i]], result[i]);
+            }
+        }
+    }
+
+    @Test
+    void testPathGraphSummary() {
+        //0 - 1 - 2 - 3 - 4
+        CompactGraph path = CompactGraph.of(TestGraphs.build("path.gka", sink -> {
+            for (int v = 0; v < 4; v++) sink.edge(v, v + 1, false, -1);
+        }));
+        MultiSourceBFS.Summary summary = MultiSourceBFS.summarize(path, 2);
+        assertEquals(4, summary.getDiameter());
+        assertEquals(2, summary.getRadius());
+        assertArrayEquals(new long[]{5, 8, 6, 4, 2}, summary.getHistogram());
+        assertEquals(20, summary.getReachablePairs());
+        assertEquals(40.0 / 20, summary.getAverageDistance(), 1e-9);
+        //18 of 20 pairs are within 3 hops
+        assertEquals(3, summary.getEffectiveDiameter());
+    }
+
+    @Test
+    void testSampleBoundsExactValues() {
+        CompactGraph compact = CompactGraph.of(TestGraphs.synthetic("rmat", false, SyntheticGraphs.Weights.NONE, 2, 300));
+        MultiSourceBFS.Summary exact = MultiSourceBFS.summarize(compact, 2);
+        MultiSourceBFS.Summary sampled = MultiSourceBFS.estimate(compact, 100, 3, 2);
+        assertFalse(sampled.isExact());
+        assertEquals(100, sampled.getSources());
+        assertTrue(sampled.getDiameter() <= exact.getDiameter());
+        assertTrue(sampled.getRadius() >= exact.getRadius());
+        int sampledNodes = 0;
+        for (int v = 0; v < compact.getNodeCount(); v++) {
+            if (sampled.getEccentricity(v) < 0) continue;
+            sampledNodes++;
+            assertEquals(exact.getEccentricity(v), sampled.getEccentricity(v));
+        }
+        assertEquals(100, sampledNodes);
+        assertTrue(MultiSourceBFS.estimate(compact, compact.getNodeCount(), 3, 1).isExact());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        CompactGraph compact = CompactGraph.of(TestGraphs.synthetic("sparse", false, SyntheticGraphs.Weights.NONE, 4, 300));
+        assertThrows(IllegalArgumentException.class, () -> new MultiSourceBFS(null));
+        assertThrows(IllegalArgumentException.class, () -> new MultiSourceBFS(compact, 0));
+        MultiSourceBFS bfs = new MultiSourceBFS(compact);
+        assertThrows(IllegalArgumentException.class, () -> bfs.run(new int[bfs.getBatchSize() + 1], 0, bfs.getBatchSize() + 1));
+        assertThrows(IllegalStateException.class, () -> bfs.run(new int[]{-1}, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> MultiSourceBFS.summarize(compact, 0));
+        assertThrows(IllegalArgumentException.class, () -> MultiSourceBFS.estimate(compact, 0, 1, 1));
+    }
+}
@@ -0,0 +1,34 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeDictionaryTest {
+
+    @Test
+    void testDenseIdsInInsertionOrder() {
+        //starts small so the table has to grow several times
+        NodeDictionary dictionary = new NodeDictionary(1);
+        for (int i = 0; i < 1000; i++) assertEquals(i, dictionary.add("node" + i));
+        //adding again returns the existing id
+        assertEquals(42, dictionary.add("node42"));
+        assertEquals(1000, dictionary.size());
+        assertEquals(999, dictionary.indexOf("node999"));
+        assertEquals(-1, dictionary.indexOf("unknown"));
+        assertEquals("node7", dictionary.name(7));
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.name(1000));
+    }
+
+    @Test
+    void testLongHashSet() {
+        LongHashSet set = new LongHashSet(1);
+        for (long key = -500; key < 500; key++) assertTrue(set.add(key * 7919));
+        assertFalse(set.add(7919));
+        //the value used for free slots is a valid key as well
+        assertFalse(set.contains(Long.MIN_VALUE));
+        assertTrue(set.add(Long.MIN_VALUE));
+        assertFalse(set.add(Long.MIN_VALUE));
+        assertEquals(1001, set.size());
+        assertTrue(set.contains(-500 * 7919L));
+        assertFalse(set.contains(1));
+    }
+}
@@ -0,0 +1,172 @@
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeOrderingTest {
+
+    private static int[] shuffled(int n, long seed) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) order[i] = i;
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    /**
+     * @return largest index difference between the endpoints of an arc
+     */
+    private static int bandwidth(CompactGraph compact) {
+        int bandwidth = 0;
+        for (int v = 0; v < compact.getNodeCount(); v++) {
+            for (int i = compact.offsets()[v]; i < compact.offsets()[v + 1]; i++) {
+                bandwidth = Math.max(bandwidth, Math.abs(compact.targets()[i] - v));
+            }
+        }
+        return bandwidth;
+    }
+
+    @Test
+    void testEveryStrategyIsPermutation() {
+        for (String shape : new String[]{"grid", "rmat", "sparse"}) {
+            CompactGraph compact = CompactGraph.of(TestGraphs.synthetic(shape, shape.equals("rmat"),
+                    SyntheticGraphs.Weights.UNIFORM, 1, 900));
+            for (NodeOrdering.Strategy strategy : NodeOrdering.Strategy.values()) {
+                int[] order = NodeOrdering.compute(compact, strategy);
+                boolean[] seen = new boolean[compact.getNodeCount()];
+                assertEquals(compact.getNodeCount(), order.length);
+                for (int v : order) {
+                    assertFalse(seen[v], strategy + " places " + v + " twice");
+                    seen[v] = true;
+                }
+            }
+        }
+    }
+
+    @Test
+    void testReorderedSnapshotKeepsNodesAndArcs() {
+        CompactGraph compact = CompactGraph.of(TestGraphs.synthetic("rmat", true, SyntheticGraphs.Weights.UNIFORM, 2, 900));
+        for (NodeOrdering.Strategy strategy : NodeOrdering.Strategy.values()) {
+            CompactGraph reordered = NodeOrdering.apply(compact, strategy);
+            assertTrue(reordered.isReordered());
+            assertNotEquals(0, reordered.orderHash());
+            assertEquals(compact.getArcCount(), reordered.getArcCount());
+            for (int v = 0; v < compact.getNodeCount(); v++) {
+                Node node = compact.node(v);
+                int index = reordered.indexOf(node.getId());
+                assertSame(node, reordered.node(index));
+                assertEquals(v, reordered.originalIndex(index));
+                assertEquals(index, reordered.reorderedIndex(v));
+                assertEquals(compact.degree(v), reordered.degree(index));
+                //lists are sorted by the new indices
+                for (int i = reordered.offsets()[index] + 1; i < reordered.offsets()[index + 1]; i++) {
+                    assertTrue(reordered.targets()[i - 1] <= reordered.targets()[i]);
+                }
+            }
+        }
+        assertFalse(compact.isReordered());
+        assertEquals(0, compact.orderHash());
+    }
+
+    @Test
+    void testSearchesReturnOriginalIds() {
+        for (boolean directed : new boolean[]{false, true}) {
+            CompactGraph compact = CompactGraph.of(TestGraphs.synthetic("rmat", directed,
+                    SyntheticGraphs.Weights.UNIFORM, 3, 900));
+            //relabeling twice composes the tables back to the graph's node indices
+            CompactGraph reordered = NodeOrdering.apply(compact.reorder(shuffled(compact.getNodeCount(), 4)), NodeOrdering.Strategy.GORDER);
+            SplittableRandom random = new SplittableRandom(5);
+            for (int i = 0; i < 200; i++) {
+                String s = compact.node(random.nextInt(compact.getNodeCount())).getId();
+                String t = compact.node(random.nextInt(compact.getNodeCount())).getId();
+
+                BreadthFirstSearch expectedBfs = new BreadthFirstSearch(s, t);
+                expectedBfs.init(compact);
+                expectedBfs.compute();
+                BreadthFirstSearch bfs = new BreadthFirstSearch(s, t);
+                bfs.init(reordered);
+                bfs.compute();
+                assertEquals(expectedBfs.getPath().size(), bfs.getPath().size());
+
+                Dijkstra expected = new Dijkstra(s, t);
+                expected.init(compact);
+                expected.compute();
+                Dijkstra dijkstra = new Dijkstra(s, t);
+                dijkstra.init(reordered);
+                dijkstra.compute();
+                assertEquals(expected.getDistance(), dijkstra.getDistance());
+                if (dijkstra.getStats().isFound()) {
+                    assertEquals(s, dijkstra.getPath().get(0).getId());
+                    assertEquals(t, dijkstra.getPath().get(dijkstra.getPath().size() - 1).getId());
+                    for (int j = 1; j < dijkstra.getPath().size(); j++) {
+                        Node from = dijkstra.getPath().get(j - 1);
+                        assertTrue(directed ? from.hasEdgeToward(dijkstra.getPath().get(j)) : from.hasEdgeBetween(dijkstra.getPath().get(j)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRcmReducesBandwidth() {
+        CompactGraph grid = CompactGraph.of(TestGraphs.synthetic("grid", false, SyntheticGraphs.Weights.UNIFORM, 6, 900));
+        CompactGraph scrambled = grid.reorder(shuffled(grid.getNodeCount(), 7));
+        int before = bandwidth(scrambled);
+        int after = bandwidth(NodeOrdering.apply(scrambled, NodeOrdering.Strategy.RCM));
+        //a 30x30 grid needs about one row of bandwidth
+        assertTrue(after <= 2 * 30, "bandwidth " + after);
+        assertTrue(after * 5 < before, after + " vs " + before);
+    }
+
+    @Test
+    void testDegreeOrderPlacesHubsFirst() {
+        CompactGraph compact = CompactGraph.of(TestGraphs.synthetic("rmat", false, SyntheticGraphs.Weights.UNIFORM, 8, 900));
+        CompactGraph reordered = NodeOrdering.apply(compact, NodeOrdering.Strategy.DEGREE);
+        for (int v = 1; v < reordered.getNodeCount(); v++) {
+            assertTrue(reordered.degree(v - 1) >= reordered.degree(v));
+        }
+    }
+
+    @Test
+    void testLandmarkFileRejectsOtherOrder(@TempDir Path dir) throws IOException {
+        CompactGraph compact = CompactGraph.of(TestGraphs.synthetic("grid", false, SyntheticGraphs.Weights.UNIFORM, 9, 900));
+        File gka = dir.resolve("grid.gka").toFile();
+        Files.writeString(gka.toPath(), "placeholder");
+        Path stored = dir.resolve("grid.lmk");
+        LandmarkIndex.build(compact, 3).write(stored, compact, gka);
+
+        CompactGraph reordered = NodeOrdering.apply(compact, NodeOrdering.Strategy.BFS);
+        assertNotNull(LandmarkIndex.read(stored, compact, gka));
+        assertNull(LandmarkIndex.read(stored, reordered, gka));
+
+        //an index built on the reordered snapshot answers the same distances
+        LandmarkAStar astar = new LandmarkAStar("v0", "v899");
+        astar.init(reordered, LandmarkIndex.build(reordered, 3));
+        astar.compute();
+        Dijkstra dijkstra = new Dijkstra("v0", "v899");
+        dijkstra.init(compact);
+        dijkstra.compute();
+        assertEquals(dijkstra.getDistance(), astar.getDistance());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        CompactGraph compact = CompactGraph.of(TestGraphs.synthetic("sparse", false, SyntheticGraphs.Weights.UNIFORM, 10, 900));
+        assertThrows(IllegalArgumentException.class, () -> NodeOrdering.compute(null, NodeOrdering.Strategy.BFS));
+        assertThrows(IllegalArgumentException.class, () -> NodeOrdering.compute(compact, null));
+        assertThrows(IllegalArgumentException.class, () -> compact.reorder(new int[compact.getNodeCount() - 1]));
+        assertThrows(IllegalArgumentException.class, () -> compact.reorder(new int[compact.getNodeCount()]));
+    }
+}
@@ -0,0 +1,143 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapGraphTest {
+
+    private static void generate(boolean directed, long seed, SyntheticGraphs.EdgeSink sink) {
+        new SyntheticGraphs(seed, directed, SyntheticGraphs.Weights.UNIFORM, 30).erdosRenyi(500, 1500, sink);
+    }
+
+    /**
+     * Runs random queries on the off-heap graph and on the snapshot and compares the distances.
+     */
+    private static void assertSameDistances(OffHeapGraph offHeap, CompactGraph compact, long seed) {
+        assertEquals(compact.getNodeCount(), offHeap.getNodeCount());
+        assertEquals(compact.getArcCount(), offHeap.getArcCount());
+        SplittableRandom random = new SplittableRandom(seed);
+        try (OffHeapSearch search = new OffHeapSearch(offHeap)) {
+            for (int i = 0; i < 100; i++) {
+                String s = compact.node(random.nextInt(compact.getNodeCount())).getId();
+                String t = compact.node(random.nextInt(compact.getNodeCount())).getId();
+
+                BreadthFirstSearch bfs = new BreadthFirstSearch(s, t);
+                bfs.init(compact);
+                bfs.compute();
+                assertEquals(bfs.getStats().isFound(), search.bfs(s, t));
+                assertEquals(bfs.getStats().isFound() ? bfs.getPath().size() - 1 : -1, search.getDistance());
+                assertEquals(search.getDistance() + 1, Math.max(0, search.getPath().size()));
+
+                Dijkstra dijkstra = new Dijkstra(s, t);
+                dijkstra.init(compact);
+                dijkstra.compute();
+                assertEquals(dijkstra.getStats().isFound(), search.dijkstra(s, t));
+                assertEquals(dijkstra.getDistance(), search.getDistance());
+                if (search.getStats().isFound()) {
+                    assertEquals(s, search.getPath().get(0));
+                    assertEquals(t, search.getPath().get(search.getPath().size() - 1));
+                }
+            }
+            //one stats object is refilled by every query
+            TraversalStats stats = search.getStats();
+            search.bfs(compact.node(0).getId(), compact.node(1).getId());
+            assertSame(stats, search.getStats());
+            assertEquals("OffHeapBFS", stats.getAlgorithm());
+            assertEquals(compact.node(1).getId(), stats.getTargetNodeID());
+        }
+    }
+
+    @Test
+    void testCopyOfSnapshotMatchesSearches() {
+        for (boolean directed : new boolean[]{false, true}) {
+            CompactGraph compact = CompactGraph.of(TestGraphs.synthetic("random", directed,
+                    SyntheticGraphs.Weights.UNIFORM, directed ? 1 : 2, 500));
+            try (Arena arena = Arena.ofConfined()) {
+                OffHeapGraph offHeap = OffHeapGraph.of(compact, arena);
+                for (int v = 0; v < compact.getNodeCount(); v++) {
+                    assertEquals(compact.node(v).getId(), offHeap.name(v));
+                    assertEquals(v, offHeap.indexOf(compact.node(v).getId()));
+                    assertEquals(compact.degree(v), offHeap.degree(v));
+                }
+                assertEquals(-1, offHeap.indexOf("missing"));
+                assertSameDistances(offHeap, compact, 3);
+            }
+        }
+    }
+
+    @Test
+    void testBuilderMatchesBulkLoadedGraph() {
+        for (boolean directed : new boolean[]{false, true}) {
+            OffHeapGraph.Builder builder = OffHeapGraph.builder();
+            generate(directed, 4, builder);
+            CompactGraph compact = CompactGraph.of(TestGraphs.build("random.gka", sink -> generate(directed, 4, sink)));
+            try (Arena arena = Arena.ofConfined()) {
+                assertSameDistances(builder.build(arena), compact, 5);
+            }
+        }
+    }
+
+    @Test
+    void testGkaFileIsLoadedWithoutGraphStream(@TempDir Path dir) throws IOException {
+        Path gka = dir.resolve("mixed.gka");
+        Files.writeString(gka, "Koeln -> Zuerich : 4;\nKoeln -- Bonn : 1;\nBonn -> Zuerich : 2;\nBonn -> Koeln;\nx -- y;\n");
+        OffHeapGraph.Builder builder = OffHeapGraph.builder();
+        new GkaLexer().parse(gka, builder);
+        //names are stored as UTF-8, also names the .gka grammar does not accept
+        assertTrue(builder.add("Zuerich", "Zürich", true, 0));
+        assertFalse(builder.add("Zürich", "Zuerich", true, 5));
+        try (Arena arena = Arena.ofConfined(); OffHeapSearch search = new OffHeapSearch(builder.build(arena))) {
+            assertTrue(search.dijkstra("Koeln", "Zürich"));
+            assertEquals(3, search.getDistance());
+            assertEquals(List.of("Koeln", "Bonn", "Zuerich", "Zürich"), search.getPath());
+            assertTrue(search.bfs("Koeln", "Zuerich"));
+            assertEquals(1, search.getDistance());
+            assertFalse(search.bfs("Koeln", "x"));
+            assertTrue(search.getPath().isEmpty());
+            assertEquals(-1, search.getDistance());
+            assertThrows(IllegalStateException.class, () -> search.bfs("Koeln", "missing"));
+        }
+    }
+
+    @Test
+    void testFileRoundTrip(@TempDir Path dir) throws IOException {
+        CompactGraph compact = CompactGraph.of(TestGraphs.build("random.gka", sink -> generate(true, 6, sink)));
+        Path written = dir.resolve("written.ohg");
+        Path built = dir.resolve("built.ohg");
+        try (Arena arena = Arena.ofConfined()) {
+            OffHeapGraph.of(compact, arena).write(written);
+            OffHeapGraph.Builder builder = OffHeapGraph.builder();
+            generate(true, 6, builder);
+            OffHeapGraph fileBacked = builder.build(built, arena);
+            assertEquals(Files.size(built), fileBacked.byteSize());
+        }
+        try (Arena arena = Arena.ofShared()) {
+            assertSameDistances(OffHeapGraph.open(written, arena), compact, 7);
+            assertSameDistances(OffHeapGraph.open(built, arena), compact, 8);
+        }
+
+        Path broken = dir.resolve("broken.ohg");
+        Files.write(broken, new byte[100]);
+        try (Arena arena = Arena.ofConfined()) {
+            assertThrows(IOException.class, () -> OffHeapGraph.open(broken, arena));
+        }
+    }
+
+    @Test
+    void testClosedArenaInvalidatesGraph() {
+        CompactGraph compact = CompactGraph.of(TestGraphs.synthetic("random", false, SyntheticGraphs.Weights.UNIFORM, 9, 500));
+        Arena arena = Arena.ofConfined();
+        OffHeapGraph offHeap = OffHeapGraph.of(compact, arena);
+        arena.close();
+        assertThrows(IllegalStateException.class, () -> offHeap.indexOf("v1"));
+        assertThrows(IllegalArgumentException.class, () -> OffHeapGraph.of(null, Arena.global()));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapSearch(null));
+    }
+}
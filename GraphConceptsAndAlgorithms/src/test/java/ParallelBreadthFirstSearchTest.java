@@ -0,0 +1,69 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelBreadthFirstSearchTest {
+
+    @Test
+    void testMatchesSequentialLengths() {
+        //large enough to split frontiers across several tasks
+        Graph g = new SingleGraph("random");
+        int n = 5000;
+        for (int i = 0; i < n; i++) g.addNode("v" + i);
+        Random random = new Random(11);
+        for (int i = 0; i < 40000; i++) {
+            int s = random.nextInt(n);
+            int t = random.nextInt(n);
+            if (s != t && g.getEdge(s + "_" + t) == null && g.getEdge(t + "_" + s) == null) {
+                g.addEdge(s + "_" + t, "v" + s, "v" + t, random.nextBoolean());
+            }
+        }
+        CompactGraph compact = CompactGraph.of(g);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int t = 1; t < n; t += 97) {
+                BreadthFirstSearch bfs = new BreadthFirstSearch("v0", "v" + t);
+                bfs.init(compact);
+                bfs.compute();
+
+                ParallelBreadthFirstSearch parallel = new ParallelBreadthFirstSearch("v0", "v" + t, pool);
+                parallel.init(compact);
+                parallel.compute();
+
+                List<Node> path = parallel.getPath();
+                assertEquals(bfs.getPath().size(), path.size());
+                for (int i = 0; i + 1 < path.size(); i++) {
+                    assertTrue(path.get(i).hasEdgeToward(path.get(i + 1)), "path must follow edges");
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testDirectedEdgesRespected() {
+        //directed chain A -> B -> C, C cannot reach A
+        Graph g = new SingleGraph("oneway");
+        g.addNode("A"); g.addNode("B"); g.addNode("C");
+        g.addEdge("A_B", "A", "B", true);
+        g.addEdge("B_C", "B", "C", true);
+
+        ParallelBreadthFirstSearch forward = new ParallelBreadthFirstSearch("A", "C");
+        forward.init(g);
+        forward.compute();
+        assertEquals(3, forward.getPath().size());
+
+        ParallelBreadthFirstSearch reverse = new ParallelBreadthFirstSearch("C", "A");
+        reverse.init(g);
+        reverse.compute();
+        assertTrue(reverse.getPath().isEmpty());
+    }
+}
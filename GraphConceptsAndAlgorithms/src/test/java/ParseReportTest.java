@@ -0,0 +1,129 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParseReportTest {
+
+    @TempDir
+    Path tempDir;
+
+    private File file;
+
+    @BeforeEach
+    void setup() throws IOException {
+        file = new File(tempDir.toFile(), "mixed.gka");
+        try (PrintWriter out = new PrintWriter(file)) {
+            out.println("A -> B : 5;");      //1
+            out.println("not an edge");      //2
+            out.println("");                 //3 blank, ignored
+            out.println("B -- C (x);");      //4
+            out.println("C -- B;");          //5 duplicate of 4
+            out.println("A -> ;");           //6
+            out.println("A -> B;");          //7 duplicate of 1
+        }
+    }
+
+    @Test
+    void testAllParserModesReportTheSameLines() {
+        for (boolean memoryMapped : new boolean[]{false, true}) {
+            for (boolean bulk : new boolean[]{false, true}) {
+                GraphParser gp = new GraphParser(new GraphGenerator(), tempDir.toFile());
+                gp.setMemoryMapped(memoryMapped);
+                gp.setBulkLoading(bulk);
+                gp.fileParser(gp.checkFiles());
+
+                String mode = "memoryMapped=" + memoryMapped + " bulk=" + bulk;
+                assertEquals(1, gp.getReports().size(), mode);
+                ParseReport report = gp.getReports().get(0);
+                assertEquals("mixed.gka", report.getFileName());
+                assertEquals(4, report.getAccepted(), mode);
+                assertEquals(2, report.getRejected(), mode);
+                assertEquals(2, report.getDuplicates(), mode);
+                assertArrayEquals(new long[]{2, 6}, report.getRejectedLines(), mode);
+                assertArrayEquals(new long[]{5, 7}, report.getDuplicateLines(), mode);
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentParserKeepsReportsInFileOrder() throws IOException {
+        ArrayList<File> files = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            File f = new File(tempDir.toFile(), "r" + i + ".gka");
+            try (PrintWriter out = new PrintWriter(f)) {
+                for (int j = 0; j < i; j++) out.println("garbage");
+                out.println("x -- y;");
+            }
+            files.add(f);
+        }
+        GraphParser gp = new GraphParser(new GraphGenerator(), tempDir.toFile());
+        gp.setMemoryMapped(true);
+        gp.concurrentFileParser(files);
+
+        List<ParseReport> reports = gp.getReports();
+        assertEquals(5, reports.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("r" + i + ".gka", reports.get(i).getFileName());
+            assertEquals(i, reports.get(i).getRejected());
+        }
+    }
+
+    @Test
+    void testSampleIsBounded() {
+        ParseReport report = new ParseReport("big.gka", ParseReport.Verbosity.SUMMARY, System.out, 3);
+        for (int line = 1; line <= 100; line++) report.rejected(line);
+
+        assertEquals(100, report.getRejected());
+        assertArrayEquals(new long[]{1, 2, 3}, report.getRejectedLines());
+        String summary = report.summary();
+        assertTrue(summary.contains("0 accepted, 100 rejected, 0 duplicates"));
+        assertTrue(summary.contains("Rejected lines: 1, 2, 3 (and 97 more)"));
+        assertFalse(summary.contains("Duplicate lines"));
+    }
+
+    @Test
+    void testHandlerWithoutLineNumbersIsNotSampled() {
+        //edges handed over without a line number are counted but never reported as line 0
+        ParseReport report = new ParseReport("plain.gka", ParseReport.Verbosity.SUMMARY, System.out, 3);
+        report.accepted("A", "--", "B", null, null);
+        report.duplicate("A", "--", "B");
+        report.duplicate(7, "A", "--", "B");
+
+        assertEquals(1, report.getAccepted());
+        assertEquals(2, report.getDuplicates());
+        assertArrayEquals(new long[]{7}, report.getDuplicateLines());
+        assertTrue(report.summary().contains("Duplicate lines: 7 (and 1 more)"));
+    }
+
+    @Test
+    void testVerbosityControlsPerLineOutput() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8);
+
+        ParseReport summary = new ParseReport("f.gka", ParseReport.Verbosity.SUMMARY, out, 10);
+        summary.accepted(1, "A", "->", "B", null, 5);
+        summary.rejected(2);
+        assertEquals("", buffer.toString(StandardCharsets.UTF_8));
+
+        ParseReport trace = new ParseReport("f.gka", ParseReport.Verbosity.TRACE, out, 10);
+        trace.accepted(1, "A", "->", "B", null, 5);
+        trace.rejected(2);
+        trace.duplicate(3, "B", "--", "A");
+        String text = buffer.toString(StandardCharsets.UTF_8);
+        assertTrue(text.contains("Parsed: s=A -> t=B weight=5"));
+        assertTrue(text.contains("Rejected: line 2"));
+        assertTrue(text.contains("Skipped: s=B -- t=A (duplicate edge)"));
+    }
+}
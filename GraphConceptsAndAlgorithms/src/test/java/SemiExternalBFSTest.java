@@ -0,0 +1,178 @@
+import org.graphstream.graph.Node;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SemiExternalBFSTest {
+
+    @TempDir
+    Path dir;
+
+    private static void generate(boolean directed, long seed, SyntheticGraphs.EdgeSink sink) {
+        new SyntheticGraphs(seed, directed, SyntheticGraphs.Weights.NONE, 1).rmat(10, 4000, 0.57, 0.19, 0.19, sink);
+    }
+
+    private static CompactGraph snapshot(boolean directed, long seed) {
+        return CompactGraph.of(TestGraphs.build("rmat.gka", sink -> generate(directed, seed, sink)));
+    }
+
+    /**
+     * Compares hop distances with BreadthFirstSearch and checks that every path step is an edge.
+     */
+    private static void assertSameDistances(ExternalEdgeFile edges, CompactGraph compact, boolean directed, int blockSize) throws IOException {
+        assertEquals(compact.getNodeCount(), edges.getNodeCount());
+        assertEquals(compact.getArcCount(), edges.getArcCount());
+        SplittableRandom random = new SplittableRandom(blockSize);
+        try (SemiExternalBFS search = new SemiExternalBFS(edges, blockSize)) {
+            for (int i = 0; i < 100; i++) {
+                String s = compact.node(random.nextInt(compact.getNodeCount())).getId();
+                String t = compact.node(random.nextInt(compact.getNodeCount())).getId();
+                BreadthFirstSearch bfs = new BreadthFirstSearch(s, t);
+                bfs.init(compact);
+                bfs.compute();
+                assertEquals(bfs.getStats().isFound(), search.search(s, t));
+                assertEquals(bfs.getStats().isFound() ? bfs.getPath().size() - 1 : -1, search.getDistance());
+                if (!search.getStats().isFound()) {
+                    assertTrue(search.getPath().isEmpty());
+                    continue;
+                }
+                List<String> path = search.getPath();
+                assertEquals(s, path.get(0));
+                assertEquals(t, path.get(path.size() - 1));
+                for (int j = 1; j < path.size(); j++) {
+                    Node from = compact.getGraph().getNode(path.get(j - 1));
+                    Node to = compact.getGraph().getNode(path.get(j));
+                    assertTrue(directed ? from.hasEdgeToward(to) : from.hasEdgeBetween(to));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testExternalSortMatchesSnapshot() throws IOException {
+        for (boolean directed : new boolean[]{false, true}) {
+            CompactGraph compact = snapshot(directed, directed ? 1 : 2);
+            //small runs force a merge of many sorted runs
+            for (int runSize : new int[]{ExternalEdgeFile.DEFAULT_RUN_SIZE, 1000, 1}) {
+                Path file = dir.resolve("rmat-" + directed + "-" + runSize + ".edges");
+                ExternalEdgeFile edges;
+                try (ExternalEdgeFile.Writer writer = ExternalEdgeFile.writer(file, runSize)) {
+                    generate(directed, directed ? 1 : 2, writer);
+                    edges = writer.finish(0, 0);
+                }
+                for (int v = 0; v < compact.getNodeCount(); v++) {
+                    assertEquals(compact.degree(v), edges.degree(edges.indexOf(compact.node(v).getId())));
+                }
+                assertSameDistances(edges, compact, directed, SemiExternalBFS.DEFAULT_BLOCK_SIZE);
+                assertSameDistances(ExternalEdgeFile.open(file), compact, directed, 64);
+            }
+            //no run files are left behind
+            try (var files = Files.list(dir)) {
+                assertTrue(files.noneMatch(p -> p.toString().endsWith(".run")));
+            }
+        }
+    }
+
+    @Test
+    void testBlocksAreReadSequentially() throws IOException {
+        CompactGraph compact = snapshot(true, 3);
+        Path file = dir.resolve("rmat.edges");
+        try (ExternalEdgeFile.Writer writer = ExternalEdgeFile.writer(file, 1 << 10)) {
+            generate(true, 3, writer);
+            writer.finish(0, 0);
+        }
+        //a target without incoming arcs makes the search visit everything reachable from the hub
+        CompactGraph reverse = compact.transpose();
+        int hub = 0;
+        int unreachable = -1;
+        for (int v = 0; v < compact.getNodeCount(); v++) {
+            if (compact.degree(v) > compact.degree(hub)) hub = v;
+            if (reverse.degree(v) == 0) unreachable = v;
+        }
+        ExternalEdgeFile edges = ExternalEdgeFile.open(file);
+        try (SemiExternalBFS search = new SemiExternalBFS(edges, 4096)) {
+            assertFalse(search.search(compact.node(hub).getId(), compact.node(unreachable).getId()));
+            long arcBytes = 4 * edges.getArcCount();
+            //every level moves forward through the file, so a level reads the arcs at most once
+            assertTrue(search.getBytesRead() <= search.getStats().getLevels() * (arcBytes + 4096),
+                    search.getBytesRead() + " bytes for " + arcBytes);
+            //lists sharing a block are served by one read
+            assertTrue(search.getBlockReads() * 4 < search.getStats().getNodesDequeued(),
+                    search.getBlockReads() + " reads for " + search.getStats().getNodesDequeued() + " nodes");
+        }
+    }
+
+    @Test
+    void testSparseFrontierReadsOnlyItsLists() throws IOException {
+        //the source reaches 20 nodes whose short lists lie between long lists of unreachable nodes
+        Path file = dir.resolve("sparse.edges");
+        ExternalEdgeFile edges;
+        try (ExternalEdgeFile.Writer writer = ExternalEdgeFile.writer(file, 1 << 16)) {
+            writer.add("z", "s", true);
+            for (int i = 0; i < 20; i++) {
+                writer.add("s", "a" + i, true);
+                writer.add("a" + i, "t" + i, true);
+                for (int j = 0; j < 20000; j++) writer.add("b" + i, "c" + i + "_" + j, true);
+            }
+            edges = writer.finish(0, 0);
+        }
+        try (SemiExternalBFS search = new SemiExternalBFS(edges)) {
+            assertFalse(search.search("s", "z"));
+            long arcBytes = 4 * edges.getArcCount();
+            //a full block per miss would read most of the file
+            assertTrue(search.getBytesRead() < arcBytes / 4, search.getBytesRead() + " bytes for " + arcBytes);
+            assertEquals(41, search.getStats().getNodesDequeued());
+        }
+    }
+
+    @Test
+    void testGkaFileIsConvertedAndReused() throws IOException, InterruptedException {
+        File gka = dir.resolve("cities.gka").toFile();
+        Files.writeString(gka.toPath(), "Koeln -> Zuerich : 4;\nKoeln -- Bonn : 1;\nBonn -> Paris;\nBonn -> Koeln;\nBonn -> Koeln;\nx -- y;\nnot an edge\n");
+        ExternalEdgeFile edges = ExternalEdgeFile.openOrConvert(gka);
+        assertEquals(ExternalEdgeFile.edgeFile(gka).toPath(), edges.getFile());
+        assertEquals(6, edges.getNodeCount());
+        //Koeln->Zuerich, Koeln<->Bonn (Bonn->Koeln is the same arc), Bonn->Paris, x<->y
+        assertEquals(6, edges.getArcCount());
+        try (SemiExternalBFS search = new SemiExternalBFS(edges)) {
+            assertTrue(search.search("Bonn", "Zuerich"));
+            assertEquals(List.of("Bonn", "Koeln", "Zuerich"), search.getPath());
+            assertEquals(2, search.getDistance());
+            assertFalse(search.search("Zuerich", "Koeln"));
+            assertFalse(search.search("Koeln", "x"));
+            assertTrue(search.search("y", "x"));
+            assertEquals(1, search.getDistance());
+            assertThrows(IllegalStateException.class, () -> search.search("Koeln", "missing"));
+        }
+
+        long written = ExternalEdgeFile.edgeFile(gka).lastModified();
+        assertEquals(6, ExternalEdgeFile.openOrConvert(gka).getNodeCount());
+        assertEquals(written, ExternalEdgeFile.edgeFile(gka).lastModified());
+
+        Files.writeString(gka.toPath(), "Koeln -> Zuerich;\nZuerich -> Bern;\n");
+        assertTrue(gka.setLastModified(gka.lastModified() + 2000));
+        ExternalEdgeFile changed = ExternalEdgeFile.openOrConvert(gka);
+        assertEquals(3, changed.getNodeCount());
+        try (SemiExternalBFS search = new SemiExternalBFS(changed)) {
+            assertTrue(search.search("Koeln", "Bern"));
+            assertEquals(2, search.getDistance());
+        }
+    }
+
+    @Test
+    void testInvalidFiles() throws IOException {
+        Path broken = dir.resolve("broken.edges");
+        Files.write(broken, new byte[100]);
+        assertThrows(IOException.class, () -> ExternalEdgeFile.open(broken));
+        assertThrows(IllegalArgumentException.class, () -> ExternalEdgeFile.writer(broken, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SemiExternalBFS(null));
+    }
+}
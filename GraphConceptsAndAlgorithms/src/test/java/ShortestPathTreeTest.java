@@ -0,0 +1,68 @@
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.Node;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortestPathTreeTest {
+    private CompactGraph compact;
+
+    @BeforeEach
+    void setup() {
+        //directed graph A -> B -> C -> D, A -> C and an unreachable node E -> A
+        Graph g = new SingleGraph("tree");
+        g.addNode("A"); g.addNode("B"); g.addNode("C"); g.addNode("D"); g.addNode("E");
+        g.addEdge("A_B", "A", "B", true);
+        g.addEdge("B_C", "B", "C", true);
+        g.addEdge("C_D", "C", "D", true);
+        g.addEdge("A_C", "A", "C", true);
+        g.addEdge("E_A", "E", "A", true);
+        compact = CompactGraph.of(g);
+    }
+
+    @Test
+    void testManyTargetsFromOneSweep() {
+        ShortestPathTree tree = ShortestPathTree.compute(compact, "A");
+        assertEquals(0, tree.distanceTo("A"));
+        assertEquals(1, tree.distanceTo("B"));
+        assertEquals(1, tree.distanceTo("C"));
+        assertEquals(2, tree.distanceTo("D"));
+        assertEquals(-1, tree.distanceTo("E"));
+
+        //every path has to match the one of a separate BFS run
+        for (String target : List.of("A", "B", "C", "D", "E")) {
+            BreadthFirstSearch bfs = new BreadthFirstSearch("A", target);
+            bfs.init(compact);
+            bfs.compute();
+            List<Node> expected = target.equals("E") ? List.of() : bfs.getPath();
+            assertEquals(expected, tree.pathTo(target));
+        }
+    }
+
+    @Test
+    void testUnknownNodes() {
+        assertThrows(IllegalStateException.class, () -> ShortestPathTree.compute(compact, "X"));
+        ShortestPathTree tree = ShortestPathTree.compute(compact, "A");
+        assertThrows(IllegalStateException.class, () -> tree.pathTo("X"));
+        assertEquals(-1, tree.distanceTo("X"));
+    }
+
+    @Test
+    void testCacheReusesAndEvicts() {
+        ShortestPathTreeCache cache = new ShortestPathTreeCache(compact, 2);
+        ShortestPathTree a = cache.get("A");
+        assertSame(a, cache.get("A"));
+
+        ShortestPathTree b = cache.get("B");
+        //A was used most recently before C is added, so B is evicted
+        cache.get("A");
+        cache.get("C");
+        assertEquals(2, cache.size());
+        assertSame(a, cache.get("A"));
+        assertNotSame(b, cache.get("B"));
+    }
+}
@@ -0,0 +1,84 @@
+import org.graphstream.graph.Graph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticGraphsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static List<String> collect(long seed, boolean directed) {
+        List<String> edges = new ArrayList<>();
+        SyntheticGraphs generator = new SyntheticGraphs(seed, directed, SyntheticGraphs.Weights.UNIFORM, 50);
+        generator.rmat(10, 5000, 0.57, 0.19, 0.19, (s, t, d, w) -> edges.add(s + " " + t + " " + d + " " + w));
+        return edges;
+    }
+
+    @Test
+    void testSeededAndReproducible() {
+        assertEquals(collect(3, true), collect(3, true));
+        assertNotEquals(collect(3, true), collect(4, true));
+    }
+
+    @Test
+    void testShapesAndWeights() {
+        SyntheticGraphs generator = new SyntheticGraphs(1, false, SyntheticGraphs.Weights.EXPONENTIAL, 100);
+        int[] count = new int[1];
+        generator.grid(30, 40, 0.0, (s, t, d, w) -> {
+            count[0]++;
+            assertTrue(t == s + 1 || t == s + 40, "grid edges go right or down");
+            assertTrue(w >= 1 && w <= 100);
+            assertFalse(d);
+        });
+        //rows * (columns - 1) + (rows - 1) * columns
+        assertEquals(30 * 39 + 29 * 40, count[0]);
+
+        count[0] = 0;
+        generator.erdosRenyi(100, 1000, (s, t, d, w) -> {
+            count[0]++;
+            assertNotEquals(s, t, "no self loops");
+            assertTrue(s >= 0 && s < 100 && t >= 0 && t < 100);
+        });
+        assertEquals(1000, count[0]);
+    }
+
+    @Test
+    void testGkaOutputParsesBack() throws IOException {
+        Path file = tempDir.resolve("chain.gka");
+        try (SyntheticGraphs.GkaWriter writer = SyntheticGraphs.GkaWriter.open(file)) {
+            new SyntheticGraphs(9, true, SyntheticGraphs.Weights.UNIFORM, 1000).chain(1000, writer);
+        }
+        BulkGraphLoader loader = new BulkGraphLoader();
+        long lines = new GkaLexer().parse(file, loader);
+        assertEquals(999, lines);
+        assertEquals(1000, loader.getNodeCount());
+
+        StringWriter text = new StringWriter();
+        new SyntheticGraphs(0, false, SyntheticGraphs.Weights.NONE, 0).chain(3, new SyntheticGraphs.GkaWriter(text));
+        assertEquals("v0 -- v1;\nv1 -- v2;\n", text.toString());
+    }
+
+    @Test
+    void testInMemoryGraph() {
+        SyntheticGraphs.GraphSink sink = new SyntheticGraphs.GraphSink();
+        new SyntheticGraphs(2, false, SyntheticGraphs.Weights.NONE, 0).grid(10, 10, 0.0, sink);
+        Graph g = new GraphGenerator().createNewGraph("grid.gka");
+        sink.build(g);
+        assertEquals(100, g.getNodeCount());
+        assertEquals(180, g.getEdgeCount());
+
+        //corner to corner in a 10x10 grid takes 18 steps
+        BreadthFirstSearch bfs = new BreadthFirstSearch("v0", "v99");
+        bfs.init(CompactGraph.of(g));
+        bfs.compute();
+        assertEquals(19, bfs.getPath().size());
+    }
+}
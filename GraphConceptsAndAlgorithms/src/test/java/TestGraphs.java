@@ -0,0 +1,60 @@
+import org.graphstream.graph.Graph;
+
+import java.util.function.Consumer;
+
+/**
+ * Loads generated edge lists into graphs, shared by the tests that work on synthetic graphs.
+ */
+final class TestGraphs {
+
+    private TestGraphs() {
+    }
+
+    /**
+     * Runs a generator into a GraphSink and bulk loads the edges into a new graph.
+     * @param name      file name the graph is registered under
+     * @param generator writes the edges, e.g. {@code sink -> generator.chain(100, sink)}
+     * @return the loaded graph
+     */
+    static Graph build(String name, Consumer<SyntheticGraphs.EdgeSink> generator) {
+        SyntheticGraphs.GraphSink sink = new SyntheticGraphs.GraphSink();
+        generator.accept(sink);
+        Graph g = new GraphGenerator().createNewGraph(name);
+        sink.build(g);
+        return g;
+    }
+
+    /**
+     * A seeded synthetic graph registered as "shape.gka". Nodes without edges are not part of the graph.
+     * <ul>
+     *     <li>grid: square grid with about size nodes, 10% of the streets missing</li>
+     *     <li>rmat: R-MAT with the next power of two of size nodes and five edges per node</li>
+     *     <li>sparse: Erdős–Rényi with 2/3 edges per node, several components and isolated nodes</li>
+     *     <li>random: Erdős–Rényi with three edges per node</li>
+     * </ul>
+     * @param shape    grid, rmat, sparse or random
+     * @param directed whether edges are directed
+     * @param weights  weight distribution, weights are at most 100
+     * @param seed     seed of the generator
+     * @param size     amount of nodes
+     * @return the loaded graph
+     */
+    static Graph synthetic(String shape, boolean directed, SyntheticGraphs.Weights weights, long seed, int size) {
+        SyntheticGraphs generator = new SyntheticGraphs(seed, directed, weights, 100);
+        return build(shape + ".gka", sink -> {
+            switch (shape) {
+                case "grid" -> {
+                    int side = (int) Math.sqrt(size);
+                    generator.grid(side, side, 0.1, sink);
+                }
+                case "rmat" -> {
+                    int scale = 32 - Integer.numberOfLeadingZeros(size - 1);
+                    generator.rmat(scale, 5L << scale, 0.57, 0.19, 0.19, sink);
+                }
+                case "sparse" -> generator.erdosRenyi(size, 2L * size / 3, sink);
+                case "random" -> generator.erdosRenyi(size, 3L * size, sink);
+                default -> throw new IllegalArgumentException("Unknown shape " + shape);
+            }
+        });
+    }
+}
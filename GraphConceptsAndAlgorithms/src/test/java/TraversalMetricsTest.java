@@ -0,0 +1,167 @@
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.graphstream.graph.Graph;
+import org.graphstream.graph.implementations.SingleGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraversalMetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Graph line;
+
+    @BeforeEach
+    void setup() {
+        //A - B - C - D plus a directed arc D -> E that cannot be walked back
+        line = new SingleGraph("line");
+        for (String id : new String[]{"A", "B", "C", "D", "E"}) line.addNode(id);
+        line.addEdge("AB", "A", "B", false);
+        line.addEdge("BC", "B", "C", false);
+        line.addEdge("CD", "C", "D", false);
+        line.addEdge("DE", "D", "E", true);
+    }
+
+    @Test
+    void testCountersMatchForNodeAndCompactSearch() {
+        BreadthFirstSearch nodes = new BreadthFirstSearch("A", "D");
+        nodes.init(line);
+        nodes.compute();
+        BreadthFirstSearch compact = new BreadthFirstSearch("A", "D");
+        compact.init(CompactGraph.of(line));
+        compact.compute();
+
+        for (TraversalStats stats : List.of(nodes.getStats(), compact.getStats())) {
+            assertTrue(stats.isFound());
+            assertEquals("BreadthFirstSearch", stats.getAlgorithm());
+            assertEquals(4, stats.getNodesDequeued());
+            //A has one neighbor, B and C two each, D is the target and is not expanded
+            assertEquals(5, stats.getEdgesScanned());
+            assertArrayEquals(new int[]{1, 1, 1, 1}, stats.getFrontierSizes());
+            assertTrue(stats.getWallNanos() > 0);
+        }
+    }
+
+    @Test
+    void testStatsAreReusedWithoutListeners() {
+        BreadthFirstSearch bfs = new BreadthFirstSearch("A", "D");
+        bfs.init(CompactGraph.of(line));
+        bfs.compute();
+        TraversalStats first = bfs.getStats();
+        bfs.compute();
+        //same object, counters of the second run only
+        assertSame(first, bfs.getStats());
+        assertEquals(4, first.getNodesDequeued());
+        assertArrayEquals(new int[]{1, 1, 1, 1}, first.getFrontierSizes());
+
+        //listeners may keep their stats, so every run gets a new object
+        List<TraversalStats> reported = new ArrayList<>();
+        bfs.addListener(reported::add);
+        bfs.compute();
+        bfs.compute();
+        assertEquals(2, reported.size());
+        assertNotSame(reported.get(0), reported.get(1));
+        assertEquals(4, reported.get(0).getNodesDequeued());
+    }
+
+    @Test
+    void testUnreachableTargetIsReported() {
+        List<TraversalStats> reported = new ArrayList<>();
+        PathSearch[] searches = {
+                new BreadthFirstSearch("E", "A"),
+                new DirectionOptimizingBFS("E", "A"),
+                new ParallelBreadthFirstSearch("E", "A"),
+                new BidirectionalBreadthFirstSearch("E", "A")
+        };
+        CompactGraph compact = CompactGraph.of(line);
+        for (PathSearch search : searches) {
+            search.init(line);
+            if (search instanceof BreadthFirstSearch bfs) bfs.init(compact);
+            search.addListener(reported::add);
+            search.compute();
+        }
+
+        assertEquals(searches.length, reported.size());
+        for (TraversalStats stats : reported) {
+            assertFalse(stats.isFound(), stats.getAlgorithm());
+            assertEquals(0, stats.getEdgesScanned(), stats.getAlgorithm());
+            assertTrue(stats.getLevels() >= 1, stats.getAlgorithm());
+        }
+    }
+
+    @Test
+    void testRecorderAggregatesPerAlgorithm() {
+        TraversalRecorder recorder = new TraversalRecorder();
+        CompactGraph compact = CompactGraph.of(line);
+        for (String target : new String[]{"B", "D", "E"}) {
+            BreadthFirstSearch bfs = new BreadthFirstSearch("A", target);
+            bfs.init(compact);
+            bfs.addListener(recorder);
+            bfs.compute();
+        }
+        BreadthFirstSearch back = new BreadthFirstSearch("E", "A");
+        back.init(compact);
+        back.addListener(recorder);
+        back.compute();
+
+        TraversalRecorder.Metrics metrics = recorder.get("BreadthFirstSearch");
+        assertEquals(4, metrics.getQueries());
+        assertEquals(1, metrics.getUnreachable());
+        assertEquals(4, metrics.getLatency().getCount());
+        assertNull(recorder.get("DirectionOptimizingBFS"));
+
+        String text = recorder.format();
+        assertTrue(text.contains("graph_traversal_queries_total{algorithm=\"BreadthFirstSearch\"} 4"));
+        assertTrue(text.contains("graph_traversal_unreachable_total{algorithm=\"BreadthFirstSearch\"} 1"));
+    }
+
+    @Test
+    void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(99));
+        for (long i = 1; i <= 1000; i++) histogram.record(i * 1000);
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_500, histogram.getMean(), 0.001);
+        //buckets keep values within 1/16
+        assertEquals(500_000, histogram.getPercentile(50), 500_000 / 16.0);
+        assertEquals(990_000, histogram.getPercentile(99), 990_000 / 16.0);
+        assertEquals(1_000_000, histogram.getPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+    }
+
+    @Test
+    void testJfrEventIsCommitted() throws IOException {
+        Path dump = tempDir.resolve("traversal.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("graph.Traversal");
+            recording.start();
+            BreadthFirstSearch bfs = new BreadthFirstSearch("A", "D");
+            bfs.init(CompactGraph.of(line));
+            bfs.compute();
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+                .filter(e -> e.getEventType().getName().equals("graph.Traversal"))
+                .toList();
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("BreadthFirstSearch", event.getString("algorithm"));
+        assertTrue(event.getBoolean("found"));
+        assertEquals(5, event.getLong("edgesScanned"));
+        assertEquals(4, event.getInt("levels"));
+    }
+}